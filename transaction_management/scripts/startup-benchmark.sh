@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time-to-first-request and RSS for each launch mode.
+#
+#   mvn -Pfast-start package -DskipTests      # AOT jar + target/application with the CDS archive
+#   mvn -Pnative native:compile -DskipTests   # optional, needs GraalVM
+#   scripts/startup-benchmark.sh [runs]
+#
+# Modes that have no build output are skipped. Each mode is started `runs` times (default 5);
+# the median time from process launch to the first successful GET and the RSS right after it are reported.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/api/v1/transactions?page=0&size=1"
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=$(ls target/*.jar 2>/dev/null | head -n 1 || true)
+EXTRACTED_JAR=$(ls target/application/*.jar 2>/dev/null | head -n 1 || true)
+NATIVE=target/transaction_management
+
+if [[ -z "$JAR" ]]; then
+  echo "No jar in target/, build first: mvn -Pfast-start package -DskipTests" >&2
+  exit 1
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+rss_kb() {
+  awk '/VmRSS/ {print $2}' "/proc/$1/status"
+}
+
+median() {
+  sort -n | awk '{v[NR]=$1} END {print (NR % 2) ? v[(NR+1)/2] : int((v[NR/2] + v[NR/2+1]) / 2)}'
+}
+
+run_mode() {
+  local mode=$1
+  shift
+  local times=() rss=()
+  for ((i = 1; i <= RUNS; i++)); do
+    local start
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > "target/startup-${mode}.log" 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$mode: process exited before serving a request, see target/startup-${mode}.log" >&2
+        return
+      fi
+      sleep 0.01
+    done
+    times+=($(($(now_ms) - start)))
+    rss+=($(rss_kb "$pid"))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+  done
+  printf "%-10s %12s %12s\n" "$mode" \
+    "$(printf '%s\n' "${times[@]}" | median)" \
+    "$(( $(printf '%s\n' "${rss[@]}" | median) / 1024 ))"
+}
+
+printf "%-10s %12s %12s\n" "mode" "first-req ms" "rss MiB"
+run_mode jar "$JAVA" -jar "$JAR"
+if [[ -n "$EXTRACTED_JAR" ]]; then
+  run_mode aot "$JAVA" -Dspring.aot.enabled=true -jar "$EXTRACTED_JAR"
+  if [[ -f target/application/application.jsa ]]; then
+    run_mode aot+cds "$JAVA" -XX:SharedArchiveFile=target/application/application.jsa \
+      -Dspring.aot.enabled=true -jar "$EXTRACTED_JAR"
+  fi
+fi
+if [[ -x "$NATIVE" ]]; then
+  run_mode native "$NATIVE"
+fi
@@ -0,0 +1,64 @@
+package com.htest.transactionManagement.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.htest.transactionManagement.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-account token buckets for write requests.
+ * Buckets of idle accounts expire, so memory is bounded by the number of recently active accounts.
+ */
+@Component
+public class AccountRateLimiter {
+    private final boolean enabled;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rejected;
+
+    public AccountRateLimiter(@Value("${admission.enabled:true}") boolean enabled,
+                              @Value("${admission.account.permits-per-second:50}") double permitsPerSecond,
+                              @Value("${admission.account.burst:100}") int burst,
+                              @Value("${admission.account.maximum-accounts:1000000}") long maximumAccounts,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumAccounts)
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .build();
+        this.rejected = Counter.builder("admission.account.rejected")
+                .description("Write requests rejected by the per-account token bucket")
+                .register(meterRegistry);
+        Gauge.builder("admission.account.buckets", buckets, Cache::estimatedSize)
+                .description("Accounts with an active token bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one write permit for the account.
+     *
+     * @throws RateLimitExceededException if the account has exhausted its bucket
+     */
+    public void acquire(String accountNumber) {
+        if (!enabled || accountNumber == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(accountNumber, key -> new TokenBucket(permitsPerSecond, burst, now))
+                .tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new RateLimitExceededException(
+                    "Write rate limit exceeded for account " + accountNumber, Duration.ofNanos(waitNanos));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.htest.transactionManagement.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects API requests up front with 503 and Retry-After once an endpoint is at its adaptive
+ * concurrency limit, instead of letting them queue behind each other and drag down p99 for everyone.
+ * Endpoints are keyed by method and path with numeric segments collapsed, e.g. {@code GET /api/v1/transactions/{id}}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter implements WebFilter {
+    private static final String API_PREFIX = "/api/";
+    private static final int MAX_ENDPOINTS = 64;
+    private static final String OTHER_ENDPOINT = "other";
+    // Long-lived streams, their duration says nothing about latency and they'd pin permits
+    private static final Set<String> STREAMING_PATHS = Set.of("/api/v1/transactions/changes");
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final String retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, GradientConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdmissionControlFilter(@Value("${admission.enabled:true}") boolean enabled,
+                                  @Value("${admission.limit.initial:100}") int initialLimit,
+                                  @Value("${admission.limit.min:10}") int minLimit,
+                                  @Value("${admission.limit.max:2000}") int maxLimit,
+                                  @Value("${admission.retry-after-seconds:1}") int retryAfterSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!enabled || !path.startsWith(API_PREFIX) || STREAMING_PATHS.contains(path)) {
+            return chain.filter(exchange);
+        }
+
+        GradientConcurrencyLimiter limiter = limiterFor(endpointKey(exchange.getRequest().getMethod().name(), path));
+        if (!limiter.tryAcquire()) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return response.setComplete();
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean dropped = signal != SignalType.ON_COMPLETE
+                            || (status != null && status.is5xxServerError());
+                    limiter.release(System.nanoTime() - start, dropped);
+                });
+    }
+
+    private GradientConcurrencyLimiter limiterFor(String endpoint) {
+        GradientConcurrencyLimiter limiter = limiters.get(endpoint);
+        if (limiter != null) {
+            return limiter;
+        }
+        // Unknown paths must not grow the map (and the meter registry) without bound
+        String key = limiters.size() < MAX_ENDPOINTS ? endpoint : OTHER_ENDPOINT;
+        return limiters.computeIfAbsent(key, this::newLimiter);
+    }
+
+    private GradientConcurrencyLimiter newLimiter(String endpoint) {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        Gauge.builder("admission.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.inflight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.rtt", limiter, GradientConcurrencyLimiter::getLongRttMillis)
+                .tag("endpoint", endpoint)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("admission.concurrency.rejected", limiter, GradientConcurrencyLimiter::getRejected)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    static String endpointKey(String method, String path) {
+        StringBuilder key = new StringBuilder(method.length() + path.length() + 1).append(method).append(' ');
+        int segmentStart = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (i > segmentStart && isNumeric(path, segmentStart, i)) {
+                    key.append("{id}");
+                } else {
+                    key.append(path, segmentStart, i);
+                }
+                if (i < path.length()) {
+                    key.append('/');
+                }
+                segmentStart = i + 1;
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isNumeric(String path, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+package com.htest.transactionManagement.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive concurrency limit driven by the latency gradient (long-term RTT / current RTT).
+ * <p>
+ * While requests complete close to the long-term RTT the limit grows by roughly sqrt(limit)
+ * per sample; once latency rises above 1.5 times the baseline the gradient drops
+ * below 1 and the limit shrinks, so excess load is rejected instead of queued. Dropped requests
+ * (errors, cancellations, 5xx) back the limit off multiplicatively.
+ * <p>
+ * All state lives in atomics updated with CAS; doubles are stored as raw long bits.
+ */
+public class GradientConcurrencyLimiter {
+    private static final double SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LONG_RTT_ALPHA = 2.0 / (100 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong longRttBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final LongAdder rejected = new LongAdder();
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        int limit = getLimit();
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Must be called exactly once for every successful {@link #tryAcquire()}.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        if (dropped) {
+            updateLimit(limit -> limit * BACKOFF_RATIO);
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        double shortRtt = rttNanos;
+        double longRtt = updateLongRtt(shortRtt);
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        updateLimit(limit -> {
+            // Don't grow a limit the traffic isn't even using
+            if (gradient >= 1.0 && inFlightBeforeRelease < limit / 2) {
+                return limit;
+            }
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            return limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        });
+    }
+
+    private double updateLongRtt(double sample) {
+        for (;;) {
+            long bits = longRttBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next;
+            if (current == 0.0) {
+                next = sample;
+            } else if (current > sample * 2) {
+                // Latency recovered well below baseline, let the baseline catch up quickly
+                next = current * 0.95;
+            } else {
+                next = current + LONG_RTT_ALPHA * (sample - current);
+            }
+            if (longRttBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    private void updateLimit(DoubleUnaryOperator function) {
+        for (;;) {
+            long bits = limitBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = Math.max(minLimit, Math.min(maxLimit, function.applyAsDouble(current)));
+            if (next == current || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getLongRttMillis() {
+        return Double.longBitsToDouble(longRttBits.get()) / 1_000_000.0;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,42 @@
+package com.htest.transactionManagement.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm (GCRA).
+ * <p>
+ * The whole bucket state is a single "theoretical arrival time": each admitted request
+ * pushes it forward by one emission interval, and a request is admitted while that time
+ * is no further ahead of now than the burst allows. One CAS per admission, no refill thread.
+ */
+public final class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive and burst at least 1");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 if a permit was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(long nowNanos) {
+        for (;;) {
+            long tat = theoreticalArrivalNanos.get();
+            long earliest = tat - burstToleranceNanos;
+            if (earliest - nowNanos > 0) {
+                return earliest - nowNanos;
+            }
+            long next = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            if (theoreticalArrivalNanos.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+}
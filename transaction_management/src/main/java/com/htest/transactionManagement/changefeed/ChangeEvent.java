@@ -0,0 +1,14 @@
+package com.htest.transactionManagement.changefeed;
+
+import com.htest.transactionManagement.model.Transaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change feed.
+ *
+ * @param transaction the transaction after the change, or as it was when deleted
+ */
+public record ChangeEvent(long offset, ChangeType type, Long transactionId, Transaction transaction,
+                          LocalDateTime changedAt) {
+}
@@ -0,0 +1,68 @@
+package com.htest.transactionManagement.changefeed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.exception.OffsetExpiredException;
+import com.htest.transactionManagement.projection.FieldProjection;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * The change feed over WebSocket: each text message is a JSON array with one batch of change events.
+ * Query parameters match the SSE endpoint ({@code from}, {@code batchSize}, {@code fields}). An expired offset sends a
+ * final {@code {"expired": ...}} message and closes the session with 1008 (policy violation).
+ */
+@Component
+public class ChangeFeedWebSocketHandler implements WebSocketHandler {
+    public static final String PATH = "/ws/transactions/changes";
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final ChangeLog changeLog;
+    private final ObjectMapper objectMapper;
+    private final FieldProjection fieldProjection;
+
+    public ChangeFeedWebSocketHandler(ChangeLog changeLog, FieldProjection fieldProjection) {
+        this.changeLog = changeLog;
+        this.objectMapper = fieldProjection.mapper(null);
+        this.fieldProjection = fieldProjection;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Map<String, String> query = UriComponentsBuilder.fromUri(session.getHandshakeInfo().getUri())
+                .build().getQueryParams().toSingleValueMap();
+        long from;
+        int batchSize;
+        try {
+            from = query.containsKey("from") ? Long.parseLong(query.get("from")) : changeLog.nextOffset();
+            batchSize = query.containsKey("batchSize") ? Integer.parseInt(query.get("batchSize")) : 100;
+        } catch (NumberFormatException e) {
+            return session.close(CloseStatus.BAD_DATA.withReason("from and batchSize must be numbers"));
+        }
+        // FieldProjectionFilter already rejected the handshake if fields is invalid
+        ObjectMapper batchMapper = fieldProjection.mapper(query.get(FieldProjection.PARAMETER));
+
+        Flux<String> batches = changeLog.stream(from, Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE)))
+                .map(batch -> toJson(batchMapper, batch))
+                .onErrorResume(OffsetExpiredException.class, ex -> Flux.just(
+                        toJson(objectMapper, Map.of("expired", Map.of("earliestOffset", ex.getEarliestOffset(), "message", ex.getMessage())))));
+        return session.send(batches.map(session::textMessage))
+                .then(session.close(CloseStatus.POLICY_VIOLATION.withReason("Offset expired")));
+    }
+
+    private static String toJson(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.htest.transactionManagement.changefeed;
+
+import com.htest.transactionManagement.exception.OffsetExpiredException;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.service.TransactionChangeListener;
+import com.htest.transactionManagement.util.Clock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, in-memory log of every create, update and delete, addressed by monotonically increasing offsets.
+ * <p>
+ * The log is a ring of {@code changefeed.capacity} entries: once full, the oldest entries are overwritten.
+ * Consumers only hold their next offset and pull batches as downstream demand allows, so a slow
+ * consumer costs no memory; if it falls further behind than the ring, its stream ends with
+ * {@link OffsetExpiredException} and it has to resynchronize.
+ * <p>
+ * Offsets start at the startup time in milliseconds times 1024, so offsets from before a restart are
+ * always older than the new log and are reported as expired rather than silently reused.
+ */
+@Component
+public class ChangeLog implements TransactionChangeListener {
+    private final ChangeEvent[] ring;
+    private final int mask;
+    private final long firstOffset;
+    private final Clock clock;
+    private final Scheduler scheduler = Schedulers.parallel();
+    private final Set<Tail> tails = ConcurrentHashMap.newKeySet();
+    private long nextOffset;
+
+    public ChangeLog(@Value("${changefeed.capacity:65536}") int capacity, Clock clock, MeterRegistry meterRegistry) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.ring = new ChangeEvent[size];
+        this.mask = size - 1;
+        this.firstOffset = System.currentTimeMillis() * 1024;
+        this.nextOffset = firstOffset;
+        this.clock = clock;
+        Gauge.builder("changefeed.consumers", tails, Set::size).register(meterRegistry);
+        Gauge.builder("changefeed.offset", this, ChangeLog::nextOffset).register(meterRegistry);
+    }
+
+    @Override
+    public void onCreated(Transaction transaction) {
+        append(ChangeType.CREATED, transaction);
+    }
+
+    @Override
+    public void onUpdated(Transaction previous, Transaction current) {
+        append(ChangeType.UPDATED, current);
+    }
+
+    @Override
+    public void onDeleted(Transaction transaction) {
+        append(ChangeType.DELETED, transaction);
+    }
+
+    private void append(ChangeType type, Transaction transaction) {
+        synchronized (this) {
+            long offset = nextOffset++;
+            ring[(int) (offset & mask)] = new ChangeEvent(offset, type, transaction.getId(), transaction, clock.now());
+        }
+        // Wake-ups only schedule a drain, no consumer work happens on the writer's lane
+        tails.forEach(Tail::wakeUp);
+    }
+
+    public synchronized long earliestOffset() {
+        return Math.max(firstOffset, nextOffset - ring.length);
+    }
+
+    /**
+     * @return the offset the next change will get
+     */
+    public synchronized long nextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * @return up to {@code max} events starting at {@code from}, empty if there are none yet
+     * @throws OffsetExpiredException if {@code from} has already been overwritten
+     */
+    public synchronized List<ChangeEvent> read(long from, int max) {
+        long earliest = earliestOffset();
+        if (from < earliest) {
+            throw new OffsetExpiredException(from, earliest);
+        }
+        long to = Math.min(nextOffset, from + max);
+        List<ChangeEvent> events = new ArrayList<>((int) Math.max(0, to - from));
+        for (long offset = from; offset < to; offset++) {
+            events.add(ring[(int) (offset & mask)]);
+        }
+        return events;
+    }
+
+    /**
+     * Streams batches of at most {@code batchSize} events starting at {@code from}, forever.
+     * A batch is only read when the subscriber has requested one.
+     */
+    public Flux<List<ChangeEvent>> stream(long from, int batchSize) {
+        return Flux.create(sink -> {
+            Tail tail = new Tail(from, batchSize, sink);
+            tails.add(tail);
+            sink.onRequest(n -> tail.wakeUp());
+            sink.onDispose(() -> tails.remove(tail));
+        });
+    }
+
+    private final class Tail {
+        private final int batchSize;
+        private final FluxSink<List<ChangeEvent>> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        private long next;
+
+        private Tail(long from, int batchSize, FluxSink<List<ChangeEvent>> sink) {
+            this.next = from;
+            this.batchSize = batchSize;
+            this.sink = sink;
+        }
+
+        void wakeUp() {
+            if (wip.getAndIncrement() == 0) {
+                scheduler.schedule(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    List<ChangeEvent> batch;
+                    try {
+                        batch = read(next, batchSize);
+                    } catch (OffsetExpiredException e) {
+                        sink.error(e);
+                        return;
+                    }
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    next = batch.get(batch.size() - 1).offset() + 1;
+                    sink.next(batch);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
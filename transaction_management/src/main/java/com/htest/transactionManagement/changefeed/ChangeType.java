@@ -0,0 +1,7 @@
+package com.htest.transactionManagement.changefeed;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -1,6 +1,8 @@
 package com.htest.transactionManagement.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.htest.transactionManagement.diagnostics.TimedCaffeineCache;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -13,7 +15,12 @@ public class CacheConfig {
 
     @Bean
     public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("transactions");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("transactions") {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new TimedCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .initialCapacity(1000)
                 .maximumSize(1000000)
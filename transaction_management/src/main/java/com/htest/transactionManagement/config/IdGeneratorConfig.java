@@ -0,0 +1,28 @@
+package com.htest.transactionManagement.config;
+
+import com.htest.transactionManagement.util.HybridLogicalClockIdGenerator;
+import com.htest.transactionManagement.util.IdGenerator;
+import com.htest.transactionManagement.util.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${id.mode:snowflake}") String mode,
+                                   @Value("${id.worker-id:1}") long workerId,
+                                   @Value("${id.datacenter-id:1}") long datacenterId,
+                                   @Value("${id.hlc.max-lead:1s}") Duration maxLead,
+                                   MeterRegistry meterRegistry) {
+        return switch (mode) {
+            case "snowflake" -> new SnowflakeIdGenerator(workerId, datacenterId);
+            case "hlc" -> new HybridLogicalClockIdGenerator(workerId, datacenterId, maxLead, meterRegistry);
+            default -> throw new IllegalArgumentException("Unknown id.mode '" + mode + "', expected snowflake or hlc");
+        };
+    }
+}
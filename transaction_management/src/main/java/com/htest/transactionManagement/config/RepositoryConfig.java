@@ -0,0 +1,43 @@
+package com.htest.transactionManagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.repository.FileTransactionRepository;
+import com.htest.transactionManagement.repository.H2TransactionRepository;
+import com.htest.transactionManagement.repository.InMemoryTransactionRepository;
+import com.htest.transactionManagement.repository.TransactionRepository;
+import com.htest.transactionManagement.repository.WriteBehindTransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class RepositoryConfig {
+
+    @Bean
+    public TransactionRepository transactionRepository(@Value("${repository.type:memory}") String type,
+                                                       @Value("${repository.file.path:data/transactions.log}") Path file,
+                                                       @Value("${repository.h2.url:jdbc:h2:file:./data/transactions}") String h2Url,
+                                                       @Value("${repository.write-behind.enabled:true}") boolean writeBehind,
+                                                       @Value("${repository.write-behind.batch-size:512}") int batchSize,
+                                                       @Value("${repository.write-behind.max-pending:100000}") int maxPending,
+                                                       @Value("${repository.write-behind.flush-interval:100ms}") Duration flushInterval,
+                                                       @Value("${repository.write-behind.cache-size:100000}") long cacheSize,
+                                                       ObjectMapper objectMapper,
+                                                       MeterRegistry meterRegistry) throws IOException {
+        TransactionRepository repository = switch (type) {
+            case "memory" -> new InMemoryTransactionRepository();
+            case "file" -> new FileTransactionRepository(file, objectMapper);
+            case "h2" -> new H2TransactionRepository(h2Url, objectMapper);
+            default -> throw new IllegalArgumentException("Unknown repository.type '" + type + "', expected memory, file or h2");
+        };
+        if (!writeBehind || repository instanceof InMemoryTransactionRepository) {
+            return repository;
+        }
+        return new WriteBehindTransactionRepository(repository, batchSize, maxPending, flushInterval, cacheSize, meterRegistry);
+    }
+}
@@ -1,10 +1,40 @@
 package com.htest.transactionManagement.config;
 
+import com.htest.transactionManagement.diagnostics.TimedJsonDecoder;
+import com.htest.transactionManagement.diagnostics.TimedJsonEncoder;
+import com.htest.transactionManagement.diagnostics.TimedValidator;
+import com.htest.transactionManagement.projection.FieldProjection;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.OptionalValidatorFactoryBean;
 import org.springframework.web.reactive.config.EnableWebFlux;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
 
 @Configuration
 @EnableWebFlux
 public class WebFluxConfig implements WebFluxConfigurer {
+
+    // Same codecs and validator as the defaults, recording Flight Recorder events for each stage
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.defaultCodecs().jackson2JsonDecoder(new TimedJsonDecoder());
+        configurer.defaultCodecs().jackson2JsonEncoder(new TimedJsonEncoder(fieldProjection()));
+    }
+
+    // Sparse fieldsets over the encoder's mapper, shared with FieldProjectionFilter, which validates ?fields=, and the
+    // WebSocket change feed, which writes its own frames
+    @Bean
+    public FieldProjection fieldProjection() {
+        return new FieldProjection(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Override
+    public Validator getValidator() {
+        OptionalValidatorFactoryBean beanValidation = new OptionalValidatorFactoryBean();
+        beanValidation.afterPropertiesSet();
+        return new TimedValidator(beanValidation);
+    }
 }
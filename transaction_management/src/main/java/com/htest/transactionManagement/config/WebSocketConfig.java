@@ -0,0 +1,19 @@
+package com.htest.transactionManagement.config;
+
+import com.htest.transactionManagement.changefeed.ChangeFeedWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig {
+    @Bean
+    public HandlerMapping webSocketHandlerMapping(ChangeFeedWebSocketHandler changeFeedWebSocketHandler) {
+        return new SimpleUrlHandlerMapping(Map.of(ChangeFeedWebSocketHandler.PATH, changeFeedWebSocketHandler),
+                Ordered.HIGHEST_PRECEDENCE);
+    }
+}
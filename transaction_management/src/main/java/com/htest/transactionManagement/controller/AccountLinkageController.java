@@ -0,0 +1,30 @@
+package com.htest.transactionManagement.controller;
+
+import com.htest.transactionManagement.fraud.AccountCluster;
+import com.htest.transactionManagement.fraud.AccountLinkage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/accounts")
+@RequiredArgsConstructor
+public class AccountLinkageController {
+    static final int MAX_MEMBERS = 1000;
+
+    private final AccountLinkage accountLinkage;
+
+    /**
+     * The accounts sharing IPs or devices with this one, directly or through other accounts.
+     */
+    @GetMapping("/{accountNumber}/cluster")
+    public Mono<AccountCluster> cluster(@PathVariable String accountNumber,
+                                        @RequestParam(defaultValue = "100") int limit) {
+        return Mono.fromFuture(() -> accountLinkage.cluster(accountNumber, Math.max(0, Math.min(limit, MAX_MEMBERS))))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No transactions for account " + accountNumber)));
+    }
+}
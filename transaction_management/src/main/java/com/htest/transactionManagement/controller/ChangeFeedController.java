@@ -0,0 +1,67 @@
+package com.htest.transactionManagement.controller;
+
+import com.htest.transactionManagement.changefeed.ChangeEvent;
+import com.htest.transactionManagement.changefeed.ChangeLog;
+import com.htest.transactionManagement.exception.OffsetExpiredException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/transactions/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private final ChangeLog changeLog;
+
+    /**
+     * Server-sent events, one per batch; the event id is the batch's last offset, so a reconnecting
+     * EventSource resumes after it via Last-Event-ID. Without a position the stream starts at the next change.
+     * {@code fields} projects the transaction in each event, as on the other read endpoints.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamChanges(
+            @RequestParam(required = false) Long from,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(defaultValue = "100") int batchSize) {
+        long start = lastEventId != null ? lastEventId + 1 : from != null ? from : changeLog.nextOffset();
+        // Fail before the stream starts, so an expired offset is a plain 410
+        long earliest = changeLog.earliestOffset();
+        if (start < earliest) {
+            throw new OffsetExpiredException(start, earliest);
+        }
+
+        Flux<ServerSentEvent<Object>> changes = changeLog.stream(start, Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE)))
+                .map(ChangeFeedController::toEvent)
+                .onErrorResume(OffsetExpiredException.class, ex -> Flux.just(ServerSentEvent.builder()
+                        .event("expired")
+                        .data((Object) Map.of("earliestOffset", ex.getEarliestOffset(), "message", ex.getMessage()))
+                        .build()));
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(HEARTBEAT)
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+        return Flux.merge(changes, heartbeats)
+                .takeUntil(event -> "expired".equals(event.event()));
+    }
+
+    @GetMapping("/offsets")
+    public Map<String, Long> offsets() {
+        return Map.of("earliest", changeLog.earliestOffset(), "next", changeLog.nextOffset());
+    }
+
+    private static ServerSentEvent<Object> toEvent(List<ChangeEvent> batch) {
+        return ServerSentEvent.builder()
+                .id(String.valueOf(batch.get(batch.size() - 1).offset()))
+                .event("changes")
+                .data((Object) batch)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.htest.transactionManagement.controller;
+
+import com.htest.transactionManagement.ledger.Ledger;
+import com.htest.transactionManagement.ledger.Posting;
+import com.htest.transactionManagement.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+    private final Ledger ledger;
+    private final TransactionService transactionService;
+
+    public record AccountBalances(String account, Map<String, BigDecimal> balances) {
+    }
+
+    @GetMapping("/accounts/{account}")
+    public AccountBalances balances(@PathVariable String account) {
+        return new AccountBalances(account, ledger.balances(account));
+    }
+
+    /**
+     * What the transaction currently posts; empty once it failed, was cancelled or reversed.
+     */
+    @GetMapping("/transactions/{id}/postings")
+    public List<Posting> postings(@PathVariable long id) {
+        return ledger.postings(transactionService.getTransaction(id));
+    }
+}
@@ -0,0 +1,98 @@
+package com.htest.transactionManagement.controller;
+
+import com.htest.transactionManagement.standingorder.StandingOrder;
+import com.htest.transactionManagement.standingorder.StandingOrderScheduler;
+import com.htest.transactionManagement.validator.TransactionValidator;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Every handler reads or writes H2, and creating one can wait for the ID generator, so they run on the bounded
+ * elastic scheduler instead of the event loop.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/standing-orders")
+@RequiredArgsConstructor
+public class StandingOrderController {
+    static final int MAX_LIST_SIZE = 1000;
+
+    private final StandingOrderScheduler scheduler;
+    private final TransactionValidator transactionValidator;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<StandingOrder> create(@Valid @RequestBody StandingOrder order) {
+        return blocking(() -> {
+            requireEnabled();
+            Errors errors = new BeanPropertyBindingResult(order.getTemplate(), "template");
+            transactionValidator.validate(order.getTemplate(), errors);
+            if (errors.hasErrors()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errors.getFieldErrors().stream()
+                        .map(error -> "template." + error.getField() + ": " + error.getDefaultMessage())
+                        .collect(Collectors.joining("; ")));
+            }
+            if (order.getEndTime() != null && order.getEndTime().isBefore(order.getStartTime())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endTime: must not be before startTime");
+            }
+            return scheduler.schedule(order);
+        });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<StandingOrder> get(@PathVariable long id) {
+        return blocking(() -> {
+            requireEnabled();
+            StandingOrder order = scheduler.get(id);
+            if (order == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Standing order not found with ID: " + id);
+            }
+            return order;
+        });
+    }
+
+    /**
+     * The standing orders paid from an account, oldest first.
+     */
+    @GetMapping
+    public Mono<List<StandingOrder>> list(@RequestParam String account,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        return blocking(() -> {
+            requireEnabled();
+            return scheduler.forAccount(account, Math.max(0, Math.min(limit, MAX_LIST_SIZE)));
+        });
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> cancel(@PathVariable long id) {
+        return blocking(() -> {
+            requireEnabled();
+            if (!scheduler.cancel(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Standing order not found with ID: " + id);
+            }
+            return null;
+        }).then();
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void requireEnabled() {
+        if (!scheduler.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Standing orders are disabled");
+        }
+    }
+}
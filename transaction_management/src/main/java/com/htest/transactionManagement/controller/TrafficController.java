@@ -0,0 +1,51 @@
+package com.htest.transactionManagement.controller;
+
+import com.htest.transactionManagement.sketch.TrafficSketches;
+import com.htest.transactionManagement.sketch.TrafficSnapshot;
+import com.htest.transactionManagement.sketch.TrafficSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Recent traffic from {@link TrafficSketches}. For a cluster-wide view, collect {@code /snapshot} from every
+ * replica and post them to {@code /merge} on any one.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/stats/traffic")
+@RequiredArgsConstructor
+public class TrafficController {
+    static final int MAX_TOP = 50;
+
+    private final TrafficSketches trafficSketches;
+
+    @GetMapping
+    public TrafficSummary summary(@RequestParam(defaultValue = "10") int top) {
+        return trafficSketches.summary(Math.max(0, Math.min(top, MAX_TOP)));
+    }
+
+    @GetMapping("/snapshot")
+    public TrafficSnapshot snapshot() {
+        return trafficSketches.snapshot();
+    }
+
+    @PostMapping("/merge")
+    public TrafficSummary merge(@RequestBody List<TrafficSnapshot> snapshots,
+                                @RequestParam(defaultValue = "10") int top) {
+        if (snapshots.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No snapshots to merge");
+        }
+        try {
+            return snapshots.stream()
+                    .reduce(TrafficSnapshot::merge)
+                    .orElseThrow()
+                    .summarize(Math.max(0, Math.min(top, MAX_TOP)));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.htest.transactionManagement.controller;
 
+import com.htest.transactionManagement.admission.AccountRateLimiter;
+import com.htest.transactionManagement.diagnostics.RequestStageEvent;
 import com.htest.transactionManagement.exception.TransactionNotFoundException;
+import com.htest.transactionManagement.fraud.IpBlocklist;
+import com.htest.transactionManagement.idempotency.IdempotencyStore;
 import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionLookup;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.search.IdIndex;
+import com.htest.transactionManagement.search.InvertedIndex;
+import com.htest.transactionManagement.search.SearchHits;
+import com.htest.transactionManagement.search.SearchPage;
+import com.htest.transactionManagement.search.SortField;
+import com.htest.transactionManagement.search.SortedIndex;
+import com.htest.transactionManagement.service.CachedTransactionLookup;
 import com.htest.transactionManagement.service.TransactionService;
 import com.htest.transactionManagement.validator.TransactionValidator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BeanPropertyBindingResult;
@@ -15,7 +31,14 @@ import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @CrossOrigin
@@ -23,20 +46,44 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/v1/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String CREATE = "POST /api/v1/transactions";
+    private static final String UPDATE = "PUT /api/v1/transactions/{id}";
+    private static final String DELETE = "DELETE /api/v1/transactions/{id}";
+    private static final String GET = "GET /api/v1/transactions/{id}";
+    private static final String LIST = "GET /api/v1/transactions";
+    private static final String SEARCH = "GET /api/v1/transactions/search";
+    private static final String SCROLL = "GET /api/v1/transactions/scroll";
+    private static final String LOOKUP = "GET /api/v1/transactions?ids";
+    private static final String TOP = "GET /api/v1/transactions/top";
+    private static final int MAX_TOP_SIZE = 1000;
+
     private final TransactionService transactionService;
     private final TransactionValidator transactionValidator;
+    private final IdempotencyStore idempotencyStore;
+    private final AccountRateLimiter accountRateLimiter;
+    private final IpBlocklist ipBlocklist;
+    private final InvertedIndex invertedIndex;
+    private final IdIndex idIndex;
+    private final SortedIndex sortedIndex;
+    private final CachedTransactionLookup transactionLookup;
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public Mono<Transaction> createTransaction(@Valid @RequestBody Transaction transaction) {
-        return Mono.just(transaction)
-                .flatMap(this::validateTransaction) // moved validation to a separate method
-                .map(transactionService::createTransaction);
+    public Mono<ResponseEntity<Transaction>> createTransaction(
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody Transaction transaction) {
+        return idempotencyStore.execute(idempotencyKey, "POST /api/v1/transactions", transaction, () ->
+                Mono.just(transaction)
+                        .flatMap(this::validateTransaction) // moved validation to a separate method
+                        .doOnNext(valid -> accountRateLimiter.acquire(valid.getSourceAccountNumber()))
+                        .doOnNext(ipBlocklist::screen)
+                        .flatMap(valid -> onLane(CREATE, () -> transactionService.createTransactionAsync(valid)))
+                        .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created)));
     }
 
     private Mono<Transaction> validateTransaction(Transaction transaction) {
         Errors errors = new BeanPropertyBindingResult(transaction, "transaction");
-        transactionValidator.validate(transaction, errors);
+        RequestStageEvent.time(RequestStageEvent.VALIDATOR, CREATE, () -> transactionValidator.validate(transaction, errors));
         if (errors.hasErrors()) {
             // Collect error messages in a more efficient way
             String errorMessage = errors.getFieldErrors().stream()
@@ -48,26 +95,23 @@ public class TransactionController {
     }
 
     @PutMapping("/{id}")
-    public Mono<ResponseEntity<?>> updateTransaction(
-            @PathVariable Long id,
+    public Mono<ResponseEntity<Object>> updateTransaction(
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @PathVariable long id,
             @Valid @RequestBody Transaction transaction) {
-        return getTransactionMono(transaction)
-                .flatMap(validTransaction -> {
-                    // Proceed with the update if there are no validation errors
-                    return Mono.defer(() -> {
-                        try {
-                            return Mono.just(ResponseEntity.ok(transactionService.updateTransaction(id, validTransaction)));
-                        } catch (TransactionNotFoundException ex) {
-                            return Mono.just(ResponseEntity.notFound().build());
-                        }
-                    });
-                })
-                .onErrorResume(ResponseStatusException.class, ex -> Mono.just(ResponseEntity.badRequest().body(ex.getReason())));
+        return idempotencyStore.execute(idempotencyKey, "PUT /api/v1/transactions/" + id, transaction, () ->
+                getTransactionMono(transaction)
+                        .doOnNext(valid -> accountRateLimiter.acquire(valid.getSourceAccountNumber()))
+                        .doOnNext(ipBlocklist::screen)
+                        .flatMap(validTransaction -> onLane(UPDATE, () -> transactionService.updateTransactionAsync(id, validTransaction))
+                                .map(updated -> ResponseEntity.ok((Object) updated))
+                                .onErrorResume(TransactionNotFoundException.class, ex -> Mono.just(ResponseEntity.notFound().build())))
+                        .onErrorResume(ResponseStatusException.class, ex -> Mono.just(ResponseEntity.badRequest().body(ex.getReason()))));
     }
 
     private Mono<Transaction> getTransactionMono(@RequestBody @Valid Transaction transaction) {
         Errors errors = new BeanPropertyBindingResult(transaction, "transaction");
-        transactionValidator.validate(transaction, errors);
+        RequestStageEvent.time(RequestStageEvent.VALIDATOR, UPDATE, () -> transactionValidator.validate(transaction, errors));
 
         if (errors.hasErrors()) {
             return Mono.error(new ResponseStatusException(
@@ -83,21 +127,165 @@ public class TransactionController {
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public Mono<Void> deleteTransaction(@PathVariable Long id) {
-        return Mono.fromRunnable(() -> transactionService.deleteTransaction(id));
+    public Mono<Void> deleteTransaction(@PathVariable long id) {
+        return onLane(DELETE, () -> transactionService.deleteTransactionAsync(id));
+    }
+
+    /**
+     * Adapts a call queued on an account lane, so the event loop never waits for the lane. The rest of the
+     * request, encoding the response included, continues on the parallel scheduler instead of the lane thread.
+     */
+    private <T> Mono<T> onLane(String operation, Supplier<CompletableFuture<T>> call) {
+        return Mono.fromFuture(() -> RequestStageEvent.timeAsync(RequestStageEvent.SERVICE, operation, call), true)
+                .publishOn(Schedulers.parallel());
     }
 
     @GetMapping("/{id}")
-    public Mono<Transaction> getTransaction(@PathVariable Long id) {
-        return Mono.fromCallable(() -> transactionService.getTransaction(id));
+    public Mono<Transaction> getTransaction(@PathVariable long id) {
+        return Mono.fromCallable(() -> RequestStageEvent.time(RequestStageEvent.SERVICE, GET,
+                () -> transactionService.getTransaction(id)));
     }
 
+    /**
+     * @param sort {@code property[,asc|desc]} with property {@code id}, {@code amount} or {@code processedTime};
+     *             sorted pages are read from {@link SortedIndex} instead of sorting the store
+     */
     @GetMapping
     public Mono<Page<Transaction>> getAllTransactions(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return Mono.fromCallable(() ->
-                transactionService.getAllTransactions(PageRequest.of(page, size))
-        );
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String sort) {
+        if (page < 0 || size < 1) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must not be negative and size must be at least 1"));
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        if (sort == null) {
+            return Mono.fromCallable(() ->
+                    RequestStageEvent.time(RequestStageEvent.SERVICE, LIST,
+                            () -> transactionService.getAllTransactions(PageRequest.of(page, pageSize)))
+            );
+        }
+        return Mono.fromCallable(() -> {
+            String[] parts = sort.split(",");
+            SortField field;
+            Sort.Direction direction;
+            try {
+                field = SortField.of(parts[0]);
+                direction = parts.length > 1 ? Sort.Direction.fromString(parts[1]) : Sort.Direction.ASC;
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+            }
+            PageRequest pageable = PageRequest.of(page, pageSize, Sort.by(direction, field.property()));
+            List<Long> ids = sortedIndex.page(field, direction.isDescending(), pageable.getOffset(), pageSize);
+            return new PageImpl<>(fetch(ids, LIST), pageable, sortedIndex.size());
+        });
+    }
+
+    /**
+     * The largest transactions by {@code amount}, or the most recent by {@code processedTime}, read from the
+     * head of {@link SortedIndex}. {@code from} and {@code to} bound the processed time, {@code to} exclusive.
+     */
+    @GetMapping("/top")
+    public Mono<List<Transaction>> topTransactions(
+            @RequestParam(defaultValue = "amount") String by,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type) {
+        return Mono.fromCallable(() -> {
+            SortField field;
+            try {
+                field = SortField.of(by);
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+            }
+            List<Long> ids = RequestStageEvent.time(RequestStageEvent.SERVICE, TOP, () -> sortedIndex.top(field,
+                    Math.max(1, Math.min(limit, MAX_TOP_SIZE)),
+                    from == null ? Long.MIN_VALUE : SortField.timeKey(from),
+                    to == null ? Long.MAX_VALUE : SortField.timeKey(to),
+                    type));
+            return fetch(ids, TOP);
+        });
+    }
+
+    /**
+     * Loads the transactions in the order of {@code ids}, skipping any deleted since they were listed.
+     */
+    private List<Transaction> fetch(List<Long> ids, String operation) {
+        Map<Long, Transaction> found = RequestStageEvent.time(RequestStageEvent.SERVICE, operation,
+                () -> transactionService.getTransactions(ids));
+        List<Transaction> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Transaction transaction = found.get(id);
+            if (transaction != null) {
+                content.add(transaction);
+            }
+        }
+        return content;
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<List<TransactionLookup>> getTransactions(@RequestParam List<Long> ids) {
+        return lookup(ids);
+    }
+
+    @PostMapping("/lookup")
+    public Mono<List<TransactionLookup>> lookupTransactions(@RequestBody LookupRequest request) {
+        return lookup(request.ids() == null ? List.of() : request.ids());
+    }
+
+    public record LookupRequest(List<Long> ids) {
+    }
+
+    private Mono<List<TransactionLookup>> lookup(List<Long> ids) {
+        return Mono.fromCallable(() -> {
+            try {
+                return RequestStageEvent.time(RequestStageEvent.SERVICE, LOOKUP, () -> transactionLookup.lookup(ids));
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("/search")
+    public Mono<SearchPage> searchTransactions(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return Mono.fromCallable(() -> {
+            SearchHits hits;
+            try {
+                Long after = cursor == null ? null : Long.valueOf(cursor);
+                hits = RequestStageEvent.time(RequestStageEvent.SERVICE, SEARCH,
+                        () -> invertedIndex.search(q, after, Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+            }
+            return toPage(hits, SEARCH);
+        });
+    }
+
+    /**
+     * Newest first with a keyset cursor, so deep pages cost the same as the first one and concurrent
+     * inserts do not shift the rows the client has already seen.
+     */
+    @GetMapping("/scroll")
+    public Mono<SearchPage> scrollTransactions(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return Mono.fromCallable(() -> toPage(idIndex.page(cursor, Math.max(1, Math.min(size, MAX_PAGE_SIZE))), SCROLL));
+    }
+
+    private SearchPage toPage(SearchHits hits, String operation) {
+        List<Transaction> content = new ArrayList<>(hits.ids().size());
+        for (long id : hits.ids()) {
+            try {
+                content.add(RequestStageEvent.time(RequestStageEvent.SERVICE, operation, () -> transactionService.getTransaction(id)));
+            } catch (TransactionNotFoundException deletedSinceListed) {
+                // skip
+            }
+        }
+        return new SearchPage(content, hits.nextCursor() == null ? null : hits.nextCursor().toString());
     }
 }
@@ -0,0 +1,138 @@
+package com.htest.transactionManagement.diagnostics;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: one bounded Flight Recorder recording at a time, with the JDK's low overhead
+ * {@code default} settings plus the request stage and ID wait events.
+ * <ul>
+ *     <li>{@code POST} starts it, optionally with {@code durationSeconds} and {@code maxSizeMegabytes}</li>
+ *     <li>{@code GET} reports its state</li>
+ *     <li>{@code GET /actuator/jfr/dump} downloads what has been recorded so far as a .jfr file</li>
+ *     <li>{@code DELETE} stops it; it can still be dumped until the next start</li>
+ * </ul>
+ * The recording stops by itself after its duration and never holds more than its maximum size. It can't be reached
+ * over HTTP unless {@code jfr} is added to {@code management.endpoints.web.exposure.include}, ideally with
+ * {@code management.server.port} set to a port that isn't public.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+    static final Duration DEFAULT_DURATION = Duration.ofMinutes(1);
+    static final Duration MAX_DURATION = Duration.ofMinutes(30);
+    static final long DEFAULT_MAX_SIZE_MB = 64;
+    static final long MAX_SIZE_MB = 512;
+
+    private Recording recording;
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds,
+                                                                       @Nullable Long maxSizeMegabytes) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+        close();
+        Duration duration = durationSeconds == null ? DEFAULT_DURATION
+                : Duration.ofSeconds(Math.max(1, Math.min(durationSeconds, MAX_DURATION.toSeconds())));
+        long maxSize = (maxSizeMegabytes == null ? DEFAULT_MAX_SIZE_MB : Math.max(1, Math.min(maxSizeMegabytes, MAX_SIZE_MB)))
+                * 1024 * 1024;
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JDK default recording settings are unavailable", e);
+        }
+        recording.setName("transaction-management");
+        recording.enable(RequestStageEvent.class);
+        recording.enable(IdWaitEvent.class);
+        recording.setDuration(duration);
+        recording.setMaxSize(maxSize);
+        recording.setToDisk(true);
+        recording.start();
+        log.info("Started flight recording for {} (max {} MB)", duration, maxSize / 1024 / 1024);
+        return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String name) throws IOException {
+        if (!"dump".equals(name) || recording == null || recording.getState() == RecordingState.NEW) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("transaction-management", ".jfr");
+        try {
+            recording.dump(file);
+            long size = Files.size(file);
+            // Streamed from disk rather than read into memory; the file goes once the response has been written
+            return new WebEndpointResponse<>(new InputStreamResource(
+                    Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)) {
+                @Override
+                public String getFilename() {
+                    return "transaction-management.jfr";
+                }
+
+                @Override
+                public long contentLength() {
+                    return size;
+                }
+            }, WebEndpointResponse.STATUS_OK);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return status();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.htest.transactionManagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for an ID generator waiting on the wall clock, either because a millisecond's
+ * sequence is used up or because the logical clock is too far ahead.
+ */
+@Name("transactionManagement.IdWait")
+@Label("ID Generator Wait")
+@Category({"Transaction Management", "IDs"})
+@Description("Time an ID generator spent waiting for the wall clock")
+@StackTrace(false)
+public class IdWaitEvent extends Event {
+    @Label("Mode")
+    public String mode;
+
+    @Label("Lead")
+    @Description("Milliseconds the generator was ahead of the wall clock when it started waiting")
+    public long leadMillis;
+}
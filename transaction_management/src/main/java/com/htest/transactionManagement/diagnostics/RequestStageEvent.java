@@ -0,0 +1,80 @@
+package com.htest.transactionManagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Flight Recorder event for one stage of handling a request: JSON decode and encode, Bean Validation,
+ * {@code TransactionValidator}, the service call and cache access. With no recording running, JFR
+ * reports the event as disabled and {@link #time} costs one branch.
+ */
+@Name("transactionManagement.RequestStage")
+@Label("Request Stage")
+@Category({"Transaction Management", "Requests"})
+@Description("Time spent in one stage of handling a transaction request")
+@StackTrace(false)
+public class RequestStageEvent extends Event {
+    public static final String DECODE = "decode";
+    public static final String BEAN_VALIDATION = "bean-validation";
+    public static final String VALIDATOR = "validator";
+    public static final String SERVICE = "service";
+    public static final String CACHE = "cache";
+    public static final String ENCODE = "encode";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Operation")
+    @Description("Endpoint, cache operation or payload type the stage worked on")
+    String operation;
+
+    public static <T> T time(String stage, String operation, Supplier<T> work) {
+        RequestStageEvent event = new RequestStageEvent();
+        if (!event.isEnabled()) {
+            return work.get();
+        }
+        event.stage = stage;
+        event.operation = operation;
+        event.begin();
+        try {
+            return work.get();
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Times work that completes later, such as a call queued on an account lane, up to when its future completes.
+     */
+    public static <T> CompletableFuture<T> timeAsync(String stage, String operation, Supplier<CompletableFuture<T>> work) {
+        RequestStageEvent event = new RequestStageEvent();
+        if (!event.isEnabled()) {
+            return work.get();
+        }
+        event.stage = stage;
+        event.operation = operation;
+        event.begin();
+        CompletableFuture<T> result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            event.commit();
+            throw e;
+        }
+        return result.whenComplete((value, failure) -> event.commit());
+    }
+
+    public static void time(String stage, String operation, Runnable work) {
+        time(stage, operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
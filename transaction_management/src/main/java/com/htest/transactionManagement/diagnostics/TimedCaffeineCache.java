@@ -0,0 +1,35 @@
+package com.htest.transactionManagement.diagnostics;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * A Caffeine-backed Spring cache whose lookups, puts and evictions are recorded as {@link RequestStageEvent}s.
+ */
+public class TimedCaffeineCache extends CaffeineCache {
+    private final String lookupOperation;
+    private final String putOperation;
+    private final String evictOperation;
+
+    public TimedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                              boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+        this.lookupOperation = name + ".get";
+        this.putOperation = name + ".put";
+        this.evictOperation = name + ".evict";
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return RequestStageEvent.time(RequestStageEvent.CACHE, lookupOperation, () -> super.lookup(key));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        RequestStageEvent.time(RequestStageEvent.CACHE, putOperation, () -> super.put(key, value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        RequestStageEvent.time(RequestStageEvent.CACHE, evictOperation, () -> super.evict(key));
+    }
+}
@@ -0,0 +1,24 @@
+package com.htest.transactionManagement.diagnostics;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+/**
+ * The default JSON decoder, with each request body's decode recorded as a {@link RequestStageEvent}.
+ */
+public class TimedJsonDecoder extends Jackson2JsonDecoder {
+    public TimedJsonDecoder() {
+        super(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Override
+    public Object decode(DataBuffer dataBuffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints) {
+        return RequestStageEvent.time(RequestStageEvent.DECODE, targetType.toClass().getSimpleName(),
+                () -> super.decode(dataBuffer, targetType, mimeType, hints));
+    }
+}
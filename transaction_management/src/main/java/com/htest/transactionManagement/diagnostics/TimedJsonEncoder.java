@@ -0,0 +1,76 @@
+package com.htest.transactionManagement.diagnostics;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.htest.transactionManagement.projection.FieldProjection;
+import com.htest.transactionManagement.projection.FieldProjectionFilter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The default JSON encoder, with each encoded value recorded as a {@link RequestStageEvent}.
+ * On the paths {@link FieldProjectionFilter} covers, a valid {@code fields} query parameter selects the
+ * {@link FieldProjection} mapper transactions are written with; the filter has already rejected invalid ones with
+ * 400. Everywhere else the parameter is ignored.
+ */
+public class TimedJsonEncoder extends Jackson2JsonEncoder {
+    private static final String FIELDS_HINT = TimedJsonEncoder.class.getName() + ".fields";
+
+    private final FieldProjection projection;
+
+    public TimedJsonEncoder() {
+        this(new FieldProjection(Jackson2ObjectMapperBuilder.json().build()));
+    }
+
+    public TimedJsonEncoder(FieldProjection projection) {
+        super(projection.mapper(null));
+        this.projection = projection;
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        return RequestStageEvent.time(RequestStageEvent.ENCODE, valueType.toClass().getSimpleName(),
+                () -> super.encodeValue(value, bufferFactory, valueType, mimeType, hints));
+    }
+
+    @Override
+    public Map<String, Object> getEncodeHints(ResolvableType actualType, ResolvableType elementType,
+                                              MediaType mediaType, ServerHttpRequest request,
+                                              ServerHttpResponse response) {
+        Map<String, Object> hints = super.getEncodeHints(actualType, elementType, mediaType, request, response);
+        String fields = request.getQueryParams().getFirst(FieldProjection.PARAMETER);
+        if (fields == null || !FieldProjectionFilter.appliesTo(request) || !projection.isValid(fields)) {
+            return hints;
+        }
+        Map<String, Object> projected = new HashMap<>(hints);
+        projected.put(FIELDS_HINT, fields);
+        return projected;
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, MimeType mimeType, ResolvableType elementType,
+                                           Map<String, Object> hints) {
+        String fields = hints == null ? null : (String) hints.get(FIELDS_HINT);
+        if (fields == null) {
+            return writer;
+        }
+        ObjectMapper mapper = projection.mapper(fields);
+        // Same writer the base class would have made, from the projected mapper
+        JavaType type = mapper.constructType(elementType.getType());
+        ObjectWriter projected = writer.getConfig().getActiveView() != null
+                ? mapper.writerWithView(writer.getConfig().getActiveView()) : mapper.writer();
+        return type.isContainerType() ? projected.forType(type) : projected;
+    }
+}
@@ -0,0 +1,37 @@
+package com.htest.transactionManagement.diagnostics;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Bean Validation for {@code @Valid} arguments, with each validation recorded as a {@link RequestStageEvent}.
+ */
+public class TimedValidator implements SmartValidator {
+    private final SmartValidator delegate;
+
+    public TimedValidator(SmartValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        RequestStageEvent.time(RequestStageEvent.BEAN_VALIDATION, target.getClass().getSimpleName(),
+                () -> delegate.validate(target, errors));
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        RequestStageEvent.time(RequestStageEvent.BEAN_VALIDATION, target.getClass().getSimpleName(),
+                () -> delegate.validate(target, errors, validationHints));
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return delegate.unwrap(type);
+    }
+}
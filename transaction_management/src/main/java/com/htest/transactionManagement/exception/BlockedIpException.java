@@ -0,0 +1,7 @@
+package com.htest.transactionManagement.exception;
+
+public class BlockedIpException extends RuntimeException {
+    public BlockedIpException(String message) {
+        super(message);
+    }
+}
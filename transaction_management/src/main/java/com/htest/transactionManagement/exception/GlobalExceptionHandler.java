@@ -1,5 +1,6 @@
 package com.htest.transactionManagement.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -37,6 +38,60 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<GlobalErrorResponse> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex) {
+        GlobalErrorResponse error = new GlobalErrorResponse(
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<GlobalErrorResponse> handleInsufficientFundsException(InsufficientFundsException ex) {
+        GlobalErrorResponse error = new GlobalErrorResponse(
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(BlockedIpException.class)
+    public ResponseEntity<GlobalErrorResponse> handleBlockedIpException(BlockedIpException ex) {
+        GlobalErrorResponse error = new GlobalErrorResponse(
+                HttpStatus.FORBIDDEN.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<GlobalErrorResponse> handleRateLimitExceededException(RateLimitExceededException ex) {
+        GlobalErrorResponse error = new GlobalErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        // Retry-After is whole seconds, round up so the client doesn't retry too early
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(error);
+    }
+
+    @ExceptionHandler(OffsetExpiredException.class)
+    public ResponseEntity<GlobalErrorResponse> handleOffsetExpiredException(OffsetExpiredException ex) {
+        GlobalErrorResponse error = new GlobalErrorResponse(
+                HttpStatus.GONE.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.GONE);
+    }
+
     @ExceptionHandler(TransactionNotFoundException.class)
     public ResponseEntity<GlobalErrorResponse> handleTransactionNotFoundException(TransactionNotFoundException ex) {
         GlobalErrorResponse error = new GlobalErrorResponse(
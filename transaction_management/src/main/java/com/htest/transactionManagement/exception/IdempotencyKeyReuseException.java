@@ -0,0 +1,7 @@
+package com.htest.transactionManagement.exception;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
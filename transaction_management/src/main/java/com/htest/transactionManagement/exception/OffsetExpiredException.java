@@ -0,0 +1,17 @@
+package com.htest.transactionManagement.exception;
+
+import lombok.Getter;
+
+/**
+ * The requested change feed offset has already been overwritten in the bounded change log.
+ * The consumer has to resynchronize from a full read and resume at {@link #getEarliestOffset()} or later.
+ */
+@Getter
+public class OffsetExpiredException extends RuntimeException {
+    private final long earliestOffset;
+
+    public OffsetExpiredException(long requestedOffset, long earliestOffset) {
+        super("Offset " + requestedOffset + " is no longer retained, earliest offset is " + earliestOffset);
+        this.earliestOffset = earliestOffset;
+    }
+}
@@ -0,0 +1,21 @@
+package com.htest.transactionManagement.fraud;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Accounts linked to each other through shared IP addresses or devices, directly or through other accounts.
+ *
+ * @param totalVolume sum of the cluster's transaction amounts in CNY
+ * @param accounts    up to the requested limit of member accounts; likewise {@code ips} and {@code devices}
+ */
+public record AccountCluster(String account,
+                             int accountCount,
+                             int ipCount,
+                             int deviceCount,
+                             long transactionCount,
+                             BigDecimal totalVolume,
+                             List<String> accounts,
+                             List<String> ips,
+                             List<String> devices) {
+}
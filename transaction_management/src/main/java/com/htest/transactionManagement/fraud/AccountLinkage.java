@@ -0,0 +1,230 @@
+package com.htest.transactionManagement.fraud;
+
+import com.htest.transactionManagement.model.Money;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.service.TransactionChangeListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Union-find over accounts, IP addresses and devices: every transaction links its source account to its
+ * {@code ipAddress} and {@code deviceInfo}, so accounts sharing either end up in one cluster.
+ * <p>
+ * Union by size with path halving makes each link near O(1) amortized. The structure has a single writer, a
+ * dedicated thread that the lanes hand their changes to without waiting, so no lane ever blocks on another's
+ * link; cluster queries are queued on the same thread and see every change handed over before them. Each
+ * cluster's members of one kind form a circular linked list that two clusters splice together in O(1) when they
+ * merge, so listing {@code limit} members walks at most {@code limit} nodes per kind. Counts and CNY volume are
+ * kept at the root. Links are evidence that two accounts shared something at some point, so they are never
+ * undone; deletes and updates only adjust the volume.
+ */
+@Component
+public class AccountLinkage implements TransactionChangeListener {
+    private static final int ACCOUNT = 0;
+    private static final int IP = 1;
+    private static final int DEVICE = 2;
+    private static final int KINDS = 3;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-linkage");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Node per name, one map per kind
+    private final List<Map<String, Integer>> nodes = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    private int count;
+    private String[] names = new String[1024];
+    private int[] parent = new int[1024];
+    // Next member of the same kind in the cluster
+    private int[] next = new int[1024];
+    // Per root and kind: member count, and one member to start listing from or -1
+    private int[][] members = new int[KINDS][1024];
+    private int[][] heads = new int[KINDS][1024];
+    // Per root: transactions and volume in fen
+    private long[] transactions = new long[1024];
+    private long[] volume = new long[1024];
+    private volatile int largestCluster;
+
+    public AccountLinkage(MeterRegistry meterRegistry) {
+        Gauge.builder("linkage.largest-cluster", this, linkage -> linkage.largestCluster)
+                .description("Accounts in the largest cluster linked by shared IPs or devices")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onReplayed(Transaction transaction, boolean hot) {
+        // Before any change is handed over, so the writer thread's first task sees this
+        link(transaction);
+    }
+
+    @Override
+    public void onCreated(Transaction transaction) {
+        writer.execute(() -> link(transaction));
+    }
+
+    @Override
+    public void onUpdated(Transaction previous, Transaction current) {
+        writer.execute(() -> {
+            count(previous, -1);
+            link(current);
+        });
+    }
+
+    @Override
+    public void onDeleted(Transaction transaction) {
+        writer.execute(() -> count(transaction, -1));
+    }
+
+    /**
+     * @param limit the most members of each kind to list
+     * @return the account's cluster, or null if the account has no transactions, once the changes handed over
+     * before this call have been applied
+     */
+    public CompletableFuture<AccountCluster> cluster(String account, int limit) {
+        return CompletableFuture.supplyAsync(() -> describe(account, limit), writer);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    private AccountCluster describe(String account, int limit) {
+        Integer start = nodes.get(ACCOUNT).get(account);
+        if (start == null) {
+            return null;
+        }
+        int root = find(start);
+        List<List<String>> listed = new ArrayList<>(KINDS);
+        for (int kind = 0; kind < KINDS; kind++) {
+            // The account itself comes first in its own list
+            listed.add(list(kind == ACCOUNT ? start : heads[kind][root], Math.min(limit, members[kind][root])));
+        }
+        return new AccountCluster(account, members[ACCOUNT][root], members[IP][root], members[DEVICE][root],
+                transactions[root], Money.ofMinor(volume[root], Money.CNY).toBigDecimal(),
+                listed.get(ACCOUNT), listed.get(IP), listed.get(DEVICE));
+    }
+
+    private List<String> list(int start, int size) {
+        List<String> list = new ArrayList<>(size);
+        for (int node = start; list.size() < size; node = next[node]) {
+            list.add(names[node]);
+        }
+        return list;
+    }
+
+    private void link(Transaction transaction) {
+        if (transaction.getSourceAccountNumber() == null) {
+            return;
+        }
+        int account = node(ACCOUNT, transaction.getSourceAccountNumber());
+        if (transaction.getIpAddress() != null) {
+            union(account, node(IP, transaction.getIpAddress()));
+        }
+        if (transaction.getDeviceInfo() != null) {
+            union(account, node(DEVICE, transaction.getDeviceInfo()));
+        }
+        count(transaction, 1);
+    }
+
+    private void count(Transaction transaction, int sign) {
+        Integer account = transaction.getSourceAccountNumber() == null ? null
+                : nodes.get(ACCOUNT).get(transaction.getSourceAccountNumber());
+        if (account != null) {
+            int root = find(account);
+            transactions[root] += sign;
+            volume[root] += sign * transaction.getCnyMinorUnits();
+        }
+    }
+
+    private int node(int kind, String name) {
+        Integer existing = nodes.get(kind).get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (count == parent.length) {
+            grow();
+        }
+        int node = count++;
+        names[node] = name;
+        parent[node] = node;
+        next[node] = node;
+        for (int k = 0; k < KINDS; k++) {
+            heads[k][node] = -1;
+        }
+        members[kind][node] = 1;
+        heads[kind][node] = node;
+        nodes.get(kind).put(name, node);
+        if (kind == ACCOUNT && largestCluster == 0) {
+            largestCluster = 1;
+        }
+        return node;
+    }
+
+    private int find(int node) {
+        while (parent[node] != node) {
+            // Path halving: point every other node on the way at its grandparent
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (size(rootA) < size(rootB)) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        for (int kind = 0; kind < KINDS; kind++) {
+            int headA = heads[kind][rootA];
+            int headB = heads[kind][rootB];
+            if (headA < 0) {
+                heads[kind][rootA] = headB;
+            } else if (headB >= 0) {
+                // Splice the two circular member lists into one
+                int afterA = next[headA];
+                next[headA] = next[headB];
+                next[headB] = afterA;
+            }
+            members[kind][rootA] += members[kind][rootB];
+        }
+        transactions[rootA] += transactions[rootB];
+        volume[rootA] += volume[rootB];
+        largestCluster = Math.max(largestCluster, members[ACCOUNT][rootA]);
+    }
+
+    private int size(int root) {
+        return members[ACCOUNT][root] + members[IP][root] + members[DEVICE][root];
+    }
+
+    private void grow() {
+        int capacity = parent.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        next = Arrays.copyOf(next, capacity);
+        for (int kind = 0; kind < KINDS; kind++) {
+            members[kind] = Arrays.copyOf(members[kind], capacity);
+            heads[kind] = Arrays.copyOf(heads[kind], capacity);
+        }
+        transactions = Arrays.copyOf(transactions, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+}
@@ -0,0 +1,222 @@
+package com.htest.transactionManagement.fraud;
+
+import com.htest.transactionManagement.model.IpAddress;
+
+import java.util.Arrays;
+
+/**
+ * Longest-prefix match over 128-bit addresses: a binary trie with one-child chains compressed away, so a path
+ * is at most one node per distinct branching point rather than one per bit.
+ * <p>
+ * Each node is four longs side by side in one array, 32 bytes and at most two nodes per prefix, so a level of
+ * a lookup costs one cache line, a couple of masked compares and no allocation. IPv4 lookups skip their first
+ * 16 levels through a table built on the first lookup after an insert. Not thread-safe while inserting; build
+ * it fully, then publish it.
+ */
+public class CidrTrie {
+    public static final int NO_MATCH = -1;
+
+    // Per node: high bits, low bits, value << 32 | prefix length, one child << 32 | zero child
+    private static final int STRIDE = 4;
+    private static final long IPV4_MAPPED = 0xffff;
+    // Addresses in ::ffff:0:0/96 start their lookup at the node their next 16 bits lead to
+    private static final int IPV4_INDEX_BITS = 96 + 16;
+
+    private long[] nodes;
+    private int count;
+    private int prefixes;
+    // Per IPv4 /16: best value << 32 | deepest node of length 112 or less on its path; rebuilt after inserts
+    private volatile long[] ipv4Index;
+
+    public CidrTrie() {
+        this(16);
+    }
+
+    public CidrTrie(int expectedPrefixes) {
+        nodes = new long[STRIDE * Math.max(16, 2 * expectedPrefixes)];
+        // The root is the empty prefix and matches everything
+        node(0, 0, 0, NO_MATCH);
+    }
+
+    /**
+     * Maps the {@code prefixLength} leading bits of {@code address} to {@code v}, replacing what was mapped there.
+     *
+     * @return the value previously mapped to exactly this prefix, or {@link #NO_MATCH}
+     */
+    public int insert(IpAddress address, int prefixLength, int v) {
+        if (prefixLength < 0 || prefixLength > 128 || v < 0) {
+            throw new IllegalArgumentException("Prefix length must be 0 to 128 and value not negative");
+        }
+        long h = address.high() & mask(prefixLength);
+        long l = address.low() & mask(prefixLength - 64);
+        ipv4Index = null;
+        int parent = 0;
+        while (true) {
+            // parent's prefix is a prefix of the key, and no longer
+            int parentLength = length(parent);
+            if (parentLength == prefixLength) {
+                int previous = value(parent);
+                setValue(parent, v);
+                if (previous == NO_MATCH) {
+                    prefixes++;
+                }
+                return previous;
+            }
+            int side = bit(h, l, parentLength);
+            int child = child(parent, side);
+            if (child == NO_MATCH) {
+                setChild(parent, side, node(h, l, prefixLength, v));
+                prefixes++;
+                return NO_MATCH;
+            }
+            int childLength = length(child);
+            long childHigh = nodes[child * STRIDE];
+            long childLow = nodes[child * STRIDE + 1];
+            int common = Math.min(Math.min(prefixLength, childLength), commonPrefix(h, l, childHigh, childLow));
+            if (common == childLength) {
+                parent = child;
+                continue;
+            }
+            // The key leaves the child's path part way: split it at the common prefix
+            int split;
+            if (common == prefixLength) {
+                split = node(h, l, prefixLength, v);
+            } else {
+                split = node(h & mask(common), l & mask(common - 64), common, NO_MATCH);
+                setChild(split, bit(h, l, common), node(h, l, prefixLength, v));
+            }
+            setChild(split, bit(childHigh, childLow, common), child);
+            setChild(parent, side, split);
+            prefixes++;
+            return NO_MATCH;
+        }
+    }
+
+    /**
+     * @return the value of the longest prefix containing the address, or {@link #NO_MATCH}
+     */
+    public int match(IpAddress address) {
+        return match(address.high(), address.low());
+    }
+
+    public int match(long h, long l) {
+        long[] nodes = this.nodes;
+        int node;
+        int best;
+        if (h == 0 && l >>> 32 == IPV4_MAPPED) {
+            // Skip the first levels under the IPv4 range in one step
+            long entry = ipv4Index()[(int) (l >>> 16) & 0xffff];
+            node = (int) entry;
+            best = (int) (entry >> 32);
+        } else {
+            node = 0;
+            best = (int) (nodes[2] >> 32);
+        }
+        while (true) {
+            int nodeLength = (int) nodes[node * STRIDE + 2] & 0xff;
+            if (nodeLength == 128) {
+                return best;
+            }
+            node = (int) (nodes[node * STRIDE + 3] >> (bit(h, l, nodeLength) << 5));
+            if (node == NO_MATCH) {
+                return best;
+            }
+            int i = node * STRIDE;
+            long lengthAndValue = nodes[i + 2];
+            nodeLength = (int) lengthAndValue & 0xff;
+            if (((h ^ nodes[i]) & mask(nodeLength)) != 0 || ((l ^ nodes[i + 1]) & mask(nodeLength - 64)) != 0) {
+                return best;
+            }
+            int value = (int) (lengthAndValue >> 32);
+            if (value != NO_MATCH) {
+                best = value;
+            }
+        }
+    }
+
+    /**
+     * @return the number of prefixes mapped
+     */
+    public int size() {
+        return prefixes;
+    }
+
+    private long[] ipv4Index() {
+        long[] index = ipv4Index;
+        if (index == null) {
+            // Racing lookups may each build one, but they build the same table
+            index = new long[1 << 16];
+            for (int k = 0; k < index.length; k++) {
+                long l = IPV4_MAPPED << 32 | (long) k << 16;
+                int node = 0;
+                int best = value(0);
+                while (true) {
+                    int child = child(node, bit(0, l, length(node)));
+                    if (child == NO_MATCH || length(child) > IPV4_INDEX_BITS || nodes[child * STRIDE] != 0
+                            || ((l ^ nodes[child * STRIDE + 1]) & mask(length(child) - 64)) != 0) {
+                        break;
+                    }
+                    node = child;
+                    if (value(node) != NO_MATCH) {
+                        best = value(node);
+                    }
+                }
+                index[k] = (long) best << 32 | node & 0xffff_ffffL;
+            }
+            ipv4Index = index;
+        }
+        return index;
+    }
+
+    private int node(long h, long l, int prefixLength, int v) {
+        if (count * STRIDE == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        }
+        int i = count * STRIDE;
+        nodes[i] = h;
+        nodes[i + 1] = l;
+        nodes[i + 2] = (long) v << 32 | prefixLength;
+        nodes[i + 3] = -1L;
+        return count++;
+    }
+
+    private int length(int node) {
+        return (int) nodes[node * STRIDE + 2] & 0xff;
+    }
+
+    private int value(int node) {
+        return (int) (nodes[node * STRIDE + 2] >> 32);
+    }
+
+    private void setValue(int node, int v) {
+        int i = node * STRIDE + 2;
+        nodes[i] = (long) v << 32 | nodes[i] & 0xffff_ffffL;
+    }
+
+    private int child(int node, int side) {
+        return (int) (nodes[node * STRIDE + 3] >> (side << 5));
+    }
+
+    private void setChild(int node, int side, int child) {
+        int i = node * STRIDE + 3;
+        nodes[i] = side == 0
+                ? nodes[i] & 0xffff_ffff_0000_0000L | child & 0xffff_ffffL
+                : (long) child << 32 | nodes[i] & 0xffff_ffffL;
+    }
+
+    /**
+     * @return a mask of the {@code bits} leading bits of one 64-bit half; 0 for 0 or fewer, all for 64 or more
+     */
+    private static long mask(int bits) {
+        return bits <= 0 ? 0 : bits >= 64 ? -1L : -1L << (64 - bits);
+    }
+
+    private static int bit(long h, long l, int index) {
+        return (int) ((index < 64 ? h << index : l << (index - 64)) >>> 63);
+    }
+
+    private static int commonPrefix(long h1, long l1, long h2, long l2) {
+        long h = h1 ^ h2;
+        return h != 0 ? Long.numberOfLeadingZeros(h) : 64 + Long.numberOfLeadingZeros(l1 ^ l2);
+    }
+}
@@ -0,0 +1,209 @@
+package com.htest.transactionManagement.fraud;
+
+import com.htest.transactionManagement.exception.BlockedIpException;
+import com.htest.transactionManagement.model.IpAddress;
+import com.htest.transactionManagement.model.RiskLevel;
+import com.htest.transactionManagement.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CIDR ranges that block or flag transactions by source IP, read from a text file with one
+ * {@code <cidr> [BLOCK|FLAG|ALLOW] [# comment]} per line; the action defaults to FLAG.
+ * <p>
+ * The longest matching prefix decides, so an ALLOW range can carve an exception out of a wider blocked one.
+ * The file is re-read when its modification time or size changes: a new trie is built off to the side and
+ * swapped in whole, so lookups never lock and never see a half-loaded list.
+ */
+@Slf4j
+@Component
+public class IpBlocklist {
+    public enum Action {
+        BLOCK,
+        FLAG,
+        ALLOW
+    }
+
+    public record Rule(String cidr, Action action) {
+    }
+
+    private record Snapshot(CidrTrie trie, Rule[] rules, FileTime modified, long size) {
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(new CidrTrie(), new Rule[0], null, -1);
+
+    private final Path path;
+    private final RiskLevel flagRiskLevel;
+    private final Map<Action, Counter> matches = new EnumMap<>(Action.class);
+    private volatile Snapshot snapshot = EMPTY;
+
+    public IpBlocklist(@Value("${ip-blocklist.path:data/ip-blocklist.txt}") Path path,
+                       @Value("${ip-blocklist.flag-risk-level:HIGH}") RiskLevel flagRiskLevel,
+                       MeterRegistry meterRegistry) {
+        this.path = path;
+        this.flagRiskLevel = flagRiskLevel;
+        for (Action action : Action.values()) {
+            matches.put(action, Counter.builder("ip-blocklist.matches")
+                    .description("Transactions whose source IP matched a blocklist range")
+                    .tag("action", action.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("ip-blocklist.prefixes", this, blocklist -> blocklist.snapshot.trie().size())
+                .description("CIDR ranges in the loaded blocklist")
+                .register(meterRegistry);
+        reload();
+    }
+
+    /**
+     * Re-reads the file if it changed since the last load. A missing file is an empty list.
+     *
+     * @return whether a new list was swapped in
+     */
+    @Scheduled(fixedDelayString = "${ip-blocklist.reload-interval:30s}")
+    public boolean reload() {
+        Snapshot current = snapshot;
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            if (current == EMPTY) {
+                return false;
+            }
+            log.info("{} is gone, clearing the IP blocklist", path);
+            snapshot = EMPTY;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (attributes.lastModifiedTime().equals(current.modified()) && attributes.size() == current.size()) {
+            return false;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        snapshot = parse(lines, attributes.lastModifiedTime(), attributes.size());
+        log.info("Loaded {} IP blocklist ranges from {}", snapshot.trie().size(), path);
+        return true;
+    }
+
+    /**
+     * @return the rule of the longest range containing the address, or null
+     */
+    public Rule match(IpAddress address) {
+        Snapshot current = snapshot;
+        int rule = current.trie().match(address);
+        return rule == CidrTrie.NO_MATCH ? null : current.rules()[rule];
+    }
+
+    /**
+     * Applies the list to an incoming transaction: a flagged IP marks it as suspected fraud and raises its
+     * risk level, a blocked one rejects it.
+     *
+     * @throws BlockedIpException if the source IP is in a blocked range
+     */
+    public void screen(Transaction transaction) {
+        IpAddress address = transaction.getIp() != null ? transaction.getIp()
+                : IpAddress.tryParse(transaction.getIpAddress());
+        if (address == null) {
+            return;
+        }
+        Rule rule = match(address);
+        if (rule == null) {
+            return;
+        }
+        matches.get(rule.action()).increment();
+        switch (rule.action()) {
+            case BLOCK -> throw new BlockedIpException("IP address " + address + " is blocked (" + rule.cidr() + ")");
+            case FLAG -> {
+                transaction.setIsFraudSuspected(true);
+                if (transaction.getRiskLevel() == null || transaction.getRiskLevel().compareTo(flagRiskLevel) < 0) {
+                    transaction.setRiskLevel(flagRiskLevel);
+                }
+                if (transaction.getRemarks() == null || transaction.getRemarks().isBlank()) {
+                    transaction.setRemarks("IP address in flagged range " + rule.cidr());
+                }
+            }
+            case ALLOW -> {
+            }
+        }
+    }
+
+    private Snapshot parse(List<String> lines, FileTime modified, long size) {
+        List<Rule> rules = new ArrayList<>(lines.size());
+        CidrTrie trie = new CidrTrie(lines.size());
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n);
+            int comment = line.indexOf('#');
+            String[] fields = (comment < 0 ? line : line.substring(0, comment)).trim().split("\\s+");
+            if (fields[0].isEmpty()) {
+                continue;
+            }
+            Action action = fields.length > 1 ? action(fields[1]) : Action.FLAG;
+            int slash = fields[0].indexOf('/');
+            String text = slash < 0 ? fields[0] : fields[0].substring(0, slash);
+            IpAddress address = IpAddress.tryParse(text);
+            boolean ipv4 = text.indexOf(':') < 0;
+            int prefixLength = slash < 0 ? (ipv4 ? 32 : 128) : prefixLength(fields[0].substring(slash + 1));
+            if (address == null || action == null || fields.length > 2 || prefixLength < 0
+                    || prefixLength > (ipv4 ? 32 : 128)) {
+                log.warn("Skipping malformed line {} of {}: {}", n + 1, path, line);
+                continue;
+            }
+            // IPv4 lives in the last 32 bits of the IPv4-mapped space
+            int previous = trie.insert(address, ipv4 ? 96 + prefixLength : prefixLength, rules.size());
+            Rule rule = new Rule(fields[0], action);
+            if (previous == CidrTrie.NO_MATCH) {
+                rules.add(rule);
+            } else {
+                // Same range listed twice: the later line wins
+                rules.set(previous, rule);
+                trie.insert(address, ipv4 ? 96 + prefixLength : prefixLength, previous);
+            }
+        }
+        return new Snapshot(trie, rules.toArray(Rule[]::new), modified, size);
+    }
+
+    private static Action action(String text) {
+        for (Action action : Action.values()) {
+            if (action.name().equalsIgnoreCase(text)) {
+                return action;
+            }
+        }
+        return null;
+    }
+
+    private static int prefixLength(String text) {
+        if (text.isEmpty() || text.length() > 3) {
+            return -1;
+        }
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            length = length * 10 + c - '0';
+        }
+        return length;
+    }
+}
@@ -0,0 +1,127 @@
+package com.htest.transactionManagement.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.htest.transactionManagement.exception.IdempotencyKeyReuseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting store of responses keyed by the client supplied Idempotency-Key.
+ * <p>
+ * The first request for a key runs the action and records its status and body; retries
+ * replay the recorded response without touching the service. Requests that arrive while
+ * the first one is still in flight wait on the same future instead of running again.
+ * Only 2xx responses are retained, so a client can correct a rejected request and retry
+ * with the same key. A retry must carry the same body, compared by the SHA-256 of its JSON.
+ */
+@Component
+public class IdempotencyStore {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<String, CompletableFuture<IdempotentResponse>> responses;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyStore(@Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.maximum-size:100000}") long maximumSize,
+                            ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs {@code action} at most once per (scope, key) within the TTL.
+     *
+     * @param key     Idempotency-Key header value, may be null in which case the action simply runs
+     * @param scope   method and path of the request, so one key cannot be replayed on another endpoint
+     * @param request request body used to detect a key reused with a different payload
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<ResponseEntity<T>> execute(String key, String scope, Object request,
+                                               Supplier<Mono<ResponseEntity<T>>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String cacheKey = scope + ' ' + key;
+        // Taken before the action runs, since the service may normalize the request in place
+        byte[] digest = digest(request);
+        return Mono.defer(() -> {
+            CompletableFuture<IdempotentResponse> pending = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> existing = responses.asMap().putIfAbsent(cacheKey, pending);
+            if (existing != null) {
+                return Mono.fromFuture(existing, true)
+                        .map(response -> (ResponseEntity<T>) replay(response, digest));
+            }
+
+            return action.get()
+                    .doOnNext(entity -> {
+                        if (!entity.getStatusCode().is2xxSuccessful()) {
+                            responses.asMap().remove(cacheKey, pending);
+                        }
+                        Object body = entity.getBody();
+                        pending.complete(new IdempotentResponse(entity.getStatusCode(), body == null ? null : json(body),
+                                body == null ? null : body.getClass(), digest));
+                    })
+                    .doOnError(ex -> {
+                        responses.asMap().remove(cacheKey, pending);
+                        pending.completeExceptionally(ex);
+                    })
+                    .doOnCancel(() -> {
+                        responses.asMap().remove(cacheKey, pending);
+                        pending.completeExceptionally(new ResponseStatusException(HttpStatus.CONFLICT,
+                                "Original request for this Idempotency-Key was cancelled, retry the request"));
+                    });
+        });
+    }
+
+    private ResponseEntity<Object> replay(IdempotentResponse response, byte[] digest) {
+        if (!MessageDigest.isEqual(response.requestDigest(), digest)) {
+            throw new IdempotencyKeyReuseException(
+                    "Idempotency-Key has already been used with a different request body");
+        }
+        Object body;
+        try {
+            body = response.body() == null ? null : objectMapper.readValue(response.body(), response.bodyType());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the recorded response", e);
+        }
+        return ResponseEntity.status(response.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private byte[] digest(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(json(request));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+}
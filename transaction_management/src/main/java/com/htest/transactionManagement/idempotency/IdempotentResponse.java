@@ -0,0 +1,15 @@
+package com.htest.transactionManagement.idempotency;
+
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Response recorded for an Idempotency-Key, replayed verbatim on retries.
+ * The body is kept serialized, so later changes to the object that was returned do not leak into replays.
+ * The digest is a SHA-256 of the original request body, so that a key reused with a different payload can be
+ * rejected instead of silently replayed.
+ *
+ * @param body     the JSON body, or null if the response had none
+ * @param bodyType the class the body was serialized from, or null
+ */
+public record IdempotentResponse(HttpStatusCode status, byte[] body, Class<?> bodyType, byte[] requestDigest) {
+}
@@ -0,0 +1,158 @@
+package com.htest.transactionManagement.lane;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Sharded single-writer execution: every account hashes to one of N lanes and each lane applies
+ * its mutations one after another on its own thread. Writes for the same account are therefore
+ * ordered and never race (dedup check-then-insert, update over update), while different accounts
+ * proceed in parallel on different lanes without any locking.
+ * <p>
+ * A lane count of 0 runs every action inline on the caller's thread.
+ */
+@Component
+public class AccountLanes {
+    private final Lane[] lanes;
+
+    @Autowired
+    public AccountLanes(@Value("${transaction.lanes.count:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int laneCount,
+                        @Value("${transaction.lanes.virtual-threads:false}") boolean virtualThreads,
+                        MeterRegistry meterRegistry) {
+        this(laneCount, virtualThreads);
+        Gauge.builder("transaction.lanes.pending", this, AccountLanes::pending)
+                .description("Mutations queued across all account lanes")
+                .register(meterRegistry);
+    }
+
+    public AccountLanes(int laneCount, boolean virtualThreads) {
+        if (laneCount < 0) {
+            throw new IllegalArgumentException("Lane count must not be negative");
+        }
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "account-lane-" + i;
+            lanes[i] = new Lane(virtualThreads
+                    ? Thread.ofVirtual().name(name)
+                    : Thread.ofPlatform().name(name).daemon(true));
+            lanes[i].start();
+        }
+    }
+
+    /**
+     * Runs {@code action} on the account's lane and waits for its result.
+     * Exceptions thrown by the action are rethrown to the caller unchanged.
+     */
+    public <T> T execute(String accountNumber, Supplier<T> action) {
+        if (lanes.length == 0 || laneFor(accountNumber).isLaneThread()) {
+            return action.get();
+        }
+        return join(executeAsync(accountNumber, action));
+    }
+
+    /**
+     * Queues {@code action} on the account's lane without waiting: the future completes on the lane thread with
+     * the action's result, or fails with what it threw. For callers that must not block, like the event loop.
+     */
+    public <T> CompletableFuture<T> executeAsync(String accountNumber, Supplier<T> action) {
+        if (lanes.length == 0 || laneFor(accountNumber).isLaneThread()) {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (Throwable t) {
+                return CompletableFuture.failedFuture(t);
+            }
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        laneFor(accountNumber).submit(() -> {
+            try {
+                result.complete(action.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * {@link #executeAsync} for a mutation of two accounts, say one that moves a transaction between them: the
+     * action runs while both lanes are held. It is queued on the lower-numbered lane, whose thread then waits for
+     * the higher one to run it. Lanes only ever wait on higher lanes, so two such mutations can't deadlock.
+     */
+    public <T> CompletableFuture<T> executeAsync(String accountNumber, String otherAccountNumber, Supplier<T> action) {
+        if (lanes.length == 0 || laneIndex(accountNumber) == laneIndex(otherAccountNumber)) {
+            return executeAsync(accountNumber, action);
+        }
+        boolean ordered = laneIndex(accountNumber) < laneIndex(otherAccountNumber);
+        String lower = ordered ? accountNumber : otherAccountNumber;
+        String higher = ordered ? otherAccountNumber : accountNumber;
+        if (laneFor(higher).isLaneThread()) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "A lane can't wait on a lower lane, run two-account mutations from outside the higher one"));
+        }
+        return executeAsync(lower, () -> execute(higher, action));
+    }
+
+    /**
+     * Waits for {@code result}, rethrowing what it failed with unchanged.
+     */
+    public static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    void submit(int laneIndex, Runnable task) {
+        lanes[laneIndex].submit(task);
+    }
+
+    boolean isLaneThread(String accountNumber) {
+        return lanes.length > 0 && laneFor(accountNumber).isLaneThread();
+    }
+
+    int laneIndex(String accountNumber) {
+        int hash = accountNumber == null ? 0 : accountNumber.hashCode();
+        // Spread the high bits, account numbers often differ only in the last characters
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, lanes.length);
+    }
+
+    private Lane laneFor(String accountNumber) {
+        return lanes[laneIndex(accountNumber)];
+    }
+
+    private int pending() {
+        int pending = 0;
+        for (Lane lane : lanes) {
+            pending += lane.pending();
+        }
+        return pending;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.stop();
+        }
+    }
+}
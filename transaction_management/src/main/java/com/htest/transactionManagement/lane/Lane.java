@@ -0,0 +1,65 @@
+package com.htest.transactionManagement.lane;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One single-writer lane: a lock-free MPSC queue drained in order by a dedicated thread.
+ * The thread parks when the queue is empty; producers unpark it only if it announced it was parking.
+ */
+final class Lane implements Runnable {
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread thread;
+    private volatile boolean parked;
+    private volatile boolean running = true;
+
+    Lane(Thread.Builder threadBuilder) {
+        this.thread = threadBuilder.unstarted(this);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void submit(Runnable task) {
+        pending.incrementAndGet();
+        tasks.offer(task);
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    boolean isLaneThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        while (running || !tasks.isEmpty()) {
+            Runnable task = tasks.poll();
+            if (task != null) {
+                pending.decrementAndGet();
+                task.run();
+                continue;
+            }
+            parked = true;
+            // Re-check after publishing the flag, a producer that saw parked == false has already enqueued
+            if (tasks.isEmpty() && running) {
+                LockSupport.park(this);
+            }
+            parked = false;
+        }
+    }
+}
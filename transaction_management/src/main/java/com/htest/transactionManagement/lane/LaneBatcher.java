@@ -0,0 +1,141 @@
+package com.htest.transactionManagement.lane;
+
+import io.micrometer.core.instrument.DistributionSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces calls bound for the same lane into batches applied on that lane's thread, each caller still
+ * getting its own result or exception.
+ * <p>
+ * Calls are queued per lane, and the lane is handed one drain task when its queue stops being empty. The drain
+ * takes everything queued by the time it runs, up to {@code maxBatchSize}. The window is therefore however long
+ * the lane was busy: an idle lane applies a call on its own straight away, a loaded one applies everything that
+ * piled up behind the previous batch. Batches grow with load and no timer ever delays a call.
+ */
+public class LaneBatcher<T, R> {
+    private final AccountLanes lanes;
+    private final int maxBatchSize;
+    private final Consumer<List<Call<T, R>>> applier;
+    private final DistributionSummary batchSizes;
+    private final Queue<Call<T, R>>[] queues;
+    // 1 while a drain task is queued on or running on the lane
+    private final AtomicIntegerArray scheduled;
+
+    /**
+     * One caller's input and result. The applier must complete or fail every call of its batch.
+     */
+    public static final class Call<T, R> {
+        private final T input;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private Call(T input) {
+            this.input = input;
+        }
+
+        public T input() {
+            return input;
+        }
+
+        public void complete(R value) {
+            result.complete(value);
+        }
+
+        public void fail(Throwable failure) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public LaneBatcher(AccountLanes lanes, int maxBatchSize, Consumer<List<Call<T, R>>> applier,
+                       DistributionSummary batchSizes) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.lanes = lanes;
+        this.maxBatchSize = maxBatchSize;
+        this.applier = applier;
+        this.batchSizes = batchSizes;
+        this.queues = (Queue<Call<T, R>>[]) new Queue<?>[lanes.laneCount()];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.scheduled = new AtomicIntegerArray(queues.length);
+    }
+
+    /**
+     * Applies {@code input} in a batch on the account's lane and waits for its result.
+     * Exceptions the applier failed the call with are rethrown to the caller unchanged.
+     */
+    public R execute(String accountNumber, T input) {
+        return AccountLanes.join(executeAsync(accountNumber, input));
+    }
+
+    /**
+     * Queues {@code input} for a batch on the account's lane without waiting; the future completes on the lane
+     * thread once its batch was applied.
+     */
+    public CompletableFuture<R> executeAsync(String accountNumber, T input) {
+        Call<T, R> call = new Call<>(input);
+        if (queues.length == 0 || lanes.isLaneThread(accountNumber)) {
+            apply(List.of(call));
+            return call.result;
+        }
+        int lane = lanes.laneIndex(accountNumber);
+        queues[lane].offer(call);
+        if (scheduled.compareAndSet(lane, 0, 1)) {
+            lanes.submit(lane, () -> drain(lane));
+        }
+        return call.result;
+    }
+
+    int queued() {
+        int queued = 0;
+        for (Queue<Call<T, R>> queue : queues) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    private void drain(int lane) {
+        Queue<Call<T, R>> queue = queues[lane];
+        List<Call<T, R>> batch = new ArrayList<>(Math.min(maxBatchSize, 64));
+        Call<T, R> call;
+        while (batch.size() < maxBatchSize && (call = queue.poll()) != null) {
+            batch.add(call);
+        }
+        // Hand the lane the next drain before applying, so calls arriving meanwhile queue behind other lane work
+        if (!queue.isEmpty()) {
+            lanes.submit(lane, () -> drain(lane));
+        } else {
+            scheduled.set(lane, 0);
+            // A caller that saw 1 just before the reset has queued a call nobody would drain
+            if (!queue.isEmpty() && scheduled.compareAndSet(lane, 0, 1)) {
+                lanes.submit(lane, () -> drain(lane));
+            }
+        }
+        if (!batch.isEmpty()) {
+            apply(batch);
+        }
+    }
+
+    private void apply(List<Call<T, R>> batch) {
+        batchSizes.record(batch.size());
+        try {
+            applier.accept(batch);
+        } catch (Throwable t) {
+            batch.forEach(call -> call.fail(t));
+        }
+        for (Call<T, R> call : batch) {
+            if (!call.result.isDone()) {
+                call.fail(new IllegalStateException("Batch completed without a result for this call"));
+            }
+        }
+    }
+}
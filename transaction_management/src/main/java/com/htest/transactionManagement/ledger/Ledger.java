@@ -0,0 +1,173 @@
+package com.htest.transactionManagement.ledger;
+
+import com.htest.transactionManagement.exception.InsufficientFundsException;
+import com.htest.transactionManagement.model.Money;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Double-entry balances per account and currency.
+ * <p>
+ * A DEPOSIT debits {@link #EXTERNAL} and credits the source account, a WITHDRAWAL the reverse, and a TRANSFER
+ * debits the source and credits the destination. A transaction's postings stay applied while it exists and is not
+ * FAILED, CANCELLED, REVERSED or REJECTED: moving into one of those statuses, or deleting it, posts the reversal,
+ * and changing its amount or accounts reverses the old postings and applies the new ones in one step.
+ * <p>
+ * Balances are guarded by {@code ledger.stripes} locks, an account's stripe picked by its hash. A change locks the
+ * stripes of every account it touches in ascending stripe order, so a transfer A to B and one from B to A on
+ * different lanes cannot deadlock, and the funds check and the postings are atomic. With
+ * {@code ledger.check-funds}, a change that would take a non-external account below zero is rejected; reversals
+ * are never rejected.
+ */
+@Component
+public class Ledger {
+    /**
+     * The other side of deposits and withdrawals, money entering or leaving the system; its balance is negative
+     * by what is held.
+     */
+    public static final String EXTERNAL = "@external";
+
+    private static final Set<TransactionStatus> UNPOSTED = EnumSet.of(TransactionStatus.FAILED,
+            TransactionStatus.CANCELLED, TransactionStatus.REVERSED, TransactionStatus.REJECTED);
+
+    private final boolean checkFunds;
+    private final ReentrantLock[] stripes;
+    private final Map<String, Map<String, Long>> balances = new ConcurrentHashMap<>();
+
+    private record BalanceKey(String account, String currency) {
+    }
+
+    public Ledger(@Value("${ledger.check-funds:false}") boolean checkFunds,
+                  @Value("${ledger.stripes:1024}") int stripeCount) {
+        this.checkFunds = checkFunds;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Applies a stored transaction at startup. It was accepted already, so funds are not checked.
+     */
+    public void replay(Transaction transaction) {
+        apply(deltas(null, transaction), false);
+    }
+
+    /**
+     * Moves the ledger from {@code previous} to {@code current}: null for a create or a delete respectively.
+     * Nothing is applied if the funds check fails.
+     *
+     * @throws InsufficientFundsException if funds are checked and an account would go below zero
+     */
+    public void apply(Transaction previous, Transaction current) {
+        apply(deltas(previous, current), checkFunds && !postings(current).isEmpty());
+    }
+
+    /**
+     * Undoes {@link #apply} of the same arguments, for a change that could not be stored. Funds were checked when
+     * it was applied, so they are not checked again.
+     */
+    public void revert(Transaction previous, Transaction current) {
+        apply(deltas(current, previous), false);
+    }
+
+    /**
+     * @return the transaction's debit and credit, or nothing if it is not posted
+     */
+    public List<Posting> postings(Transaction transaction) {
+        if (transaction == null || transaction.getMoney() == null || transaction.getType() == null
+                || transaction.getSourceAccountNumber() == null || UNPOSTED.contains(transaction.getStatus())) {
+            return List.of();
+        }
+        long amount = transaction.getMoney().minorUnits();
+        String currency = transaction.getMoney().currency();
+        String source = transaction.getSourceAccountNumber();
+        return switch (transaction.getType()) {
+            case DEPOSIT -> List.of(new Posting(EXTERNAL, Posting.Side.DEBIT, amount, currency),
+                    new Posting(source, Posting.Side.CREDIT, amount, currency));
+            case WITHDRAWAL -> List.of(new Posting(source, Posting.Side.DEBIT, amount, currency),
+                    new Posting(EXTERNAL, Posting.Side.CREDIT, amount, currency));
+            case TRANSFER -> transaction.getDestinationAccountNumber() == null ? List.of()
+                    : List.of(new Posting(source, Posting.Side.DEBIT, amount, currency),
+                    new Posting(transaction.getDestinationAccountNumber(), Posting.Side.CREDIT, amount, currency));
+        };
+    }
+
+    /**
+     * @return the account's balance per currency, empty if nothing was ever posted to it
+     */
+    public Map<String, BigDecimal> balances(String account) {
+        Map<String, BigDecimal> result = new TreeMap<>();
+        balances.getOrDefault(account, Map.of()).forEach((currency, minorUnits) ->
+                result.put(currency, Money.ofMinor(minorUnits, currency).toBigDecimal()));
+        return result;
+    }
+
+    public long balance(String account, String currency) {
+        return balances.getOrDefault(account, Map.of()).getOrDefault(currency, 0L);
+    }
+
+    private Map<BalanceKey, Long> deltas(Transaction previous, Transaction current) {
+        Map<BalanceKey, Long> deltas = new LinkedHashMap<>();
+        for (Posting posting : postings(previous)) {
+            deltas.merge(new BalanceKey(posting.account(), posting.currency()), -posting.delta(), Long::sum);
+        }
+        for (Posting posting : postings(current)) {
+            deltas.merge(new BalanceKey(posting.account(), posting.currency()), posting.delta(), Long::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    private void apply(Map<BalanceKey, Long> deltas, boolean check) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // The external account is never checked, so its atomic merge needs no lock; it would be a global hot spot
+        int[] locked = deltas.keySet().stream()
+                .filter(key -> !EXTERNAL.equals(key.account()))
+                .mapToInt(key -> stripeOf(key.account()))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int stripe : locked) {
+            stripes[stripe].lock();
+        }
+        try {
+            if (check) {
+                deltas.forEach((key, delta) -> {
+                    long balance = balance(key.account(), key.currency());
+                    if (delta < 0 && !EXTERNAL.equals(key.account()) && balance + delta < 0) {
+                        throw new InsufficientFundsException("Insufficient funds in " + key.account() + ": balance "
+                                + Money.ofMinor(balance, key.currency()) + ", needs "
+                                + Money.ofMinor(-delta, key.currency()));
+                    }
+                });
+            }
+            deltas.forEach((key, delta) -> balances
+                    .computeIfAbsent(key.account(), account -> new ConcurrentHashMap<>())
+                    .merge(key.currency(), delta, Long::sum));
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) {
+                stripes[locked[i]].unlock();
+            }
+        }
+    }
+
+    private int stripeOf(String account) {
+        int hash = account.hashCode();
+        return Math.floorMod(hash ^ hash >>> 16, stripes.length);
+    }
+}
@@ -0,0 +1,33 @@
+package com.htest.transactionManagement.ledger;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.htest.transactionManagement.model.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * One side of a transaction in the ledger. Every transaction posts one debit and one credit of the same
+ * amount, so its postings always sum to zero.
+ *
+ * @param minorUnits the amount in the currency's minor units, always positive
+ */
+public record Posting(String account, Side side, @JsonIgnore long minorUnits, String currency) {
+
+    public enum Side {
+        DEBIT,
+        CREDIT
+    }
+
+    @JsonProperty
+    public BigDecimal amount() {
+        return Money.ofMinor(minorUnits, currency).toBigDecimal();
+    }
+
+    /**
+     * The change to the account's balance: negative for a debit.
+     */
+    long delta() {
+        return side == Side.DEBIT ? -minorUnits : minorUnits;
+    }
+}
@@ -0,0 +1,206 @@
+package com.htest.transactionManagement.model;
+
+/**
+ * An IPv4 or IPv6 address as 128 bits, most significant first. IPv4 addresses are kept in their IPv4-mapped
+ * form ({@code ::ffff:a.b.c.d}), so both kinds share one key space.
+ * <p>
+ * Parsing is done by hand: it never resolves host names, and an IPv6 zone ({@code fe80::1%eth0}) is dropped.
+ */
+public record IpAddress(long high, long low) {
+    private static final long IPV4_MAPPED = 0xffff_0000_0000L;
+
+    /**
+     * @throws IllegalArgumentException if {@code text} is not an IPv4 or IPv6 address
+     */
+    public static IpAddress parse(String text) {
+        IpAddress address = tryParse(text);
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid IP address: " + text);
+        }
+        return address;
+    }
+
+    /**
+     * @return the address, or null if {@code text} is null or not an IPv4 or IPv6 address
+     */
+    public static IpAddress tryParse(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        if (text.indexOf(':') < 0) {
+            long ipv4 = parseIpv4(text, 0, text.length());
+            return ipv4 < 0 ? null : ofIpv4((int) ipv4);
+        }
+        int zone = text.indexOf('%');
+        if (zone == text.length() - 1) {
+            // A zone ID cannot be empty
+            return null;
+        }
+        return parseIpv6(text, zone < 0 ? text.length() : zone);
+    }
+
+    public static IpAddress ofIpv4(int address) {
+        return new IpAddress(0, IPV4_MAPPED | (address & 0xffff_ffffL));
+    }
+
+    public boolean isIpv4() {
+        return high == 0 && (low & 0xffff_ffff_0000_0000L) == IPV4_MAPPED;
+    }
+
+    /**
+     * @return bit {@code index}, counted from the most significant
+     */
+    public int bit(int index) {
+        return (int) ((index < 64 ? high << index : low << (index - 64)) >>> 63);
+    }
+
+    @Override
+    public String toString() {
+        if (isIpv4()) {
+            return (low >>> 24 & 0xff) + "." + (low >>> 16 & 0xff) + "." + (low >>> 8 & 0xff) + "." + (low & 0xff);
+        }
+        int[] groups = new int[8];
+        for (int i = 0; i < 8; i++) {
+            groups[i] = (int) ((i < 4 ? high >>> (48 - 16 * i) : low >>> (48 - 16 * (i - 4))) & 0xffff);
+        }
+        // RFC 5952: the longest run of two or more zero groups becomes "::"
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < 8; ) {
+            int j = i;
+            while (j < 8 && groups[j] == 0) {
+                j++;
+            }
+            if (j - i > bestLength) {
+                bestStart = i;
+                bestLength = j - i;
+            }
+            i = j == i ? i + 1 : j;
+        }
+        StringBuilder text = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                text.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (text.length() > 0 && text.charAt(text.length() - 1) != ':') {
+                text.append(':');
+            }
+            text.append(Integer.toHexString(groups[i]));
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return the address as an unsigned int in a long, or -1 if it is not four dotted decimals up to 255
+     */
+    private static long parseIpv4(String text, int from, int to) {
+        long address = 0;
+        int parts = 0;
+        int i = from;
+        while (parts < 4) {
+            int value = 0;
+            int digits = 0;
+            while (i < to && text.charAt(i) >= '0' && text.charAt(i) <= '9' && digits < 3) {
+                value = value * 10 + text.charAt(i++) - '0';
+                digits++;
+            }
+            if (digits == 0 || value > 255) {
+                return -1;
+            }
+            address = address << 8 | value;
+            if (++parts < 4) {
+                if (i >= to || text.charAt(i) != '.') {
+                    return -1;
+                }
+                i++;
+            }
+        }
+        return i == to ? address : -1;
+    }
+
+    private static IpAddress parseIpv6(String text, int to) {
+        int[] groups = new int[8];
+        int count = 0;
+        int gap = -1;
+        int i = 0;
+        if (text.startsWith("::")) {
+            gap = 0;
+            i = 2;
+        }
+        while (i < to) {
+            int end = i;
+            int value = 0;
+            while (end < to && end - i < 4 && hexDigit(text.charAt(end)) >= 0) {
+                value = value << 4 | hexDigit(text.charAt(end));
+                end++;
+            }
+            if (end < to && text.charAt(end) == '.') {
+                // Embedded IPv4 in the last two groups
+                long ipv4 = count <= 6 ? parseIpv4(text, i, to) : -1;
+                if (ipv4 < 0) {
+                    return null;
+                }
+                groups[count++] = (int) (ipv4 >>> 16);
+                groups[count++] = (int) (ipv4 & 0xffff);
+                i = to;
+                break;
+            }
+            if (end == i || count == 8) {
+                return null;
+            }
+            groups[count++] = value;
+            if (end == to) {
+                i = end;
+                break;
+            }
+            if (text.charAt(end) != ':') {
+                return null;
+            }
+            if (end + 1 < to && text.charAt(end + 1) == ':') {
+                if (gap >= 0) {
+                    return null;
+                }
+                gap = count;
+                i = end + 2;
+            } else {
+                i = end + 1;
+                if (i == to) {
+                    return null;
+                }
+            }
+        }
+        if (gap < 0 ? count != 8 : count > 7) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        int zeros = 8 - count;
+        for (int g = 0, source = 0; g < 8; g++) {
+            int group = gap >= 0 && g >= gap && g < gap + zeros ? 0 : groups[source++];
+            if (g < 4) {
+                high = high << 16 | group;
+            } else {
+                low = low << 16 | group;
+            }
+        }
+        return new IpAddress(high, low);
+    }
+
+    /**
+     * @return the value of an ASCII hex digit, or -1, also for the other digits {@link Character#digit} accepts
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,100 @@
+package com.htest.transactionManagement.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-point amount: a count of minor units (fen, cents, ...) at the ISO 4217 scale of its currency.
+ * <p>
+ * Amounts are converted from {@link BigDecimal} exactly once, at the JSON boundary. Conversion never
+ * rounds: an amount with more decimal places than its currency allows is rejected. The only rounding
+ * happens when an amount is converted to CNY with an exchange rate, and that uses HALF_EVEN.
+ */
+public record Money(long minorUnits, int scale, String currency) implements Comparable<Money> {
+    public static final String CNY = "CNY";
+    private static final int DEFAULT_SCALE = 2;
+    private static final Map<String, Integer> SCALES = new ConcurrentHashMap<>();
+
+    /**
+     * @throws ArithmeticException if the amount has more decimal places than the currency allows,
+     *                             or doesn't fit in a long of minor units
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        int scale = scaleOf(currency);
+        long minorUnits = amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        return new Money(minorUnits, scale, currency);
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, scaleOf(currency), currency);
+    }
+
+    /**
+     * @return true if {@link #of} accepts the amount for this currency
+     */
+    public static boolean isExact(BigDecimal amount, String currency) {
+        try {
+            of(amount, currency);
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Decimal places of the currency's minor unit. Unknown codes use 2.
+     */
+    public static int scaleOf(String currency) {
+        if (currency == null) {
+            return DEFAULT_SCALE;
+        }
+        return SCALES.computeIfAbsent(currency, code -> {
+            try {
+                return Math.max(0, Currency.getInstance(code).getDefaultFractionDigits());
+            } catch (IllegalArgumentException unknownCurrency) {
+                return DEFAULT_SCALE;
+            }
+        });
+    }
+
+    /**
+     * Converts to CNY at {@code exchangeRate} CNY per unit of this currency, rounding HALF_EVEN to the fen.
+     */
+    public Money toCny(BigDecimal exchangeRate) {
+        if (CNY.equals(currency)) {
+            return this;
+        }
+        BigDecimal converted = toBigDecimal().multiply(exchangeRate)
+                .setScale(scaleOf(CNY), RoundingMode.HALF_EVEN);
+        return new Money(converted.unscaledValue().longValueExact(), converted.scale(), CNY);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), scale, currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (scale != other.scale || (currency != null && !currency.equals(other.currency))) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
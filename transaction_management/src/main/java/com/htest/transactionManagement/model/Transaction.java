@@ -1,5 +1,6 @@
 package com.htest.transactionManagement.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,7 +11,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class Transaction {
@@ -63,10 +64,31 @@ public class Transaction {
 
     private Boolean isFraudSuspected;
 
-    @Pattern(regexp = "^(([0-9a-fA-F]{1,4}:){7,7}[0-9a-fA-F]{1,4}|([0-9a-fA-F]{1,4}:){1,7}:|([0-9a-fA-F]{1,4}:){1,6}:[0-9a-fA-F]{1,4}|([0-9a-fA-F]{1,4}:){1,5}(:[0-9a-fA-F]{1,4}){1,2}|([0-9a-fA-F]{1,4}:){1,4}(:[0-9a-fA-F]{1,4}){1,3}|([0-9a-fA-F]{1,4}:){1,3}(:[0-9a-fA-F]{1,4}){1,4}|([0-9a-fA-F]{1,4}:){1,2}(:[0-9a-fA-F]{1,4}){1,5}|[0-9a-fA-F]{1,4}:((:[0-9a-fA-F]{1,4}){1,6})|:((:[0-9a-fA-F]{1,4}){1,7}|:)|fe80:(:[0-9a-fA-F]{0,4}){0,4}%[0-9a-zA-Z]{1,}|::(ffff(:0{1,4}){0,1}:){0,1}((25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])\\.){3,3}(25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])|([0-9a-fA-F]{1,4}:){1,4}:((25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])\\.){3,3}(25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9]))$",
-            message = "Invalid IP address (IPv4 or IPv6)")
     private String ipAddress;
 
     @Size(max = 255, message = "Device info cannot exceed 255 characters")
     private String deviceInfo;
+
+    // Internal fixed-point amounts, derived from amount and exchangeRate on every write
+    @JsonIgnore
+    private Money money;
+    @JsonIgnore
+    private long cnyMinorUnits;
+    // Parsed ipAddress, null when absent or invalid
+    @JsonIgnore
+    private IpAddress ip;
+
+    /**
+     * Derives {@link #money} and {@link #cnyMinorUnits} from the JSON amount fields, and {@link #ip} from ipAddress.
+     * Missing amounts, or foreign amounts without an exchange rate, leave them unset.
+     */
+    public void normalize() {
+        ip = IpAddress.tryParse(ipAddress);
+        money = amount == null ? null : Money.of(amount, currency);
+        if (money != null && (Money.CNY.equals(currency) || exchangeRate != null)) {
+            cnyMinorUnits = money.toCny(exchangeRate).minorUnits();
+        } else {
+            cnyMinorUnits = 0;
+        }
+    }
 }
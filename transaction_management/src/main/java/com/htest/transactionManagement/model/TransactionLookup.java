@@ -0,0 +1,12 @@
+package com.htest.transactionManagement.model;
+
+/**
+ * One entry of a multi-get response, in the order the IDs were requested.
+ *
+ * @param transaction null when {@code found} is false
+ */
+public record TransactionLookup(Long id, boolean found, Transaction transaction) {
+    public static TransactionLookup of(Long id, Transaction transaction) {
+        return new TransactionLookup(id, transaction != null, transaction);
+    }
+}
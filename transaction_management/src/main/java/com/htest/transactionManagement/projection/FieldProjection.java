@@ -0,0 +1,146 @@
+package com.htest.transactionManagement.projection;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.htest.transactionManagement.model.Transaction;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse fieldsets for transactions: {@code fields=amount,status} keeps only those {@link Transaction} properties,
+ * plus {@code id}, wherever a transaction appears in a response (pages, lookups, change events).
+ * <p>
+ * Each distinct field set gets its own copy of the base {@link ObjectMapper} whose Transaction serializer was built
+ * without the other properties, so a projected write costs the same as a full one minus the skipped fields: no
+ * per-property filter runs and nothing is built per request. Both the mappers and the parsed parameter values are
+ * cached, bounded because the parameter comes from clients.
+ */
+public class FieldProjection {
+    public static final String PARAMETER = "fields";
+    private static final String ID = "id";
+    private static final int MAX_FIELD_SETS = 256;
+    private static final int MAX_PARAMETER_VALUES = 4096;
+
+    private final ObjectMapper mapper;
+    // Property name to bit, in serialization order
+    private final Map<String, Long> bits = new LinkedHashMap<>();
+    private final LoadingCache<String, Long> masks;
+    private final LoadingCache<Long, ObjectMapper> mappers;
+
+    public FieldProjection(ObjectMapper mapper) {
+        this.mapper = mapper;
+        try {
+            JsonSerializer<Object> serializer = mapper.getSerializerProviderInstance().findValueSerializer(Transaction.class);
+            for (Iterator<PropertyWriter> properties = serializer.properties(); properties.hasNext(); ) {
+                bits.put(properties.next().getName(), 1L << bits.size());
+            }
+        } catch (JsonMappingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (bits.size() > Long.SIZE || !bits.containsKey(ID)) {
+            throw new IllegalStateException("Transaction must have an id and at most 64 properties: " + bits.keySet());
+        }
+        this.masks = Caffeine.newBuilder().maximumSize(MAX_PARAMETER_VALUES).build(this::parse);
+        this.mappers = Caffeine.newBuilder().maximumSize(MAX_FIELD_SETS).build(this::project);
+    }
+
+    /**
+     * @return the properties a transaction is written with, in order
+     */
+    public List<String> fields() {
+        return List.copyOf(bits.keySet());
+    }
+
+    /**
+     * Checks a {@code fields} parameter without building its mapper.
+     *
+     * @throws IllegalArgumentException if it names a property a transaction does not have
+     */
+    public void validate(String fields) {
+        if (fields != null) {
+            mask(fields);
+        }
+    }
+
+    /**
+     * @return whether {@link #validate} accepts the parameter
+     */
+    public boolean isValid(String fields) {
+        return masks.get(fields) != null;
+    }
+
+    /**
+     * @return the mapper writing transactions with only the given properties, or the base mapper for null
+     * @throws IllegalArgumentException if {@code fields} names a property a transaction does not have
+     */
+    public ObjectMapper mapper(String fields) {
+        if (fields == null) {
+            return mapper;
+        }
+        long mask = mask(fields);
+        return mask == -1L >>> (Long.SIZE - bits.size()) ? mapper : mappers.get(mask);
+    }
+
+    private long mask(String fields) {
+        Long mask = masks.get(fields);
+        if (mask == null) {
+            throw new IllegalArgumentException("Unknown field in " + PARAMETER + "=" + fields
+                    + ", expected a comma-separated list of " + bits.keySet());
+        }
+        return mask;
+    }
+
+    /**
+     * @return the bits of the named properties and id, or null if one of them is unknown
+     */
+    private Long parse(String fields) {
+        long mask = bits.get(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            Long bit = bits.get(name);
+            if (bit == null) {
+                return null;
+            }
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    private ObjectMapper project(long mask) {
+        return mapper.copy().registerModule(new SimpleModule("fields-" + Long.toHexString(mask))
+                .setSerializerModifier(new BeanSerializerModifier() {
+                    @Override
+                    public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription bean,
+                                                                     List<BeanPropertyWriter> properties) {
+                        if (bean.getBeanClass() != Transaction.class) {
+                            return properties;
+                        }
+                        List<BeanPropertyWriter> kept = new ArrayList<>(properties.size());
+                        for (BeanPropertyWriter property : properties) {
+                            Long bit = bits.get(property.getName());
+                            if (bit != null && (mask & bit) != 0) {
+                                kept.add(property);
+                            }
+                        }
+                        return kept;
+                    }
+                }));
+    }
+}
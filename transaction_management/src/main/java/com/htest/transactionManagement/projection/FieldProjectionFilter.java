@@ -0,0 +1,56 @@
+package com.htest.transactionManagement.projection;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Rejects a request to the transaction endpoints with 400 if its {@code fields} parameter names a property a
+ * transaction does not have, before any handler runs. A valid one is applied when the response is encoded, so
+ * handlers never look at it. Other endpoints, such as standing orders whose template is a transaction, neither
+ * check nor apply it.
+ */
+@Component
+public class FieldProjectionFilter implements WebFilter {
+    private static final List<String> PATHS = List.of("/api/v1/transactions", "/ws/transactions/changes");
+
+    private final FieldProjection fieldProjection;
+
+    public FieldProjectionFilter(FieldProjection fieldProjection) {
+        this.fieldProjection = fieldProjection;
+    }
+
+    /**
+     * Whether {@code fields} applies to the request: everything under the transaction REST and WebSocket paths.
+     */
+    public static boolean appliesTo(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        for (String prefix : PATHS) {
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!appliesTo(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+        String fields = exchange.getRequest().getQueryParams().getFirst(FieldProjection.PARAMETER);
+        try {
+            fieldProjection.validate(fields);
+        } catch (IllegalArgumentException ex) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage()));
+        }
+        return chain.filter(exchange);
+    }
+}
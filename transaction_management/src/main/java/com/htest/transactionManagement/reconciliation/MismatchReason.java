@@ -0,0 +1,14 @@
+package com.htest.transactionManagement.reconciliation;
+
+public enum MismatchReason {
+    /** No transaction has the statement line's reference number */
+    NOT_FOUND,
+    /** The reference exists, but for a different account */
+    ACCOUNT_MISMATCH,
+    /** The reference and account match, the amount or currency doesn't */
+    AMOUNT_MISMATCH,
+    /** The transaction was already matched by an earlier line of the same statement */
+    DUPLICATE,
+    /** The line couldn't be parsed */
+    MALFORMED
+}
@@ -0,0 +1,72 @@
+package com.htest.transactionManagement.reconciliation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Picks up statement files dropped into {@code reconciliation.inbox}. For each statement it writes
+ * {@code <name>.mismatches.csv} and {@code <name>.summary.json} to {@code reports/}, then moves the
+ * statement to {@code processed/}.
+ */
+@Slf4j
+@Component
+public class ReconciliationJob {
+    private final StatementReconciler reconciler;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path inbox;
+
+    public ReconciliationJob(StatementReconciler reconciler, ObjectMapper objectMapper,
+                             @Value("${reconciliation.enabled:true}") boolean enabled,
+                             @Value("${reconciliation.inbox:data/statements}") Path inbox) {
+        this.reconciler = reconciler;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.inbox = inbox;
+    }
+
+    @Scheduled(fixedDelayString = "${reconciliation.interval:PT1M}")
+    public void run() {
+        if (!enabled || !Files.isDirectory(inbox)) {
+            return;
+        }
+        List<Path> statements;
+        try (Stream<Path> files = Files.list(inbox)) {
+            statements = files.filter(Files::isRegularFile)
+                    .filter(f -> !f.getFileName().toString().startsWith("."))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Failed to list statement inbox {}", inbox, e);
+            return;
+        }
+        for (Path statement : statements) {
+            try {
+                process(statement);
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to reconcile statement {}", statement, e);
+            }
+        }
+    }
+
+    ReconciliationReport process(Path statement) throws IOException {
+        Path reports = Files.createDirectories(inbox.resolve("reports"));
+        Path processed = Files.createDirectories(inbox.resolve("processed"));
+        String name = statement.getFileName().toString();
+
+        ReconciliationReport report = reconciler.reconcile(statement, reports.resolve(name + ".mismatches.csv"));
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reports.resolve(name + ".summary.json").toFile(), report);
+        Files.move(statement, processed.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        return report;
+    }
+}
@@ -0,0 +1,17 @@
+package com.htest.transactionManagement.reconciliation;
+
+import java.util.Map;
+
+/**
+ * Summary of one statement run. Individual mismatched lines are written to {@code mismatchReport}.
+ */
+public record ReconciliationReport(
+        String statement,
+        long rows,
+        long matched,
+        int reconciled,
+        Map<MismatchReason, Long> mismatches,
+        long elapsedMillis,
+        long rowsPerSecond,
+        String mismatchReport) {
+}
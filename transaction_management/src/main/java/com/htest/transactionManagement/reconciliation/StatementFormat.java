@@ -0,0 +1,68 @@
+package com.htest.transactionManagement.reconciliation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Splits one statement line into its four fields: reference, account, amount and currency.
+ * Fields are located as byte offsets in the mapped buffer, nothing is copied.
+ */
+@FunctionalInterface
+public interface StatementFormat {
+    int FIELDS = 4;
+
+    /**
+     * Writes the start (inclusive) and end (exclusive) offset of each field into {@code bounds}.
+     *
+     * @return false if the line doesn't have all four fields
+     */
+    boolean split(ByteBuffer buffer, int lineStart, int lineEnd, int[] bounds);
+
+    /**
+     * Delimited lines, e.g. {@code REF123,ACC1,100.50,CNY}. Surrounding quotes and spaces are trimmed.
+     */
+    static StatementFormat delimited(byte delimiter) {
+        return (buffer, lineStart, lineEnd, bounds) -> {
+            int field = 0;
+            int fieldStart = lineStart;
+            for (int i = lineStart; i <= lineEnd && field < FIELDS; i++) {
+                if (i == lineEnd || buffer.get(i) == delimiter) {
+                    trim(buffer, fieldStart, i, bounds, field++);
+                    fieldStart = i + 1;
+                }
+            }
+            return field == FIELDS;
+        };
+    }
+
+    /**
+     * Fixed-width lines with the given column widths. Fields are space padded.
+     */
+    static StatementFormat fixedWidth(int[] widths) {
+        if (widths.length != FIELDS) {
+            throw new IllegalArgumentException("Fixed-width statements need " + FIELDS + " column widths");
+        }
+        return (buffer, lineStart, lineEnd, bounds) -> {
+            int start = lineStart;
+            for (int field = 0; field < FIELDS; field++) {
+                int end = Math.min(start + widths[field], lineEnd);
+                if (start >= end) {
+                    return false;
+                }
+                trim(buffer, start, end, bounds, field);
+                start = end;
+            }
+            return true;
+        };
+    }
+
+    private static void trim(ByteBuffer buffer, int start, int end, int[] bounds, int field) {
+        while (start < end && (buffer.get(start) == ' ' || buffer.get(start) == '"')) {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) == ' ' || buffer.get(end - 1) == '"')) {
+            end--;
+        }
+        bounds[field * 2] = start;
+        bounds[field * 2 + 1] = end;
+    }
+}
@@ -0,0 +1,624 @@
+package com.htest.transactionManagement.reconciliation;
+
+import com.htest.transactionManagement.model.Money;
+import com.htest.transactionManagement.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Matches bank statement lines against stored transactions on reference number, account and amount.
+ * <p>
+ * A partitioned hash join that holds neither side in memory. The statement is split into newline-aligned chunks
+ * that are memory-mapped and parsed in parallel, and each well-formed line is appended to one of
+ * {@code reconciliation.partitions} spill files by the hash of its reference number. Alongside, one pass over the
+ * stored transactions, hot and cold, spills them by the same hash. Each partition is then joined on its own: its
+ * transactions are loaded into a hash table by reference number and its lines are streamed against it, so memory
+ * is bounded by a partition's share of the transactions rather than by the statement or the history. Matches are
+ * marked reconciled partition by partition. Amounts are parsed straight from the mapped bytes into minor units and
+ * compared as longs.
+ */
+@Slf4j
+@Component
+public class StatementReconciler {
+    private static final long INVALID_AMOUNT = Long.MIN_VALUE;
+    private static final int REPORT_FLUSH_CHARS = 64 * 1024;
+    private static final int SPILL_FLUSH_BYTES = 64 * 1024;
+    // Longer fields are malformed, which also keeps every spilled string within writeUTF's limit
+    private static final int MAX_FIELD_LENGTH = 1024;
+
+    private final TransactionService transactionService;
+    private final CacheManager cacheManager;
+    private final long chunkSize;
+    private final int parallelism;
+    private final int partitions;
+    private final int[] fixedWidthColumns;
+    private final boolean skipHeader;
+    private final Counter rowsCounter;
+
+    public StatementReconciler(TransactionService transactionService, CacheManager cacheManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${reconciliation.chunk-size:64MB}") DataSize chunkSize,
+                               @Value("${reconciliation.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int parallelism,
+                               @Value("${reconciliation.partitions:64}") int partitions,
+                               @Value("${reconciliation.fixed-width.columns:20,20,18,3}") int[] fixedWidthColumns,
+                               @Value("${reconciliation.csv.header:true}") boolean skipHeader) {
+        this.transactionService = transactionService;
+        this.cacheManager = cacheManager;
+        this.chunkSize = Math.min(chunkSize.toBytes(), Integer.MAX_VALUE);
+        this.parallelism = Math.max(1, parallelism);
+        this.partitions = Math.max(1, partitions);
+        this.fixedWidthColumns = fixedWidthColumns;
+        this.skipHeader = skipHeader;
+        this.rowsCounter = meterRegistry.counter("reconciliation.rows");
+    }
+
+    /**
+     * Reconciles {@code statement} ({@code .csv} is comma delimited, anything else fixed-width),
+     * marks matched transactions as reconciled and writes unmatched lines to {@code mismatchReport}.
+     * Spill files go to a temporary directory next to the report and are deleted afterwards.
+     */
+    public ReconciliationReport reconcile(Path statement, Path mismatchReport) throws IOException {
+        long started = System.nanoTime();
+        boolean delimited = statement.getFileName().toString().endsWith(".csv");
+        StatementFormat format = delimited
+                ? StatementFormat.delimited((byte) ',')
+                : StatementFormat.fixedWidth(fixedWidthColumns);
+        Map<MismatchReason, Long> mismatches = new EnumMap<>(MismatchReason.class);
+        long rows = 0;
+        long matched = 0;
+        int reconciled = 0;
+
+        Path spillDirectory = Files.createTempDirectory(mismatchReport.toAbsolutePath().getParent(), "reconcile-");
+        try (FileChannel channel = FileChannel.open(statement, StandardOpenOption.READ);
+             Writer report = Files.newBufferedWriter(mismatchReport, StandardCharsets.UTF_8);
+             Spill lines = new Spill(spillDirectory, "lines-", partitions);
+             Spill stored = new Spill(spillDirectory, "transactions-", partitions);
+             ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            report.write("reason,offset,reference,account,amount,currency\n");
+
+            // Both sides are spilled by reference number, the store pass alongside the statement chunks
+            Future<Void> storePass = executor.submit(() -> spillTransactions(stored));
+            List<Future<ChunkResult>> chunks = new ArrayList<>();
+            long[] boundaries = chunkBoundaries(channel);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                long start = boundaries[i];
+                long end = boundaries[i + 1];
+                boolean header = delimited && skipHeader && start == 0;
+                chunks.add(executor.submit(() -> parseChunk(channel, start, end, header, format, report, lines)));
+            }
+            for (ChunkResult chunk : await(chunks, statement)) {
+                rows += chunk.rows;
+                if (chunk.malformed > 0) {
+                    mismatches.merge(MismatchReason.MALFORMED, chunk.malformed, Long::sum);
+                }
+            }
+            await(List.of(storePass), statement);
+            lines.finishWriting();
+            stored.finishWriting();
+
+            List<Future<PartitionResult>> joins = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                int p = partition;
+                joins.add(executor.submit(() -> join(lines, stored, p, report)));
+            }
+            for (PartitionResult result : await(joins, statement)) {
+                matched += result.matched;
+                reconciled += result.reconciled;
+                result.mismatches.forEach((reason, count) -> mismatches.merge(reason, count, Long::sum));
+            }
+        } finally {
+            Files.deleteIfExists(spillDirectory);
+        }
+
+        rowsCounter.increment(rows);
+        long elapsedNanos = System.nanoTime() - started;
+        long rowsPerSecond = elapsedNanos == 0 ? rows : rows * 1_000_000_000L / elapsedNanos;
+        ReconciliationReport summary = new ReconciliationReport(statement.getFileName().toString(), rows,
+                matched, reconciled, mismatches, elapsedNanos / 1_000_000, rowsPerSecond,
+                mismatchReport.toString());
+        log.info("Reconciled {}: {} rows, {} matched, {} mismatched, {} rows/s", summary.statement(), rows,
+                summary.matched(), mismatches.values().stream().mapToLong(Long::longValue).sum(), rowsPerSecond);
+        return summary;
+    }
+
+    private static <T> List<T> await(List<Future<T>> futures, Path statement) throws IOException {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Failed to reconcile " + statement, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reconciling " + statement, e);
+        }
+        return results;
+    }
+
+    /**
+     * Chunk start offsets, each moved forward to just after a newline, followed by the file size.
+     */
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = chunkSize;
+        while (position < size) {
+            long newline = -1;
+            long scan = position;
+            while (newline < 0 && scan < size) {
+                probe.clear();
+                int read = channel.read(probe, scan);
+                for (int i = 0; i < read && newline < 0; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = scan + i;
+                    }
+                }
+                scan += read;
+            }
+            if (newline < 0 || newline + 1 >= size) {
+                break;
+            }
+            boundaries.add(newline + 1);
+            position = newline + 1 + chunkSize;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Parses one chunk: malformed lines go straight to the report, the others are spilled for the join.
+     */
+    private ChunkResult parseChunk(FileChannel channel, long start, long end, boolean skipFirstLine,
+                                   StatementFormat format, Writer report, Spill lines) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ChunkResult result = new ChunkResult();
+        Spill.Appender spill = lines.appender();
+        StringBuilder pending = new StringBuilder();
+        int[] bounds = new int[StatementFormat.FIELDS * 2];
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart && !(skipFirstLine && lineStart == 0)) {
+                result.rows++;
+                if (!spillLine(buffer, lineStart, contentEnd, format, bounds, start + lineStart, spill)) {
+                    result.malformed++;
+                    // Raw line, quoted, so the report stays one row per mismatch
+                    pending.append(MismatchReason.MALFORMED).append(',').append(start + lineStart).append(",\"")
+                            .append(ascii(buffer, lineStart, contentEnd).replace("\"", "\"\"")).append("\",,,\n");
+                    if (pending.length() >= REPORT_FLUSH_CHARS) {
+                        flush(pending, report);
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        spill.flush();
+        flush(pending, report);
+        return result;
+    }
+
+    /**
+     * Appends the line to its partition's spill file.
+     *
+     * @return false if the line is malformed
+     */
+    private boolean spillLine(ByteBuffer buffer, int lineStart, int lineEnd, StatementFormat format, int[] bounds,
+                              long offset, Spill.Appender spill) throws IOException {
+        if (!format.split(buffer, lineStart, lineEnd, bounds)) {
+            return false;
+        }
+        for (int field = 0; field < StatementFormat.FIELDS; field++) {
+            if (bounds[field * 2 + 1] - bounds[field * 2] > MAX_FIELD_LENGTH) {
+                return false;
+            }
+        }
+        String reference = ascii(buffer, bounds[0], bounds[1]);
+        String currency = ascii(buffer, bounds[6], bounds[7]);
+        long amount = parseMinorUnits(buffer, bounds[4], bounds[5], Money.scaleOf(currency));
+        if (reference.isEmpty() || amount == INVALID_AMOUNT) {
+            return false;
+        }
+        int partition = partition(reference);
+        DataOutputStream out = spill.partition(partition);
+        out.writeLong(offset);
+        out.writeLong(amount);
+        out.writeUTF(reference);
+        out.writeUTF(ascii(buffer, bounds[2], bounds[3]));
+        out.writeUTF(ascii(buffer, bounds[4], bounds[5]));
+        out.writeUTF(currency);
+        spill.written(partition);
+        return true;
+    }
+
+    /**
+     * Spills every stored transaction with a reference number. The store pass is a single thread, so each
+     * partition's file is in store order.
+     */
+    private Void spillTransactions(Spill stored) throws IOException {
+        Spill.Appender spill = stored.appender();
+        transactionService.forEachTransaction(transaction -> {
+            String reference = transaction.getReferenceNumber();
+            // A longer reference can't be on a well-formed line
+            if (reference == null || reference.length() > MAX_FIELD_LENGTH) {
+                return;
+            }
+            int partition = partition(reference);
+            try {
+                DataOutputStream out = spill.partition(partition);
+                out.writeLong(transaction.getId());
+                Money money = transaction.getMoney();
+                out.writeBoolean(money != null);
+                out.writeLong(money == null ? 0 : money.minorUnits());
+                out.writeUTF(reference);
+                writeField(out, transaction.getSourceAccountNumber());
+                writeField(out, transaction.getCurrency());
+                spill.written(partition);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to spill transaction " + transaction.getId(), e);
+            }
+        });
+        spill.flush();
+        return null;
+    }
+
+    /**
+     * Joins one partition: loads its transactions by reference number, then streams its lines against them twice.
+     * The first pass finds the earliest line in statement order matching each transaction, the second reports
+     * every other line.
+     */
+    private PartitionResult join(Spill lines, Spill stored, int partition, Writer report) throws IOException {
+        Map<String, List<Candidate>> byReference = new HashMap<>();
+        try (DataInputStream in = stored.read(partition)) {
+            while (true) {
+                Candidate candidate = Candidate.read(in);
+                byReference.computeIfAbsent(candidate.reference, r -> new ArrayList<>(1)).add(candidate);
+            }
+        } catch (EOFException endOfPartition) {
+            // fully read
+        }
+
+        forEachLine(lines, partition, line -> {
+            Candidate match = match(byReference.get(line.reference()), line);
+            if (match != null) {
+                match.claimedBy = Math.min(match.claimedBy, line.offset());
+            }
+        });
+
+        PartitionResult result = new PartitionResult();
+        StringBuilder pending = new StringBuilder();
+        forEachLine(lines, partition, line -> {
+            MismatchReason reason = resolve(byReference.get(line.reference()), line);
+            if (reason != null) {
+                result.mismatches.merge(reason, 1L, Long::sum);
+                line.appendMismatch(pending, reason);
+                if (pending.length() >= REPORT_FLUSH_CHARS) {
+                    flush(pending, report);
+                }
+            }
+        });
+        flush(pending, report);
+
+        // The store order of candidates is kept in their lists, so a transaction appears once
+        List<Long> matchedIds = new ArrayList<>();
+        for (List<Candidate> candidates : byReference.values()) {
+            for (Candidate candidate : candidates) {
+                if (candidate.claimedBy != Long.MAX_VALUE) {
+                    matchedIds.add(candidate.id);
+                }
+            }
+        }
+        if (!matchedIds.isEmpty()) {
+            result.matched = matchedIds.size();
+            result.reconciled = transactionService.markReconciled(matchedIds);
+            Cache cache = cacheManager.getCache("transactions");
+            if (cache != null) {
+                matchedIds.forEach(cache::evict);
+            }
+        }
+        return result;
+    }
+
+    private static void forEachLine(Spill lines, int partition, Consumer<Line> consumer) throws IOException {
+        try (DataInputStream in = lines.read(partition)) {
+            while (true) {
+                consumer.accept(new Line(in.readLong(), in.readLong(), in.readUTF(), in.readUTF(), in.readUTF(),
+                        in.readUTF()));
+            }
+        } catch (EOFException endOfPartition) {
+            // fully read
+        }
+    }
+
+    /**
+     * @return the first transaction in store order matching the line on account, amount and currency, or null
+     */
+    private static Candidate match(List<Candidate> candidates, Line line) {
+        if (candidates != null) {
+            for (Candidate candidate : candidates) {
+                if (candidate.matches(line)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return why the line did not match, or null if it is the earliest line matching its transaction
+     */
+    private static MismatchReason resolve(List<Candidate> candidates, Line line) {
+        if (candidates == null) {
+            return MismatchReason.NOT_FOUND;
+        }
+        if (candidates.stream().noneMatch(candidate -> line.account().equals(candidate.account))) {
+            return MismatchReason.ACCOUNT_MISMATCH;
+        }
+        Candidate match = match(candidates, line);
+        if (match == null) {
+            return MismatchReason.AMOUNT_MISMATCH;
+        }
+        return match.claimedBy == line.offset() ? null : MismatchReason.DUPLICATE;
+    }
+
+    private int partition(String reference) {
+        // High bits of a multiplicative hash, mapped onto [0, partitions)
+        long hash = (reference.hashCode() * 0x9E3779B9) & 0xffff_ffffL;
+        return (int) ((hash * partitions) >>> 32);
+    }
+
+    private static void writeField(DataOutputStream out, String value) throws IOException {
+        // A value too long for any well-formed line can't match, it is spilled as missing
+        boolean present = value != null && value.length() <= MAX_FIELD_LENGTH;
+        out.writeBoolean(present);
+        if (present) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Parses a decimal amount into minor units at {@code scale} without rounding.
+     *
+     * @return the amount, or {@link #INVALID_AMOUNT} if it isn't a number or has too many decimals
+     */
+    static long parseMinorUnits(ByteBuffer buffer, int start, int end, int scale) {
+        boolean negative = start < end && buffer.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        long value = 0;
+        int decimals = -1;
+        boolean digits = false;
+        try {
+            for (; i < end; i++) {
+                byte c = buffer.get(i);
+                if (c == '.' && decimals < 0) {
+                    decimals = 0;
+                    continue;
+                }
+                if (c < '0' || c > '9') {
+                    return INVALID_AMOUNT;
+                }
+                digits = true;
+                if (decimals >= 0 && ++decimals > scale) {
+                    // Trailing zeros beyond the currency scale are harmless, anything else would need rounding
+                    if (c != '0') {
+                        return INVALID_AMOUNT;
+                    }
+                    continue;
+                }
+                value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+            }
+            for (int d = Math.max(decimals, 0); d < scale; d++) {
+                value = Math.multiplyExact(value, 10);
+            }
+        } catch (ArithmeticException overflow) {
+            return INVALID_AMOUNT;
+        }
+        if (!digits) {
+            return INVALID_AMOUNT;
+        }
+        return negative ? -value : value;
+    }
+
+    private static String ascii(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void flush(StringBuilder pending, Writer report) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        synchronized (report) {
+            try {
+                report.append(pending);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write mismatch report", e);
+            }
+        }
+        pending.setLength(0);
+    }
+
+    private static final class ChunkResult {
+        private long rows;
+        private long malformed;
+    }
+
+    private static final class PartitionResult {
+        private long matched;
+        private int reconciled;
+        private final Map<MismatchReason, Long> mismatches = new EnumMap<>(MismatchReason.class);
+    }
+
+    /**
+     * A well-formed statement line, read back from its partition.
+     */
+    private record Line(long offset, long minorUnits, String reference, String account, String amount,
+                        String currency) {
+        private void appendMismatch(StringBuilder pending, MismatchReason reason) {
+            pending.append(reason).append(',').append(offset).append(',').append(reference).append(',').append(account)
+                    .append(',').append(amount).append(',').append(currency).append('\n');
+        }
+    }
+
+    /**
+     * A stored transaction with a reference number, and the offset of the earliest line matching it so far.
+     */
+    private static final class Candidate {
+        private final String reference;
+        private final long id;
+        private final String account;
+        private final boolean hasAmount;
+        private final long minorUnits;
+        private final String currency;
+        private long claimedBy = Long.MAX_VALUE;
+
+        private Candidate(String reference, long id, String account, boolean hasAmount, long minorUnits,
+                          String currency) {
+            this.reference = reference;
+            this.id = id;
+            this.account = account;
+            this.hasAmount = hasAmount;
+            this.minorUnits = minorUnits;
+            this.currency = currency;
+        }
+
+        private static Candidate read(DataInputStream in) throws IOException {
+            long id = in.readLong();
+            boolean hasAmount = in.readBoolean();
+            long minorUnits = in.readLong();
+            String reference = in.readUTF();
+            String account = in.readBoolean() ? in.readUTF() : null;
+            String currency = in.readBoolean() ? in.readUTF() : null;
+            return new Candidate(reference, id, account, hasAmount, minorUnits, currency);
+        }
+
+        private boolean matches(Line line) {
+            return line.account().equals(account) && hasAmount && minorUnits == line.minorUnits()
+                    && line.currency().equals(currency);
+        }
+    }
+
+    /**
+     * One spill file per partition. Each thread buffers its records per partition and appends them in runs.
+     */
+    private static final class Spill implements Closeable {
+        private final Path[] paths;
+        private final OutputStream[] files;
+
+        private Spill(Path directory, String prefix, int partitions) throws IOException {
+            paths = new Path[partitions];
+            files = new OutputStream[partitions];
+            for (int i = 0; i < partitions; i++) {
+                paths[i] = directory.resolve(prefix + i);
+                files[i] = Files.newOutputStream(paths[i]);
+            }
+        }
+
+        private Appender appender() {
+            return new Appender();
+        }
+
+        private void finishWriting() throws IOException {
+            for (OutputStream file : files) {
+                file.close();
+            }
+        }
+
+        private DataInputStream read(int partition) throws IOException {
+            return new DataInputStream(new BufferedInputStream(Files.newInputStream(paths[partition]), 1 << 16));
+        }
+
+        @Override
+        public void close() throws IOException {
+            finishWriting();
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        }
+
+        private final class Appender {
+            private final ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[paths.length];
+            private final DataOutputStream[] outputs = new DataOutputStream[paths.length];
+
+            private DataOutputStream partition(int partition) {
+                if (outputs[partition] == null) {
+                    buffers[partition] = new ByteArrayOutputStream(SPILL_FLUSH_BYTES + 4096);
+                    outputs[partition] = new DataOutputStream(buffers[partition]);
+                }
+                return outputs[partition];
+            }
+
+            /**
+             * Called after each record, so runs in the files are whole records.
+             */
+            private void written(int partition) throws IOException {
+                if (buffers[partition].size() >= SPILL_FLUSH_BYTES) {
+                    flush(partition);
+                }
+            }
+
+            private void flush() throws IOException {
+                for (int partition = 0; partition < buffers.length; partition++) {
+                    if (buffers[partition] != null && buffers[partition].size() > 0) {
+                        flush(partition);
+                    }
+                }
+            }
+
+            private void flush(int partition) throws IOException {
+                synchronized (files[partition]) {
+                    buffers[partition].writeTo(files[partition]);
+                }
+                buffers[partition].reset();
+            }
+        }
+    }
+}
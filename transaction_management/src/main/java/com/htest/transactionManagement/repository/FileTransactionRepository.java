@@ -0,0 +1,314 @@
+package com.htest.transactionManagement.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.util.ConcurrentLongLongMap;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of JSON records with the position of each live record kept on the heap.
+ * <p>
+ * A record is {@code [int length][long id][byte op][payload]}; a delete is a record with an empty payload.
+ * Each call is one write followed by one {@code fsync}, so batching through the write-behind layer is
+ * what makes this fast. At startup a torn tail is truncated. Whenever more than half of the log is garbage,
+ * on open or after a write, it is rewritten with only the live records; reads don't take the lock, so they
+ * retry if a rewrite swapped the file underneath them.
+ */
+@Slf4j
+public class FileTransactionRepository implements TransactionRepository {
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + 1;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int LENGTH_BITS = 24;
+    private static final long MIN_COMPACTION_BYTES = 16 * 1024 * 1024;
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    // id -> position << 24 | record length, one long per live transaction
+    // Locations are never negative
+    private final ConcurrentLongLongMap locations = new ConcurrentLongLongMap(-1);
+    private final long minCompactionBytes;
+    private volatile FileChannel channel;
+    // Odd while a compaction is moving the locations to the new file
+    private volatile long generation;
+    private long end;
+    private long liveBytes;
+
+    public FileTransactionRepository(Path file, ObjectMapper objectMapper) throws IOException {
+        this(file, objectMapper, MIN_COMPACTION_BYTES);
+    }
+
+    FileTransactionRepository(Path file, ObjectMapper objectMapper, long minCompactionBytes) throws IOException {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.minCompactionBytes = minCompactionBytes;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replay();
+        compactIfMostlyGarbage();
+        log.info("Opened {} with {} transactions", file, locations.size());
+    }
+
+    @Override
+    public Transaction findById(long id) {
+        while (true) {
+            long before = generation;
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long location = locations.get(id);
+            if (location < 0) {
+                return null;
+            }
+            Transaction transaction;
+            try {
+                transaction = read(channel, location);
+            } catch (IOException e) {
+                if (generation == before) {
+                    throw new UncheckedIOException("Failed to read " + file, e);
+                }
+                continue;
+            }
+            VarHandle.acquireFence();
+            if (generation == before) {
+                return transaction;
+            }
+        }
+    }
+
+    @Override
+    public void save(Transaction transaction) {
+        saveAll(List.of(transaction));
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<Transaction> transactions) {
+        List<byte[]> payloads = new ArrayList<>(transactions.size());
+        int size = 0;
+        try {
+            for (Transaction transaction : transactions) {
+                byte[] payload = objectMapper.writeValueAsBytes(transaction);
+                payloads.add(payload);
+                size += HEADER_BYTES + payload.length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode transaction", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        List<Long> positions = new ArrayList<>(payloads.size());
+        int i = 0;
+        for (Transaction transaction : transactions) {
+            byte[] payload = payloads.get(i++);
+            positions.add(end + buffer.position());
+            buffer.putInt(payload.length).putLong(transaction.getId()).put(PUT).put(payload);
+        }
+        append(buffer);
+        i = 0;
+        for (Transaction transaction : transactions) {
+            track(transaction.getId(), positions.get(i), payloads.get(i).length);
+            i++;
+        }
+        compactIfMostlyGarbage();
+    }
+
+    @Override
+    public Transaction deleteById(long id) {
+        Transaction existing = findById(id);
+        if (existing != null) {
+            deleteAllById(List.of(id));
+        }
+        return existing;
+    }
+
+    @Override
+    public synchronized void deleteAllById(Collection<Long> ids) {
+        ByteBuffer buffer = ByteBuffer.allocate(ids.size() * HEADER_BYTES);
+        for (Long id : ids) {
+            buffer.putInt(0).putLong(id).put(DELETE);
+        }
+        append(buffer);
+        for (Long id : ids) {
+            untrack(id);
+        }
+        compactIfMostlyGarbage();
+    }
+
+    @Override
+    public long count() {
+        return locations.size();
+    }
+
+    @Override
+    public void forEach(Consumer<Transaction> consumer) {
+        // Looked up again so a compaction in the middle can't hand out a stale location
+        locations.forEach((id, location) -> {
+            Transaction transaction = findById(id);
+            if (transaction != null) {
+                consumer.accept(transaction);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close {}", file, e);
+        }
+    }
+
+    private void append(ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            long position = end;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+            end = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to " + file, e);
+        }
+    }
+
+    private void track(long id, long position, int payloadLength) {
+        long previous = locations.put(id, position << LENGTH_BITS | payloadLength);
+        liveBytes += HEADER_BYTES + payloadLength - (previous < 0 ? 0 : HEADER_BYTES + lengthOf(previous));
+    }
+
+    private void untrack(long id) {
+        long previous = locations.remove(id);
+        if (previous >= 0) {
+            liveBytes -= HEADER_BYTES + lengthOf(previous);
+        }
+    }
+
+    private Transaction read(FileChannel from, long location) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(lengthOf(location));
+        readFully(from, payload, (location >>> LENGTH_BITS) + HEADER_BYTES);
+        Transaction transaction = objectMapper.readValue(payload.array(), Transaction.class);
+        transaction.normalize();
+        return transaction;
+    }
+
+    private void readFully(FileChannel from, ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            if (from.read(buffer, start + buffer.position()) < 0) {
+                throw new EOFException("Record past the end of " + file);
+            }
+        }
+    }
+
+    private static int lengthOf(long location) {
+        return (int) (location & ((1L << LENGTH_BITS) - 1));
+    }
+
+    private void replay() throws IOException {
+        long position = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0)), 1 << 16));
+        try {
+            while (true) {
+                int length = in.readInt();
+                long id = in.readLong();
+                byte op = in.readByte();
+                if (length < 0 || (op != PUT && op != DELETE) || in.skipBytes(length) != length) {
+                    throw new EOFException();
+                }
+                if (op == PUT) {
+                    track(id, position, length);
+                } else {
+                    untrack(id);
+                }
+                position += HEADER_BYTES + length;
+            }
+        } catch (EOFException endOfLog) {
+            if (position < channel.size()) {
+                log.warn("Truncating {} torn bytes at the end of {}", channel.size() - position, file);
+                channel.truncate(position);
+            }
+        }
+        end = position;
+    }
+
+    /**
+     * Called with the monitor held, so no write changes the locations while the live records are copied.
+     */
+    private void compactIfMostlyGarbage() {
+        if (end > minCompactionBytes && liveBytes < end / 2) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // The old log is still intact and in use
+                log.warn("Failed to compact {}", file, e);
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        long before = end;
+        long[] ids = new long[locations.size()];
+        long[] moved = new long[ids.length];
+        int[] count = {0};
+        locations.forEach((id, location) -> {
+            if (count[0] < ids.length) {
+                ids[count[0]] = id;
+                moved[count[0]++] = location;
+            }
+        });
+        long position = 0;
+        FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            for (int i = 0; i < count[0]; i++) {
+                int length = lengthOf(moved[i]);
+                ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length);
+                readFully(channel, record, moved[i] >>> LENGTH_BITS);
+                record.flip();
+                while (record.hasRemaining()) {
+                    position += out.write(record, position);
+                }
+                moved[i] = position - HEADER_BYTES - length << LENGTH_BITS | length;
+            }
+            out.force(true);
+            // The open channel follows the file through the rename
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            out.close();
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+        FileChannel old = channel;
+        generation++;
+        channel = out;
+        for (int i = 0; i < count[0]; i++) {
+            locations.put(ids[i], moved[i]);
+        }
+        end = position;
+        liveBytes = position;
+        generation++;
+        old.close();
+        log.info("Compacted {} from {} to {} bytes", file, before, end);
+    }
+}
@@ -0,0 +1,142 @@
+package com.htest.transactionManagement.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Embedded H2 database, typically in file mode ({@code jdbc:h2:file:./data/transactions}). Each transaction
+ * is one row keyed by ID holding its JSON; batches are written as one JDBC batch in one database transaction.
+ */
+@Slf4j
+public class H2TransactionRepository implements TransactionRepository {
+    private static final int SCAN_FETCH_SIZE = 1024;
+
+    private final JdbcConnectionPool pool;
+    private final ObjectMapper objectMapper;
+
+    public H2TransactionRepository(String url, ObjectMapper objectMapper) {
+        this.pool = JdbcConnectionPool.create(url, "sa", "");
+        this.objectMapper = objectMapper;
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS transactions (id BIGINT PRIMARY KEY, payload VARBINARY NOT NULL)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to open " + url, e);
+        }
+        log.info("Opened {} with {} transactions", url, count());
+    }
+
+    @Override
+    public Transaction findById(long id) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement select = connection.prepareStatement("SELECT payload FROM transactions WHERE id = ?")) {
+            select.setLong(1, id);
+            try (ResultSet row = select.executeQuery()) {
+                return row.next() ? decode(row.getBytes(1)) : null;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read transaction " + id, e);
+        }
+    }
+
+    @Override
+    public void save(Transaction transaction) {
+        saveAll(List.of(transaction));
+    }
+
+    @Override
+    public void saveAll(Collection<Transaction> transactions) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement merge = connection.prepareStatement("MERGE INTO transactions (id, payload) KEY (id) VALUES (?, ?)")) {
+            connection.setAutoCommit(false);
+            for (Transaction transaction : transactions) {
+                merge.setLong(1, transaction.getId());
+                merge.setBytes(2, objectMapper.writeValueAsBytes(transaction));
+                merge.addBatch();
+            }
+            merge.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to write " + transactions.size() + " transactions", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode transaction", e);
+        }
+    }
+
+    @Override
+    public Transaction deleteById(long id) {
+        Transaction existing = findById(id);
+        if (existing != null) {
+            deleteAllById(List.of(id));
+        }
+        return existing;
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM transactions WHERE id = ?")) {
+            connection.setAutoCommit(false);
+            for (Long id : ids) {
+                delete.setLong(1, id);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to delete " + ids.size() + " transactions", e);
+        }
+    }
+
+    @Override
+    public long count() {
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery("SELECT COUNT(*) FROM transactions")) {
+            row.next();
+            return row.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to count transactions", e);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Transaction> consumer) {
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            try (ResultSet rows = statement.executeQuery("SELECT payload FROM transactions")) {
+                while (rows.next()) {
+                    consumer.accept(decode(rows.getBytes(1)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to scan transactions", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.dispose();
+    }
+
+    private Transaction decode(byte[] payload) {
+        try {
+            Transaction transaction = objectMapper.readValue(payload, Transaction.class);
+            transaction.normalize();
+            return transaction;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode transaction", e);
+        }
+    }
+}
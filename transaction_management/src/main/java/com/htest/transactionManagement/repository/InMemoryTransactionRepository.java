@@ -0,0 +1,43 @@
+package com.htest.transactionManagement.repository;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.util.ConcurrentLongMap;
+
+import java.util.function.Consumer;
+
+/**
+ * Heap-only storage, lost on restart. The default, and what the service used before storage was pluggable.
+ */
+public class InMemoryTransactionRepository implements TransactionRepository {
+    private final ConcurrentLongMap<Transaction> transactions = new ConcurrentLongMap<>();
+
+    @Override
+    public Transaction findById(long id) {
+        return transactions.get(id);
+    }
+
+    @Override
+    public void save(Transaction transaction) {
+        transactions.put(transaction.getId(), transaction);
+    }
+
+    @Override
+    public Transaction deleteById(long id) {
+        return transactions.remove(id);
+    }
+
+    @Override
+    public boolean delete(long id, Transaction expected) {
+        return transactions.remove(id, expected);
+    }
+
+    @Override
+    public long count() {
+        return transactions.size();
+    }
+
+    @Override
+    public void forEach(Consumer<Transaction> consumer) {
+        transactions.forEach((id, transaction) -> consumer.accept(transaction));
+    }
+}
@@ -0,0 +1,69 @@
+package com.htest.transactionManagement.repository;
+
+import com.htest.transactionManagement.model.Transaction;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Storage for the hot tier, the transactions the service reads and writes. Implementations are picked with
+ * {@code repository.type}; see {@link com.htest.transactionManagement.config.RepositoryConfig}.
+ * <p>
+ * All writes for a transaction happen on its account's lane, so implementations only need to be safe for
+ * concurrent access to different IDs and for readers running alongside a writer.
+ */
+public interface TransactionRepository {
+
+    /**
+     * @return the stored transaction, or null
+     */
+    Transaction findById(long id);
+
+    /**
+     * Inserts or replaces the transaction with the same ID.
+     */
+    void save(Transaction transaction);
+
+    /**
+     * @return the removed transaction, or null if there was none
+     */
+    Transaction deleteById(long id);
+
+    /**
+     * Removes the transaction only if the stored copy still equals {@code expected}.
+     */
+    default boolean delete(long id, Transaction expected) {
+        Transaction current = findById(id);
+        if (current == null || !current.equals(expected)) {
+            return false;
+        }
+        deleteById(id);
+        return true;
+    }
+
+    /**
+     * A full count, which may read the whole store; request paths use the in-memory indexes instead.
+     */
+    long count();
+
+    /**
+     * Visits every stored transaction without loading them all at once. For the file and H2 backends this reads
+     * the whole store from disk, so it is meant for rebuilding indexes at startup and for batch jobs; request
+     * paths and tiering page through the in-memory indexes instead.
+     */
+    void forEach(Consumer<Transaction> consumer);
+
+    default void saveAll(Collection<Transaction> transactions) {
+        transactions.forEach(this::save);
+    }
+
+    default void deleteAllById(Collection<Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    /**
+     * Releases files and connections; called on shutdown.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,204 @@
+package com.htest.transactionManagement.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.util.ConcurrentLongMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind in front of a slower repository, with a Caffeine cache for reads.
+ * <p>
+ * Writes land in a pending map keyed by ID, so repeated updates to one transaction between flushes
+ * coalesce into one write. Pending writes are flushed in batches every {@code flushInterval}, or as soon
+ * as {@code batchSize} are waiting; once {@code maxPending} are waiting, writers flush themselves so memory
+ * stays bounded. If that flush fails, the writer's own write is taken back out and the failure rethrown, so
+ * a write is either acknowledged and pending or rejected, never rejected and still written later. Reads see pending writes first, then the cache, then the delegate. Scans flush first,
+ * so they see every acknowledged write; they read the whole delegate, so only startup and batch jobs scan.
+ * <p>
+ * Acknowledged writes that have not been flushed yet are lost if the process dies, at most one flush
+ * interval's worth. A failed flush is logged and retried on the next one.
+ */
+@Slf4j
+public class WriteBehindTransactionRepository implements TransactionRepository {
+    private final TransactionRepository delegate;
+    private final int batchSize;
+    private final int maxPending;
+    private final ConcurrentLongMap<PendingWrite> pending = new ConcurrentLongMap<>();
+    private final Cache<Long, Transaction> cache;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "write-behind-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Counter coalesced;
+    private final Counter failures;
+    private final Timer flushes;
+    private final DistributionSummary batchSizes;
+
+    /**
+     * A save, or a delete when {@code transaction} is null. A new one per write and compared by identity,
+     * so a flush can tell whether the entry it wrote is still the latest even when the same, since
+     * modified, Transaction instance was saved again.
+     */
+    private static final class PendingWrite {
+        private final long id;
+        private final Transaction transaction;
+
+        private PendingWrite(long id, Transaction transaction) {
+            this.id = id;
+            this.transaction = transaction;
+        }
+    }
+
+    public WriteBehindTransactionRepository(TransactionRepository delegate, int batchSize, int maxPending,
+                                            Duration flushInterval, long cacheSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.maxPending = Math.max(batchSize, maxPending);
+        this.cache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.coalesced = Counter.builder("repository.write-behind.coalesced")
+                .description("Writes replaced by a newer write to the same ID before being flushed")
+                .register(meterRegistry);
+        this.failures = Counter.builder("repository.write-behind.failures").register(meterRegistry);
+        this.flushes = Timer.builder("repository.write-behind.flush").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("repository.write-behind.batch").register(meterRegistry);
+        Gauge.builder("repository.write-behind.pending", pending, ConcurrentLongMap::size).register(meterRegistry);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Transaction findById(long id) {
+        PendingWrite write = pending.get(id);
+        if (write != null) {
+            return write.transaction;
+        }
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public void save(Transaction transaction) {
+        cache.put(transaction.getId(), transaction);
+        try {
+            enqueue(transaction.getId(), new PendingWrite(transaction.getId(), transaction));
+        } catch (RuntimeException e) {
+            cache.invalidate(transaction.getId());
+            throw e;
+        }
+    }
+
+    @Override
+    public Transaction deleteById(long id) {
+        Transaction existing = findById(id);
+        if (existing != null) {
+            cache.invalidate(id);
+            enqueue(id, new PendingWrite(id, null));
+        }
+        return existing;
+    }
+
+    @Override
+    public long count() {
+        flush();
+        return delegate.count();
+    }
+
+    @Override
+    public void forEach(Consumer<Transaction> consumer) {
+        flush();
+        delegate.forEach(consumer);
+    }
+
+    /**
+     * Writes everything pending to the delegate, in at most two batches.
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Transaction> saves = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        List<PendingWrite> flushing = new ArrayList<>();
+        pending.forEach((id, write) -> flushing.add(write));
+        for (PendingWrite write : flushing) {
+            if (write.transaction == null) {
+                deletes.add(write.id);
+            } else {
+                saves.add(write.transaction);
+            }
+        }
+        flushes.record(() -> {
+            if (!saves.isEmpty()) {
+                delegate.saveAll(saves);
+            }
+            if (!deletes.isEmpty()) {
+                delegate.deleteAllById(deletes);
+            }
+        });
+        batchSizes.record(flushing.size());
+        // Only drop what was written; a newer write to the same ID stays pending
+        flushing.forEach(write -> pending.remove(write.id, write));
+        deletes.forEach(cache::invalidate);
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        delegate.close();
+    }
+
+    private void enqueue(long id, PendingWrite write) {
+        PendingWrite previous = pending.put(id, write);
+        if (previous != null) {
+            coalesced.increment();
+        }
+        int size = pending.size();
+        if (size >= maxPending) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                failures.increment();
+                // Flushed or replaced since, then the failure was not this write's
+                boolean withdrawn = previous != null ? pending.replace(id, write, previous) : pending.remove(id, write);
+                if (withdrawn) {
+                    throw e;
+                }
+                log.error("Write-behind flush of {} transactions failed, retrying on the next one", pending.size(), e);
+            }
+        } else if (size >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Write-behind flush of {} transactions failed, retrying on the next one", pending.size(), e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.htest.transactionManagement.search;
+
+import java.util.List;
+
+/**
+ * Transactions kept out of the in-memory indexes, one {@link IndexSummary} per immutable batch. The indexes merge
+ * the summaries in at query time, so only hot transactions take heap.
+ */
+public interface ColdSummaries {
+    ColdSummaries NONE = new ColdSummaries() {
+        @Override
+        public List<IndexSummary> summaries() {
+            return List.of();
+        }
+
+        @Override
+        public long size() {
+            return 0;
+        }
+    };
+
+    List<IndexSummary> summaries();
+
+    /**
+     * Live transactions across the summaries.
+     */
+    long size();
+}
@@ -0,0 +1,55 @@
+package com.htest.transactionManagement.search;
+
+import java.util.List;
+
+/**
+ * A set of transaction IDs walked from the newest (largest) ID down.
+ * Queries combine sets without materializing them, so their cost follows the matches visited.
+ */
+interface DocSet {
+    DocSet EMPTY = bound -> -1;
+
+    /**
+     * @return the largest ID in the set that is {@code <= bound}, or -1
+     */
+    long floor(long bound);
+
+    static DocSet union(List<? extends DocSet> sets) {
+        if (sets.size() == 1) {
+            return sets.get(0);
+        }
+        return bound -> {
+            long max = -1;
+            for (DocSet set : sets) {
+                max = Math.max(max, set.floor(bound));
+            }
+            return max;
+        };
+    }
+
+    /**
+     * Leapfrog intersection: every set is asked for its floor of the current candidate until all agree.
+     */
+    static DocSet intersection(List<? extends DocSet> sets) {
+        if (sets.size() == 1) {
+            return sets.get(0);
+        }
+        return bound -> {
+            long candidate = bound;
+            int agreed = 0;
+            for (int i = 0; agreed < sets.size(); i = (i + 1) % sets.size()) {
+                long floor = sets.get(i).floor(candidate);
+                if (floor < 0) {
+                    return -1;
+                }
+                if (floor == candidate) {
+                    agreed++;
+                } else {
+                    candidate = floor;
+                    agreed = 1;
+                }
+            }
+            return candidate;
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package com.htest.transactionManagement.search;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.service.TransactionChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Every hot transaction ID in order, merged with the ID runs of the cold tier's {@link ColdSummaries summaries},
+ * so the list can be scrolled newest first with a keyset cursor instead of an offset. IDs are time ordered, so
+ * newest first is descending ID.
+ */
+@Component
+public class IdIndex implements TransactionChangeListener {
+    private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+    private final ColdSummaries cold;
+
+    public IdIndex() {
+        this(ColdSummaries.NONE);
+    }
+
+    @Autowired
+    public IdIndex(ColdSummaries cold) {
+        this.cold = cold;
+    }
+
+    @Override
+    public void onReplayed(Transaction transaction, boolean hot) {
+        // Cold transactions are in the summaries
+        if (hot) {
+            onCreated(transaction);
+        }
+    }
+
+    @Override
+    public void onCreated(Transaction transaction) {
+        ids.add(transaction.getId());
+    }
+
+    @Override
+    public void onUpdated(Transaction previous, Transaction current) {
+        // An updated cold transaction is promoted back to the hot store
+        ids.add(current.getId());
+    }
+
+    @Override
+    public void onDeleted(Transaction transaction) {
+        ids.remove(transaction.getId());
+    }
+
+    @Override
+    public void onDemoted(Transaction transaction) {
+        ids.remove(transaction.getId());
+    }
+
+    /**
+     * @param cursor the last ID of the previous page, or null for the first page
+     */
+    public SearchHits page(Long cursor, int limit) {
+        Iterator<Long> newestFirst = newestFirst(cursor == null ? Long.MAX_VALUE : cursor);
+        List<Long> page = new ArrayList<>(Math.min(limit, 1024));
+        while (page.size() < limit && newestFirst.hasNext()) {
+            page.add(newestFirst.next());
+        }
+        Long nextCursor = page.size() == limit && newestFirst.hasNext() ? page.get(page.size() - 1) : null;
+        return new SearchHits(page, nextCursor);
+    }
+
+    /**
+     * Hot and live cold IDs below {@code before}, merged newest first.
+     */
+    private Iterator<Long> newestFirst(long before) {
+        Iterator<Long> hot = ids.headSet(before, false).descendingIterator();
+        List<IndexSummary> summaries = cold.summaries();
+        if (summaries.isEmpty()) {
+            return hot;
+        }
+        List<Iterator<Long>> runs = new ArrayList<>(summaries.size() + 1);
+        runs.add(hot);
+        for (IndexSummary summary : summaries) {
+            runs.add(new Run(summary, summary.lowerBound(SortField.ID, before, Long.MIN_VALUE)));
+        }
+        return new Merged<>(runs, Comparator.reverseOrder());
+    }
+
+    /**
+     * The live IDs of one summary below position {@code end}, newest first.
+     */
+    private static final class Run implements Iterator<Long> {
+        private final IndexSummary summary;
+        private int position;
+
+        Run(IndexSummary summary, int end) {
+            this.summary = summary;
+            this.position = end - 1;
+            skipDead();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position >= 0;
+        }
+
+        @Override
+        public Long next() {
+            if (position < 0) {
+                throw new NoSuchElementException();
+            }
+            long id = summary.id(SortField.ID.ordinal(), position--);
+            skipDead();
+            return id;
+        }
+
+        private void skipDead() {
+            while (position >= 0 && !summary.isLive(summary.id(SortField.ID.ordinal(), position))) {
+                position--;
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.htest.transactionManagement.search;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Memory-mapped index of an immutable batch of transactions, so they can be listed, sorted and searched without
+ * being on the heap: one run of entries per {@link SortField}, one more of amounts by type, and the postings of
+ * every term.
+ * <pre>
+ * runs      per sort field, per transaction in (key, id) order, then the amount entries in (type, key, id) order:
+ *           key:long, id:long, time:long, amount:long, type:int (ordinal, -1 for none)
+ * postings  per term in term order: id:long* ascending
+ * strings   per term in term order: UTF-8 bytes
+ * terms     per term in term order: stringOffset:int, stringLength:int, postingsOffset:int, postingsCount:int
+ * footer    count:int, termCount:int, postingsOffset:int, stringsOffset:int, termsOffset:int, magic:int
+ * </pre>
+ * Transactions killed after the summary was written stay in it; {@code isLive} filters them out at query time.
+ */
+public final class IndexSummary {
+    private static final int MAGIC = 0x54584E49; // "TXNI"
+    private static final int FOOTER_SIZE = 6 * 4;
+    /**
+     * The run of amount entries grouped by type, after the one per {@link SortField}.
+     */
+    static final int BY_TYPE = SortField.values().length;
+    private static final int RUNS = BY_TYPE + 1;
+    private static final int ENTRY_SIZE = 8 + 8 + 8 + 8 + 4;
+    private static final int TERM_SIZE = 4 * 4;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final MappedByteBuffer buffer;
+    private final LongPredicate isLive;
+    private final int count;
+    private final int termCount;
+    private final int termsOffset;
+
+    private IndexSummary(MappedByteBuffer buffer, LongPredicate isLive, int count, int termCount, int termsOffset) {
+        this.buffer = buffer;
+        this.isLive = isLive;
+        this.count = count;
+        this.termCount = termCount;
+        this.termsOffset = termsOffset;
+    }
+
+    private record Row(long key, long id, long time, long amount, int type) {
+    }
+
+    /**
+     * Writes the summary of {@code transactions} to {@code path} atomically and returns it mapped.
+     *
+     * @param isLive whether a summarized transaction is still stored where the summary says
+     */
+    public static IndexSummary write(Path path, Collection<Transaction> transactions, LongPredicate isLive)
+            throws IOException {
+        TreeMap<String, List<Long>> postings = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            for (String term : Tokenizer.terms(transaction.getDescription(), transaction.getRemarks())) {
+                postings.computeIfAbsent(term, t -> new ArrayList<>()).add(transaction.getId());
+            }
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            for (int runIndex = 0; runIndex < RUNS; runIndex++) {
+                SortField field = runIndex == BY_TYPE ? SortField.AMOUNT : SortField.values()[runIndex];
+                List<Row> run = new ArrayList<>(transactions.size());
+                for (Transaction transaction : transactions) {
+                    long time = SortField.PROCESSED_TIME.keyOf(transaction);
+                    long amount = SortField.AMOUNT.keyOf(transaction);
+                    run.add(new Row(field.keyOf(transaction), transaction.getId(), time, amount,
+                            transaction.getType() == null ? -1 : transaction.getType().ordinal()));
+                }
+                Comparator<Row> order = Comparator.comparingLong(Row::key).thenComparingLong(Row::id);
+                run.sort(runIndex == BY_TYPE ? Comparator.comparingInt(Row::type).thenComparing(order) : order);
+                for (Row row : run) {
+                    out.writeLong(row.key());
+                    out.writeLong(row.id());
+                    out.writeLong(row.time());
+                    out.writeLong(row.amount());
+                    out.writeInt(row.type());
+                }
+            }
+
+            int postingsOffset = out.size();
+            for (List<Long> ids : postings.values()) {
+                ids.sort(null);
+                for (long id : ids) {
+                    out.writeLong(id);
+                }
+            }
+            int stringsOffset = out.size();
+            List<byte[]> strings = new ArrayList<>(postings.size());
+            for (String term : postings.keySet()) {
+                byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+                strings.add(bytes);
+                out.write(bytes);
+            }
+            int termsOffset = out.size();
+            int stringOffset = stringsOffset;
+            int idsOffset = postingsOffset;
+            int term = 0;
+            for (Map.Entry<String, List<Long>> entry : postings.entrySet()) {
+                int length = strings.get(term++).length;
+                out.writeInt(stringOffset);
+                out.writeInt(length);
+                out.writeInt(idsOffset);
+                out.writeInt(entry.getValue().size());
+                stringOffset += length;
+                idsOffset += entry.getValue().size() * 8;
+            }
+            out.writeInt(transactions.size());
+            out.writeInt(postings.size());
+            out.writeInt(postingsOffset);
+            out.writeInt(stringsOffset);
+            out.writeInt(termsOffset);
+            out.writeInt(MAGIC);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(path, isLive);
+    }
+
+    /**
+     * @param isLive whether a summarized transaction is still stored where the summary says
+     */
+    public static IndexSummary open(Path path, LongPredicate isLive) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int limit = buffer.limit();
+        if (limit < FOOTER_SIZE || buffer.getInt(limit - 4) != MAGIC) {
+            throw new IOException("Not a transaction index summary: " + path);
+        }
+        int footer = limit - FOOTER_SIZE;
+        return new IndexSummary(buffer, isLive, buffer.getInt(footer), buffer.getInt(footer + 4),
+                buffer.getInt(footer + 16));
+    }
+
+    /**
+     * Transactions summarized, live or not.
+     */
+    int count() {
+        return count;
+    }
+
+    boolean isLive(long id) {
+        return isLive.test(id);
+    }
+
+    /**
+     * @param run a {@link SortField} ordinal or {@link #BY_TYPE}
+     */
+    long key(int run, int position) {
+        return buffer.getLong(entry(run, position));
+    }
+
+    long id(int run, int position) {
+        return buffer.getLong(entry(run, position) + 8);
+    }
+
+    long time(int run, int position) {
+        return buffer.getLong(entry(run, position) + 16);
+    }
+
+    long amount(int run, int position) {
+        return buffer.getLong(entry(run, position) + 24);
+    }
+
+    TransactionType type(int run, int position) {
+        int type = typeOrdinal(run, position);
+        return type < 0 ? null : TYPES[type];
+    }
+
+    /**
+     * @return the position of the first entry of the field's run at or after {@code (key, id)}
+     */
+    int lowerBound(SortField field, long key, long id) {
+        int run = field.ordinal();
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = key(run, middle);
+            if (middleKey < key || middleKey == key && id(run, middle) < id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the positions {@code [from, to)} of the type's entries in the {@link #BY_TYPE} run
+     */
+    int[] typeRange(TransactionType type) {
+        return new int[]{typeLowerBound(type.ordinal()), typeLowerBound(type.ordinal() + 1)};
+    }
+
+    private int typeLowerBound(int type) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (typeOrdinal(BY_TYPE, middle) < type) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int typeOrdinal(int run, int position) {
+        return buffer.getInt(entry(run, position) + 32);
+    }
+
+    /**
+     * @return the live postings of the term, or {@link DocSet#EMPTY}
+     */
+    DocSet postings(String term) {
+        int low = termLowerBound(term);
+        if (low == termCount || !term(low).equals(term)) {
+            return DocSet.EMPTY;
+        }
+        int entry = termsOffset + low * TERM_SIZE;
+        int offset = buffer.getInt(entry + 8);
+        int size = buffer.getInt(entry + 12);
+        return bound -> {
+            // Largest position holding an ID <= bound, then down past any that are no longer live
+            int lowPosition = 0;
+            int highPosition = size;
+            while (lowPosition < highPosition) {
+                int middle = (lowPosition + highPosition) >>> 1;
+                if (buffer.getLong(offset + middle * 8) <= bound) {
+                    lowPosition = middle + 1;
+                } else {
+                    highPosition = middle;
+                }
+            }
+            for (int position = lowPosition - 1; position >= 0; position--) {
+                long id = buffer.getLong(offset + position * 8);
+                if (isLive.test(id)) {
+                    return id;
+                }
+            }
+            return -1;
+        };
+    }
+
+    /**
+     * @return up to {@code limit} terms starting with {@code prefix}, in order
+     */
+    List<String> termsStartingWith(String prefix, int limit) {
+        List<String> terms = new ArrayList<>();
+        for (int position = termLowerBound(prefix); position < termCount && terms.size() < limit; position++) {
+            String term = term(position);
+            if (!term.startsWith(prefix)) {
+                break;
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+
+    private int termLowerBound(String term) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (term(middle).compareTo(term) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private String term(int position) {
+        int entry = termsOffset + position * TERM_SIZE;
+        byte[] bytes = new byte[buffer.getInt(entry + 4)];
+        buffer.get(buffer.getInt(entry), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int entry(int run, int position) {
+        return (run * count + position) * ENTRY_SIZE;
+    }
+}
@@ -0,0 +1,212 @@
+package com.htest.transactionManagement.search;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.service.TransactionChangeListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Inverted index from {@code description} and {@code remarks} terms to the IDs of the hot transactions
+ * containing them, kept up to date from the service's change notifications. Cold transactions are looked up
+ * in the postings of the cold tier's {@link ColdSummaries summaries} and merged in.
+ * <p>
+ * Queries are whitespace separated terms, all of which must match; {@code OR} separates alternatives
+ * and a trailing {@code *} matches every term with that prefix, e.g. {@code refund acme* OR chargeback}.
+ * Results are returned newest first, and the cursor is the last ID returned, so a page only walks the
+ * posting lists as far as its own matches.
+ */
+@Component
+public class InvertedIndex implements TransactionChangeListener {
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_PREFIX_EXPANSION = 1024;
+
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final ColdSummaries cold;
+
+    public InvertedIndex(MeterRegistry meterRegistry) {
+        this(meterRegistry, ColdSummaries.NONE);
+    }
+
+    @Autowired
+    public InvertedIndex(MeterRegistry meterRegistry, ColdSummaries cold) {
+        this.cold = cold;
+        Gauge.builder("search.index.terms", terms, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void onReplayed(Transaction transaction, boolean hot) {
+        // Hot transactions are indexed once at startup, changes keep it current from then on
+        if (hot) {
+            onCreated(transaction);
+        }
+    }
+
+    @Override
+    public void onCreated(Transaction transaction) {
+        for (String term : termsOf(transaction)) {
+            add(term, transaction.getId());
+        }
+    }
+
+    @Override
+    public void onUpdated(Transaction previous, Transaction current) {
+        Set<String> before = termsOf(previous);
+        Set<String> after = termsOf(current);
+        for (String term : before) {
+            if (!after.contains(term)) {
+                remove(term, previous.getId());
+            }
+        }
+        // Every term, not only new ones: an updated cold transaction is promoted and has none here yet
+        for (String term : after) {
+            add(term, current.getId());
+        }
+    }
+
+    @Override
+    public void onDeleted(Transaction transaction) {
+        for (String term : termsOf(transaction)) {
+            remove(term, transaction.getId());
+        }
+    }
+
+    @Override
+    public void onDemoted(Transaction transaction) {
+        onDeleted(transaction);
+    }
+
+    /**
+     * @param cursor the last ID of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the query is empty or a prefix is too short or too broad
+     */
+    public SearchHits search(String query, Long cursor, int limit) {
+        DocSet matches = parse(query);
+        List<Long> ids = new ArrayList<>(Math.min(limit, 128));
+        long bound = cursor == null ? Long.MAX_VALUE : cursor - 1;
+        while (ids.size() < limit && bound >= 0) {
+            long id = matches.floor(bound);
+            if (id < 0) {
+                break;
+            }
+            ids.add(id);
+            bound = id - 1;
+        }
+        // Only hand out a cursor if there is something after it
+        Long nextCursor = ids.size() == limit && bound >= 0 && matches.floor(bound) >= 0 ? ids.get(ids.size() - 1) : null;
+        return new SearchHits(ids, nextCursor);
+    }
+
+    private DocSet parse(String query) {
+        List<DocSet> alternatives = new ArrayList<>();
+        List<DocSet> required = new ArrayList<>();
+        boolean anyTerm = false;
+        for (String word : query.trim().split("\\s+")) {
+            if (word.equals("OR")) {
+                if (!required.isEmpty()) {
+                    alternatives.add(DocSet.intersection(required));
+                    required = new ArrayList<>();
+                }
+                continue;
+            }
+            if (word.equals("AND")) {
+                continue;
+            }
+            boolean prefix = word.endsWith("*");
+            List<String> wordTerms = new ArrayList<>(Tokenizer.terms(prefix ? word.substring(0, word.length() - 1) : word));
+            for (int i = 0; i < wordTerms.size(); i++) {
+                anyTerm = true;
+                required.add(prefix && i == wordTerms.size() - 1 ? prefix(wordTerms.get(i)) : term(wordTerms.get(i)));
+            }
+        }
+        if (!required.isEmpty()) {
+            alternatives.add(DocSet.intersection(required));
+        }
+        if (!anyTerm) {
+            throw new IllegalArgumentException("Search query has no terms");
+        }
+        return DocSet.union(alternatives);
+    }
+
+    private DocSet term(String term) {
+        Postings postings = terms.get(term);
+        List<IndexSummary> summaries = cold.summaries();
+        if (summaries.isEmpty()) {
+            return postings == null ? DocSet.EMPTY : postings;
+        }
+        List<DocSet> sets = new ArrayList<>(summaries.size() + 1);
+        if (postings != null) {
+            sets.add(postings);
+        }
+        for (IndexSummary summary : summaries) {
+            DocSet coldPostings = summary.postings(term);
+            if (coldPostings != DocSet.EMPTY) {
+                sets.add(coldPostings);
+            }
+        }
+        return sets.isEmpty() ? DocSet.EMPTY : DocSet.union(sets);
+    }
+
+    private DocSet prefix(String prefix) {
+        if (prefix.length() < MIN_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Prefix queries need at least " + MIN_PREFIX_LENGTH + " characters");
+        }
+        // Hot and cold terms together, one more than allowed is enough to tell there are too many
+        NavigableSet<String> expansion = new TreeSet<>();
+        for (String term : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            if (expansion.size() > MAX_PREFIX_EXPANSION) {
+                break;
+            }
+            expansion.add(term);
+        }
+        for (IndexSummary summary : cold.summaries()) {
+            if (expansion.size() > MAX_PREFIX_EXPANSION) {
+                break;
+            }
+            expansion.addAll(summary.termsStartingWith(prefix, MAX_PREFIX_EXPANSION + 1));
+        }
+        if (expansion.size() > MAX_PREFIX_EXPANSION) {
+            throw new IllegalArgumentException("Prefix '" + prefix + "*' matches too many terms");
+        }
+        List<DocSet> postings = new ArrayList<>(expansion.size());
+        for (String term : expansion) {
+            postings.add(term(term));
+        }
+        return postings.isEmpty() ? DocSet.EMPTY : DocSet.union(postings);
+    }
+
+    private void add(String term, long id) {
+        for (;;) {
+            Postings postings = terms.computeIfAbsent(term, t -> new Postings());
+            if (postings.add(id)) {
+                return;
+            }
+            terms.remove(term, postings);
+        }
+    }
+
+    private void remove(String term, long id) {
+        Postings postings = terms.get(term);
+        if (postings != null && postings.remove(id)) {
+            terms.remove(term, postings);
+        }
+    }
+
+    private static Set<String> termsOf(Transaction transaction) {
+        return transaction == null ? new HashSet<>() : Tokenizer.terms(transaction.getDescription(), transaction.getRemarks());
+    }
+
+    int termCount() {
+        return terms.size();
+    }
+}
@@ -0,0 +1,57 @@
+package com.htest.transactionManagement.search;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Iterators that are each in the same order, merged into one. An element more than one of them holds, such as
+ * a transaction that is being demoted and is briefly in both tiers, comes out once.
+ */
+final class Merged<T> implements Iterator<T> {
+    private final Comparator<? super T> order;
+    private final PriorityQueue<Source<T>> sources;
+
+    private static final class Source<T> {
+        final Iterator<T> iterator;
+        T head;
+
+        Source(Iterator<T> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+    }
+
+    Merged(List<Iterator<T>> iterators, Comparator<? super T> order) {
+        this.order = order;
+        this.sources = new PriorityQueue<>(Math.max(1, iterators.size()), (a, b) -> order.compare(a.head, b.head));
+        for (Iterator<T> iterator : iterators) {
+            if (iterator.hasNext()) {
+                sources.add(new Source<>(iterator));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !sources.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (sources.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        T next = sources.peek().head;
+        while (!sources.isEmpty() && order.compare(sources.peek().head, next) == 0) {
+            Source<T> source = sources.poll();
+            if (source.iterator.hasNext()) {
+                source.head = source.iterator.next();
+                sources.add(source);
+            }
+        }
+        return next;
+    }
+}
@@ -0,0 +1,97 @@
+package com.htest.transactionManagement.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Sorted posting list of transaction IDs for one term. IDs are time ordered, so new
+ * transactions append at the end and the common insert is O(1).
+ * <p>
+ * A removed ID only marks its slot deleted; the slots are compacted once half of them are deleted,
+ * so a remove costs O(log n) plus its share of the next compaction instead of shifting the array.
+ */
+final class Postings implements DocSet {
+    private long[] ids = new long[2];
+    private final BitSet deleted = new BitSet();
+    // Slots in use, deleted or not
+    private int size;
+    private int deletedCount;
+    private boolean retired;
+
+    /**
+     * @return false if the list was retired after becoming empty, the caller must look the term up again
+     */
+    synchronized boolean add(long id) {
+        if (retired) {
+            return false;
+        }
+        int index = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            if (deleted.get(index)) {
+                deleted.clear(index);
+                deletedCount--;
+            }
+            return true;
+        }
+        int insertAt = -index - 1;
+        if (insertAt < size && deletedCount > 0) {
+            // Shifting would move the deleted marks too, so drop them first
+            compact();
+            insertAt = -Arrays.binarySearch(ids, 0, size, id) - 1;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return true if the list is now empty and has been retired
+     */
+    synchronized boolean remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0 && !deleted.get(index)) {
+            deleted.set(index);
+            deletedCount++;
+            if (deletedCount > size / 2 && deletedCount < size) {
+                compact();
+            }
+        }
+        if (size == deletedCount) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    @Override
+    public synchronized long floor(long bound) {
+        int index = Arrays.binarySearch(ids, 0, size, bound);
+        int below = index >= 0 ? index : -index - 2;
+        if (below >= 0 && deletedCount > 0) {
+            below = deleted.previousClearBit(below);
+        }
+        return below >= 0 ? ids[below] : -1;
+    }
+
+    synchronized int size() {
+        return size - deletedCount;
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (!deleted.get(i)) {
+                ids[live++] = ids[i];
+            }
+        }
+        size = live;
+        deleted.clear();
+        deletedCount = 0;
+        if (ids.length > 2 && ids.length > 4 * size) {
+            ids = Arrays.copyOf(ids, Math.max(2, size * 2));
+        }
+    }
+}
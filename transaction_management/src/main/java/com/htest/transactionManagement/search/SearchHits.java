@@ -0,0 +1,11 @@
+package com.htest.transactionManagement.search;
+
+import java.util.List;
+
+/**
+ * Matching transaction IDs, newest first.
+ *
+ * @param nextCursor pass back as {@code cursor} for the next page, null when there are no more matches
+ */
+public record SearchHits(List<Long> ids, Long nextCursor) {
+}
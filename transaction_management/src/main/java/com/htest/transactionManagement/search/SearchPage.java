@@ -0,0 +1,13 @@
+package com.htest.transactionManagement.search;
+
+import com.htest.transactionManagement.model.Transaction;
+
+import java.util.List;
+
+/**
+ * One page of search results, newest first.
+ *
+ * @param nextCursor opaque cursor for the next page, null on the last page
+ */
+public record SearchPage(List<Transaction> content, String nextCursor) {
+}
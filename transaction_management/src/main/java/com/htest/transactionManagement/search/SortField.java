@@ -0,0 +1,58 @@
+package com.htest.transactionManagement.search;
+
+import com.htest.transactionManagement.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.ToLongFunction;
+
+/**
+ * Properties the list can be sorted by, each reduced to a long sort key.
+ */
+public enum SortField {
+    ID("id", Transaction::getId),
+    /**
+     * The CNY amount in fen, so transactions in different currencies compare by value.
+     */
+    AMOUNT("amount", Transaction::getCnyMinorUnits),
+    /**
+     * {@code processedTime}, or {@code timestamp} for transactions that have not been processed yet.
+     */
+    PROCESSED_TIME("processedTime", SortField::timeOf);
+
+    private final String property;
+    private final ToLongFunction<Transaction> key;
+
+    SortField(String property, ToLongFunction<Transaction> key) {
+        this.property = property;
+        this.key = key;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    long keyOf(Transaction transaction) {
+        return key.applyAsLong(transaction);
+    }
+
+    public static SortField of(String property) {
+        for (SortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Cannot sort by '" + property + "', expected id, amount or processedTime");
+    }
+
+    /**
+     * Nanoseconds since the epoch, read as UTC; only used for ordering.
+     */
+    public static long timeKey(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static long timeOf(Transaction transaction) {
+        return timeKey(transaction.getProcessedTime() != null ? transaction.getProcessedTime() : transaction.getTimestamp());
+    }
+}
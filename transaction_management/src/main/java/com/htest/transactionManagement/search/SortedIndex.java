@@ -0,0 +1,296 @@
+package com.htest.transactionManagement.search;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.service.TransactionChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Every hot transaction in a concurrent skip list per {@link SortField}, ordered by sort key and then ID, merged at
+ * query time with the matching runs of the cold tier's {@link ColdSummaries summaries}.
+ * <p>
+ * A page at offset {@code n} walks {@code n} entries instead of sorting the store, and the top entries are
+ * read straight from the head. Each entry also carries the transaction's time, amount and type, so top-N
+ * queries can filter on them without loading transactions, and amounts are also kept per type. The processed
+ * time list doubles as the candidates for demotion to the cold tier, oldest first.
+ */
+@Component
+public class SortedIndex implements TransactionChangeListener {
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::key).thenComparingLong(Entry::id);
+    private static final Comparator<Entry> BY_AMOUNT = Comparator.comparingLong(Entry::amount).thenComparingLong(Entry::id);
+
+    private final Map<SortField, ConcurrentSkipListSet<Entry>> indexes = new EnumMap<>(SortField.class);
+    // Amount entries of each type
+    private final Map<TransactionType, ConcurrentSkipListSet<Entry>> amountsByType = new EnumMap<>(TransactionType.class);
+    private final ColdSummaries cold;
+    private final AtomicLong hotSize = new AtomicLong();
+
+    /**
+     * Only {@code key} and {@code id} take part in the ordering, and so in equality.
+     */
+    private record Entry(long key, long id, long time, long amount, TransactionType type) {
+    }
+
+    public SortedIndex() {
+        this(ColdSummaries.NONE);
+    }
+
+    @Autowired
+    public SortedIndex(ColdSummaries cold) {
+        this.cold = cold;
+        for (SortField field : SortField.values()) {
+            indexes.put(field, new ConcurrentSkipListSet<>(ORDER));
+        }
+        for (TransactionType type : TransactionType.values()) {
+            amountsByType.put(type, new ConcurrentSkipListSet<>(ORDER));
+        }
+    }
+
+    @Override
+    public void onReplayed(Transaction transaction, boolean hot) {
+        // Cold transactions are in the summaries
+        if (hot) {
+            onCreated(transaction);
+        }
+    }
+
+    @Override
+    public void onCreated(Transaction transaction) {
+        add(transaction);
+        hotSize.incrementAndGet();
+    }
+
+    @Override
+    public void onUpdated(Transaction previous, Transaction current) {
+        // Not there if it was cold, an updated cold transaction is promoted back to the hot store
+        if (!remove(previous)) {
+            hotSize.incrementAndGet();
+        }
+        add(current);
+    }
+
+    @Override
+    public void onDeleted(Transaction transaction) {
+        if (remove(transaction)) {
+            hotSize.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void onDemoted(Transaction transaction) {
+        if (remove(transaction)) {
+            hotSize.decrementAndGet();
+        }
+    }
+
+    public long size() {
+        return hotSize.get() + cold.size();
+    }
+
+    /**
+     * IDs of one offset page in the given order, ties broken by ID in the same direction.
+     */
+    public List<Long> page(SortField field, boolean descending, long offset, int limit) {
+        Iterator<Entry> entries = entries(field, descending, Long.MIN_VALUE, Long.MAX_VALUE);
+        for (long skipped = 0; skipped < offset && entries.hasNext(); skipped++) {
+            entries.next();
+        }
+        List<Long> page = new ArrayList<>(Math.min(limit, 1024));
+        while (page.size() < limit && entries.hasNext()) {
+            page.add(entries.next().id());
+        }
+        return page;
+    }
+
+    /**
+     * IDs of the {@code limit} largest transactions by {@code field}, optionally only those whose
+     * processed time is in {@code [from, to)} and of the given type. By processed time, walks the window from
+     * its end. By amount within a window, scans the window keeping the {@code limit} largest; otherwise walks
+     * the amounts of the type, or all amounts, from the head. Each walk stops as soon as {@code limit} match.
+     *
+     * @param from {@link SortField#timeKey} of the earliest time, inclusive, or {@link Long#MIN_VALUE}
+     * @param to   {@link SortField#timeKey} of the latest time, exclusive, or {@link Long#MAX_VALUE}
+     * @param type only this type, or null for all
+     */
+    public List<Long> top(SortField field, int limit, long from, long to, TransactionType type) {
+        boolean window = from != Long.MIN_VALUE || to != Long.MAX_VALUE;
+        if (field == SortField.AMOUNT && window) {
+            return largestInWindow(limit, from, to, type);
+        }
+        // The window is a range of the processed time index
+        Iterator<Entry> largestFirst = field == SortField.PROCESSED_TIME ? entries(field, true, from, to)
+                : type != null ? amountsOf(type)
+                : entries(field, true, Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Long> top = new ArrayList<>(Math.min(limit, 1024));
+        while (top.size() < limit && largestFirst.hasNext()) {
+            Entry entry = largestFirst.next();
+            if (entry.time() >= from && entry.time() < to && (type == null || type == entry.type())) {
+                top.add(entry.id());
+            }
+        }
+        return top;
+    }
+
+    /**
+     * IDs of hot transactions processed before {@code to}, oldest first.
+     *
+     * @param to {@link SortField#timeKey} of the time, exclusive
+     */
+    public LongStream hotBefore(long to) {
+        return indexes.get(SortField.PROCESSED_TIME).headSet(bound(to)).stream()
+                .mapToLong(Entry::id);
+    }
+
+    /**
+     * Scans the processed time window with a min-heap of the {@code limit} largest amounts seen.
+     */
+    private List<Long> largestInWindow(int limit, long from, long to, TransactionType type) {
+        PriorityQueue<Entry> largest = new PriorityQueue<>(Math.min(limit, 1024) + 1, BY_AMOUNT);
+        Iterator<Entry> inWindow = entries(SortField.PROCESSED_TIME, false, from, to);
+        while (inWindow.hasNext()) {
+            Entry entry = inWindow.next();
+            if (type != null && type != entry.type()) {
+                continue;
+            }
+            if (largest.size() < limit) {
+                largest.add(entry);
+            } else if (limit > 0 && BY_AMOUNT.compare(entry, largest.peek()) > 0) {
+                largest.poll();
+                largest.add(entry);
+            }
+        }
+        Long[] top = new Long[largest.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = largest.poll().id();
+        }
+        return Arrays.asList(top);
+    }
+
+    /**
+     * Hot and live cold amount entries of one type, largest first.
+     */
+    private Iterator<Entry> amountsOf(TransactionType type) {
+        Iterator<Entry> hot = amountsByType.get(type).descendingIterator();
+        List<IndexSummary> summaries = cold.summaries();
+        if (summaries.isEmpty()) {
+            return hot;
+        }
+        List<Iterator<Entry>> runs = new ArrayList<>(summaries.size() + 1);
+        runs.add(hot);
+        for (IndexSummary summary : summaries) {
+            int[] range = summary.typeRange(type);
+            runs.add(new Run(summary, IndexSummary.BY_TYPE, range[0], range[1], true));
+        }
+        return new Merged<>(runs, ORDER.reversed());
+    }
+
+    /**
+     * Hot and live cold entries with keys in {@code [fromKey, toKey)}, merged in order.
+     */
+    private Iterator<Entry> entries(SortField field, boolean descending, long fromKey, long toKey) {
+        NavigableSet<Entry> hot = indexes.get(field);
+        if (fromKey != Long.MIN_VALUE || toKey != Long.MAX_VALUE) {
+            hot = hot.subSet(bound(fromKey), true, bound(toKey), false);
+        }
+        List<IndexSummary> summaries = cold.summaries();
+        if (summaries.isEmpty()) {
+            return descending ? hot.descendingIterator() : hot.iterator();
+        }
+        List<Iterator<Entry>> runs = new ArrayList<>(summaries.size() + 1);
+        runs.add(descending ? hot.descendingIterator() : hot.iterator());
+        for (IndexSummary summary : summaries) {
+            int from = fromKey == Long.MIN_VALUE ? 0 : summary.lowerBound(field, fromKey, Long.MIN_VALUE);
+            int to = toKey == Long.MAX_VALUE ? summary.count() : summary.lowerBound(field, toKey, Long.MIN_VALUE);
+            runs.add(new Run(summary, field.ordinal(), from, to, descending));
+        }
+        return new Merged<>(runs, descending ? ORDER.reversed() : ORDER);
+    }
+
+    private void add(Transaction transaction) {
+        indexes.forEach((field, index) -> index.add(entry(field, transaction)));
+        if (transaction.getType() != null) {
+            amountsByType.get(transaction.getType()).add(entry(SortField.AMOUNT, transaction));
+        }
+    }
+
+    private boolean remove(Transaction transaction) {
+        boolean removed = false;
+        for (Map.Entry<SortField, ConcurrentSkipListSet<Entry>> index : indexes.entrySet()) {
+            removed |= index.getValue().remove(entry(index.getKey(), transaction));
+        }
+        if (transaction.getType() != null) {
+            amountsByType.get(transaction.getType()).remove(entry(SortField.AMOUNT, transaction));
+        }
+        return removed;
+    }
+
+    private static Entry entry(SortField field, Transaction transaction) {
+        return new Entry(field.keyOf(transaction), transaction.getId(), SortField.PROCESSED_TIME.keyOf(transaction),
+                SortField.AMOUNT.keyOf(transaction), transaction.getType());
+    }
+
+    /**
+     * Sorts before every entry with this key.
+     */
+    private static Entry bound(long key) {
+        return new Entry(key, Long.MIN_VALUE, 0, 0, null);
+    }
+
+    /**
+     * The live entries at positions {@code [from, to)} of one summary's run, in either direction.
+     */
+    private static final class Run implements Iterator<Entry> {
+        private final IndexSummary summary;
+        private final int run;
+        private final int end;
+        private final int step;
+        private int position;
+
+        Run(IndexSummary summary, int run, int from, int to, boolean descending) {
+            this.summary = summary;
+            this.run = run;
+            this.position = descending ? to - 1 : from;
+            this.end = descending ? from - 1 : to;
+            this.step = descending ? -1 : 1;
+            skipDead();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position != end;
+        }
+
+        @Override
+        public Entry next() {
+            if (position == end) {
+                throw new NoSuchElementException();
+            }
+            Entry entry = new Entry(summary.key(run, position), summary.id(run, position), summary.time(run, position),
+                    summary.amount(run, position), summary.type(run, position));
+            position += step;
+            skipDead();
+            return entry;
+        }
+
+        private void skipDead() {
+            while (position != end && !summary.isLive(summary.id(run, position))) {
+                position += step;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.htest.transactionManagement.search;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Lower-cases text and splits it into runs of letters and digits. Han characters carry no spaces
+ * between words, so each one is its own term and a Chinese phrase is searched as all of its characters.
+ */
+final class Tokenizer {
+    private Tokenizer() {
+    }
+
+    static Set<String> terms(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text != null) {
+                tokenize(text, terms);
+            }
+        }
+        return terms;
+    }
+
+    private static void tokenize(String text, Set<String> terms) {
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN) {
+                flush(term, terms);
+                terms.add(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                term.appendCodePoint(Character.toLowerCase(codePoint));
+            } else {
+                flush(term, terms);
+            }
+        }
+        flush(term, terms);
+    }
+
+    private static void flush(StringBuilder term, Set<String> terms) {
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+            term.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.htest.transactionManagement.service;
+
+import com.htest.transactionManagement.diagnostics.RequestStageEvent;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionLookup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-get through the {@code transactions} cache: one bulk {@code getAll} on the Caffeine cache, and the
+ * misses resolved together by {@link TransactionService#getTransactions} and cached on the way back.
+ */
+@Component
+public class CachedTransactionLookup {
+    public static final int MAX_IDS = 500;
+
+    private final TransactionService transactionService;
+    private final Cache cache;
+
+    public CachedTransactionLookup(TransactionService transactionService, CacheManager cacheManager) {
+        this.transactionService = transactionService;
+        this.cache = cacheManager.getCache("transactions");
+    }
+
+    /**
+     * @return one entry per requested ID, in request order, duplicates included
+     * @throws IllegalArgumentException if there are more than {@link #MAX_IDS} IDs
+     */
+    public List<TransactionLookup> lookup(List<Long> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " IDs can be looked up at once");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, Transaction> found = RequestStageEvent.time(RequestStageEvent.CACHE, "transactions.getAll",
+                () -> getAll(distinct));
+        List<TransactionLookup> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            results.add(TransactionLookup.of(id, found.get(id)));
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Transaction> getAll(Set<Long> ids) {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            // Absent IDs aren't cached, so a later create is not hidden by a stale miss
+            Map<Object, Object> found = caffeineCache.getNativeCache().getAll(ids,
+                    missing -> transactionService.getTransactions((Set<Long>) missing));
+            return (Map<Long, Transaction>) (Map<?, ?>) found;
+        }
+        return transactionService.getTransactions(ids);
+    }
+}
@@ -0,0 +1,38 @@
+package com.htest.transactionManagement.service;
+
+import com.htest.transactionManagement.model.Transaction;
+
+/**
+ * Notified of every create, update and delete after it has been applied to the store.
+ * <p>
+ * Callbacks run on the account's lane, so they are ordered per account and must be quick;
+ * anything slow should be handed off. Moving a transaction between the hot and cold tiers
+ * is not a change: demotion is reported on its own, and promotion back is part of an update.
+ */
+public interface TransactionChangeListener {
+    /**
+     * Called at startup for every stored transaction, hot ones first, before any change is reported. Listeners
+     * that keep something for every stored transaction build it from here rather than scanning the stores
+     * themselves, so the stores are read once however many of them there are.
+     *
+     * @param hot whether the transaction is in the hot store rather than the cold tier
+     */
+    default void onReplayed(Transaction transaction, boolean hot) {
+    }
+
+    default void onCreated(Transaction transaction) {
+    }
+
+    default void onUpdated(Transaction previous, Transaction current) {
+    }
+
+    default void onDeleted(Transaction transaction) {
+    }
+
+    /**
+     * Called when the transaction has moved to the cold tier. It is still stored, and an update brings it back to
+     * the hot store. Only listeners that keep hot transactions alone need it.
+     */
+    default void onDemoted(Transaction transaction) {
+    }
+}
@@ -1,17 +1,77 @@
 package com.htest.transactionManagement.service;
 
 import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 public interface TransactionService {
     Transaction createTransaction(Transaction transaction);
 
-    Transaction updateTransaction(Long id, Transaction transaction);
+    Transaction updateTransaction(long id, Transaction transaction);
+
+    void deleteTransaction(long id);
+
+    Transaction getTransaction(long id);
+
+    /**
+     * {@link #createTransaction} without blocking the caller: the future completes on the account's lane once
+     * the create was applied, or fails with what {@code createTransaction} would have thrown.
+     */
+    CompletableFuture<Transaction> createTransactionAsync(Transaction transaction);
+
+    /**
+     * {@link #updateTransaction} without blocking the caller, see {@link #createTransactionAsync}.
+     */
+    CompletableFuture<Transaction> updateTransactionAsync(long id, Transaction transaction);
 
-    void deleteTransaction(Long id);
+    /**
+     * {@link #deleteTransaction} without blocking the caller, see {@link #createTransactionAsync}.
+     */
+    CompletableFuture<Void> deleteTransactionAsync(long id);
 
-    Transaction getTransaction(Long id);
+    /**
+     * Resolves many IDs in one pass over the hot store and the cold tier.
+     *
+     * @return the transactions found, keyed by ID; IDs that don't exist are absent
+     */
+    Map<Long, Transaction> getTransactions(Collection<Long> ids);
 
     Page<Transaction> getAllTransactions(Pageable pageable);
+
+    /**
+     * Moves up to {@code limit} terminal-status transactions processed before {@code cutoff} to the cold tier.
+     *
+     * @return IDs of the demoted transactions
+     */
+    List<Long> demoteTransactions(LocalDateTime cutoff, int limit);
+
+    /**
+     * Visits every stored transaction, hot and cold, without copying the whole store.
+     */
+    void forEachTransaction(Consumer<Transaction> consumer);
+
+    /**
+     * Sets {@code isReconciled} on the given transactions, one batch per account. Cold transactions stay in the
+     * cold tier and are marked there; like moves between tiers, that is not reported to the change listeners.
+     *
+     * @return number of transactions that were found and marked
+     */
+    int markReconciled(Collection<Long> ids);
+
+    /**
+     * Moves the given transactions to {@code to}, one batch per account, setting {@code processedTime}.
+     * Transactions that are no longer in one of the {@code from} statuses are left alone.
+     *
+     * @return IDs of the transactions that were moved
+     */
+    List<Long> expireTransactions(Collection<Long> ids, Set<TransactionStatus> from, TransactionStatus to);
 }
@@ -2,11 +2,23 @@ package com.htest.transactionManagement.service;
 
 import com.htest.transactionManagement.exception.DuplicateTransactionException;
 import com.htest.transactionManagement.exception.TransactionNotFoundException;
+import com.htest.transactionManagement.lane.AccountLanes;
+import com.htest.transactionManagement.lane.LaneBatcher;
+import com.htest.transactionManagement.ledger.Ledger;
 import com.htest.transactionManagement.model.Transaction;
 import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.repository.TransactionRepository;
+import com.htest.transactionManagement.search.SortField;
+import com.htest.transactionManagement.search.SortedIndex;
+import com.htest.transactionManagement.tiering.ColdTransactionStore;
 import com.htest.transactionManagement.util.Clock;
-import com.htest.transactionManagement.util.SnowflakeIdGenerator;
+import com.htest.transactionManagement.util.IdGenerator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -15,27 +27,113 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.time.temporal.ChronoUnit;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class TransactionServiceImpl implements TransactionService {
-    private final Map<Long, Transaction> transactionStore = new ConcurrentHashMap<>();
-    private final SnowflakeIdGenerator idGenerator;
-    private final Map<String, Long> transactionHashIndex = new ConcurrentHashMap<>();
+    private static final Duration DUPLICATE_WINDOW = Duration.ofSeconds(5);
+
+    private final IdGenerator idGenerator;
+    private final Map<DedupKey, Long> transactionHashIndex = new ConcurrentHashMap<>();
     private final Clock clock;
+    private final AccountLanes accountLanes;
+    private final TransactionRepository transactionStore;
+    private final ColdTransactionStore coldStore;
+    private final Ledger ledger;
+    private final SortedIndex sortedIndex;
+    private final List<TransactionChangeListener> changeListeners;
+    // Null when creates are not batched
+    private final LaneBatcher<Transaction, Transaction> createBatcher;
+
+    /**
+     * Builds its own {@link SortedIndex} and notifies it ahead of {@code changeListeners}.
+     */
+    public TransactionServiceImpl(IdGenerator idGenerator, Clock clock, AccountLanes accountLanes,
+                                  TransactionRepository transactionStore, ColdTransactionStore coldStore,
+                                  Ledger ledger, List<TransactionChangeListener> changeListeners) {
+        this(idGenerator, clock, accountLanes, transactionStore, coldStore, ledger,
+                new SortedIndex(coldStore), changeListeners);
+    }
+
+    private TransactionServiceImpl(IdGenerator idGenerator, Clock clock, AccountLanes accountLanes,
+                                   TransactionRepository transactionStore, ColdTransactionStore coldStore,
+                                   Ledger ledger, SortedIndex sortedIndex, List<TransactionChangeListener> changeListeners) {
+        this(idGenerator, clock, accountLanes, transactionStore, coldStore, ledger, sortedIndex,
+                Stream.concat(Stream.of(sortedIndex), changeListeners.stream()).toList(), 1, null);
+    }
 
-    public TransactionServiceImpl(SnowflakeIdGenerator idGenerator, Clock clock) {
+    /**
+     * With {@code maxBatchSize} above 1, concurrent creates on one lane are applied together, see {@link LaneBatcher}.
+     * Replays the stored transactions into the ledger and the listeners before returning.
+     *
+     * @param sortedIndex also one of {@code changeListeners}
+     */
+    @Autowired
+    public TransactionServiceImpl(IdGenerator idGenerator, Clock clock, AccountLanes accountLanes,
+                                  TransactionRepository transactionStore, ColdTransactionStore coldStore,
+                                  Ledger ledger, SortedIndex sortedIndex, List<TransactionChangeListener> changeListeners,
+                                  @Value("${transaction.batching.max-size:64}") int maxBatchSize,
+                                  MeterRegistry meterRegistry) {
         this.idGenerator = idGenerator;
         this.clock = clock;
+        this.accountLanes = accountLanes;
+        this.transactionStore = transactionStore;
+        this.coldStore = coldStore;
+        this.ledger = ledger;
+        this.sortedIndex = sortedIndex;
+        this.changeListeners = changeListeners;
+        this.createBatcher = maxBatchSize <= 1 ? null : new LaneBatcher<>(accountLanes, maxBatchSize, this::insertAll,
+                DistributionSummary.builder("transaction.create.batch")
+                        .description("Creates applied together on one lane")
+                        .register(meterRegistry));
+        replay();
+    }
+
+    /**
+     * One pass over both tiers rebuilds the ledger and everything the listeners keep per transaction.
+     */
+    private void replay() {
+        long[] replayed = new long[2];
+        transactionStore.forEach(transaction -> {
+            replay(transaction, true);
+            replayed[0]++;
+        });
+        coldStore.forEach(transaction -> {
+            replay(transaction, false);
+            replayed[1]++;
+        });
+        log.info("Replayed {} hot and {} cold transactions", replayed[0], replayed[1]);
     }
 
-    private String calculateTransactionHash(Transaction transaction) {
+    private void replay(Transaction transaction, boolean hot) {
+        ledger.replay(transaction);
+        for (TransactionChangeListener listener : changeListeners) {
+            listener.onReplayed(transaction, hot);
+        }
+    }
+
+    /**
+     * Duplicate detection key, compared on minor units so 100.0 and 100.00 are the same amount.
+     */
+    private record DedupKey(long amountMinorUnits, TransactionType type, String sourceAccountNumber, String currency) {
+    }
+
+    private DedupKey calculateTransactionHash(Transaction transaction) {
         if (transaction.getStatus() != null &&
                 (transaction.getStatus() == TransactionStatus.FAILED ||
                         transaction.getStatus() == TransactionStatus.CANCELLED ||
@@ -44,92 +142,278 @@ public class TransactionServiceImpl implements TransactionService {
             return null;
         }
 
-        return String.format("%s_%s_%s_%s_%s",
-                transaction.getAmount(),
+        // The timestamp is deliberately not part of the key: the window is checked against the
+        // indexed transaction's timestamp, so it doesn't reset at every second boundary.
+        return new DedupKey(
+                transaction.getMoney() == null ? Long.MIN_VALUE : transaction.getMoney().minorUnits(),
                 transaction.getType(),
                 transaction.getSourceAccountNumber(),
-                transaction.getCurrency(),
-                transaction.getTimestamp().truncatedTo(ChronoUnit.SECONDS)
+                transaction.getCurrency()
         );
     }
 
     @Override
     @CachePut(value = "transactions", key = "#result.id")
     public Transaction createTransaction(Transaction transaction) {
-        transaction.setId(idGenerator.nextId());
-        transaction.setTimestamp(clock.now());
+        if (createBatcher != null) {
+            return createBatcher.execute(transaction.getSourceAccountNumber(), transaction);
+        }
+        // Mutations for one account are applied in order on that account's lane
+        return accountLanes.execute(transaction.getSourceAccountNumber(), () -> insert(transaction));
+    }
+
+    @Override
+    @CachePut(value = "transactions", key = "#result.id")
+    public CompletableFuture<Transaction> createTransactionAsync(Transaction transaction) {
+        if (createBatcher != null) {
+            return createBatcher.executeAsync(transaction.getSourceAccountNumber(), transaction);
+        }
+        return accountLanes.executeAsync(transaction.getSourceAccountNumber(), () -> insert(transaction));
+    }
+
+    private Transaction insert(Transaction transaction) {
+        admit(transaction, idGenerator.nextId(), clock.now(), Map.of());
+        try {
+            transactionStore.save(transaction);
+        } catch (RuntimeException e) {
+            unadmit(transaction);
+            throw e;
+        }
+        changeListeners.forEach(listener -> listener.onCreated(transaction));
+
+//        log.info("Created transaction with ID: {}", transaction.getId());
+        return transaction;
+    }
+
+    /**
+     * Creates one lane's batch: IDs are taken in one go and the admitted transactions stored with one
+     * {@code saveAll}. Each create is checked on its own, and a rejected one fails only its own caller.
+     */
+    private void insertAll(List<LaneBatcher.Call<Transaction, Transaction>> calls) {
+        long[] ids = idGenerator.nextIds(calls.size());
+        LocalDateTime now = clock.now();
+        Map<Long, Transaction> admitted = new LinkedHashMap<>();
+        List<LaneBatcher.Call<Transaction, Transaction>> admittedCalls = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            LaneBatcher.Call<Transaction, Transaction> call = calls.get(i);
+            try {
+                admit(call.input(), ids[i], now, admitted);
+                admitted.put(ids[i], call.input());
+                admittedCalls.add(call);
+            } catch (RuntimeException e) {
+                call.fail(e);
+            }
+        }
+        if (admitted.isEmpty()) {
+            return;
+        }
+        try {
+            transactionStore.saveAll(admitted.values());
+        } catch (RuntimeException e) {
+            // One failed write fails the whole batch
+            admitted.values().forEach(this::unadmit);
+            admittedCalls.forEach(call -> call.fail(e));
+            return;
+        }
+        for (LaneBatcher.Call<Transaction, Transaction> call : admittedCalls) {
+            changeListeners.forEach(listener -> listener.onCreated(call.input()));
+            call.complete(call.input());
+        }
+    }
+
+    /**
+     * Assigns the ID, runs the duplicate and funds checks and records the transaction in the dedup index and
+     * the ledger; everything short of storing it.
+     *
+     * @param unsaved transactions admitted earlier in the same batch, not in the store yet
+     */
+    private void admit(Transaction transaction, long id, LocalDateTime now, Map<Long, Transaction> unsaved) {
+        transaction.setId(id);
+        transaction.setTimestamp(now);
         if (transaction.getStatus() == null) {
             transaction.setStatus(TransactionStatus.INITIATED);
         }
+        transaction.normalize();
 
-        String transactionHash = calculateTransactionHash(transaction);
+        DedupKey transactionHash = calculateTransactionHash(transaction);
 
-        if (transactionHash != null) {
-            if (transactionHashIndex.containsKey(transactionHash)) {
-                Long existingId = transactionHashIndex.get(transactionHash);
-                Transaction existing = transactionStore.get(existingId);
-                if (existing != null &&
-                        ChronoUnit.SECONDS.between(existing.getTimestamp(), clock.now()) <= 5 &&
-                        !isTerminalStatus(existing.getStatus())) {
-                    throw new DuplicateTransactionException(
-                            "Possible duplicate transaction detected within 5-second window");
-                }
+        if (transactionHash != null && transactionHashIndex.containsKey(transactionHash)) {
+            Long existingId = transactionHashIndex.get(transactionHash);
+            Transaction existing = unsaved.containsKey(existingId) ? unsaved.get(existingId)
+                    : transactionStore.findById(existingId);
+            if (existing != null &&
+                    Duration.between(existing.getTimestamp(), transaction.getTimestamp()).compareTo(DUPLICATE_WINDOW) <= 0 &&
+                    !isTerminalStatus(existing.getStatus())) {
+                throw new DuplicateTransactionException(
+                        "Possible duplicate transaction detected within 5-second window");
             }
+        }
+        // Last check before anything is recorded; rejects the create if funds are short
+        ledger.apply(null, transaction);
+        if (transactionHash != null) {
             transactionHashIndex.put(transactionHash, transaction.getId());
         }
+    }
 
-        transactionStore.put(transaction.getId(), transaction);
+    /**
+     * Undoes what {@link #admit} recorded, for a transaction that could not be stored.
+     */
+    private void unadmit(Transaction transaction) {
+        ledger.revert(null, transaction);
+        DedupKey hash = calculateTransactionHash(transaction);
+        if (hash != null) {
+            transactionHashIndex.remove(hash, transaction.getId());
+        }
+    }
 
-//        log.info("Created transaction with ID: {}", transaction.getId());
-        return transaction;
+    @Override
+    @CachePut(value = "transactions", key = "#id")
+    public Transaction updateTransaction(long id, Transaction transaction) {
+        return AccountLanes.join(update(id, transaction));
     }
 
     @Override
     @CachePut(value = "transactions", key = "#id")
-    public Transaction updateTransaction(Long id, Transaction transaction) {
-        if (!transactionStore.containsKey(id)) {
-            throw new TransactionNotFoundException("Transaction not found with ID: " + id);
-        }
+    public CompletableFuture<Transaction> updateTransactionAsync(long id, Transaction transaction) {
+        return update(id, transaction);
+    }
 
-        Transaction oldTransaction = transactionStore.get(id);
-        String oldHash = calculateTransactionHash(oldTransaction);
+    /**
+     * Replaces the transaction on its account's lane, and on the new account's lane too when it moves to another
+     * source account, so both accounts' state only ever changes on their own lanes.
+     */
+    private CompletableFuture<Transaction> update(long id, Transaction transaction) {
+        String account = find(id).getSourceAccountNumber();
+        return accountLanes.executeAsync(account, transaction.getSourceAccountNumber(), () -> replace(id, account, transaction))
+                // Moved to another account since the lookup, retry on the lanes it is on now
+                .thenCompose(updated -> updated != null ? CompletableFuture.completedFuture(updated) : update(id, transaction));
+    }
 
-        if (oldHash != null) {
-            transactionHashIndex.remove(oldHash);
+    /**
+     * @param account the source account whose lane the caller holds
+     * @return the stored transaction, or null if it is no longer on {@code account}
+     */
+    private Transaction replace(long id, String account, Transaction transaction) {
+        // Re-read on the lane, a delete or demotion may have been applied since the lookup above
+        Transaction oldTransaction = transactionStore.findById(id);
+        boolean promoted = false;
+        if (oldTransaction == null) {
+            oldTransaction = coldStore.get(id);
+            if (oldTransaction == null) {
+                throw new TransactionNotFoundException("Transaction not found with ID: " + id);
+            }
+            promoted = true;
+        }
+        if (!Objects.equals(oldTransaction.getSourceAccountNumber(), account)) {
+            return null;
         }
-
         transaction.setId(id);
-        String newHash = calculateTransactionHash(transaction);
-        if (newHash != null && !isTerminalStatus(transaction.getStatus())) {
-            transactionHashIndex.put(newHash, id);
+        transaction.normalize();
+        ledger.apply(oldTransaction, transaction);
+        DedupKey oldHash = calculateTransactionHash(oldTransaction);
+        boolean oldIndexed = oldHash != null && transactionHashIndex.remove(oldHash, id);
+
+        DedupKey newHash = calculateTransactionHash(transaction);
+        Long displaced = null;
+        boolean newIndexed = newHash != null && !isTerminalStatus(transaction.getStatus());
+        if (newIndexed) {
+            displaced = transactionHashIndex.put(newHash, id);
         }
 
-        transactionStore.put(id, transaction);
+        try {
+            transactionStore.save(transaction);
+        } catch (RuntimeException e) {
+            // Put the ledger and the dedup index back the way they were
+            ledger.revert(oldTransaction, transaction);
+            if (newIndexed) {
+                if (displaced != null) {
+                    transactionHashIndex.replace(newHash, id, displaced);
+                } else {
+                    transactionHashIndex.remove(newHash, id);
+                }
+            }
+            if (oldIndexed) {
+                transactionHashIndex.putIfAbsent(oldHash, id);
+            }
+            throw e;
+        }
+        if (promoted) {
+            // Updated cold transactions move back to the hot store
+            coldStore.kill(id);
+        }
+        Transaction previous = oldTransaction;
+        changeListeners.forEach(listener -> listener.onUpdated(previous, transaction));
 //        log.info("Updated transaction with ID: {}", id);
         return transaction;
     }
 
     @Override
     @CacheEvict(value = "transactions", key = "#id")
-    public void deleteTransaction(Long id) {
-        if (!transactionStore.containsKey(id)) {
-            throw new TransactionNotFoundException("Transaction not found with ID: " + id);
+    public void deleteTransaction(long id) {
+        Transaction current = find(id);
+        accountLanes.execute(current.getSourceAccountNumber(), () -> remove(id));
+    }
+
+    @Override
+    @CacheEvict(value = "transactions", key = "#id")
+    public CompletableFuture<Void> deleteTransactionAsync(long id) {
+        Transaction current = find(id);
+        return accountLanes.executeAsync(current.getSourceAccountNumber(), () -> remove(id)).thenApply(removed -> null);
+    }
+
+    private Transaction remove(long id) {
+        Transaction transaction = transactionStore.deleteById(id);
+        if (transaction == null) {
+            return removeCold(id);
         }
 
-        Transaction transaction = transactionStore.get(id);
-        String hash = calculateTransactionHash(transaction);
+        ledger.apply(transaction, null);
+        DedupKey hash = calculateTransactionHash(transaction);
         if (hash != null) {
-            transactionHashIndex.remove(hash);
+            transactionHashIndex.remove(hash, id);
         }
-
-        transactionStore.remove(id);
+        changeListeners.forEach(listener -> listener.onDeleted(transaction));
         log.info("Deleted transaction with ID: {}", id);
+        return transaction;
+    }
+
+    private Transaction removeCold(long id) {
+        Transaction transaction = coldStore.get(id);
+        if (transaction == null || !coldStore.kill(id)) {
+            throw new TransactionNotFoundException("Transaction not found with ID: " + id);
+        }
+        ledger.apply(transaction, null);
+        changeListeners.forEach(listener -> listener.onDeleted(transaction));
+        log.info("Deleted cold transaction with ID: {}", id);
+        return transaction;
     }
 
     @Override
     @Cacheable(value = "transactions", key = "#id")
-    public Transaction getTransaction(Long id) {
-        Transaction transaction = transactionStore.get(id);
+    public Transaction getTransaction(long id) {
+        return find(id);
+    }
+
+    @Override
+    public Map<Long, Transaction> getTransactions(Collection<Long> ids) {
+        Map<Long, Transaction> found = new HashMap<>(ids.size() * 2);
+        for (Long id : ids) {
+            Transaction transaction = transactionStore.findById(id);
+            if (transaction == null) {
+                transaction = coldStore.get(id);
+            }
+            if (transaction != null) {
+                found.put(id, transaction);
+            }
+        }
+        return found;
+    }
+
+    private Transaction find(long id) {
+        Transaction transaction = transactionStore.findById(id);
+        if (transaction == null) {
+            transaction = coldStore.get(id);
+        }
         if (transaction == null) {
             throw new TransactionNotFoundException("Transaction not found with ID: " + id);
         }
@@ -138,15 +422,131 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public Page<Transaction> getAllTransactions(Pageable pageable) {
-        List<Transaction> transactions = new ArrayList<>(transactionStore.values());
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), transactions.size());
-
-        return new PageImpl<>(
-                transactions.subList(start, end),
-                pageable,
-                transactions.size()
-        );
+        // ID order across both tiers, read from the index instead of sorting the store
+        List<Long> ids = sortedIndex.page(SortField.ID, false, pageable.getOffset(), pageable.getPageSize());
+        Map<Long, Transaction> found = getTransactions(ids);
+        List<Transaction> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Transaction transaction = found.get(id);
+            if (transaction != null) {
+                content.add(transaction);
+            }
+        }
+        return new PageImpl<>(content, pageable, sortedIndex.size());
+    }
+
+    @Override
+    public List<Long> demoteTransactions(LocalDateTime cutoff, int limit) {
+        // Oldest first from the index of hot transactions, loading only those processed before the cutoff
+        List<Transaction> candidates = sortedIndex.hotBefore(SortField.timeKey(cutoff))
+                .mapToObj(transactionStore::findById)
+                .filter(t -> t != null && isTerminalStatus(t.getStatus()))
+                .limit(limit)
+                .toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // Written before anything leaves the hot store, so readers always find one copy
+        coldStore.append(candidates);
+        List<Long> demoted = new ArrayList<>(candidates.size());
+        for (Transaction transaction : candidates) {
+            boolean removed = accountLanes.execute(transaction.getSourceAccountNumber(), () -> {
+                if (!transactionStore.delete(transaction.getId(), transaction)) {
+                    // Updated or deleted since it was selected, the cold copy is stale
+                    coldStore.kill(transaction.getId());
+                    return false;
+                }
+                DedupKey hash = calculateTransactionHash(transaction);
+                if (hash != null) {
+                    transactionHashIndex.remove(hash, transaction.getId());
+                }
+                changeListeners.forEach(listener -> listener.onDemoted(transaction));
+                return true;
+            });
+            if (removed) {
+                demoted.add(transaction.getId());
+            }
+        }
+        log.info("Demoted {} transactions to the cold tier", demoted.size());
+        return demoted;
+    }
+
+    @Override
+    public void forEachTransaction(Consumer<Transaction> consumer) {
+        transactionStore.forEach(consumer);
+        coldStore.forEach(consumer);
+    }
+
+    @Override
+    public int markReconciled(Collection<Long> ids) {
+        Map<String, List<Long>> idsByAccount = new HashMap<>();
+        for (Long id : ids) {
+            Transaction transaction = transactionStore.findById(id);
+            if (transaction == null) {
+                transaction = coldStore.get(id);
+            }
+            if (transaction != null) {
+                idsByAccount.computeIfAbsent(transaction.getSourceAccountNumber(), a -> new ArrayList<>()).add(id);
+            }
+        }
+
+        int marked = 0;
+        for (Map.Entry<String, List<Long>> account : idsByAccount.entrySet()) {
+            marked += accountLanes.execute(account.getKey(), () -> {
+                int count = 0;
+                for (Long id : account.getValue()) {
+                    Transaction transaction = transactionStore.findById(id);
+                    if (transaction == null) {
+                        // Cold transactions are marked where they are, in the cold tier's metadata
+                        if (coldStore.markReconciled(id)) {
+                            count++;
+                        }
+                        continue;
+                    }
+                    // A copy, so lock-free readers, caches and listeners see the previous version unchanged
+                    Transaction reconciled = transaction.toBuilder().isReconciled(true).build();
+                    transactionStore.save(reconciled);
+                    changeListeners.forEach(listener -> listener.onUpdated(transaction, reconciled));
+                    count++;
+                }
+                return count;
+            });
+        }
+        return marked;
+    }
+
+    @Override
+    public List<Long> expireTransactions(Collection<Long> ids, Set<TransactionStatus> from, TransactionStatus to) {
+        // Only hot transactions can still be in a non-terminal status
+        Map<String, List<Long>> idsByAccount = new HashMap<>();
+        for (Long id : ids) {
+            Transaction transaction = transactionStore.findById(id);
+            if (transaction != null) {
+                idsByAccount.computeIfAbsent(transaction.getSourceAccountNumber(), a -> new ArrayList<>()).add(id);
+            }
+        }
+
+        List<Long> expired = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> account : idsByAccount.entrySet()) {
+            expired.addAll(accountLanes.execute(account.getKey(), () -> {
+                List<Long> moved = new ArrayList<>();
+                for (Long id : account.getValue()) {
+                    Transaction transaction = transactionStore.findById(id);
+                    if (transaction == null || !from.contains(transaction.getStatus())) {
+                        continue;
+                    }
+                    // A copy, so listeners see the previous version unchanged
+                    replace(id, account.getKey(), transaction.toBuilder().status(to).processedTime(clock.now()).build());
+                    moved.add(id);
+                }
+                return moved;
+            }));
+        }
+        if (!expired.isEmpty()) {
+            log.info("Moved {} timed out transactions to {}", expired.size(), to);
+        }
+        return expired;
     }
 
     private boolean isTerminalStatus(TransactionStatus status) {
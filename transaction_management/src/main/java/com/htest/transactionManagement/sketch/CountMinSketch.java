@@ -0,0 +1,81 @@
+package com.htest.transactionManagement.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch: {@code depth} rows of {@code width} counters. A key's estimate is the smallest of its
+ * counters, so it never undercounts and overcounts by at most {@code e / width} of the total with probability
+ * {@code 1 - e^-depth}. Counters are atomic, so concurrent adds need no lock.
+ */
+public class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width counters per row, a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 2 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Count-Min depth must be positive and width a power of two");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * @return the key's estimate including this add
+     */
+    public long add(String key) {
+        long hash = Hashing.hash64(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        long hash = Hashing.hash64(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public long[] counters() {
+        long[] copy = new long[counters.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counters.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Adds another sketch's counters; both must have the same depth and width.
+     */
+    public void merge(long[] other) {
+        if (other.length != counters.length()) {
+            throw new IllegalArgumentException("Count-Min sketches of different sizes cannot be merged");
+        }
+        for (int i = 0; i < other.length; i++) {
+            counters.addAndGet(i, other[i]);
+        }
+    }
+
+    private int index(long hash, int row) {
+        // Kirsch-Mitzenmacher: row hashes derived from two halves of one 64-bit hash
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + (combined & (width - 1));
+    }
+}
@@ -0,0 +1,71 @@
+package com.htest.transactionManagement.sketch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Top-K over a {@link CountMinSketch}: keys are counted in the sketch, and the {@code capacity} keys with
+ * the largest estimates so far are kept as candidates. A candidate's estimate is updated in place without a
+ * lock; a key replaces the smallest candidate once its estimate exceeds it, so only keys that can still make
+ * the list take the lock.
+ */
+public class HeavyHitters {
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    // The smallest candidate estimate when last computed; candidates only grow, so it may lag low but never high
+    private volatile long floor;
+
+    public HeavyHitters(int capacity, int depth, int width) {
+        this.sketch = new CountMinSketch(depth, width);
+        this.capacity = capacity;
+    }
+
+    public void add(String key) {
+        long estimate = sketch.add(key);
+        if (candidates.computeIfPresent(key, (k, previous) -> Math.max(previous, estimate)) == null
+                && estimate > floor) {
+            offer(key, estimate);
+        }
+    }
+
+    public CountMinSketch sketch() {
+        return sketch;
+    }
+
+    public List<String> candidates() {
+        return List.copyOf(candidates.keySet());
+    }
+
+    private synchronized void offer(String key, long estimate) {
+        if (candidates.computeIfPresent(key, (k, previous) -> Math.max(previous, estimate)) != null) {
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            return;
+        }
+        // One pass for the smallest candidate and the one after it, which becomes the floor once it is gone
+        String smallest = null;
+        long smallestEstimate = Long.MAX_VALUE;
+        long next = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            long value = candidate.getValue();
+            if (value < smallestEstimate) {
+                next = smallestEstimate;
+                smallest = candidate.getKey();
+                smallestEstimate = value;
+            } else if (value < next) {
+                next = value;
+            }
+        }
+        if (estimate <= smallestEstimate) {
+            floor = smallestEstimate;
+            return;
+        }
+        candidates.remove(smallest);
+        candidates.put(key, estimate);
+        floor = Math.min(next, estimate);
+    }
+}
@@ -0,0 +1,96 @@
+package com.htest.transactionManagement.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HyperLogLog distinct counter with {@code 2^precision} one-byte registers, standard error about
+ * {@code 1.04 / sqrt(2^precision)} (0.8% at precision 14, in 16 KB). Registers are packed eight to an
+ * atomic long and only ever raised, so concurrent adds need no lock and merging is a register-wise max.
+ */
+public class HyperLogLog {
+    private final int precision;
+    private final int registerCount;
+    private final AtomicLongArray registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicLongArray(registerCount / 8);
+    }
+
+    public void add(String value) {
+        long hash = Hashing.hash64(value);
+        int register = (int) (hash >>> (64 - precision));
+        // Leading zeros of the remaining bits plus one; the guard bit caps it
+        int rank = Long.numberOfLeadingZeros(hash << precision | 1L << (precision - 1)) + 1;
+        raise(register, rank);
+    }
+
+    public long estimate() {
+        return estimate(registers());
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public byte[] registers() {
+        byte[] copy = new byte[registerCount];
+        for (int i = 0; i < registers.length(); i++) {
+            long packed = registers.get(i);
+            for (int j = 0; j < 8; j++) {
+                copy[i * 8 + j] = (byte) (packed >>> (j * 8));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Unions another counter's registers into this one; both must have the same precision.
+     */
+    public void merge(byte[] other) {
+        if (other.length != registerCount) {
+            throw new IllegalArgumentException("HyperLogLogs of different precision cannot be merged");
+        }
+        for (int register = 0; register < other.length; register++) {
+            if (other[register] != 0) {
+                raise(register, other[register]);
+            }
+        }
+    }
+
+    public static long estimate(byte[] registers) {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private void raise(int register, int rank) {
+        int index = register >>> 3;
+        int shift = (register & 7) * 8;
+        long packed;
+        long raised;
+        do {
+            packed = registers.get(index);
+            if ((packed >>> shift & 0xff) >= rank) {
+                return;
+            }
+            raised = packed & ~(0xffL << shift) | (long) rank << shift;
+        } while (!registers.compareAndSet(index, packed, raised));
+    }
+}
@@ -0,0 +1,171 @@
+package com.htest.transactionManagement.sketch;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.service.TransactionChangeListener;
+import com.htest.transactionManagement.util.Clock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size streaming summaries of recent creates: heavy-hitter accounts and merchants (Count-Min plus top-K)
+ * and distinct IPs, devices and accounts (HyperLogLog).
+ * <p>
+ * The window is a ring of {@code sketch.buckets} buckets of {@code window / buckets} each, aligned to the wall
+ * clock. A create lands in the current bucket, and a bucket is reset when the ring comes round to it again,
+ * so memory does not grow with traffic and the window slides one bucket at a time.
+ * <p>
+ * The {@code traffic.distinct.*} gauges share one merged summary for {@link #GAUGE_SUMMARY_TTL}, so a scrape
+ * merges the ring once rather than once per gauge.
+ */
+@Component
+public class TrafficSketches implements TransactionChangeListener {
+    static final Duration GAUGE_SUMMARY_TTL = Duration.ofSeconds(1);
+
+    private final long bucketMillis;
+    private final int topK;
+    private final int depth;
+    private final int width;
+    private final int precision;
+    private final Clock clock;
+    private final AtomicReferenceArray<Bucket> ring;
+    private volatile GaugeSummary gaugeSummary;
+
+    private record GaugeSummary(long expiresAtNanos, TrafficSummary summary) {
+    }
+
+    private final class Bucket {
+        private final long epoch;
+        private final AtomicLong transactions = new AtomicLong();
+        private final HeavyHitters accounts = new HeavyHitters(topK, depth, width);
+        private final HeavyHitters merchants = new HeavyHitters(topK, depth, width);
+        private final HyperLogLog ips = new HyperLogLog(precision);
+        private final HyperLogLog devices = new HyperLogLog(precision);
+        private final HyperLogLog distinctAccounts = new HyperLogLog(precision);
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        private void add(Transaction transaction) {
+            transactions.incrementAndGet();
+            if (transaction.getSourceAccountNumber() != null) {
+                accounts.add(transaction.getSourceAccountNumber());
+                distinctAccounts.add(transaction.getSourceAccountNumber());
+            }
+            if (transaction.getDestinationAccountNumber() != null) {
+                merchants.add(transaction.getDestinationAccountNumber());
+            }
+            if (transaction.getIpAddress() != null) {
+                ips.add(transaction.getIpAddress());
+            }
+            if (transaction.getDeviceInfo() != null) {
+                devices.add(transaction.getDeviceInfo());
+            }
+        }
+
+        private TrafficSnapshot snapshot() {
+            return new TrafficSnapshot(startOf(epoch), startOf(epoch + 1), transactions.get(), depth, width,
+                    accounts.sketch().counters(), accounts.candidates(),
+                    merchants.sketch().counters(), merchants.candidates(),
+                    ips.registers(), devices.registers(), distinctAccounts.registers());
+        }
+    }
+
+    /**
+     * @param topK      heavy-hitter candidates kept per bucket, and the most a summary can report
+     * @param width     Count-Min counters per row, a power of two; overestimates stay within {@code e / width} of the creates
+     * @param precision HyperLogLog precision; {@code 2^precision} bytes per counter
+     */
+    public TrafficSketches(@Value("${sketch.window:1h}") Duration window,
+                           @Value("${sketch.buckets:12}") int buckets,
+                           @Value("${sketch.top-k:50}") int topK,
+                           @Value("${sketch.count-min.depth:4}") int depth,
+                           @Value("${sketch.count-min.width:1024}") int width,
+                           @Value("${sketch.hll.precision:14}") int precision,
+                           Clock clock,
+                           MeterRegistry meterRegistry) {
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+        this.topK = topK;
+        this.depth = depth;
+        this.width = width;
+        this.precision = precision;
+        this.clock = clock;
+        this.ring = new AtomicReferenceArray<>(buckets);
+        Gauge.builder("traffic.distinct.ips", this, sketches -> sketches.gaugeSummary().distinctIps())
+                .description("Estimated distinct IP addresses creating transactions in the sketch window")
+                .register(meterRegistry);
+        Gauge.builder("traffic.distinct.devices", this, sketches -> sketches.gaugeSummary().distinctDevices())
+                .register(meterRegistry);
+        Gauge.builder("traffic.distinct.accounts", this, sketches -> sketches.gaugeSummary().distinctAccounts())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onCreated(Transaction transaction) {
+        current().add(transaction);
+    }
+
+    /**
+     * Merges the buckets still inside the window.
+     */
+    public TrafficSnapshot snapshot() {
+        long now = epochOf(clock.now());
+        TrafficSnapshot merged = TrafficSnapshot.empty(startOf(now - ring.length() + 1), startOf(now + 1), depth, width,
+                precision);
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.epoch > now - ring.length() && bucket.epoch <= now) {
+                merged = merged.merge(bucket.snapshot());
+            }
+        }
+        return merged;
+    }
+
+    public TrafficSummary summary(int top) {
+        return snapshot().summarize(top);
+    }
+
+    private TrafficSummary gaugeSummary() {
+        GaugeSummary cached = gaugeSummary;
+        long now = System.nanoTime();
+        if (cached == null || now - cached.expiresAtNanos >= 0) {
+            // Racing gauges may both merge; either result is fine to keep
+            cached = new GaugeSummary(now + GAUGE_SUMMARY_TTL.toNanos(), summary(0));
+            gaugeSummary = cached;
+        }
+        return cached.summary;
+    }
+
+    private Bucket current() {
+        long epoch = epochOf(clock.now());
+        int slot = (int) Math.floorMod(epoch, (long) ring.length());
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            // A bucket from the future means the clock stepped back; keep counting in it
+            if (bucket != null && bucket.epoch >= epoch) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private long epochOf(LocalDateTime time) {
+        return Math.floorDiv(time.toInstant(ZoneOffset.UTC).toEpochMilli(), bucketMillis);
+    }
+
+    private LocalDateTime startOf(long epoch) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epoch * bucketMillis, 1000),
+                Math.floorMod(epoch * bucketMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,96 @@
+package com.htest.transactionManagement.sketch;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The raw sketches of one window, as exchanged between replicas. Snapshots of the same window from different
+ * replicas {@link #merge} into the cluster-wide view: Count-Min counters add up, HyperLogLog registers take
+ * the maximum and heavy-hitter candidates are unioned and re-estimated. Windows are aligned to the wall clock,
+ * so replicas cover the same buckets.
+ */
+public record TrafficSnapshot(LocalDateTime from,
+                              LocalDateTime to,
+                              long transactions,
+                              int depth,
+                              int width,
+                              long[] accountCounts,
+                              List<String> accountCandidates,
+                              long[] merchantCounts,
+                              List<String> merchantCandidates,
+                              byte[] ips,
+                              byte[] devices,
+                              byte[] accounts) {
+
+    /**
+     * A window with nothing in it, the starting point for merging buckets.
+     */
+    public static TrafficSnapshot empty(LocalDateTime from, LocalDateTime to, int depth, int width, int precision) {
+        byte[] registers = new HyperLogLog(precision).registers();
+        return new TrafficSnapshot(from, to, 0, depth, width, new long[depth * width], List.of(),
+                new long[depth * width], List.of(), registers, registers, registers);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the snapshots were taken with different sketch sizes
+     */
+    public TrafficSnapshot merge(TrafficSnapshot other) {
+        if (depth != other.depth || width != other.width || ips.length != other.ips.length) {
+            throw new IllegalArgumentException("Snapshots with different sketch sizes cannot be merged");
+        }
+        CountMinSketch accountSketch = sketch(accountCounts);
+        accountSketch.merge(other.accountCounts);
+        CountMinSketch merchantSketch = sketch(merchantCounts);
+        merchantSketch.merge(other.merchantCounts);
+        return new TrafficSnapshot(
+                from.isBefore(other.from) ? from : other.from,
+                to.isAfter(other.to) ? to : other.to,
+                transactions + other.transactions,
+                depth, width,
+                accountSketch.counters(), union(accountCandidates, other.accountCandidates),
+                merchantSketch.counters(), union(merchantCandidates, other.merchantCandidates),
+                union(ips, other.ips), union(devices, other.devices), union(accounts, other.accounts));
+    }
+
+    /**
+     * @param top how many heavy hitters to report per dimension
+     */
+    public TrafficSummary summarize(int top) {
+        return new TrafficSummary(from, to, transactions,
+                heavyHitters(accountCounts, accountCandidates, top),
+                heavyHitters(merchantCounts, merchantCandidates, top),
+                HyperLogLog.estimate(ips), HyperLogLog.estimate(devices), HyperLogLog.estimate(accounts));
+    }
+
+    private List<TrafficSummary.HeavyHitter> heavyHitters(long[] counts, List<String> candidates, int top) {
+        CountMinSketch sketch = sketch(counts);
+        return candidates.stream()
+                .map(key -> new TrafficSummary.HeavyHitter(key, sketch.estimate(key)))
+                .sorted(Comparator.comparingLong(TrafficSummary.HeavyHitter::estimate).reversed())
+                .limit(top)
+                .toList();
+    }
+
+    private CountMinSketch sketch(long[] counts) {
+        CountMinSketch sketch = new CountMinSketch(depth, width);
+        sketch.merge(counts);
+        return sketch;
+    }
+
+    private static List<String> union(List<String> left, List<String> right) {
+        Set<String> union = new LinkedHashSet<>(left);
+        union.addAll(right);
+        return new ArrayList<>(union);
+    }
+
+    private static byte[] union(byte[] left, byte[] right) {
+        HyperLogLog union = new HyperLogLog(Integer.numberOfTrailingZeros(left.length));
+        union.merge(left);
+        union.merge(right);
+        return union.registers();
+    }
+}
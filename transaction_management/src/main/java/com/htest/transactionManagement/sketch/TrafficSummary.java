@@ -0,0 +1,23 @@
+package com.htest.transactionManagement.sketch;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Estimated traffic over one window. Heavy-hitter counts may overstate by a small fraction of
+ * {@code transactions}; distinct counts are within about 1% at the default precision.
+ *
+ * @param topMerchants counterparties, by {@code destinationAccountNumber}
+ */
+public record TrafficSummary(LocalDateTime from,
+                             LocalDateTime to,
+                             long transactions,
+                             List<HeavyHitter> topAccounts,
+                             List<HeavyHitter> topMerchants,
+                             long distinctIps,
+                             long distinctDevices,
+                             long distinctAccounts) {
+
+    public record HeavyHitter(String key, long estimate) {
+    }
+}
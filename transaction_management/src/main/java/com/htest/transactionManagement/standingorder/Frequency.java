@@ -0,0 +1,25 @@
+package com.htest.transactionManagement.standingorder;
+
+import java.time.LocalDateTime;
+
+public enum Frequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    QUARTERLY,
+    YEARLY;
+
+    /**
+     * The {@code n}th occurrence, counted from {@code start} rather than from the previous one, so a schedule
+     * starting on the 31st runs on the last day of shorter months and on the 31st again after them.
+     */
+    public LocalDateTime occurrence(LocalDateTime start, long n) {
+        return switch (this) {
+            case DAILY -> start.plusDays(n);
+            case WEEKLY -> start.plusWeeks(n);
+            case MONTHLY -> start.plusMonths(n);
+            case QUARTERLY -> start.plusMonths(3 * n);
+            case YEARLY -> start.plusYears(n);
+        };
+    }
+}
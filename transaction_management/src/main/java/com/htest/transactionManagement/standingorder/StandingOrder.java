@@ -0,0 +1,51 @@
+package com.htest.transactionManagement.standingorder;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.htest.transactionManagement.model.Transaction;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creates a copy of {@code template} at every occurrence of {@code frequency} from {@code startTime} up to and
+ * including {@code endTime}, or forever if there is none.
+ */
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class StandingOrder {
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long id;
+
+    @NotNull(message = "Template cannot be null")
+    @Valid
+    private Transaction template;
+
+    @NotNull(message = "Frequency cannot be null")
+    private Frequency frequency;
+
+    @NotNull(message = "Start time cannot be null")
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    // Index of the next occurrence, and when it is due; null once the schedule has ended
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long occurrences;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime nextRun;
+
+    /**
+     * @return when the {@code n}th occurrence is due, or null if it is after the end time
+     */
+    public LocalDateTime occurrence(long n) {
+        LocalDateTime time = frequency.occurrence(startTime, n);
+        return endTime != null && time.isAfter(endTime) ? null : time;
+    }
+}
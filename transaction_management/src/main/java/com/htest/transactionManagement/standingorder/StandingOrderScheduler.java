@@ -0,0 +1,192 @@
+package com.htest.transactionManagement.standingorder;
+
+import com.htest.transactionManagement.exception.DuplicateTransactionException;
+import com.htest.transactionManagement.exception.InsufficientFundsException;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.service.TransactionService;
+import com.htest.transactionManagement.util.Clock;
+import com.htest.transactionManagement.util.IdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the transactions of due standing orders through {@link TransactionService}, like any other create.
+ * <p>
+ * Every {@code standing-orders.interval}, at most {@code standing-orders.batch-size} due occurrences are claimed,
+ * the longest overdue first, and then created. A schedule that missed several occurrences gets one per claim and
+ * stays due, so a backlog after downtime drains at the batch rate instead of all at once; occurrences more than
+ * {@code standing-orders.max-catch-up} overdue are skipped. An occurrence is claimed before its transaction is
+ * created, so a crash in between skips it rather than paying it twice.
+ */
+@Slf4j
+@Component
+public class StandingOrderScheduler {
+    static final String PROCESSED_BY = "standing-order";
+
+    private final StandingOrderStore store;
+    private final TransactionService transactionService;
+    private final IdGenerator idGenerator;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration maxCatchUp;
+    private final Counter created;
+    private final Counter failed;
+    private final Counter skipped;
+    private final Timer lag;
+
+    private record Occurrence(StandingOrder order, long n, LocalDateTime scheduled) {
+    }
+
+    public StandingOrderScheduler(StandingOrderStore store, TransactionService transactionService,
+                                  IdGenerator idGenerator, Clock clock,
+                                  @Value("${standing-orders.batch-size:500}") int batchSize,
+                                  @Value("${standing-orders.max-catch-up:7d}") Duration maxCatchUp,
+                                  MeterRegistry meterRegistry) {
+        this.store = store;
+        this.transactionService = transactionService;
+        this.idGenerator = idGenerator;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxCatchUp = maxCatchUp;
+        this.created = Counter.builder("standing-orders.created").register(meterRegistry);
+        this.failed = Counter.builder("standing-orders.failed")
+                .description("Occurrences created as FAILED for lack of funds, or not created at all")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("standing-orders.skipped")
+                .description("Occurrences more than the maximum catch-up overdue, never created")
+                .register(meterRegistry);
+        this.lag = Timer.builder("standing-orders.lag")
+                .description("How long after its scheduled time each occurrence was created")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return store.isEnabled();
+    }
+
+    public StandingOrder schedule(StandingOrder order) {
+        StandingOrder scheduled = order.toBuilder()
+                .id(idGenerator.nextId())
+                .occurrences(0)
+                .nextRun(order.occurrence(0))
+                .build();
+        store.save(scheduled);
+        return scheduled;
+    }
+
+    public StandingOrder get(long id) {
+        return store.findById(id);
+    }
+
+    public List<StandingOrder> forAccount(String account, int limit) {
+        return store.findBySourceAccount(account, limit);
+    }
+
+    public boolean cancel(long id) {
+        return store.deleteById(id);
+    }
+
+    /**
+     * Claims and creates one batch of due occurrences.
+     *
+     * @return the number of transactions created
+     */
+    @Scheduled(fixedDelayString = "${standing-orders.interval:1s}")
+    public int run() {
+        if (!store.isEnabled()) {
+            return 0;
+        }
+        LocalDateTime now = clock.now();
+        LocalDateTime oldest = now.minus(maxCatchUp);
+        List<StandingOrder> due = store.due(now, batchSize);
+        List<StandingOrderStore.Claim> claims = new ArrayList<>(due.size());
+        List<Occurrence> occurrences = new ArrayList<>(due.size());
+        for (StandingOrder order : due) {
+            long n = order.getOccurrences();
+            LocalDateTime scheduled = order.getNextRun();
+            long missed = 0;
+            while (scheduled != null && scheduled.isBefore(oldest)) {
+                scheduled = order.occurrence(++n);
+                missed++;
+            }
+            skipped.increment(missed);
+            if (scheduled == null || scheduled.isAfter(now)) {
+                // Caught up by skipping, nothing to create until the next occurrence
+                claims.add(new StandingOrderStore.Claim(order.getId(), order.getOccurrences(), n, scheduled));
+                occurrences.add(null);
+            } else {
+                claims.add(new StandingOrderStore.Claim(order.getId(), order.getOccurrences(), n + 1, order.occurrence(n + 1)));
+                occurrences.add(new Occurrence(order, n, scheduled));
+            }
+        }
+
+        boolean[] claimed = store.claim(claims);
+        List<StandingOrderStore.Claim> released = new ArrayList<>();
+        int count = 0;
+        for (int i = 0; i < claimed.length; i++) {
+            Occurrence occurrence = occurrences.get(i);
+            if (!claimed[i] || occurrence == null) {
+                continue;
+            }
+            if (create(occurrence, now)) {
+                count++;
+            } else {
+                StandingOrderStore.Claim claim = claims.get(i);
+                released.add(new StandingOrderStore.Claim(claim.id(), claim.occurrences(), occurrence.n(),
+                        occurrence.scheduled()));
+            }
+        }
+        // Released occurrences are due again on the next tick
+        store.claim(released);
+        return count;
+    }
+
+    /**
+     * @return false if the occurrence should be retried later
+     */
+    private boolean create(Occurrence occurrence, LocalDateTime now) {
+        StandingOrder order = occurrence.order();
+        Transaction transaction = order.getTemplate().toBuilder()
+                .id(null)
+                .timestamp(null)
+                .referenceNumber("SO-" + order.getId() + "-" + occurrence.n())
+                .processedBy(PROCESSED_BY)
+                .build();
+        try {
+            transactionService.createTransaction(transaction);
+            created.increment();
+        } catch (DuplicateTransactionException e) {
+            // A matching transaction is still in the duplicate window, try again once it has passed
+            return false;
+        } catch (InsufficientFundsException e) {
+            // Kept as a FAILED transaction, so the missed payment is visible on the account
+            failed.increment();
+            createQuietly(occurrence, transaction.toBuilder().status(TransactionStatus.FAILED).remarks(e.getMessage()).build());
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Failed to create occurrence {} of standing order {}", occurrence.n(), order.getId(), e);
+        }
+        lag.record(Duration.between(occurrence.scheduled(), now));
+        return true;
+    }
+
+    private void createQuietly(Occurrence occurrence, Transaction transaction) {
+        try {
+            transactionService.createTransaction(transaction);
+        } catch (RuntimeException e) {
+            log.error("Failed to record failed occurrence {} of standing order {}", occurrence.n(),
+                    occurrence.order().getId(), e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.htest.transactionManagement.standingorder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Standing orders in an embedded H2 database, one row per schedule with its JSON, next run time and occurrence
+ * count. The index on the next run time is the due-time priority queue: finding what is due reads only the due
+ * rows, so millions of schedules cost disk rather than heap.
+ * <p>
+ * Off by default. With {@code standing-orders.enabled=false} no database is opened and every operation fails.
+ */
+@Slf4j
+@Component
+public class StandingOrderStore {
+    private final JdbcConnectionPool pool;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Moves a schedule from occurrence {@code expected} to {@code occurrences}, due at {@code nextRun}.
+     */
+    public record Claim(long id, long expected, long occurrences, LocalDateTime nextRun) {
+    }
+
+    public StandingOrderStore(@Value("${standing-orders.enabled:false}") boolean enabled,
+                              @Value("${standing-orders.url:jdbc:h2:file:./data/standing-orders}") String url,
+                              ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        if (!enabled) {
+            this.pool = null;
+            log.info("Standing orders are disabled");
+            return;
+        }
+        this.pool = JdbcConnectionPool.create(url, "sa", "");
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS standing_orders (id BIGINT PRIMARY KEY, "
+                    + "source_account VARCHAR(64) NOT NULL, occurrences BIGINT NOT NULL, next_run TIMESTAMP, "
+                    + "payload VARBINARY NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS standing_orders_next_run ON standing_orders (next_run)");
+            statement.execute("CREATE INDEX IF NOT EXISTS standing_orders_source ON standing_orders (source_account)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to open " + url, e);
+        }
+        log.info("Opened {} with {} standing orders", url, count());
+    }
+
+    public void save(StandingOrder order) {
+        try (Connection connection = connection();
+             PreparedStatement merge = connection.prepareStatement("MERGE INTO standing_orders "
+                     + "(id, source_account, occurrences, next_run, payload) KEY (id) VALUES (?, ?, ?, ?, ?)")) {
+            merge.setLong(1, order.getId());
+            merge.setString(2, order.getTemplate().getSourceAccountNumber());
+            merge.setLong(3, order.getOccurrences());
+            merge.setObject(4, order.getNextRun());
+            merge.setBytes(5, objectMapper.writeValueAsBytes(order));
+            merge.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to write standing order " + order.getId(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode standing order", e);
+        }
+    }
+
+    public StandingOrder findById(long id) {
+        List<StandingOrder> found = query("SELECT id, payload, occurrences, next_run FROM standing_orders WHERE id = ?",
+                id);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    public List<StandingOrder> findBySourceAccount(String account, int limit) {
+        return query("SELECT id, payload, occurrences, next_run FROM standing_orders WHERE source_account = ? "
+                + "ORDER BY id LIMIT ?", account, limit);
+    }
+
+    /**
+     * @return up to {@code limit} schedules due at or before {@code now}, the longest overdue first
+     */
+    public List<StandingOrder> due(LocalDateTime now, int limit) {
+        return query("SELECT id, payload, occurrences, next_run FROM standing_orders WHERE next_run <= ? "
+                + "ORDER BY next_run LIMIT ?", now, limit);
+    }
+
+    public boolean deleteById(long id) {
+        try (Connection connection = connection();
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM standing_orders WHERE id = ?")) {
+            delete.setLong(1, id);
+            return delete.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to delete standing order " + id, e);
+        }
+    }
+
+    /**
+     * Applies the claims in one database transaction. A claim only succeeds if the schedule is still at its
+     * expected occurrence, so an occurrence is claimed once even with several schedulers on one database.
+     *
+     * @return whether each claim succeeded, in order
+     */
+    public boolean[] claim(List<Claim> claims) {
+        boolean[] claimed = new boolean[claims.size()];
+        if (claims.isEmpty()) {
+            return claimed;
+        }
+        try (Connection connection = connection();
+             PreparedStatement update = connection.prepareStatement("UPDATE standing_orders SET occurrences = ?, "
+                     + "next_run = ? WHERE id = ? AND occurrences = ?")) {
+            connection.setAutoCommit(false);
+            for (Claim claim : claims) {
+                update.setLong(1, claim.occurrences());
+                update.setObject(2, claim.nextRun());
+                update.setLong(3, claim.id());
+                update.setLong(4, claim.expected());
+                update.addBatch();
+            }
+            int[] counts = update.executeBatch();
+            connection.commit();
+            for (int i = 0; i < counts.length; i++) {
+                claimed[i] = counts[i] > 0;
+            }
+            return claimed;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to claim " + claims.size() + " standing orders", e);
+        }
+    }
+
+    public long count() {
+        try (Connection connection = connection(); Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery("SELECT COUNT(*) FROM standing_orders")) {
+            row.next();
+            return row.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to count standing orders", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return pool != null;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (pool == null) {
+            throw new IllegalStateException("Standing orders are disabled");
+        }
+        return pool.getConnection();
+    }
+
+    private List<StandingOrder> query(String sql, Object... parameters) {
+        try (Connection connection = connection(); PreparedStatement select = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                select.setObject(i + 1, parameters[i]);
+            }
+            List<StandingOrder> orders = new ArrayList<>();
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    StandingOrder order = objectMapper.readValue(rows.getBytes(2), StandingOrder.class);
+                    // The columns are authoritative, claims don't rewrite the JSON and the JSON has no ID
+                    order.setId(rows.getLong(1));
+                    order.setOccurrences(rows.getLong(3));
+                    order.setNextRun(rows.getObject(4, LocalDateTime.class));
+                    orders.add(order);
+                }
+            }
+            return orders;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read standing orders", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode standing order", e);
+        }
+    }
+}
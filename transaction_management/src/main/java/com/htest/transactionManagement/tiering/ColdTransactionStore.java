@@ -0,0 +1,486 @@
+package com.htest.transactionManagement.tiering;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.search.ColdSummaries;
+import com.htest.transactionManagement.search.IndexSummary;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for aged transactions: immutable compressed segment files read through memory mapping.
+ * <p>
+ * Segments are never modified. A record that is deleted, or promoted back to the hot store by an
+ * update, is killed with a tombstone {@code id -> generation} meaning "every copy of this id in a
+ * segment of this generation or older is dead". Once enough of a segment is dead, {@link #compact}
+ * rewrites its live records as a new segment and deletes it. Reconciling a cold transaction sets its bit in the
+ * segment's reconciled bitmap instead of promoting it. Tombstones and reconciled bits are appended to small
+ * logs so they survive restarts; only they and the per-segment index stay on the heap.
+ * <p>
+ * Each segment has a memory-mapped {@link IndexSummary} next to it, which the list, scroll and search indexes
+ * merge in at query time instead of holding cold transactions themselves.
+ */
+@Slf4j
+@Component
+public class ColdTransactionStore implements ColdSummaries {
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String SUMMARY_SUFFIX = ".idx";
+    private static final String TOMBSTONE_LOG = "tombstones.log";
+    private static final String RECONCILED_LOG = "reconciled.log";
+    private static final int SCAN_PAGE = 1024;
+
+    private final Path directory;
+    private final int recordsPerBlock;
+    private final double compactionThreshold;
+    private final ObjectMapper objectMapper;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    // In segment order, each added after its segment
+    private final List<IndexSummary> summaries = new CopyOnWriteArrayList<>();
+    private final ConcurrentSkipListMap<Long, Long> tombstones = new ConcurrentSkipListMap<>();
+    private final Map<Long, AtomicInteger> deadRecords = new ConcurrentHashMap<>();
+    // Per segment generation: reconciled records by position, guarded by the bitmap's monitor
+    private final Map<Long, BitSet> reconciled = new ConcurrentHashMap<>();
+    private final AtomicLong nextGeneration = new AtomicLong(1);
+    private final FileChannel tombstoneLog;
+    private final FileChannel reconciledLog;
+    private final Segment.RecordFilter<Transaction> filter = new Segment.RecordFilter<>() {
+        @Override
+        public boolean isLive(long generation, long id) {
+            return !isDead(generation, id);
+        }
+
+        @Override
+        public boolean anyDead(long generation, long fromId, long toId) {
+            return tombstones.subMap(fromId, toId).values().stream().anyMatch(g -> g >= generation);
+        }
+
+        @Override
+        public Transaction decode(long generation, int position, byte[] record) {
+            return ColdTransactionStore.this.decode(generation, position, record);
+        }
+    };
+
+    public ColdTransactionStore(Path directory, int recordsPerBlock, ObjectMapper objectMapper) throws IOException {
+        this(directory, recordsPerBlock, 0.5, objectMapper);
+    }
+
+    /**
+     * @param compactionThreshold the fraction of a segment's records that must be dead before it is compacted
+     */
+    @Autowired
+    public ColdTransactionStore(@Value("${tiering.directory:data/segments}") Path directory,
+                                @Value("${tiering.records-per-block:64}") int recordsPerBlock,
+                                @Value("${tiering.compaction-threshold:0.5}") double compactionThreshold,
+                                ObjectMapper objectMapper) throws IOException {
+        this.directory = directory;
+        this.recordsPerBlock = recordsPerBlock;
+        this.compactionThreshold = compactionThreshold;
+        this.objectMapper = objectMapper;
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                segments.add(Segment.open(file));
+            }
+        }
+        segments.sort(Comparator.comparingLong(Segment::generation));
+        if (!segments.isEmpty()) {
+            nextGeneration.set(segments.get(segments.size() - 1).generation() + 1);
+        }
+
+        Path logPath = directory.resolve(TOMBSTONE_LOG);
+        if (Files.exists(logPath)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(logPath))) {
+                while (true) {
+                    long id = in.readLong();
+                    long generation = in.readLong();
+                    for (Segment segment : segments) {
+                        if (segment.generation() <= generation && !isDead(segment.generation(), id)
+                                && segment.find(id) != null) {
+                            deadRecords.computeIfAbsent(segment.generation(), g -> new AtomicInteger()).incrementAndGet();
+                        }
+                    }
+                    tombstones.merge(id, generation, Math::max);
+                }
+            } catch (EOFException endOfLog) {
+                // fully read
+            }
+        }
+        this.tombstoneLog = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+
+        Path reconciledPath = directory.resolve(RECONCILED_LOG);
+        if (Files.exists(reconciledPath)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(reconciledPath))) {
+                while (true) {
+                    long generation = in.readLong();
+                    int position = in.readInt();
+                    Segment segment = segment(generation);
+                    if (segment != null) {
+                        reconciled.computeIfAbsent(generation, g -> new BitSet(segment.recordCount())).set(position);
+                    }
+                }
+            } catch (EOFException endOfLog) {
+                // fully read
+            }
+        }
+        this.reconciledLog = FileChannel.open(reconciledPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+
+        for (Segment segment : segments) {
+            Path summaryPath = summaryPath(segment.generation());
+            if (Files.exists(summaryPath)) {
+                summaries.add(IndexSummary.open(summaryPath, isLive(segment.generation())));
+            } else {
+                // Written before summaries were, or lost in a crash between the two writes
+                summaries.add(IndexSummary.write(summaryPath, segment.read(0, segment.recordCount(), filter),
+                        isLive(segment.generation())));
+            }
+        }
+        if (!segments.isEmpty()) {
+            log.info("Opened {} cold segments with {} live transactions", segments.size(), size());
+        }
+    }
+
+    /**
+     * Writes the transactions to a new segment.
+     *
+     * @return the generation of the new segment
+     */
+    public long append(List<Transaction> transactions) {
+        List<Transaction> sorted = new ArrayList<>(transactions);
+        sorted.sort(Comparator.comparing(Transaction::getId));
+        long generation = nextGeneration.getAndIncrement();
+        Segment segment = write(generation, sorted);
+        IndexSummary summary = writeSummary(generation, sorted);
+        synchronized (this) {
+            segments.add(segment);
+            summaries.add(summary);
+        }
+        return generation;
+    }
+
+    /**
+     * Rewrites each segment with more than the compaction threshold of its records dead as a new segment of its
+     * live records, with their reconciled bits folded in, and deletes the old one.
+     *
+     * @return the number of segments compacted
+     */
+    public int compact() {
+        int compacted = 0;
+        for (Segment segment : segments) {
+            AtomicInteger dead = deadRecords.get(segment.generation());
+            if (dead != null && dead.get() > compactionThreshold * segment.recordCount()) {
+                compact(segment);
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    private void compact(Segment segment) {
+        long old = segment.generation();
+        // In one read, kills during it would shift a paged read's offsets
+        List<Integer> oldPositions = new ArrayList<>();
+        List<Transaction> live = segment.read(0, segment.recordCount(), new Segment.RecordFilter<>() {
+            @Override
+            public boolean isLive(long generation, long id) {
+                return filter.isLive(generation, id);
+            }
+
+            @Override
+            public boolean anyDead(long generation, long fromId, long toId) {
+                return filter.anyDead(generation, fromId, toId);
+            }
+
+            @Override
+            public Transaction decode(long generation, int position, byte[] record) {
+                oldPositions.add(position);
+                return filter.decode(generation, position, record);
+            }
+        });
+        long generation = nextGeneration.getAndIncrement();
+        Segment rewritten = live.isEmpty() ? null : write(generation, live);
+        IndexSummary summary = live.isEmpty() ? null : writeSummary(generation, live);
+
+        // Kills and reconciles are applied under the same monitor, so none can reach the old segment after this
+        synchronized (this) {
+            BitSet oldReconciled = reconciled.get(old);
+            for (int position = 0; position < live.size(); position++) {
+                Transaction transaction = live.get(position);
+                // Killed or reconciled while the new segment was being written
+                if (isDead(old, transaction.getId())) {
+                    kill(generation, transaction.getId());
+                } else if (oldReconciled != null && !Boolean.TRUE.equals(transaction.getIsReconciled())
+                        && isSet(oldReconciled, oldPositions.get(position))) {
+                    markReconciled(rewritten, position);
+                }
+            }
+            int index = segments.indexOf(segment);
+            segments.remove(index);
+            summaries.remove(index);
+            if (rewritten != null) {
+                segments.add(rewritten);
+                summaries.add(summary);
+            }
+            deadRecords.remove(old);
+            reconciled.remove(old);
+        }
+        try {
+            Files.deleteIfExists(segment.path());
+            Files.deleteIfExists(summaryPath(old));
+        } catch (IOException e) {
+            log.warn("Failed to delete compacted segment {}", segment.path(), e);
+        }
+        log.info("Compacted cold segment {} into {} with {} live of {} transactions", old, generation, live.size(),
+                segment.recordCount());
+    }
+
+    /**
+     * @return the live cold copy of the transaction, or null
+     */
+    public Transaction get(long id) {
+        // Newest first: if the newest copy is dead, every older copy is too
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            byte[] record = segment.find(id);
+            if (record != null) {
+                if (isDead(segment.generation(), id)) {
+                    return null;
+                }
+                // The position is only needed, and only looked up, if something in the segment was reconciled
+                int position = reconciled.containsKey(segment.generation()) ? segment.positionOf(id) : -1;
+                return decode(segment.generation(), position, record);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Kills the live cold copy of the transaction, if there is one.
+     *
+     * @return true if a live copy existed
+     */
+    public synchronized boolean kill(long id) {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            if (segment.find(id) == null) {
+                continue;
+            }
+            if (isDead(segment.generation(), id)) {
+                return false;
+            }
+            kill(segment.generation(), id);
+            return true;
+        }
+        return false;
+    }
+
+    private void kill(long generation, long id) {
+        tombstones.merge(id, generation, Math::max);
+        deadRecords.computeIfAbsent(generation, g -> new AtomicInteger()).incrementAndGet();
+        append(tombstoneLog, ByteBuffer.allocate(16).putLong(id).putLong(generation).flip());
+    }
+
+    /**
+     * Marks the live cold copy of the transaction reconciled, where it is, without promoting it.
+     *
+     * @return true if a live copy existed
+     */
+    public synchronized boolean markReconciled(long id) {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            int position = segment.positionOf(id);
+            if (position < 0) {
+                continue;
+            }
+            if (isDead(segment.generation(), id)) {
+                return false;
+            }
+            markReconciled(segment, position);
+            return true;
+        }
+        return false;
+    }
+
+    private void markReconciled(Segment segment, int position) {
+        BitSet bits = reconciled.computeIfAbsent(segment.generation(), g -> new BitSet(segment.recordCount()));
+        synchronized (bits) {
+            if (bits.get(position)) {
+                return;
+            }
+            bits.set(position);
+        }
+        append(reconciledLog, ByteBuffer.allocate(12).putLong(segment.generation()).putInt(position).flip());
+    }
+
+    private static boolean isSet(BitSet bits, int position) {
+        synchronized (bits) {
+            return bits.get(position);
+        }
+    }
+
+    @Override
+    public List<IndexSummary> summaries() {
+        return summaries;
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += liveRecords(segment);
+        }
+        return size;
+    }
+
+    /**
+     * Live transactions in segment order, skipping whole segments (and unaffected blocks) by their counts.
+     */
+    public List<Transaction> page(long offset, int limit) {
+        List<Transaction> result = new ArrayList<>(Math.min(limit, 1024));
+        long skip = offset;
+        for (Segment segment : segments) {
+            if (result.size() >= limit) {
+                break;
+            }
+            long live = liveRecords(segment);
+            if (skip >= live) {
+                skip -= live;
+                continue;
+            }
+            result.addAll(segment.read(skip, limit - result.size(), filter));
+            skip = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Visits every live cold transaction, decoding a page of records at a time.
+     */
+    public void forEach(Consumer<Transaction> consumer) {
+        for (Segment segment : segments) {
+            for (long skip = 0; skip < liveRecords(segment); skip += SCAN_PAGE) {
+                segment.read(skip, SCAN_PAGE, filter).forEach(consumer);
+            }
+        }
+    }
+
+    private long liveRecords(Segment segment) {
+        AtomicInteger dead = deadRecords.get(segment.generation());
+        return segment.recordCount() - (dead == null ? 0 : dead.get());
+    }
+
+    private boolean isDead(long generation, long id) {
+        Long deadUpTo = tombstones.get(id);
+        return deadUpTo != null && deadUpTo >= generation;
+    }
+
+    private Segment write(long generation, List<Transaction> sorted) {
+        long[] ids = new long[sorted.size()];
+        List<byte[]> records = new ArrayList<>(sorted.size());
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = sorted.get(i).getId();
+                records.add(objectMapper.writeValueAsBytes(sorted.get(i)));
+            }
+            Path file = directory.resolve(String.format("%016d%s", generation, SEGMENT_SUFFIX));
+            return Segment.write(file, generation, ids, records, recordsPerBlock);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cold segment", e);
+        }
+    }
+
+    private IndexSummary writeSummary(long generation, List<Transaction> sorted) {
+        try {
+            return IndexSummary.write(summaryPath(generation), sorted, isLive(generation));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cold segment summary", e);
+        }
+    }
+
+    private LongPredicate isLive(long generation) {
+        return id -> !isDead(generation, id);
+    }
+
+    private Path summaryPath(long generation) {
+        return directory.resolve(String.format("%016d%s", generation, SUMMARY_SUFFIX));
+    }
+
+    private Segment segment(long generation) {
+        for (Segment segment : segments) {
+            if (segment.generation() == generation) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void append(FileChannel log, ByteBuffer entry) {
+        try {
+            while (entry.hasRemaining()) {
+                log.write(entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to cold tier log", e);
+        }
+    }
+
+    /**
+     * @param position the record's position in its segment, or -1 if nothing in the segment was reconciled
+     */
+    private Transaction decode(long generation, int position, byte[] record) {
+        Transaction transaction = decode(record);
+        BitSet bits = position < 0 ? null : reconciled.get(generation);
+        if (bits != null) {
+            synchronized (bits) {
+                if (bits.get(position)) {
+                    transaction.setIsReconciled(true);
+                }
+            }
+        }
+        return transaction;
+    }
+
+    private Transaction decode(byte[] record) {
+        try {
+            Transaction transaction = objectMapper.readValue(record, Transaction.class);
+            transaction.normalize();
+            return transaction;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt cold transaction record", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        tombstoneLog.close();
+        reconciledLog.close();
+    }
+}
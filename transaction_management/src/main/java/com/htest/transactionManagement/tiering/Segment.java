@@ -0,0 +1,306 @@
+package com.htest.transactionManagement.tiering;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable, memory-mapped segment file of records sorted by ID.
+ * <pre>
+ * block*   deflate( (id:long, length:int, bytes)* )
+ * index    per block: firstId:long, offset:long, compressedLength:int, uncompressedLength:int, records:int
+ * footer   indexOffset:long, blockCount:int, recordCount:int, generation:long, magic:int
+ * </pre>
+ * The index is sparse (one entry per block), so a lookup binary-searches the index and inflates a single block.
+ */
+final class Segment {
+    private static final int MAGIC = 0x54584E53; // "TXNS"
+    private static final int FOOTER_SIZE = 8 + 4 + 4 + 8 + 4;
+    private static final int INDEX_ENTRY_SIZE = 8 + 8 + 4 + 4 + 4;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long generation;
+    private final int recordCount;
+    private final long[] firstIds;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] uncompressedLengths;
+    private final int[] blockRecords;
+    // Position of each block's first record
+    private final int[] blockStarts;
+    private final long maxId;
+
+    private Segment(Path path, MappedByteBuffer buffer, long generation, int recordCount, long[] firstIds,
+                    long[] offsets, int[] compressedLengths, int[] uncompressedLengths, int[] blockRecords, long maxId) {
+        this.path = path;
+        this.buffer = buffer;
+        this.generation = generation;
+        this.recordCount = recordCount;
+        this.firstIds = firstIds;
+        this.offsets = offsets;
+        this.compressedLengths = compressedLengths;
+        this.uncompressedLengths = uncompressedLengths;
+        this.blockRecords = blockRecords;
+        this.blockStarts = new int[blockRecords.length];
+        for (int block = 1; block < blockRecords.length; block++) {
+            blockStarts[block] = blockStarts[block - 1] + blockRecords[block - 1];
+        }
+        this.maxId = maxId;
+    }
+
+    /**
+     * Writes records (which must be sorted by ID) to {@code path} atomically and returns the mapped segment.
+     */
+    static Segment write(Path path, long generation, long[] ids, List<byte[]> records, int recordsPerBlock)
+            throws IOException {
+        int blockCount = (ids.length + recordsPerBlock - 1) / recordsPerBlock;
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            long[] blockOffsets = new long[blockCount];
+            int[] blockCompressed = new int[blockCount];
+            int[] blockUncompressed = new int[blockCount];
+            long position = 0;
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            for (int block = 0; block < blockCount; block++) {
+                raw.reset();
+                DataOutputStream rawOut = new DataOutputStream(raw);
+                int from = block * recordsPerBlock;
+                int to = Math.min(ids.length, from + recordsPerBlock);
+                for (int i = from; i < to; i++) {
+                    if (i > 0 && ids[i] <= ids[i - 1]) {
+                        throw new IllegalArgumentException("Segment records must be sorted by ascending unique id");
+                    }
+                    rawOut.writeLong(ids[i]);
+                    rawOut.writeInt(records.get(i).length);
+                    rawOut.write(records.get(i));
+                }
+                compressed.reset();
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater)) {
+                    raw.writeTo(deflate);
+                } finally {
+                    deflater.end();
+                }
+                compressed.writeTo(out);
+                blockOffsets[block] = position;
+                blockCompressed[block] = compressed.size();
+                blockUncompressed[block] = raw.size();
+                position += compressed.size();
+            }
+
+            long indexOffset = position;
+            for (int block = 0; block < blockCount; block++) {
+                int from = block * recordsPerBlock;
+                out.writeLong(ids[from]);
+                out.writeLong(blockOffsets[block]);
+                out.writeInt(blockCompressed[block]);
+                out.writeInt(blockUncompressed[block]);
+                out.writeInt(Math.min(ids.length, from + recordsPerBlock) - from);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(blockCount);
+            out.writeInt(ids.length);
+            out.writeLong(generation);
+            out.writeInt(MAGIC);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(path);
+    }
+
+    static Segment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int limit = buffer.limit();
+        if (limit < FOOTER_SIZE || buffer.getInt(limit - 4) != MAGIC) {
+            throw new IOException("Not a transaction segment: " + path);
+        }
+        int footer = limit - FOOTER_SIZE;
+        long indexOffset = buffer.getLong(footer);
+        int blockCount = buffer.getInt(footer + 8);
+        int recordCount = buffer.getInt(footer + 12);
+        long generation = buffer.getLong(footer + 16);
+
+        long[] firstIds = new long[blockCount];
+        long[] offsets = new long[blockCount];
+        int[] compressedLengths = new int[blockCount];
+        int[] uncompressedLengths = new int[blockCount];
+        int[] blockRecords = new int[blockCount];
+        for (int block = 0; block < blockCount; block++) {
+            int entry = (int) indexOffset + block * INDEX_ENTRY_SIZE;
+            firstIds[block] = buffer.getLong(entry);
+            offsets[block] = buffer.getLong(entry + 8);
+            compressedLengths[block] = buffer.getInt(entry + 16);
+            uncompressedLengths[block] = buffer.getInt(entry + 20);
+            blockRecords[block] = buffer.getInt(entry + 24);
+        }
+
+        long maxId = Long.MIN_VALUE;
+        if (blockCount > 0) {
+            ByteBuffer lastBlock = inflate(buffer, offsets[blockCount - 1], compressedLengths[blockCount - 1],
+                    uncompressedLengths[blockCount - 1]);
+            while (lastBlock.hasRemaining()) {
+                maxId = lastBlock.getLong();
+                int length = lastBlock.getInt();
+                lastBlock.position(lastBlock.position() + length);
+            }
+        }
+        return new Segment(path, buffer, generation, recordCount, firstIds, offsets, compressedLengths,
+                uncompressedLengths, blockRecords, maxId);
+    }
+
+    /**
+     * @return the record stored for {@code id}, or null if this segment doesn't contain it
+     */
+    byte[] find(long id) {
+        if (firstIds.length == 0 || id < firstIds[0] || id > maxId) {
+            return null;
+        }
+        int block = Arrays.binarySearch(firstIds, id);
+        if (block < 0) {
+            block = -block - 2;
+        }
+        ByteBuffer records = inflateBlock(block);
+        while (records.hasRemaining()) {
+            long recordId = records.getLong();
+            int length = records.getInt();
+            if (recordId == id) {
+                byte[] record = new byte[length];
+                records.get(record);
+                return record;
+            }
+            if (recordId > id) {
+                return null;
+            }
+            records.position(records.position() + length);
+        }
+        return null;
+    }
+
+    /**
+     * @return the position of {@code id} among this segment's records in ID order, or -1 if it doesn't contain it
+     */
+    int positionOf(long id) {
+        if (firstIds.length == 0 || id < firstIds[0] || id > maxId) {
+            return -1;
+        }
+        int block = Arrays.binarySearch(firstIds, id);
+        if (block < 0) {
+            block = -block - 2;
+        }
+        ByteBuffer records = inflateBlock(block);
+        for (int position = blockStarts[block]; records.hasRemaining(); position++) {
+            long recordId = records.getLong();
+            if (recordId == id) {
+                return position;
+            }
+            if (recordId > id) {
+                return -1;
+            }
+            int length = records.getInt();
+            records.position(records.position() + length);
+        }
+        return -1;
+    }
+
+    /**
+     * Reads live records in ID order after skipping {@code skip} live records. Blocks that are
+     * skipped entirely and contain no dead records are not inflated.
+     */
+    <T> List<T> read(long skip, int limit, RecordFilter<T> filter) {
+        List<T> result = new ArrayList<>();
+        for (int block = 0; block < firstIds.length && result.size() < limit; block++) {
+            long nextFirstId = block + 1 < firstIds.length ? firstIds[block + 1] : maxId + 1;
+            if (skip >= blockRecords[block] && !filter.anyDead(generation, firstIds[block], nextFirstId)) {
+                skip -= blockRecords[block];
+                continue;
+            }
+            ByteBuffer records = inflateBlock(block);
+            for (int position = blockStarts[block]; records.hasRemaining() && result.size() < limit; position++) {
+                long id = records.getLong();
+                int length = records.getInt();
+                int start = records.position();
+                records.position(start + length);
+                if (!filter.isLive(generation, id)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                byte[] record = new byte[length];
+                records.get(start, record);
+                result.add(filter.decode(generation, position, record));
+            }
+        }
+        return result;
+    }
+
+    private ByteBuffer inflateBlock(int block) {
+        return inflate(buffer, offsets[block], compressedLengths[block], uncompressedLengths[block]);
+    }
+
+    private static ByteBuffer inflate(MappedByteBuffer buffer, long offset, int compressedLength, int uncompressedLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice((int) offset, compressedLength));
+            ByteBuffer output = ByteBuffer.allocate(uncompressedLength);
+            while (!inflater.finished() && output.hasRemaining()) {
+                if (inflater.inflate(output) == 0 && inflater.needsInput()) {
+                    break;
+                }
+            }
+            return output.flip();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block in segment", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    int recordCount() {
+        return recordCount;
+    }
+
+    interface RecordFilter<T> {
+        boolean isLive(long generation, long id);
+
+        /**
+         * @return true if any record in [fromId, toId) of the given segment generation has been killed
+         */
+        boolean anyDead(long generation, long fromId, long toId);
+
+        /**
+         * @param position the record's position in the segment, see {@link #positionOf}
+         */
+        T decode(long generation, int position, byte[] record);
+    }
+}
@@ -0,0 +1,67 @@
+package com.htest.transactionManagement.tiering;
+
+import com.htest.transactionManagement.service.TransactionService;
+import com.htest.transactionManagement.util.Clock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Periodically demotes aged terminal-status transactions from the hot store to cold segments,
+ * one segment of at most {@code tiering.segment-records} transactions at a time, then compacts
+ * segments that have become mostly dead.
+ * <p>
+ * Segments outlive a restart, so the hot store must too: tiering refuses to start on the in-memory
+ * store, which would come back empty and lose every transaction that was not demoted yet.
+ */
+@Slf4j
+@Component
+public class TieringJob {
+    private final TransactionService transactionService;
+    private final ColdTransactionStore coldStore;
+    private final CacheManager cacheManager;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int segmentRecords;
+
+    public TieringJob(TransactionService transactionService, ColdTransactionStore coldStore, CacheManager cacheManager,
+                      Clock clock,
+                      @Value("${tiering.enabled:false}") boolean enabled,
+                      @Value("${repository.type:memory}") String repositoryType,
+                      @Value("${tiering.min-age:1d}") Duration minAge,
+                      @Value("${tiering.segment-records:100000}") int segmentRecords) {
+        if (enabled && repositoryType.equals("memory")) {
+            throw new IllegalStateException("tiering.enabled needs a durable hot store, set repository.type to file or h2");
+        }
+        this.transactionService = transactionService;
+        this.coldStore = coldStore;
+        this.cacheManager = cacheManager;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.segmentRecords = segmentRecords;
+    }
+
+    @Scheduled(initialDelayString = "${tiering.interval:PT10M}", fixedDelayString = "${tiering.interval:PT10M}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> demoted;
+        do {
+            demoted = transactionService.demoteTransactions(clock.now().minus(minAge), segmentRecords);
+            Cache cache = cacheManager.getCache("transactions");
+            if (cache != null) {
+                demoted.forEach(cache::evict);
+            }
+        } while (demoted.size() == segmentRecords);
+        coldStore.compact();
+    }
+}
@@ -0,0 +1,108 @@
+package com.htest.transactionManagement.timeout;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.service.TransactionChangeListener;
+import com.htest.transactionManagement.util.Clock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deadlines for transactions in INITIATED, PENDING or PROCESSING: each create or update into one of these
+ * statuses (re)schedules the transaction to time out {@code timeout.after} later, and moving to any other
+ * status or deleting it cancels the deadline. {@link TimeoutJob} collects what is due.
+ * <p>
+ * Only hot transactions can be in these statuses, so at startup the hot store is scheduled from each
+ * transaction's creation timestamp; ones already past it expire on the first tick.
+ */
+@Component
+public class PendingTimeouts implements TransactionChangeListener {
+    public static final Set<TransactionStatus> TIMED_STATUSES =
+            EnumSet.of(TransactionStatus.INITIATED, TransactionStatus.PENDING, TransactionStatus.PROCESSING);
+
+    private final boolean enabled;
+    private final Duration after;
+    private final Clock clock;
+    private final TimerWheel wheel;
+
+    public PendingTimeouts(@Value("${timeout.enabled:true}") boolean enabled,
+                           @Value("${timeout.after:30m}") Duration after,
+                           @Value("${timeout.tick:1s}") Duration tick,
+                           @Value("${timeout.wheel-size:4096}") int wheelSize,
+                           Clock clock,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.after = after;
+        this.clock = clock;
+        this.wheel = new TimerWheel(wheelSize, tick.toMillis(), millis(clock.now()));
+        Gauge.builder("timeout.pending", wheel, TimerWheel::pending)
+                .description("Transactions with a timeout deadline scheduled")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onReplayed(Transaction transaction, boolean hot) {
+        if (enabled && hot && TIMED_STATUSES.contains(transaction.getStatus())) {
+            LocalDateTime since = transaction.getTimestamp() != null ? transaction.getTimestamp() : clock.now();
+            wheel.schedule(transaction.getId(), millis(since.plus(after)));
+        }
+    }
+
+    @Override
+    public void onCreated(Transaction transaction) {
+        track(transaction);
+    }
+
+    @Override
+    public void onUpdated(Transaction previous, Transaction current) {
+        // Only a status change restarts the clock; other edits leave the deadline alone
+        if (previous.getStatus() != current.getStatus()) {
+            track(current);
+        }
+    }
+
+    @Override
+    public void onDeleted(Transaction transaction) {
+        wheel.cancel(transaction.getId());
+    }
+
+    /**
+     * @return IDs whose deadline has passed, each reported once
+     */
+    public List<Long> due() {
+        List<Long> due = new ArrayList<>();
+        wheel.advance(millis(clock.now()), due::add);
+        return due;
+    }
+
+    /**
+     * Hands IDs from {@link #due} that could not be expired back to the wheel, so the next tick reports them
+     * again. An ID given a new deadline in the meantime keeps it.
+     */
+    public void retry(List<Long> ids) {
+        long now = millis(clock.now());
+        ids.forEach(id -> wheel.scheduleIfAbsent(id, now));
+    }
+
+    private void track(Transaction transaction) {
+        if (enabled && TIMED_STATUSES.contains(transaction.getStatus())) {
+            wheel.schedule(transaction.getId(), millis(clock.now().plus(after)));
+        } else {
+            wheel.cancel(transaction.getId());
+        }
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,64 @@
+package com.htest.transactionManagement.timeout;
+
+import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Every {@code timeout.tick}, moves transactions whose deadline in {@link PendingTimeouts} has passed to
+ * {@code timeout.status}, in batches of {@code timeout.batch-size}. If a batch fails, it and the batches after it
+ * are retried on the next tick.
+ */
+@Component
+public class TimeoutJob {
+    private final PendingTimeouts pendingTimeouts;
+    private final TransactionService transactionService;
+    private final CacheManager cacheManager;
+    private final TransactionStatus status;
+    private final int batchSize;
+    private final Counter expired;
+
+    public TimeoutJob(PendingTimeouts pendingTimeouts, TransactionService transactionService, CacheManager cacheManager,
+                      @Value("${timeout.status:FAILED}") TransactionStatus status,
+                      @Value("${timeout.batch-size:1000}") int batchSize,
+                      MeterRegistry meterRegistry) {
+        if (status != TransactionStatus.FAILED && status != TransactionStatus.CANCELLED) {
+            throw new IllegalArgumentException("timeout.status must be FAILED or CANCELLED, was " + status);
+        }
+        this.pendingTimeouts = pendingTimeouts;
+        this.transactionService = transactionService;
+        this.cacheManager = cacheManager;
+        this.status = status;
+        this.batchSize = batchSize;
+        this.expired = Counter.builder("timeout.expired").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${timeout.tick:1s}")
+    public void run() {
+        List<Long> due = pendingTimeouts.due();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            List<Long> changed;
+            try {
+                changed = transactionService.expireTransactions(batch, PendingTimeouts.TIMED_STATUSES, status);
+            } catch (RuntimeException e) {
+                // The wheel already forgot these deadlines; this batch and the rest come round on the next tick
+                pendingTimeouts.retry(due.subList(from, due.size()));
+                throw e;
+            }
+            Cache cache = cacheManager.getCache("transactions");
+            if (cache != null) {
+                changed.forEach(cache::evict);
+            }
+            expired.increment(changed.size());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.htest.transactionManagement.timeout;
+
+import com.htest.transactionManagement.util.ConcurrentLongLongMap;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hashed timing wheel of transaction deadlines: {@code size} slots of {@code tickMillis} each, a deadline going
+ * into slot {@code tick % size}. Deadlines further out than one turn wait in their slot for later turns.
+ * <p>
+ * Scheduling appends an (id, tick) pair to a slot and records the tick as the ID's current deadline; cancelling
+ * only forgets the current deadline. Slot entries that no longer match it are dropped when their slot comes up,
+ * so schedule, reschedule and cancel are O(1) and a slot entry costs 16 bytes in primitive arrays.
+ * The wheel is passive: {@link #advance} is called with the current time and reports what expired.
+ * <p>
+ * There is no wheel-wide lock. Scheduling locks only its target slot, and an advance moves {@code lastTick} one
+ * tick at a time under the lock of the slot it has just swept, so a schedule that still finds its tick ahead of
+ * {@code lastTick} is sure to be swept; one that finds it passed picks a later tick.
+ */
+public class TimerWheel {
+    private final Slot[] slots;
+    private final int mask;
+    private final long tickMillis;
+    // Ticks are never negative
+    private final ConcurrentLongLongMap deadlines = new ConcurrentLongLongMap(-1);
+    private final Object advancing = new Object();
+    private volatile long lastTick;
+
+    private static final class Slot {
+        private long[] ids = new long[4];
+        private long[] ticks = new long[4];
+        private int size;
+
+        private void add(long id, long tick) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                ticks = Arrays.copyOf(ticks, size * 2);
+            }
+            ids[size] = id;
+            ticks[size] = tick;
+            size++;
+        }
+    }
+
+    /**
+     * @param size number of slots, rounded up to a power of two
+     */
+    public TimerWheel(int size, long tickMillis, long startMillis) {
+        int slotCount = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = slotCount - 1;
+        this.tickMillis = tickMillis;
+        this.lastTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Sets the ID's deadline, replacing any earlier one. A deadline in the past expires on the next advance.
+     */
+    public void schedule(long id, long deadlineMillis) {
+        schedule(id, deadlineMillis, true);
+    }
+
+    /**
+     * Sets the ID's deadline unless it already has one.
+     */
+    public void scheduleIfAbsent(long id, long deadlineMillis) {
+        schedule(id, deadlineMillis, false);
+    }
+
+    public void cancel(long id) {
+        deadlines.remove(id);
+    }
+
+    public int pending() {
+        return deadlines.size();
+    }
+
+    /**
+     * Expires every deadline up to {@code nowMillis}, handing each expired ID to {@code expired} once.
+     */
+    public void advance(long nowMillis, LongConsumer expired) {
+        synchronized (advancing) {
+            long now = nowMillis / tickMillis;
+            long last = lastTick;
+            if (now - mask > last + 1) {
+                // After a long pause every slot is due at most once; move past the skipped ticks first so a
+                // schedule aiming at one of them retries
+                last = now - mask - 1;
+                lastTick = last;
+            }
+            for (long tick = last + 1; tick <= now; tick++) {
+                Slot slot = slots[(int) (tick & mask)];
+                synchronized (slot) {
+                    expire(slot, now, expired);
+                    lastTick = tick;
+                }
+            }
+        }
+    }
+
+    private void schedule(long id, long deadlineMillis, boolean replace) {
+        long deadline = Math.ceilDiv(deadlineMillis, tickMillis);
+        while (true) {
+            long tick = Math.max(deadline, lastTick + 1);
+            Slot slot = slots[(int) (tick & mask)];
+            synchronized (slot) {
+                if (tick <= lastTick) {
+                    // Swept while we waited for the lock
+                    continue;
+                }
+                if (replace) {
+                    deadlines.put(id, tick);
+                } else if (deadlines.putIfAbsent(id, tick) != -1) {
+                    return;
+                }
+                slot.add(id, tick);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sweeps one slot; the caller holds its lock.
+     */
+    private void expire(Slot slot, long now, LongConsumer expired) {
+        int kept = 0;
+        for (int i = 0; i < slot.size; i++) {
+            long id = slot.ids[i];
+            long tick = slot.ticks[i];
+            if (tick > now) {
+                // A later turn of the wheel
+                slot.ids[kept] = id;
+                slot.ticks[kept] = tick;
+                kept++;
+            } else if (deadlines.remove(id, tick)) {
+                expired.accept(id);
+            }
+        }
+        slot.size = kept;
+        if (kept < slot.ids.length / 4 && slot.ids.length > 4) {
+            slot.ids = Arrays.copyOf(slot.ids, Math.max(4, kept * 2));
+            slot.ticks = Arrays.copyOf(slot.ticks, Math.max(4, kept * 2));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.htest.transactionManagement.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * {@link ConcurrentLongMap} with primitive {@code long} values, so neither keys nor values are ever boxed: an entry
+ * is a slot in two {@code long[]} and a {@code byte[]} of slot states.
+ * <p>
+ * Same layout and locking as {@link ConcurrentLongMap}: segments of open-addressing tables, lock-free reads, writes
+ * under the segment's monitor, tombstones for removed entries. A slot's key and value are written before its state
+ * is set live with release semantics, so a reader that sees it live with acquire semantics sees both; values of a
+ * live slot are replaced atomically. Absence is reported as the {@code missingValue} given at construction, which
+ * cannot itself be stored.
+ */
+public class ConcurrentLongLongMap {
+    private static final int SEGMENT_BITS = 6;
+    private static final int MIN_CAPACITY = 8;
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte REMOVED = 2;
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long missingValue;
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private record Table(long[] keys, long[] values, byte[] states) {
+        Table(int capacity) {
+            this(new long[capacity], new long[capacity], new byte[capacity]);
+        }
+    }
+
+    private static final class Segment {
+        private volatile Table table;
+        private volatile int size;
+        private int tombstones;
+
+        private Segment(int capacity) {
+            table = new Table(capacity);
+        }
+
+        /**
+         * @return the slot holding {@code key}, live or removed, or the empty slot ending its probe chain
+         */
+        private static int find(Table table, long key, long hash) {
+            int mask = table.keys.length - 1;
+            for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                if (table.states[i] == EMPTY || table.keys[i] == key) {
+                    return i;
+                }
+            }
+        }
+
+        private long put(long key, long hash, long value, boolean replace, long missingValue) {
+            Table table = this.table;
+            int i = find(table, key, hash);
+            byte state = table.states[i];
+            if (state == LIVE) {
+                long previous = table.values[i];
+                if (replace) {
+                    VALUES.setRelease(table.values, i, value);
+                }
+                return previous;
+            }
+            if (state == EMPTY) {
+                // A new slot: grow at three quarters full, counting tombstones
+                if ((size + tombstones + 1) * 4L > table.keys.length * 3L) {
+                    table = rehash(table);
+                    i = find(table, key, hash);
+                }
+                table.keys[i] = key;
+            } else {
+                tombstones--;
+            }
+            table.values[i] = value;
+            STATES.setRelease(table.states, i, LIVE);
+            size++;
+            return missingValue;
+        }
+
+        private long remove(long key, long hash, boolean any, long expected, long missingValue) {
+            Table table = this.table;
+            int i = find(table, key, hash);
+            if (table.states[i] != LIVE || !any && table.values[i] != expected) {
+                return missingValue;
+            }
+            long previous = table.values[i];
+            STATES.setRelease(table.states, i, REMOVED);
+            size--;
+            tombstones++;
+            return previous;
+        }
+
+        private Table rehash(Table old) {
+            // Live entries fill at most half of the new table, tombstones are dropped
+            int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit((size + 1) * 2 - 1) << 1);
+            Table table = new Table(capacity);
+            for (int j = 0; j < old.keys.length; j++) {
+                if (old.states[j] == LIVE) {
+                    int i = find(table, old.keys[j], ConcurrentLongMap.hash(old.keys[j]));
+                    table.keys[i] = old.keys[j];
+                    table.values[i] = old.values[j];
+                    table.states[i] = LIVE;
+                }
+            }
+            tombstones = 0;
+            // The volatile write publishes the new table, filled with plain writes
+            this.table = table;
+            return table;
+        }
+    }
+
+    public ConcurrentLongLongMap(long missingValue) {
+        this(missingValue, 1024);
+    }
+
+    public ConcurrentLongLongMap(long missingValue, int expectedSize) {
+        this.missingValue = missingValue;
+        int perSegment = Math.max(MIN_CAPACITY,
+                Integer.highestOneBit(Math.max(1, expectedSize / segments.length * 2) - 1) << 1);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * @return the value for {@code key}, or the missing value
+     */
+    public long get(long key) {
+        long hash = ConcurrentLongMap.hash(key);
+        Table table = segment(hash).table;
+        int mask = table.keys.length - 1;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            byte state = (byte) STATES.getAcquire(table.states, i);
+            if (state == EMPTY) {
+                return missingValue;
+            }
+            if (table.keys[i] == key) {
+                return state == LIVE ? (long) VALUES.getAcquire(table.values, i) : missingValue;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != missingValue;
+    }
+
+    /**
+     * @return the previous value, or the missing value
+     */
+    public long put(long key, long value) {
+        checkValue(value);
+        long hash = ConcurrentLongMap.hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            return segment.put(key, hash, value, true, missingValue);
+        }
+    }
+
+    /**
+     * Maps {@code key} to {@code value} only if it has no value yet.
+     *
+     * @return the existing value, or the missing value if {@code value} was put
+     */
+    public long putIfAbsent(long key, long value) {
+        checkValue(value);
+        long hash = ConcurrentLongMap.hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            return segment.put(key, hash, value, false, missingValue);
+        }
+    }
+
+    /**
+     * @return the removed value, or the missing value
+     */
+    public long remove(long key) {
+        long hash = ConcurrentLongMap.hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            return segment.remove(key, hash, true, 0, missingValue);
+        }
+    }
+
+    /**
+     * Removes the entry only if it is mapped to {@code expected}.
+     */
+    public boolean remove(long key, long expected) {
+        long hash = ConcurrentLongMap.hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            return segment.remove(key, hash, false, expected, missingValue) != missingValue;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.size > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visits every entry, segment by segment, with the same guarantees as {@link ConcurrentLongMap#forEach}.
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (Segment segment : segments) {
+            Table table = segment.table;
+            for (int i = 0; i < table.keys.length; i++) {
+                if ((byte) STATES.getAcquire(table.states, i) == LIVE) {
+                    consumer.accept(table.keys[i], (long) VALUES.getAcquire(table.values, i));
+                }
+            }
+        }
+    }
+
+    private void checkValue(long value) {
+        if (value == missingValue) {
+            throw new IllegalArgumentException("The missing value " + missingValue + " cannot be stored");
+        }
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+}
@@ -0,0 +1,260 @@
+package com.htest.transactionManagement.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * A concurrent map from primitive {@code long} keys to non-null values: the keys are never boxed, and an entry
+ * is a slot in a {@code long[]} and an {@code Object[]}, with no node object per entry.
+ * <p>
+ * The map is split by hash into segments, each an open-addressing table with linear probing. Reads never lock:
+ * a slot's key is written once, before its first value is published with release semantics, so a reader that sees
+ * a value with acquire semantics also sees the key. Writes take the segment's monitor. A removed entry leaves a
+ * tombstone so probe chains stay intact. A segment that grows or fills up with tombstones is rehashed into a
+ * new table, which then replaces the old one whole; readers still on the old table see it as it was.
+ * <p>
+ * Like {@link java.util.concurrent.ConcurrentHashMap}, values are compared with {@code equals}, and iteration is
+ * weakly consistent.
+ */
+public class ConcurrentLongMap<V> {
+    private static final int SEGMENT_BITS = 6;
+    private static final int MIN_CAPACITY = 8;
+    private static final Object TOMBSTONE = new Object();
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private record Table(long[] keys, Object[] values) {
+        Table(int capacity) {
+            this(new long[capacity], new Object[capacity]);
+        }
+    }
+
+    private static final class Segment {
+        private volatile Table table;
+        private volatile int size;
+        private int tombstones;
+
+        private Segment(int capacity) {
+            table = new Table(capacity);
+        }
+
+        /**
+         * @return the slot holding {@code key}, live or removed, or the empty slot ending its probe chain
+         */
+        private static int find(Table table, long key, long hash) {
+            int mask = table.keys.length - 1;
+            for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                if (table.values[i] == null || table.keys[i] == key) {
+                    return i;
+                }
+            }
+        }
+
+        private Object put(long key, long hash, Object value) {
+            Table table = this.table;
+            int i = find(table, key, hash);
+            Object previous = table.values[i];
+            if (previous == null) {
+                // A new slot: grow at three quarters full, counting tombstones
+                if ((size + tombstones + 1) * 4L > table.keys.length * 3L) {
+                    table = rehash(table);
+                    i = find(table, key, hash);
+                }
+                table.keys[i] = key;
+            }
+            SLOTS.setRelease(table.values, i, value);
+            if (previous == null || previous == TOMBSTONE) {
+                size++;
+                if (previous == TOMBSTONE) {
+                    tombstones--;
+                }
+                return null;
+            }
+            return previous;
+        }
+
+        private Object remove(long key, long hash, Object expected) {
+            Table table = this.table;
+            int i = find(table, key, hash);
+            Object previous = table.values[i];
+            if (previous == null || previous == TOMBSTONE || expected != null && !expected.equals(previous)) {
+                return null;
+            }
+            SLOTS.setRelease(table.values, i, TOMBSTONE);
+            size--;
+            tombstones++;
+            return previous;
+        }
+
+        private boolean replace(long key, long hash, Object expected, Object value) {
+            Table table = this.table;
+            int i = find(table, key, hash);
+            Object previous = table.values[i];
+            if (previous == null || previous == TOMBSTONE || !expected.equals(previous)) {
+                return false;
+            }
+            SLOTS.setRelease(table.values, i, value);
+            return true;
+        }
+
+        private Table rehash(Table old) {
+            // Live entries fill at most half of the new table, tombstones are dropped
+            int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit((size + 1) * 2 - 1) << 1);
+            Table table = new Table(capacity);
+            for (int j = 0; j < old.keys.length; j++) {
+                Object value = old.values[j];
+                if (value != null && value != TOMBSTONE) {
+                    int i = find(table, old.keys[j], hash(old.keys[j]));
+                    table.keys[i] = old.keys[j];
+                    table.values[i] = value;
+                }
+            }
+            tombstones = 0;
+            // The volatile write publishes the new table, filled with plain writes
+            this.table = table;
+            return table;
+        }
+    }
+
+    public ConcurrentLongMap() {
+        this(1024);
+    }
+
+    public ConcurrentLongMap(int expectedSize) {
+        int perSegment = Math.max(MIN_CAPACITY,
+                Integer.highestOneBit(Math.max(1, expectedSize / segments.length * 2) - 1) << 1);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * @return the value for {@code key}, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        long hash = hash(key);
+        Table table = segment(hash).table;
+        long[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = keys.length - 1;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            Object value = SLOTS.getAcquire(values, i);
+            if (value == null) {
+                return null;
+            }
+            if (keys[i] == key) {
+                return value == TOMBSTONE ? null : (V) value;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return the previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Objects.requireNonNull(value);
+        long hash = hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            return (V) segment.put(key, hash, value);
+        }
+    }
+
+    /**
+     * @return the removed value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        long hash = hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            return (V) segment.remove(key, hash, null);
+        }
+    }
+
+    /**
+     * Removes the entry only if it is mapped to a value equal to {@code expected}.
+     */
+    public boolean remove(long key, Object expected) {
+        Objects.requireNonNull(expected);
+        long hash = hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            return segment.remove(key, hash, expected) != null;
+        }
+    }
+
+    /**
+     * Replaces the entry's value only if it is mapped to a value equal to {@code expected}.
+     */
+    public boolean replace(long key, V expected, V value) {
+        Objects.requireNonNull(expected);
+        Objects.requireNonNull(value);
+        long hash = hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            return segment.replace(key, hash, expected, value);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.size > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visits every entry, segment by segment. Entries changed during the walk may or may not be seen, but none
+     * is seen twice; a {@link #put} to an existing key from the consumer is safe.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (Segment segment : segments) {
+            Table table = segment.table;
+            for (int i = 0; i < table.keys.length; i++) {
+                Object value = SLOTS.getAcquire(table.values, i);
+                if (value != null && value != TOMBSTONE) {
+                    consumer.accept(table.keys[i], (V) value);
+                }
+            }
+        }
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    /**
+     * Stafford's mix 13 of the 64-bit finalizer: snowflake and HLC IDs differ mostly in their low bits, and both the
+     * segment (high bits) and the slot (low bits) need all of them.
+     */
+    static long hash(long key) {
+        long h = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,158 @@
+package com.htest.transactionManagement.util;
+
+import com.htest.transactionManagement.diagnostics.IdWaitEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * IDs from a hybrid logical clock, in the same layout and epoch as {@link SnowflakeIdGenerator}:
+ * 41 bits logical milliseconds + 5 bits datacenter + 5 bits worker + 12 bits counter.
+ * <p>
+ * The logical time never goes backwards. When the wall clock steps back, IDs keep using the last
+ * logical millisecond and count up in it; when a millisecond's counter is exhausted the next millisecond
+ * is borrowed, so the logical clock may run ahead of the wall clock by up to {@code maxLead}. Past that,
+ * the caller is parked until the wall clock catches up rather than spinning on it, but never for longer than
+ * {@code maxLead}: after a backward step further than that, the wall clock would take the whole step to catch up,
+ * so once a millisecond's IDs are used up, {@code nextId} fails at once, like the snowflake generator does, and
+ * counts the refusal in {@code id.hlc.rejected}.
+ */
+@Slf4j
+public class HybridLogicalClockIdGenerator implements IdGenerator {
+    private static final long COUNTER_BITS = 12L;
+    private static final long NODE_BITS = 10L;
+    private static final long MAX_COUNTER = (1L << COUNTER_BITS) - 1;
+
+    private final long node;
+    private final long maxLeadMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final DistributionSummary backwardSteps;
+    private final Counter borrowedMillis;
+    private final Timer parked;
+    private final Counter rejected;
+    private long logical = -1L;
+    private long counter;
+    private long lastPhysical = -1L;
+    private volatile long lead;
+
+    public HybridLogicalClockIdGenerator(long workerId, long datacenterId, Duration maxLead, MeterRegistry meterRegistry) {
+        if (workerId < 0 || workerId > 31 || datacenterId < 0 || datacenterId > 31) {
+            throw new IllegalArgumentException("Worker and datacenter IDs must be between 0 and 31");
+        }
+        this.node = datacenterId << 5 | workerId;
+        this.maxLeadMillis = maxLead.toMillis();
+        this.backwardSteps = DistributionSummary.builder("id.hlc.skew")
+                .description("Size of each backward wall clock step absorbed by the logical clock")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.borrowedMillis = Counter.builder("id.hlc.borrowed")
+                .description("Milliseconds of logical time issued ahead of the wall clock")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.parked = Timer.builder("id.hlc.parked")
+                .description("Time spent waiting for the wall clock to come within the maximum lead")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("id.hlc.rejected")
+                .description("IDs refused because the wall clock was more than twice the maximum lead behind")
+                .register(meterRegistry);
+        Gauge.builder("id.hlc.lead", this, generator -> generator.lead)
+                .description("How far the logical clock is currently ahead of the wall clock")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long nextId() {
+        lock.lock();
+        try {
+            long physical = observe();
+            if (physical > logical) {
+                logical = physical;
+                counter = 0;
+            } else if (counter < MAX_COUNTER) {
+                counter++;
+            } else {
+                if (logical + 1 - physical > maxLeadMillis) {
+                    physical = awaitLead(physical);
+                }
+                if (physical > logical) {
+                    logical = physical;
+                } else {
+                    logical++;
+                    borrowedMillis.increment();
+                }
+                counter = 0;
+            }
+            lead = Math.max(0, logical - physical);
+            return ((logical - SnowflakeIdGenerator.START_EPOCH) << (NODE_BITS + COUNTER_BITS)) |
+                    (node << COUNTER_BITS) |
+                    counter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long[] nextIds(int count) {
+        lock.lock();
+        try {
+            return IdGenerator.super.nextIds(count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long awaitLead(long physical) {
+        IdWaitEvent event = new IdWaitEvent();
+        event.begin();
+        long leadBeforeWait = logical - physical;
+        try {
+            for (long waitMillis = logical + 1 - physical - maxLeadMillis; waitMillis > 0;
+                 waitMillis = logical + 1 - physical - maxLeadMillis) {
+                if (waitMillis > maxLeadMillis) {
+                    // Parking here would hold the lock, and every other caller, for the rest of the step
+                    rejected.increment();
+                    throw new IllegalStateException("Clock moved backwards. Logical time is " + (logical - physical)
+                            + " ms ahead of the wall clock, refusing to wait more than " + maxLeadMillis + " ms");
+                }
+                long start = System.nanoTime();
+                park(TimeUnit.MILLISECONDS.toNanos(waitMillis));
+                parked.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                physical = observe();
+            }
+            return physical;
+        } finally {
+            if (event.shouldCommit()) {
+                event.mode = "hlc";
+                event.leadMillis = leadBeforeWait;
+                event.commit();
+            }
+        }
+    }
+
+    private long observe() {
+        long physical = timeGen();
+        if (physical < lastPhysical) {
+            backwardSteps.record(lastPhysical - physical);
+            log.warn("Wall clock moved back {} ms, continuing on logical time", lastPhysical - physical);
+        }
+        lastPhysical = physical;
+        return physical;
+    }
+
+    protected void park(long nanos) {
+        LockSupport.parkNanos(nanos);
+    }
+
+    protected long timeGen() {
+        return System.currentTimeMillis();
+    }
+}
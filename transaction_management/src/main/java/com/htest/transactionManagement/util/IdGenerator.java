@@ -0,0 +1,19 @@
+package com.htest.transactionManagement.util;
+
+/**
+ * Source of transaction IDs. IDs are unique and increase with time, so sorting by ID is sorting by creation.
+ */
+public interface IdGenerator {
+    long nextId();
+
+    /**
+     * {@code count} IDs in increasing order, for generators to hand out under one lock.
+     */
+    default long[] nextIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = nextId();
+        }
+        return ids;
+    }
+}
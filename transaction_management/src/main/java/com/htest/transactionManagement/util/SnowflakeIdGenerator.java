@@ -1,15 +1,16 @@
 package com.htest.transactionManagement.util;
 
-import org.springframework.stereotype.Component;
+import com.htest.transactionManagement.diagnostics.IdWaitEvent;
 
 /**
  * Snowflake ID Generator
  * 64 bits structure:
  * 1 bit sign (always 0) + 41 bits timestamp + 5 bits datacenter + 5 bits worker + 12 bits sequence
+ * <p>
+ * Fails if the wall clock steps backwards; see {@link HybridLogicalClockIdGenerator} for a mode that doesn't.
  */
-@Component
-public class SnowflakeIdGenerator {
-    private final long startEpoch = 1741564800000L; // 2025-03-10 00:00:00
+public class SnowflakeIdGenerator implements IdGenerator {
+    static final long START_EPOCH = 1741564800000L; // 2025-03-10 00:00:00
 
     private final long workerIdBits = 5L;
     private final long datacenterIdBits = 5L;
@@ -42,6 +43,7 @@ public class SnowflakeIdGenerator {
         this.datacenterId = datacenterId;
     }
 
+    @Override
     public synchronized long nextId() {
         long timestamp = timeGen();
 
@@ -61,17 +63,28 @@ public class SnowflakeIdGenerator {
 
         lastTimestamp = timestamp;
 
-        return ((timestamp - startEpoch) << timestampLeftShift) |
+        return ((timestamp - START_EPOCH) << timestampLeftShift) |
                 (datacenterId << datacenterIdShift) |
                 (workerId << workerIdShift) |
                 sequence;
     }
 
+    @Override
+    public synchronized long[] nextIds(int count) {
+        return IdGenerator.super.nextIds(count);
+    }
+
     protected long tilNextMillis(long lastTimestamp) {
+        IdWaitEvent event = new IdWaitEvent();
+        event.begin();
         long timestamp = timeGen();
         while (timestamp <= lastTimestamp) {
             timestamp = timeGen();
         }
+        if (event.shouldCommit()) {
+            event.mode = "snowflake";
+            event.commit();
+        }
         return timestamp;
     }
 
@@ -1,5 +1,7 @@
 package com.htest.transactionManagement.validator;
 
+import com.htest.transactionManagement.model.IpAddress;
+import com.htest.transactionManagement.model.Money;
 import com.htest.transactionManagement.model.RiskLevel;
 import com.htest.transactionManagement.model.Transaction;
 import com.htest.transactionManagement.model.TransactionType;
@@ -55,6 +57,16 @@ public class TransactionValidator implements Validator {
                     "Exchange rate is required for foreign currency transactions");
         }
 
+        if (transaction.getAmount() != null && !Money.isExact(transaction.getAmount(), transaction.getCurrency())) {
+            errors.rejectValue("amount", "amount.scale",
+                    "Amount has more decimal places than " + transaction.getCurrency() + " allows");
+        }
+
+        if (transaction.getIpAddress() != null && IpAddress.tryParse(transaction.getIpAddress()) == null) {
+            errors.rejectValue("ipAddress", "ip.address.invalid",
+                    "Invalid IP address (IPv4 or IPv6)");
+        }
+
         if (RiskLevel.HIGH.equals(transaction.getRiskLevel()) &&
                 (transaction.getRemarks() == null || transaction.getRemarks().trim().isEmpty())) {
             errors.rejectValue("remarks", "high.risk.remarks.required",
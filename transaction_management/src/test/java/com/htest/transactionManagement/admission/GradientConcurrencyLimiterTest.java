@@ -0,0 +1,81 @@
+package com.htest.transactionManagement.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimiterTest {
+
+    @Test
+    void tryAcquire_ShouldRejectOnceLimitIsReached() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(1_000_000, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_WithStableLatencyAndFullUtilisation_ShouldGrowLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 1, 100);
+
+        for (int round = 0; round < 20; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertTrue(limiter.tryAcquire());
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.release(1_000_000, false);
+            }
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void release_WithRisingLatency_ShouldShrinkLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 1, 100);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 50; i++) {
+            limiter.release(1_000_000, false);
+        }
+        int baseline = limiter.getLimit();
+
+        int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < limit; i++) {
+            limiter.release(20_000_000, false);
+        }
+
+        assertTrue(limiter.getLimit() < baseline);
+    }
+
+    @Test
+    void release_WhenDropped_ShouldBackOffButNotBelowMinimum() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 5, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(1_000_000, true);
+        }
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void endpointKey_ShouldCollapseNumericSegments() {
+        assertEquals("GET /api/v1/transactions/{id}",
+                AdmissionControlFilter.endpointKey("GET", "/api/v1/transactions/123456789"));
+        assertEquals("POST /api/v1/transactions",
+                AdmissionControlFilter.endpointKey("POST", "/api/v1/transactions"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.htest.transactionManagement.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReject() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(100_000_000L, bucket.tryAcquire(now));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillAtConfiguredRate() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 1, now);
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now + 50_000_000L) > 0);
+        assertEquals(0, bucket.tryAcquire(now + 100_000_000L));
+    }
+}
@@ -0,0 +1,96 @@
+package com.htest.transactionManagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.lane.AccountLanes;
+import com.htest.transactionManagement.ledger.Ledger;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.repository.InMemoryTransactionRepository;
+import com.htest.transactionManagement.service.TransactionServiceImpl;
+import com.htest.transactionManagement.tiering.ColdTransactionStore;
+import com.htest.transactionManagement.util.SnowflakeIdGenerator;
+import com.htest.transactionManagement.util.SystemClock;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Create throughput through {@link TransactionServiceImpl} at different lane counts (0 = inline, no lanes).
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.htest.transactionManagement.benchmark.AccountLaneBenchmark \
+ *     -Dexec.args="0,1,2,4,8,16 200000 256 10000"
+ * </pre>
+ * Arguments: lane counts, operations per run, concurrent callers, distinct accounts.
+ */
+public class AccountLaneBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String[] laneCounts = (args.length > 0 ? args[0] : "0,1,2,4,8,16").split(",");
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int callers = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        int accounts = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        System.out.printf("%d creates, %d concurrent callers, %d accounts, %d cores%n",
+                operations, callers, accounts, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-6s %12s %10s %10s %10s%n", "lanes", "ops/s", "p50 us", "p99 us", "p99.9 us");
+        for (String laneCount : laneCounts) {
+            int lanes = Integer.parseInt(laneCount.trim());
+            // First pass warms up the JIT, second one is reported
+            run(lanes, operations / 4, callers, accounts);
+            Result result = run(lanes, operations, callers, accounts);
+            System.out.printf("%-6d %12.0f %10.1f %10.1f %10.1f%n", lanes, result.opsPerSecond,
+                    result.latency.getValueAtPercentile(50) / 1000.0,
+                    result.latency.getValueAtPercentile(99) / 1000.0,
+                    result.latency.getValueAtPercentile(99.9) / 1000.0);
+        }
+    }
+
+    private static Result run(int laneCount, int operations, int callers, int accounts) throws IOException {
+        AccountLanes accountLanes = new AccountLanes(laneCount, false);
+        ColdTransactionStore coldStore = new ColdTransactionStore(Files.createTempDirectory("lane-benchmark"), 64,
+                new ObjectMapper().findAndRegisterModules());
+        InMemoryTransactionRepository store = new InMemoryTransactionRepository();
+        TransactionServiceImpl service = new TransactionServiceImpl(new SnowflakeIdGenerator(), new SystemClock(),
+                accountLanes, store, coldStore, new Ledger(false, 1024), List.of());
+        Histogram latency = new ConcurrentHistogram(3);
+        int perCaller = operations / callers;
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < callers; c++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perCaller; i++) {
+                        Transaction transaction = Transaction.builder()
+                                .amount(BigDecimal.valueOf(random.nextLong(1, 100_000_000), 2))
+                                .type(TransactionType.DEPOSIT)
+                                .sourceAccountNumber("ACC" + random.nextInt(accounts))
+                                .currency("CNY")
+                                .build();
+                        long begin = System.nanoTime();
+                        try {
+                            service.createTransaction(transaction);
+                        } catch (RuntimeException ignored) {
+                            // duplicates are possible with random amounts, they still cost a lane round trip
+                        }
+                        latency.recordValue(System.nanoTime() - begin);
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        accountLanes.shutdown();
+        return new Result((double) perCaller * callers / seconds, latency);
+    }
+
+    private record Result(double opsPerSecond, Histogram latency) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.htest.transactionManagement.benchmark;
+
+import com.htest.transactionManagement.fraud.CidrTrie;
+import com.htest.transactionManagement.model.IpAddress;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Longest-prefix lookups in {@link CidrTrie} against one hash map per prefix length probed from the longest
+ * down, for blocklists of IPv4 ranges between /8 and /32 with a tenth of them IPv6.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.htest.transactionManagement.benchmark.CidrTrieBenchmark \
+ *     -Dexec.args="1000,30000,300000 10000000"
+ * </pre>
+ * Arguments: prefix counts, lookups per run.
+ */
+public class CidrTrieBenchmark {
+    private static final int ADDRESSES = 1 << 16;
+
+    public static void main(String[] args) {
+        String[] prefixCounts = (args.length > 0 ? args[0] : "1000,30000,300000").split(",");
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+
+        System.out.printf("%d lookups per run, half of them inside a listed range%n", lookups);
+        System.out.printf("%-9s %10s %12s %12s %8s%n", "prefixes", "build ms", "trie ns", "hash ns", "matched");
+        for (String prefixCount : prefixCounts) {
+            int prefixes = Integer.parseInt(prefixCount.trim());
+            Random random = new Random(prefixes);
+            long[][] ranges = new long[prefixes][];
+            for (int i = 0; i < prefixes; i++) {
+                ranges[i] = i % 10 == 0
+                        ? new long[]{0x2000_0000_0000_0000L | random.nextLong() >>> 4, 0, 16 + random.nextInt(49)}
+                        : new long[]{0, 0xffff_0000_0000L | random.nextInt() & 0xffff_ffffL, 104 + random.nextInt(25)};
+            }
+            long[] highs = new long[ADDRESSES];
+            long[] lows = new long[ADDRESSES];
+            for (int i = 0; i < ADDRESSES; i++) {
+                long[] range = ranges[random.nextInt(prefixes)];
+                boolean inside = random.nextBoolean();
+                highs[i] = range[0] == 0 ? 0 : inside ? range[0] : random.nextLong();
+                lows[i] = range[0] == 0 ? (inside ? range[1] : 0xffff_0000_0000L | random.nextInt() & 0xffff_ffffL)
+                        : random.nextLong();
+            }
+
+            long start = System.nanoTime();
+            CidrTrie trie = new CidrTrie(prefixes);
+            for (int i = 0; i < prefixes; i++) {
+                trie.insert(new IpAddress(ranges[i][0], ranges[i][1]), (int) ranges[i][2], i);
+            }
+            double buildMillis = (System.nanoTime() - start) / 1e6;
+            PerLengthHash hash = new PerLengthHash(ranges);
+
+            // First pass warms up the JIT, second one is reported
+            trie(trie, highs, lows, lookups / 4);
+            long matched = trie(trie, highs, lows, lookups);
+            start = System.nanoTime();
+            trie(trie, highs, lows, lookups);
+            double trieNanos = (double) (System.nanoTime() - start) / lookups;
+            hash(hash, highs, lows, lookups / 4);
+            start = System.nanoTime();
+            long hashMatched = hash(hash, highs, lows, lookups);
+            double hashNanos = (double) (System.nanoTime() - start) / lookups;
+            if (hashMatched != matched) {
+                throw new IllegalStateException("Trie matched " + matched + " but the hash maps " + hashMatched);
+            }
+            System.out.printf("%-9d %10.1f %12.1f %12.1f %7.0f%%%n", prefixes, buildMillis, trieNanos, hashNanos, 100.0 * matched / lookups);
+        }
+    }
+
+    private static long trie(CidrTrie trie, long[] highs, long[] lows, int lookups) {
+        long matched = 0;
+        for (int i = 0; i < lookups; i++) {
+            int a = i & (ADDRESSES - 1);
+            if (trie.match(highs[a], lows[a]) != CidrTrie.NO_MATCH) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static long hash(PerLengthHash hash, long[] highs, long[] lows, int lookups) {
+        long matched = 0;
+        for (int i = 0; i < lookups; i++) {
+            int a = i & (ADDRESSES - 1);
+            if (hash.match(highs[a], lows[a]) >= 0) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private record Key(long high, long low) {
+    }
+
+    /**
+     * The usual alternative: a map per prefix length, probing the masked address from the longest length down.
+     */
+    private static class PerLengthHash {
+        private final Map<Key, Integer>[] maps;
+        private final int[] lengths;
+
+        @SuppressWarnings("unchecked")
+        PerLengthHash(long[][] ranges) {
+            maps = (Map<Key, Integer>[]) new Map<?, ?>[129];
+            for (int i = 0; i < ranges.length; i++) {
+                int length = (int) ranges[i][2];
+                if (maps[length] == null) {
+                    maps[length] = new HashMap<>();
+                }
+                maps[length].putIfAbsent(key(ranges[i][0], ranges[i][1], length), i);
+            }
+            lengths = IntStream.rangeClosed(0, 128).map(l -> 128 - l)
+                    .filter(l -> maps[l] != null).toArray();
+        }
+
+        int match(long high, long low) {
+            for (int length : lengths) {
+                Integer value = maps[length].get(key(high, low, length));
+                if (value != null) {
+                    return value;
+                }
+            }
+            return -1;
+        }
+
+        private static Key key(long high, long low, int length) {
+            long highMask = length == 0 ? 0 : length >= 64 ? -1L : -1L << (64 - length);
+            long lowMask = length <= 64 ? 0 : length == 128 ? -1L : -1L << (128 - length);
+            return new Key(high & highMask, low & lowMask);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.htest.transactionManagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.lane.AccountLanes;
+import com.htest.transactionManagement.ledger.Ledger;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.repository.FileTransactionRepository;
+import com.htest.transactionManagement.repository.InMemoryTransactionRepository;
+import com.htest.transactionManagement.repository.TransactionRepository;
+import com.htest.transactionManagement.search.SortedIndex;
+import com.htest.transactionManagement.service.TransactionServiceImpl;
+import com.htest.transactionManagement.tiering.ColdTransactionStore;
+import com.htest.transactionManagement.util.SnowflakeIdGenerator;
+import com.htest.transactionManagement.util.SystemClock;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Create throughput and latency through {@link TransactionServiceImpl} at different maximum batch sizes
+ * (1 = no batching) and numbers of concurrent callers, on the in-memory store and on the file log without
+ * write-behind, where each batch is one fsync.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.htest.transactionManagement.benchmark.CreateBatchingBenchmark \
+ *     -Dexec.args="memory,file 1,8,64,256 1,16,256 50000 4"
+ * </pre>
+ * Arguments: stores, batch sizes, concurrent callers, creates per run, lanes.
+ */
+public class CreateBatchingBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String[] stores = (args.length > 0 ? args[0] : "memory,file").split(",");
+        String[] batchSizes = (args.length > 1 ? args[1] : "1,8,64,256").split(",");
+        String[] callerCounts = (args.length > 2 ? args[2] : "1,16,256").split(",");
+        int operations = args.length > 3 ? Integer.parseInt(args[3]) : 50_000;
+        int lanes = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+
+        System.out.printf("%d creates per run, %d lanes, %d cores%n", operations, lanes,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-7s %6s %8s %12s %10s %10s %10s %10s%n",
+                "store", "batch", "callers", "ops/s", "avg batch", "p50 us", "p99 us", "p99.9 us");
+        for (String store : stores) {
+            for (String callers : callerCounts) {
+                for (String batchSize : batchSizes) {
+                    int size = Integer.parseInt(batchSize.trim());
+                    int callerCount = Integer.parseInt(callers.trim());
+                    // First pass warms up the JIT, second one is reported
+                    run(store.trim(), size, callerCount, operations / 4, lanes);
+                    Result result = run(store.trim(), size, callerCount, operations, lanes);
+                    System.out.printf("%-7s %6d %8d %12.0f %10.1f %10.1f %10.1f %10.1f%n", store.trim(), size,
+                            callerCount, result.opsPerSecond, result.meanBatch,
+                            result.latency.getValueAtPercentile(50) / 1000.0,
+                            result.latency.getValueAtPercentile(99) / 1000.0,
+                            result.latency.getValueAtPercentile(99.9) / 1000.0);
+                }
+            }
+        }
+    }
+
+    private static Result run(String store, int batchSize, int callers, int operations, int laneCount)
+            throws IOException {
+        Path dir = Files.createTempDirectory("batching-benchmark");
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        TransactionRepository repository = switch (store) {
+            case "memory" -> new InMemoryTransactionRepository();
+            case "file" -> new FileTransactionRepository(dir.resolve("transactions.log"), objectMapper);
+            default -> throw new IllegalArgumentException("Unknown store " + store);
+        };
+        AccountLanes accountLanes = new AccountLanes(laneCount, false);
+        ColdTransactionStore coldStore = new ColdTransactionStore(dir.resolve("segments"), 64, objectMapper);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SortedIndex sortedIndex = new SortedIndex();
+        TransactionServiceImpl service = new TransactionServiceImpl(new SnowflakeIdGenerator(), new SystemClock(),
+                accountLanes, repository, coldStore, new Ledger(false, 1024), sortedIndex,
+                List.of(sortedIndex), batchSize, meterRegistry);
+        Histogram latency = new ConcurrentHistogram(3);
+        int perCaller = Math.max(1, operations / callers);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < callers; c++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perCaller; i++) {
+                        Transaction transaction = Transaction.builder()
+                                .amount(BigDecimal.valueOf(random.nextLong(1, 100_000_000), 2))
+                                .type(TransactionType.DEPOSIT)
+                                .sourceAccountNumber("ACC" + random.nextInt(10_000))
+                                .currency("CNY")
+                                .build();
+                        long begin = System.nanoTime();
+                        try {
+                            service.createTransaction(transaction);
+                        } catch (RuntimeException ignored) {
+                            // duplicates are possible with random amounts, they still cost a lane round trip
+                        }
+                        latency.recordValue(System.nanoTime() - begin);
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        DistributionSummary batches = meterRegistry.find("transaction.create.batch").summary();
+        accountLanes.shutdown();
+        repository.close();
+        coldStore.close();
+        return new Result((double) perCaller * callers / seconds, batches == null ? 1 : batches.mean(), latency);
+    }
+
+    private record Result(double opsPerSecond, double meanBatch, Histogram latency) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.htest.transactionManagement.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.htest.transactionManagement.model.RiskLevel;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionCategory;
+import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.projection.FieldProjection;
+import com.htest.transactionManagement.search.SearchPage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writing a page of transactions in full, through a {@link FieldProjection} mapper, and through a per-request
+ * Jackson property filter (the usual {@code @JsonFilter} approach) that checks every property by name.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.htest.transactionManagement.benchmark.FieldProjectionBenchmark \
+ *     -Dexec.args="id,amount,currency,status,timestamp,sourceAccountNumber 50 200000"
+ * </pre>
+ * Arguments: fields, transactions per page, pages per run.
+ */
+public class FieldProjectionBenchmark {
+
+    @JsonFilter("fields")
+    private interface FilteredTransaction {
+    }
+
+    public static void main(String[] args) throws JsonProcessingException {
+        String fields = args.length > 0 ? args[0] : "id,amount,currency,status,timestamp,sourceAccountNumber";
+        int pageSize = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int pages = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        FieldProjection projection = new FieldProjection(mapper);
+        ObjectMapper filtering = mapper.copy().addMixIn(Transaction.class, FilteredTransaction.class);
+        SearchPage page = page(pageSize);
+
+        System.out.printf("%d pages of %d transactions, fields=%s%n", pages, pageSize, fields);
+        System.out.printf("%-10s %12s %12s %12s%n", "writer", "us/page", "bytes/page", "MB/s");
+        run("full", () -> mapper.writer(), page, pages);
+        run("projected", () -> projection.mapper(fields).writer(), page, pages);
+        run("filter", () -> filtering.writer(new SimpleFilterProvider().addFilter("fields",
+                SimpleBeanPropertyFilter.filterOutAllExcept(Set.of(fields.split(","))))), page, pages);
+    }
+
+    /**
+     * @param writers called once per page, as a request would
+     */
+    private static void run(String name, WriterPerRequest writers, SearchPage page, int pages)
+            throws JsonProcessingException {
+        // First pass warms up the JIT, second one is reported
+        long bytes = write(writers, page, pages / 4);
+        long start = System.nanoTime();
+        bytes = write(writers, page, pages);
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-10s %12.2f %12d %12.0f%n", name, nanos / 1000.0 / pages, bytes / pages,
+                bytes / (nanos / 1e9) / 1e6);
+    }
+
+    private static long write(WriterPerRequest writers, SearchPage page, int pages) throws JsonProcessingException {
+        long bytes = 0;
+        for (int i = 0; i < pages; i++) {
+            bytes += writers.get().writeValueAsBytes(page).length;
+        }
+        return bytes;
+    }
+
+    private interface WriterPerRequest {
+        ObjectWriter get();
+    }
+
+    private static SearchPage page(int size) {
+        List<Transaction> content = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 0);
+        for (int i = 0; i < size; i++) {
+            content.add(Transaction.builder()
+                    .id(213274054847762432L + i)
+                    .amount(new BigDecimal("1234.56"))
+                    .type(TransactionType.TRANSFER)
+                    .sourceAccountNumber("ACC" + (1_000_000 + i))
+                    .destinationAccountNumber("ACC" + (2_000_000 + i))
+                    .currency("CNY")
+                    .category(TransactionCategory.TRANSFER)
+                    .description("Monthly rent for the apartment on the third floor, paid by standing order")
+                    .timestamp(now.plusSeconds(i))
+                    .status(TransactionStatus.COMPLETED)
+                    .riskLevel(RiskLevel.LOW)
+                    .referenceNumber("REF-" + i)
+                    .processedTime(now.plusSeconds(i + 1))
+                    .processedBy("standing-order")
+                    .remarks("Reviewed automatically; no anomalies found in the counterparty history")
+                    .isReconciled(true)
+                    .isFraudSuspected(false)
+                    .ipAddress("2001:db8:85a3::8a2e:370:7334")
+                    .deviceInfo("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+                            + "Chrome/124.0.0.0 Safari/537.36")
+                    .build());
+        }
+        return new SearchPage(content, String.valueOf(213274054847762432L));
+    }
+}
@@ -0,0 +1,120 @@
+package com.htest.transactionManagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.exception.InsufficientFundsException;
+import com.htest.transactionManagement.ledger.Ledger;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.tiering.ColdTransactionStore;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TRANSFER throughput through {@link Ledger} with funds checks, between uniformly random accounts and with
+ * half of all transfers touching one of a few hot accounts.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.htest.transactionManagement.benchmark.LedgerBenchmark \
+ *     -Dexec.args="1,64,1024 1000000 64 10000"
+ * </pre>
+ * Arguments: stripe counts, transfers per run, concurrent callers, distinct accounts.
+ */
+public class LedgerBenchmark {
+    private static final int HOT_ACCOUNTS = 4;
+
+    public static void main(String[] args) throws IOException {
+        String[] stripeCounts = (args.length > 0 ? args[0] : "1,64,1024").split(",");
+        int transfers = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int callers = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int accounts = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        System.out.printf("%d transfers, %d concurrent callers, %d accounts, %d cores%n",
+                transfers, callers, accounts, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %-8s %12s %10s %10s %10s %10s%n",
+                "stripes", "workload", "transfers/s", "rejected", "p50 us", "p99 us", "p99.9 us");
+        for (String stripeCount : stripeCounts) {
+            int stripes = Integer.parseInt(stripeCount.trim());
+            for (boolean hot : new boolean[]{false, true}) {
+                // First pass warms up the JIT, second one is reported
+                run(stripes, hot, transfers / 4, callers, accounts);
+                Result result = run(stripes, hot, transfers, callers, accounts);
+                System.out.printf("%-8d %-8s %12.0f %10d %10.1f %10.1f %10.1f%n", stripes, hot ? "hot" : "uniform",
+                        result.transfersPerSecond, result.rejected,
+                        result.latency.getValueAtPercentile(50) / 1000.0,
+                        result.latency.getValueAtPercentile(99) / 1000.0,
+                        result.latency.getValueAtPercentile(99.9) / 1000.0);
+            }
+        }
+    }
+
+    private static Result run(int stripes, boolean hot, int transfers, int callers, int accounts) throws IOException {
+        ColdTransactionStore coldStore = new ColdTransactionStore(Files.createTempDirectory("ledger-benchmark"), 64,
+                new ObjectMapper().findAndRegisterModules());
+        Ledger ledger = new Ledger(true, stripes);
+        for (int i = 0; i < accounts; i++) {
+            ledger.apply(null, transaction(TransactionType.DEPOSIT, "ACC" + i, null, 100_000_00));
+        }
+        Histogram latency = new ConcurrentHistogram(3);
+        AtomicLong rejected = new AtomicLong();
+        int perCaller = transfers / callers;
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < callers; c++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perCaller; i++) {
+                        int from = random.nextInt(accounts);
+                        int to = hot && random.nextBoolean() ? random.nextInt(HOT_ACCOUNTS) : random.nextInt(accounts);
+                        if (from == to) {
+                            to = (to + 1) % accounts;
+                        }
+                        // Half in each direction, so hot accounts stay funded
+                        if (random.nextBoolean()) {
+                            int swap = from;
+                            from = to;
+                            to = swap;
+                        }
+                        Transaction transfer = transaction(TransactionType.TRANSFER, "ACC" + from, "ACC" + to,
+                                random.nextLong(1, 10_000));
+                        long begin = System.nanoTime();
+                        try {
+                            ledger.apply(null, transfer);
+                        } catch (InsufficientFundsException e) {
+                            rejected.incrementAndGet();
+                        }
+                        latency.recordValue(System.nanoTime() - begin);
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        coldStore.close();
+        return new Result((double) perCaller * callers / seconds, rejected.get(), latency);
+    }
+
+    private static Transaction transaction(TransactionType type, String source, String destination, long minorUnits) {
+        Transaction transaction = Transaction.builder()
+                .type(type)
+                .sourceAccountNumber(source)
+                .destinationAccountNumber(destination)
+                .amount(BigDecimal.valueOf(minorUnits, 2))
+                .currency("CNY")
+                .status(TransactionStatus.COMPLETED)
+                .build();
+        transaction.normalize();
+        return transaction;
+    }
+
+    private record Result(double transfersPerSecond, long rejected, Histogram latency) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.htest.transactionManagement.benchmark;
+
+import com.htest.transactionManagement.util.ConcurrentLongMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Footprint and get/put throughput of {@link ConcurrentLongMap} against {@code ConcurrentHashMap<Long, V>}, keyed
+ * by snowflake-shaped IDs (a millisecond timestamp over a 22-bit sequence). Every entry maps to the same value, so
+ * the footprint is the map's own: keys, nodes and tables.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.htest.transactionManagement.benchmark.LongMapBenchmark \
+ *     -Dexec.args="1000000,10000000 4 20000000"
+ * </pre>
+ * Arguments: entry counts, threads, gets per run. Run 10M entries with at least 3 GB of heap.
+ */
+public class LongMapBenchmark {
+    private static final Object VALUE = new Object();
+    private static final long FIRST_ID = 213274054847762432L;
+
+    private interface LongMap {
+        Object get(long key);
+
+        void put(long key, Object value);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = (args.length > 0 ? args[0] : "1000000,10000000").split(",");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int gets = args.length > 2 ? Integer.parseInt(args[2]) : 20_000_000;
+
+        System.out.printf("%d threads, %d gets per run, %d cores%n", threads, gets,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-10s %-6s %12s %14s %14s%n", "entries", "map", "bytes/entry", "puts/s", "gets/s");
+        for (String size : sizes) {
+            int entries = Integer.parseInt(size.trim());
+            for (String name : new String[]{"chm", "long"}) {
+                // First pass warms up the JIT, second one is reported
+                run(name, entries / 10, threads, gets / 10);
+                Result result = run(name, entries, threads, gets);
+                System.out.printf("%-10d %-6s %12.1f %14.0f %14.0f%n", entries, name,
+                        (double) result.bytes / entries, result.putsPerSecond, result.getsPerSecond);
+            }
+        }
+    }
+
+    private static Result run(String name, int entries, int threads, int gets) throws Exception {
+        long before = usedMemory();
+        LongMap map;
+        if (name.equals("chm")) {
+            Map<Long, Object> chm = new ConcurrentHashMap<>();
+            map = new LongMap() {
+                public Object get(long key) {
+                    return chm.get(key);
+                }
+
+                public void put(long key, Object value) {
+                    chm.put(key, value);
+                }
+            };
+        } else {
+            ConcurrentLongMap<Object> longMap = new ConcurrentLongMap<>();
+            map = new LongMap() {
+                public Object get(long key) {
+                    return longMap.get(key);
+                }
+
+                public void put(long key, Object value) {
+                    longMap.put(key, value);
+                }
+            };
+        }
+
+        long puts = timed(threads, thread -> {
+            for (int i = thread; i < entries; i += threads) {
+                map.put(id(i), VALUE);
+            }
+        });
+        long bytes = usedMemory() - before;
+        long reads = timed(threads, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int perThread = gets / threads;
+            int misses = 0;
+            for (int i = 0; i < perThread; i++) {
+                if (map.get(id(random.nextInt(entries))) == null) {
+                    misses++;
+                }
+            }
+            if (misses > 0) {
+                throw new IllegalStateException(misses + " keys went missing");
+            }
+        });
+        Result result = new Result(bytes, entries * 1e9 / puts, gets * 1e9 / reads);
+        // Keep the map reachable until its footprint is measured
+        map.get(0);
+        return result;
+    }
+
+    private static long id(int i) {
+        return FIRST_ID + ((long) (i >>> 12) << 22 | i & 0xfff);
+    }
+
+    private interface PerThread {
+        void run(int thread);
+    }
+
+    private static long timed(int threads, PerThread work) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            long start = System.nanoTime();
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures[t] = executor.submit(() -> work.run(thread));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    private record Result(long bytes, double putsPerSecond, double getsPerSecond) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.htest.transactionManagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.repository.FileTransactionRepository;
+import com.htest.transactionManagement.repository.H2TransactionRepository;
+import com.htest.transactionManagement.repository.InMemoryTransactionRepository;
+import com.htest.transactionManagement.repository.TransactionRepository;
+import com.htest.transactionManagement.repository.WriteBehindTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Save throughput of each {@link TransactionRepository} backend, with and without write-behind. Saves are
+ * a mix of new transactions and updates to recently written ones, the way status changes follow creates.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.htest.transactionManagement.benchmark.RepositoryBenchmark \
+ *     -Dexec.args="memory,file,h2,file+wb,h2+wb 50000 64 0.5"
+ * </pre>
+ * Arguments: backends, saves per run, concurrent callers, fraction of saves that are updates.
+ */
+public class RepositoryBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String[] backends = (args.length > 0 ? args[0] : "memory,file,h2,file+wb,h2+wb").split(",");
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int callers = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        double updates = args.length > 3 ? Double.parseDouble(args[3]) : 0.5;
+
+        System.out.printf("%d saves (%.0f%% updates), %d concurrent callers%n", operations, updates * 100, callers);
+        System.out.printf("%-8s %12s %10s %10s %10s%n", "backend", "ops/s", "p50 us", "p99 us", "p99.9 us");
+        for (String backend : backends) {
+            // First pass warms up the JIT, second one is reported
+            run(backend.trim(), operations / 4, callers, updates);
+            Result result = run(backend.trim(), operations, callers, updates);
+            System.out.printf("%-8s %12.0f %10.1f %10.1f %10.1f%n", backend.trim(), result.opsPerSecond,
+                    result.latency.getValueAtPercentile(50) / 1000.0,
+                    result.latency.getValueAtPercentile(99) / 1000.0,
+                    result.latency.getValueAtPercentile(99.9) / 1000.0);
+        }
+    }
+
+    private static TransactionRepository open(String backend, Path dir) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        TransactionRepository repository = switch (backend.replace("+wb", "")) {
+            case "memory" -> new InMemoryTransactionRepository();
+            case "file" -> new FileTransactionRepository(dir.resolve("transactions.log"), objectMapper);
+            case "h2" -> new H2TransactionRepository("jdbc:h2:file:" + dir.resolve("transactions"), objectMapper);
+            default -> throw new IllegalArgumentException("Unknown backend " + backend);
+        };
+        return backend.endsWith("+wb")
+                ? new WriteBehindTransactionRepository(repository, 512, 100_000, Duration.ofMillis(100), 100_000,
+                new SimpleMeterRegistry())
+                : repository;
+    }
+
+    private static Result run(String backend, int operations, int callers, double updates) throws IOException {
+        TransactionRepository repository = open(backend, Files.createTempDirectory("repository-benchmark"));
+        Histogram latency = new ConcurrentHistogram(3);
+        int perCaller = operations / callers;
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < callers; c++) {
+                long firstId = (long) c * perCaller;
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long next = firstId;
+                    for (int i = 0; i < perCaller; i++) {
+                        long id = next > firstId && random.nextDouble() < updates
+                                ? next - 1 - random.nextLong(Math.min(16, next - firstId))
+                                : next++;
+                        Transaction transaction = Transaction.builder()
+                                .id(id)
+                                .amount(BigDecimal.valueOf(random.nextLong(1, 100_000_000), 2))
+                                .type(TransactionType.DEPOSIT)
+                                .sourceAccountNumber("ACC" + id % 10_000)
+                                .currency("CNY")
+                                .build();
+                        long begin = System.nanoTime();
+                        repository.save(transaction);
+                        latency.recordValue(System.nanoTime() - begin);
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        repository.close();
+        return new Result((double) perCaller * callers / seconds, latency);
+    }
+
+    private record Result(double opsPerSecond, Histogram latency) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.htest.transactionManagement.changefeed;
+
+import com.htest.transactionManagement.exception.OffsetExpiredException;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.util.TestClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogTest {
+    private final ChangeLog changeLog = new ChangeLog(8, new TestClock(LocalDateTime.now()), new SimpleMeterRegistry());
+
+    @Test
+    void read_ShouldReturnEventsInOffsetOrderAndExpireOverwrittenOffsets() {
+        long first = changeLog.nextOffset();
+        for (long id = 1; id <= 10; id++) {
+            changeLog.onCreated(Transaction.builder().id(id).build());
+        }
+        changeLog.onDeleted(Transaction.builder().id(3L).build());
+
+        assertEquals(first + 11, changeLog.nextOffset());
+        assertEquals(first + 3, changeLog.earliestOffset());
+        List<ChangeEvent> events = changeLog.read(first + 9, 10);
+        assertEquals(List.of(first + 9, first + 10), events.stream().map(ChangeEvent::offset).toList());
+        assertEquals(ChangeType.DELETED, events.get(1).type());
+        assertTrue(changeLog.read(changeLog.nextOffset(), 10).isEmpty());
+        assertThrows(OffsetExpiredException.class, () -> changeLog.read(first, 10));
+    }
+
+    @Test
+    void stream_ShouldResumeFromOffsetAndFollowNewChanges() {
+        long first = changeLog.nextOffset();
+        changeLog.onCreated(Transaction.builder().id(1L).build());
+        changeLog.onCreated(Transaction.builder().id(2L).build());
+
+        StepVerifier.create(changeLog.stream(first + 1, 10))
+                .assertNext(batch -> assertEquals(List.of(2L), batch.stream().map(ChangeEvent::transactionId).toList()))
+                .then(() -> changeLog.onUpdated(null, Transaction.builder().id(1L).build()))
+                .assertNext(batch -> assertEquals(ChangeType.UPDATED, batch.get(0).type()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void stream_ShouldOnlyReadWhatIsRequestedAndFailWhenOverrun() {
+        long first = changeLog.nextOffset();
+        for (long id = 1; id <= 4; id++) {
+            changeLog.onCreated(Transaction.builder().id(id).build());
+        }
+
+        StepVerifier.create(changeLog.stream(first, 2), 1)
+                .assertNext(batch -> assertEquals(2, batch.size()))
+                .then(() -> {
+                    // The slow consumer is still at first + 2, overrun it
+                    for (long id = 5; id <= 12; id++) {
+                        changeLog.onCreated(Transaction.builder().id(id).build());
+                    }
+                })
+                .thenRequest(1)
+                .expectError(OffsetExpiredException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -1,15 +1,28 @@
 package com.htest.transactionManagement.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.admission.AccountRateLimiter;
+import com.htest.transactionManagement.fraud.IpBlocklist;
+import com.htest.transactionManagement.idempotency.IdempotencyStore;
+import com.htest.transactionManagement.model.RiskLevel;
+import com.htest.transactionManagement.search.IdIndex;
+import com.htest.transactionManagement.search.InvertedIndex;
+import com.htest.transactionManagement.search.SortedIndex;
+import com.htest.transactionManagement.service.CachedTransactionLookup;
 import com.htest.transactionManagement.service.TransactionService;
 import com.htest.transactionManagement.util.Clock;
 import com.htest.transactionManagement.util.TestClock;
 //import com.htest.transactionManagement.validator.TransactionValidator;
 import com.htest.transactionManagement.validator.TransactionValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.reactive.config.EnableWebFlux;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @TestConfiguration
@@ -25,6 +38,46 @@ public class TestConfig {
         return new TransactionValidator();
     }
 
+    @Bean
+    public IdempotencyStore idempotencyStore(ObjectMapper objectMapper) {
+        return new IdempotencyStore(Duration.ofMinutes(10), 1000, objectMapper);
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public AccountRateLimiter accountRateLimiter(MeterRegistry meterRegistry) {
+        return new AccountRateLimiter(true, 1000, 1000, 1000, meterRegistry);
+    }
+
+    @Bean
+    public IpBlocklist ipBlocklist(MeterRegistry meterRegistry) {
+        return new IpBlocklist(Path.of("target/test-ip-blocklist.txt"), RiskLevel.HIGH, meterRegistry);
+    }
+
+    @Bean
+    public InvertedIndex invertedIndex(MeterRegistry meterRegistry) {
+        return new InvertedIndex(meterRegistry);
+    }
+
+    @Bean
+    public IdIndex idIndex() {
+        return new IdIndex();
+    }
+
+    @Bean
+    public SortedIndex sortedIndex() {
+        return new SortedIndex();
+    }
+
+    @Bean
+    public CachedTransactionLookup cachedTransactionLookup(TransactionService transactionService) {
+        return new CachedTransactionLookup(transactionService, new CacheConfig().cacheManager());
+    }
+
     @Bean
     public Clock clock() {
         return new TestClock(LocalDateTime.now());
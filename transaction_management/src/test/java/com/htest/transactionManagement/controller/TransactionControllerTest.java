@@ -4,8 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.htest.transactionManagement.TransactionManagementApplication;
 import com.htest.transactionManagement.config.TestConfig;
 import com.htest.transactionManagement.exception.DuplicateTransactionException;
+import com.htest.transactionManagement.exception.InsufficientFundsException;
 import com.htest.transactionManagement.exception.TransactionNotFoundException;
 import com.htest.transactionManagement.model.*;
+import com.htest.transactionManagement.search.IdIndex;
+import com.htest.transactionManagement.search.InvertedIndex;
+import com.htest.transactionManagement.search.SortedIndex;
 import com.htest.transactionManagement.service.TransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,7 +28,11 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -46,6 +54,15 @@ class TransactionControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private InvertedIndex invertedIndex;
+
+    @Autowired
+    private IdIndex idIndex;
+
+    @Autowired
+    private SortedIndex sortedIndex;
+
     private Transaction testTransaction;
 
     @BeforeEach
@@ -66,8 +83,8 @@ class TransactionControllerTest {
 
     @Test
     void createTransaction_ShouldReturnCreatedTransaction() throws Exception {
-        when(transactionService.createTransaction(any(Transaction.class)))
-                .thenReturn(testTransaction);
+        when(transactionService.createTransactionAsync(any(Transaction.class)))
+                .thenReturn(CompletableFuture.completedFuture(testTransaction));
 
         testTransaction.setSourceAccountNumber("1234567890");
         testTransaction.setCurrency("CNY");
@@ -85,6 +102,67 @@ class TransactionControllerTest {
                 .jsonPath("$.type").isEqualTo(testTransaction.getType().toString());
     }
 
+    @Test
+    void createTransaction_WithIdempotencyKey_ShouldReplayWithoutCallingServiceAgain() {
+        clearInvocations(transactionService);
+        when(transactionService.createTransactionAsync(any(Transaction.class)))
+                .thenReturn(CompletableFuture.completedFuture(testTransaction));
+
+        Transaction request = Transaction.builder()
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.DEPOSIT)
+                .sourceAccountNumber("1234567890")
+                .currency("CNY")
+                .category(TransactionCategory.INSURANCE)
+                .riskLevel(RiskLevel.LOW)
+                .status(TransactionStatus.INITIATED)
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.post().uri("/api/v1/transactions")
+                    .header("Idempotency-Key", "create-replay-key")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody()
+                    .jsonPath("$.id").isEqualTo(testTransaction.getId());
+        }
+
+        verify(transactionService, times(1)).createTransactionAsync(any(Transaction.class));
+    }
+
+    @Test
+    void createTransaction_WithReusedIdempotencyKeyAndDifferentBody_ShouldReturnUnprocessableEntity() {
+        when(transactionService.createTransactionAsync(any(Transaction.class)))
+                .thenReturn(CompletableFuture.completedFuture(testTransaction));
+
+        Transaction request = Transaction.builder()
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.DEPOSIT)
+                .sourceAccountNumber("1234567890")
+                .currency("CNY")
+                .category(TransactionCategory.INSURANCE)
+                .riskLevel(RiskLevel.LOW)
+                .status(TransactionStatus.INITIATED)
+                .build();
+
+        webTestClient.post().uri("/api/v1/transactions")
+                .header("Idempotency-Key", "create-reuse-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated();
+
+        request.setAmount(new BigDecimal("200.00"));
+        webTestClient.post().uri("/api/v1/transactions")
+                .header("Idempotency-Key", "create-reuse-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     @Test
     void createTransaction_WithInvalidData_ShouldReturnBadRequest() throws Exception {
         Transaction invalidTransaction = Transaction.builder()
@@ -100,8 +178,8 @@ class TransactionControllerTest {
 
     @Test
     void updateTransaction_ShouldReturnUpdatedTransaction() throws Exception {
-        when(transactionService.updateTransaction(eq(1L), any(Transaction.class)))
-                .thenReturn(testTransaction);
+        when(transactionService.updateTransactionAsync(eq(1L), any(Transaction.class)))
+                .thenReturn(CompletableFuture.completedFuture(testTransaction));
 
         testTransaction.setSourceAccountNumber("1234567890");
         testTransaction.setCurrency("CNY");
@@ -135,7 +213,7 @@ class TransactionControllerTest {
                 .remarks("Test remarks")
                 .build();
 
-        when(transactionService.updateTransaction(eq(999L), any(Transaction.class)))
+        when(transactionService.updateTransactionAsync(eq(999L), any(Transaction.class)))
                 .thenThrow(new TransactionNotFoundException("Transaction not found with ID: 999"));
 
         webTestClient.put().uri("/api/v1/transactions/999")
@@ -147,7 +225,7 @@ class TransactionControllerTest {
 
     @Test
     void deleteTransaction_ShouldReturnNoContent() throws Exception {
-        doNothing().when(transactionService).deleteTransaction(1L);
+        when(transactionService.deleteTransactionAsync(1L)).thenReturn(CompletableFuture.completedFuture(null));
 
         webTestClient.delete().uri("/api/v1/transactions/1")
                 .exchange()
@@ -156,9 +234,9 @@ class TransactionControllerTest {
 
     @Test
     void deleteTransaction_WhenNotFound_ShouldReturnNotFound() throws Exception {
-        doNothing().when(transactionService).deleteTransaction(1L);
-        doThrow(new TransactionNotFoundException("Transaction not found with ID: 999"))
-                .when(transactionService).deleteTransaction(999L);
+        when(transactionService.deleteTransactionAsync(1L)).thenReturn(CompletableFuture.completedFuture(null));
+        when(transactionService.deleteTransactionAsync(999L)).thenReturn(
+                CompletableFuture.failedFuture(new TransactionNotFoundException("Transaction not found with ID: 999")));
 
         webTestClient.delete().uri("/api/v1/transactions/999")
                 .exchange()
@@ -178,6 +256,29 @@ class TransactionControllerTest {
                 .jsonPath("$.type").isEqualTo(testTransaction.getType().toString());
     }
 
+    @Test
+    void getTransaction_WithFields_ShouldWriteOnlyThoseFields() {
+        when(transactionService.getTransaction(1L)).thenReturn(testTransaction);
+
+        webTestClient.get().uri("/api/v1/transactions/1?fields=amount,status")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(testTransaction.getId())
+                .jsonPath("$.amount").isEqualTo(testTransaction.getAmount().doubleValue())
+                .jsonPath("$.status").isEqualTo(testTransaction.getStatus().toString())
+                .jsonPath("$.type").doesNotExist()
+                .jsonPath("$.description").doesNotExist();
+
+        webTestClient.get().uri("/api/v1/transactions/1?fields=amount,password")
+                .exchange()
+                .expectStatus().isBadRequest();
+        // Not a transaction endpoint, so the parameter is not checked
+        webTestClient.get().uri("/api/v1/transactionsummary?fields=password")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
     @Test
     void getTransaction_WhenNotFound_ShouldReturnNotFound() throws Exception {
         when(transactionService.getTransaction(999L))
@@ -214,8 +315,8 @@ class TransactionControllerTest {
 
     @Test
     void createTransaction_WhenDuplicate_ShouldReturnConflict() throws Exception {
-        when(transactionService.createTransaction(any(Transaction.class)))
-                .thenThrow(new DuplicateTransactionException("Possible duplicate transaction detected"));
+        when(transactionService.createTransactionAsync(any(Transaction.class)))
+                .thenReturn(CompletableFuture.failedFuture(new DuplicateTransactionException("Possible duplicate transaction detected")));
 
         testTransaction.setSourceAccountNumber("1234567890");
         testTransaction.setCurrency("CNY");
@@ -232,6 +333,25 @@ class TransactionControllerTest {
                 .jsonPath("$.message").isEqualTo("Possible duplicate transaction detected");
     }
 
+    @Test
+    void createTransaction_WhenFundsAreShort_ShouldReturnUnprocessableEntity() {
+        when(transactionService.createTransactionAsync(any(Transaction.class)))
+                .thenReturn(CompletableFuture.failedFuture(new InsufficientFundsException("Insufficient funds in 1234567890")));
+
+        testTransaction.setSourceAccountNumber("1234567890");
+        testTransaction.setCurrency("CNY");
+        testTransaction.setCategory(TransactionCategory.TRANSFER);
+        testTransaction.setRiskLevel(RiskLevel.LOW);
+
+        webTestClient.post().uri("/api/v1/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(testTransaction)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Insufficient funds in 1234567890");
+    }
+
     @Test
     void createTransaction_WithTransferTypeButNoDestination_ShouldReturnBadRequest() {
         Transaction invalidTransaction = Transaction.builder()
@@ -256,6 +376,29 @@ class TransactionControllerTest {
                         assertTrue(message.toString().contains("Destination account is required")));
     }
 
+    @Test
+    void createTransaction_WithInvalidIpAddress_ShouldReturnBadRequest() {
+        Transaction invalidTransaction = Transaction.builder()
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.DEPOSIT)
+                .sourceAccountNumber("12345")
+                .currency("CNY")
+                .status(TransactionStatus.INITIATED)
+                .category(TransactionCategory.SALARY)
+                .riskLevel(RiskLevel.LOW)
+                .ipAddress("192.168.1.256")
+                .build();
+
+        webTestClient.post().uri("/api/v1/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalidTransaction)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").value(message ->
+                        assertTrue(message.toString().contains("Invalid IP address")));
+    }
+
     @Test
     void createTransaction_WithForeignCurrencyButNoExchangeRate_ShouldReturnBadRequest() {
         Transaction invalidTransaction = Transaction.builder()
@@ -302,4 +445,138 @@ class TransactionControllerTest {
                 .jsonPath("$.message").value(message ->
                         assertTrue(message.toString().contains("Remarks are required for high-risk transactions")));
     }
+
+    @Test
+    void searchTransactions_ShouldPageNewestFirst() {
+        for (long id = 901; id <= 903; id++) {
+            Transaction transaction = Transaction.builder().id(id).description("Refund from ACME store #" + id).build();
+            invertedIndex.onCreated(transaction);
+            when(transactionService.getTransaction(id)).thenReturn(transaction);
+        }
+
+        webTestClient.get().uri("/api/v1/transactions/search?q=acm* refund&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].id").isEqualTo(903)
+                .jsonPath("$.nextCursor").isEqualTo("902");
+
+        webTestClient.get().uri("/api/v1/transactions/search?q=acm* refund&size=2&cursor=902")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(901)
+                .jsonPath("$.nextCursor").doesNotExist();
+
+        webTestClient.get().uri("/api/v1/transactions/search?q=a*")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void scrollTransactions_ShouldPageNewestFirstByCursor() {
+        for (long id = 801; id <= 803; id++) {
+            Transaction transaction = Transaction.builder().id(id).build();
+            idIndex.onCreated(transaction);
+            when(transactionService.getTransaction(id)).thenReturn(transaction);
+        }
+        idIndex.onDeleted(Transaction.builder().id(802L).build());
+
+        webTestClient.get().uri("/api/v1/transactions/scroll?size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(803)
+                .jsonPath("$.nextCursor").isEqualTo("803");
+
+        webTestClient.get().uri("/api/v1/transactions/scroll?size=1&cursor=803&fields=id")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(801)
+                .jsonPath("$.content[0].amount").doesNotExist()
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    void getAllTransactions_WithSort_ShouldPageFromTheSortedIndex() {
+        Map<Long, Transaction> stored = new HashMap<>();
+        LocalDateTime day = LocalDateTime.of(2026, 3, 1, 0, 0);
+        String[] amounts = {"5.00", "70.00", "30.00"};
+        for (int i = 0; i < amounts.length; i++) {
+            Transaction transaction = Transaction.builder().id(901L + i).amount(new BigDecimal(amounts[i]))
+                    .currency("CNY").type(i == 2 ? TransactionType.TRANSFER : TransactionType.DEPOSIT)
+                    .processedTime(day.plusHours(i)).build();
+            transaction.normalize();
+            sortedIndex.onCreated(transaction);
+            stored.put(transaction.getId(), transaction);
+        }
+        when(transactionService.getTransactions(any())).thenAnswer(invocation -> stored);
+
+        webTestClient.get().uri("/api/v1/transactions?sort=amount,desc&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(902)
+                .jsonPath("$.content[1].id").isEqualTo(903)
+                .jsonPath("$.totalElements").isEqualTo(3);
+
+        webTestClient.get().uri("/api/v1/transactions/top?by=amount&limit=1&type=TRANSFER&from=2026-03-01T00:00:00&to=2026-03-02T00:00:00")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(903);
+
+        webTestClient.get().uri("/api/v1/transactions?sort=description")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getAllTransactions_WithInvalidPaging_ShouldRejectOrClamp() {
+        webTestClient.get().uri("/api/v1/transactions?sort=amount,desc&size=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get().uri("/api/v1/transactions?page=-1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        when(transactionService.getAllTransactions(any())).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 100), 0));
+        webTestClient.get().uri("/api/v1/transactions?size=1000000")
+                .exchange()
+                .expectStatus().isOk();
+        verify(transactionService).getAllTransactions(PageRequest.of(0, 100));
+    }
+
+    @Test
+    void getTransactions_ShouldResolveIdsInOrderWithNotFoundMarkers() {
+        Transaction transaction = Transaction.builder().id(701L).amount(new BigDecimal("10.00")).build();
+        when(transactionService.getTransactions(any())).thenReturn(Map.of(701L, transaction));
+
+        webTestClient.get().uri("/api/v1/transactions?ids=702,701,702")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].id").isEqualTo(702)
+                .jsonPath("$[0].found").isEqualTo(false)
+                .jsonPath("$[1].transaction.id").isEqualTo(701)
+                .jsonPath("$[2].found").isEqualTo(false);
+
+        // 701 now comes from the cache, only the miss goes to the service
+        clearInvocations(transactionService);
+        when(transactionService.getTransactions(any())).thenReturn(Map.of());
+        webTestClient.post().uri("/api/v1/transactions/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("ids", List.of(701, 703)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].found").isEqualTo(true)
+                .jsonPath("$[1].found").isEqualTo(false);
+        verify(transactionService).getTransactions(Set.of(703L));
+    }
 }
@@ -0,0 +1,36 @@
+package com.htest.transactionManagement.diagnostics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestStageEventTest {
+
+    @Test
+    void time_ShouldOnlyRecordWhileARecordingIsRunning(@TempDir Path dir) throws Exception {
+        assertEquals("before", RequestStageEvent.time(RequestStageEvent.SERVICE, "GET /before", () -> "before"));
+
+        Path file = dir.resolve("stages.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RequestStageEvent.class);
+            recording.start();
+            assertEquals("during", RequestStageEvent.time(RequestStageEvent.SERVICE, "GET /during", () -> "during"));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("transactionManagement.RequestStage"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals(RequestStageEvent.SERVICE, events.get(0).getString("stage"));
+        assertEquals("GET /during", events.get(0).getString("operation"));
+    }
+}
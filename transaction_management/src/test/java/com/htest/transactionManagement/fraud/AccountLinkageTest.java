@@ -0,0 +1,89 @@
+package com.htest.transactionManagement.fraud;
+
+import com.htest.transactionManagement.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLinkageTest {
+    private final AccountLinkage linkage = new AccountLinkage(new SimpleMeterRegistry());
+
+    @Test
+    void cluster_ShouldLinkAccountsThroughSharedIpsAndDevices() {
+        // A and B share an IP, B and C share a device, D is on its own
+        linkage.onCreated(transaction("A", "2001:db8::1", "phone-1", "10.00"));
+        linkage.onCreated(transaction("B", "2001:db8::1", "laptop-2", "20.00"));
+        linkage.onCreated(transaction("C", "2001:db8::3", "laptop-2", "30.00"));
+        linkage.onCreated(transaction("D", "2001:db8::4", "phone-4", "40.00"));
+        linkage.onCreated(transaction("C", null, null, "5.00"));
+
+        AccountCluster cluster = linkage.cluster("C", 10).join();
+        assertEquals(3, cluster.accountCount());
+        assertEquals(2, cluster.ipCount());
+        assertEquals(2, cluster.deviceCount());
+        assertEquals(4, cluster.transactionCount());
+        assertEquals(new BigDecimal("65.00"), cluster.totalVolume());
+        assertEquals(Set.of("A", "B", "C"), Set.copyOf(cluster.accounts()));
+        assertEquals(Set.of("2001:db8::1", "2001:db8::3"), Set.copyOf(cluster.ips()));
+
+        assertEquals(List.of("D"), linkage.cluster("D", 10).join().accounts());
+        assertEquals(1, linkage.cluster("A", 1).join().accounts().size());
+        assertNull(linkage.cluster("E", 10).join());
+    }
+
+    @Test
+    void updatesAndDeletes_ShouldAdjustVolumeButKeepLinks() {
+        Transaction original = transaction("A", "2001:db8::1", null, "10.00");
+        linkage.onCreated(original);
+        linkage.onCreated(transaction("B", "2001:db8::1", null, "20.00"));
+        Transaction updated = transaction("A", "2001:db8::9", null, "15.00");
+        linkage.onUpdated(original, updated);
+
+        AccountCluster cluster = linkage.cluster("A", 10).join();
+        assertEquals(new BigDecimal("35.00"), cluster.totalVolume());
+        assertEquals(2, cluster.ipCount());
+
+        linkage.onDeleted(updated);
+        cluster = linkage.cluster("B", 10).join();
+        assertEquals(new BigDecimal("20.00"), cluster.totalVolume());
+        assertEquals(1, cluster.transactionCount());
+        assertEquals(2, cluster.accountCount());
+    }
+
+    @Test
+    void cluster_ShouldStayConsistentAcrossManyMerges() {
+        // A chain of 5000 accounts, each sharing a device with the next, linked in shuffled order
+        for (int i = 0; i < 5000; i += 2) {
+            linkage.onCreated(transaction("ACC" + i, null, "device-" + i, "1.00"));
+            linkage.onCreated(transaction("ACC" + (i + 1), null, "device-" + i, "1.00"));
+        }
+        for (int i = 1; i < 4999; i += 2) {
+            linkage.onCreated(transaction("ACC" + i, null, "device-" + i, "1.00"));
+            linkage.onCreated(transaction("ACC" + (i + 1), null, "device-" + i, "1.00"));
+        }
+        AccountCluster cluster = linkage.cluster("ACC2500", 10_000).join();
+        assertEquals(5000, cluster.accountCount());
+        assertEquals(5000, cluster.accounts().size());
+        assertEquals(new BigDecimal("9998.00"), cluster.totalVolume());
+        List<String> listed = linkage.cluster("ACC2500", 2).join().accounts();
+        assertEquals(2, listed.size());
+        assertEquals("ACC2500", listed.get(0));
+    }
+
+    private static Transaction transaction(String account, String ip, String device, String amount) {
+        Transaction transaction = Transaction.builder()
+                .sourceAccountNumber(account)
+                .ipAddress(ip)
+                .deviceInfo(device)
+                .amount(new BigDecimal(amount))
+                .currency("CNY")
+                .build();
+        transaction.normalize();
+        return transaction;
+    }
+}
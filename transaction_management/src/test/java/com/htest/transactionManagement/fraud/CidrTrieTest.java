@@ -0,0 +1,80 @@
+package com.htest.transactionManagement.fraud;
+
+import com.htest.transactionManagement.model.IpAddress;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrTrieTest {
+
+    @Test
+    void match_ShouldReturnTheLongestContainingPrefix() {
+        CidrTrie trie = new CidrTrie();
+        assertEquals(CidrTrie.NO_MATCH, trie.match(IpAddress.parse("10.0.0.1")));
+        trie.insert(IpAddress.parse("10.0.0.0"), 96 + 8, 1);
+        trie.insert(IpAddress.parse("10.1.0.0"), 96 + 16, 2);
+        trie.insert(IpAddress.parse("10.1.2.3"), 128, 3);
+        trie.insert(IpAddress.parse("2001:db8::"), 32, 4);
+
+        assertEquals(1, trie.match(IpAddress.parse("10.200.0.1")));
+        assertEquals(2, trie.match(IpAddress.parse("10.1.2.4")));
+        assertEquals(3, trie.match(IpAddress.parse("10.1.2.3")));
+        assertEquals(4, trie.match(IpAddress.parse("2001:db8:ffff::1")));
+        assertEquals(CidrTrie.NO_MATCH, trie.match(IpAddress.parse("11.0.0.1")));
+        assertEquals(CidrTrie.NO_MATCH, trie.match(IpAddress.parse("2001:db9::1")));
+        assertEquals(4, trie.size());
+
+        // Host bits are ignored, and the same prefix again replaces its value
+        assertEquals(2, trie.insert(IpAddress.parse("10.1.255.255"), 96 + 16, 5));
+        assertEquals(5, trie.match(IpAddress.parse("10.1.0.9")));
+        trie.insert(IpAddress.parse("::"), 0, 6);
+        assertEquals(6, trie.match(IpAddress.parse("11.0.0.1")));
+        assertEquals(5, trie.size());
+    }
+
+    @Test
+    void match_ShouldAgreeWithALinearScan() {
+        Random random = new Random(48);
+        CidrTrie trie = new CidrTrie(2);
+        List<long[]> prefixes = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            // Few distinct leading bits so that prefixes nest and share paths
+            boolean ipv4 = i % 3 == 0;
+            long high = ipv4 ? 0 : random.nextLong() & 0xf000_0000_0000_0000L | (random.nextInt(4) == 0 ? random.nextLong() >>> 60 : 0);
+            long low = ipv4 ? 0xffff_0000_0000L | (random.nextInt() >>> random.nextInt(32)) : random.nextLong();
+            int length = ipv4 ? 96 + random.nextInt(33) : random.nextInt(129);
+            long[] prefix = {high, low, length, i};
+            if (trie.insert(new IpAddress(high, low), length, i) == CidrTrie.NO_MATCH) {
+                prefixes.add(prefix);
+            } else {
+                prefixes.replaceAll(p -> p[2] == length && contains(p, high, low) ? prefix : p);
+            }
+        }
+        assertEquals(prefixes.size(), trie.size());
+        for (int i = 0; i < 20_000; i++) {
+            long[] near = prefixes.get(random.nextInt(prefixes.size()));
+            long high = i % 4 == 0 ? near[0] ^ (1L << random.nextInt(64)) >>> random.nextInt(64) : near[0];
+            long low = near[1] ^ random.nextLong() >>> random.nextInt(16, 65);
+            int expected = CidrTrie.NO_MATCH;
+            int longest = -1;
+            for (long[] p : prefixes) {
+                if (p[2] > longest && contains(p, high, low)) {
+                    longest = (int) p[2];
+                    expected = (int) p[3];
+                }
+            }
+            assertEquals(expected, trie.match(high, low));
+        }
+    }
+
+    private static boolean contains(long[] prefix, long high, long low) {
+        int length = (int) prefix[2];
+        long highMask = length == 0 ? 0 : length >= 64 ? -1L : -1L << (64 - length);
+        long lowMask = length <= 64 ? 0 : length == 128 ? -1L : -1L << (128 - length);
+        return ((prefix[0] ^ high) & highMask) == 0 && ((prefix[1] ^ low) & lowMask) == 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.htest.transactionManagement.fraud;
+
+import com.htest.transactionManagement.exception.BlockedIpException;
+import com.htest.transactionManagement.model.IpAddress;
+import com.htest.transactionManagement.model.RiskLevel;
+import com.htest.transactionManagement.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpBlocklistTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void screen_ShouldBlockFlagOrAllowByTheLongestMatchingRange() throws IOException {
+        Path file = directory.resolve("ip-blocklist.txt");
+        Files.write(file, List.of(
+                "# data centers",
+                "203.0.113.0/24 BLOCK",
+                "203.0.113.128/25 allow  # office",
+                "198.51.100.7",
+                "2001:db8::/32 FLAG",
+                "not-an-ip BLOCK",
+                "10.0.0.0/33",
+                "2001:db8::/32 BLOCK"));
+        IpBlocklist blocklist = new IpBlocklist(file, RiskLevel.HIGH, new SimpleMeterRegistry());
+
+        assertThrows(BlockedIpException.class, () -> blocklist.screen(transaction("203.0.113.5", RiskLevel.LOW)));
+        assertThrows(BlockedIpException.class, () -> blocklist.screen(transaction("2001:db8::1", RiskLevel.LOW)));
+
+        Transaction allowed = transaction("203.0.113.200", RiskLevel.LOW);
+        blocklist.screen(allowed);
+        assertNull(allowed.getIsFraudSuspected());
+
+        Transaction flagged = transaction("::ffff:198.51.100.7", RiskLevel.LOW);
+        blocklist.screen(flagged);
+        assertTrue(flagged.getIsFraudSuspected());
+        assertEquals(RiskLevel.HIGH, flagged.getRiskLevel());
+        assertEquals("IP address in flagged range 198.51.100.7", flagged.getRemarks());
+
+        Transaction critical = transaction("198.51.100.7", RiskLevel.CRITICAL);
+        blocklist.screen(critical);
+        assertEquals(RiskLevel.CRITICAL, critical.getRiskLevel());
+
+        blocklist.screen(transaction("198.51.100.8", RiskLevel.LOW));
+        blocklist.screen(transaction(null, RiskLevel.LOW));
+    }
+
+    @Test
+    void reload_ShouldSwapInTheFileOnlyWhenItChanges() throws IOException {
+        Path file = directory.resolve("ip-blocklist.txt");
+        IpBlocklist blocklist = new IpBlocklist(file, RiskLevel.HIGH, new SimpleMeterRegistry());
+        assertNull(blocklist.match(IpAddress.parse("192.0.2.1")));
+        assertFalse(blocklist.reload());
+
+        Files.writeString(file, "192.0.2.0/24 BLOCK\n");
+        assertTrue(blocklist.reload());
+        assertFalse(blocklist.reload());
+        assertEquals(new IpBlocklist.Rule("192.0.2.0/24", IpBlocklist.Action.BLOCK),
+                blocklist.match(IpAddress.parse("192.0.2.1")));
+
+        Files.writeString(file, "192.0.2.0/25 FLAG\n192.0.2.0/24 ALLOW\n");
+        assertTrue(blocklist.reload());
+        assertEquals(IpBlocklist.Action.FLAG, blocklist.match(IpAddress.parse("192.0.2.1")).action());
+        assertEquals(IpBlocklist.Action.ALLOW, blocklist.match(IpAddress.parse("192.0.2.129")).action());
+
+        Files.delete(file);
+        assertTrue(blocklist.reload());
+        assertNull(blocklist.match(IpAddress.parse("192.0.2.1")));
+    }
+
+    private static Transaction transaction(String ip, RiskLevel riskLevel) {
+        Transaction transaction = Transaction.builder()
+                .sourceAccountNumber("A1")
+                .currency("CNY")
+                .ipAddress(ip)
+                .riskLevel(riskLevel)
+                .build();
+        transaction.normalize();
+        return transaction;
+    }
+}
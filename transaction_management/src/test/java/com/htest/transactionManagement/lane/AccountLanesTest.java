@@ -0,0 +1,118 @@
+package com.htest.transactionManagement.lane;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLanesTest {
+
+    private final AccountLanes accountLanes = new AccountLanes(4, false);
+
+    @AfterEach
+    void tearDown() {
+        accountLanes.shutdown();
+    }
+
+    @Test
+    void execute_ShouldApplyMutationsForOneAccountWithoutLostUpdates() {
+        // Deliberately unsynchronized: only the lane's single writer keeps this correct
+        long[] balance = new long[1];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.execute(() -> accountLanes.execute("ACC1", () -> ++balance[0]));
+            }
+        }
+        assertEquals(10_000, accountLanes.execute("ACC1", () -> balance[0]));
+    }
+
+    @Test
+    void execute_ShouldPreserveSubmissionOrderPerAccount() {
+        List<Integer> applied = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int sequence = i;
+            accountLanes.execute("ACC2", () -> applied.add(sequence));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, applied.get(i));
+        }
+    }
+
+    @Test
+    void execute_ShouldRethrowRuntimeExceptionFromLane() {
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> accountLanes.execute("ACC3", () -> {
+                    throw new IllegalStateException("rejected");
+                }));
+        assertEquals("rejected", thrown.getMessage());
+    }
+
+    @Test
+    void execute_WithZeroLanes_ShouldRunInline() {
+        AccountLanes inline = new AccountLanes(0, false);
+        Thread caller = Thread.currentThread();
+        assertSame(caller, inline.execute("ACC4", Thread::currentThread));
+    }
+
+    @Test
+    void executeAsync_ShouldReturnBeforeTheLaneRunsTheAction() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // Occupy the lane, then queue behind it without waiting
+        CompletableFuture<Object> blocker = accountLanes.executeAsync("ACC5", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        CompletableFuture<String> result = accountLanes.executeAsync("ACC5", () -> Thread.currentThread().getName());
+        assertFalse(result.isDone());
+
+        release.countDown();
+        assertTrue(result.get().startsWith("account-lane-"));
+        assertTrue(blocker.isDone());
+        CompletableFuture<Object> failed = accountLanes.executeAsync("ACC5", () -> {
+            throw new IllegalStateException("rejected");
+        });
+        assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, failed::join).getCause());
+    }
+
+    @Test
+    void executeAsync_WithTwoAccounts_ShouldHoldBothLanes() throws Exception {
+        String first = "ACC6";
+        String second = "ACC7";
+        for (int i = 8; accountLanes.laneIndex(second) == accountLanes.laneIndex(first); i++) {
+            second = "ACC" + i;
+        }
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> moved = accountLanes.executeAsync(second, first, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "moved";
+        });
+        started.await();
+        CompletableFuture<Integer> onFirst = accountLanes.executeAsync(first, () -> 1);
+        CompletableFuture<Integer> onSecond = accountLanes.executeAsync(second, () -> 2);
+        Thread.sleep(50);
+        assertFalse(onFirst.isDone());
+        assertFalse(onSecond.isDone());
+
+        release.countDown();
+        assertEquals("moved", moved.get());
+        assertEquals(1, onFirst.get());
+        assertEquals(2, onSecond.get());
+    }
+}
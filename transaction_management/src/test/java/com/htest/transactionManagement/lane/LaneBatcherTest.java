@@ -0,0 +1,98 @@
+package com.htest.transactionManagement.lane;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaneBatcherTest {
+    private final AccountLanes accountLanes = new AccountLanes(2, false);
+    private final DistributionSummary batchSizes = DistributionSummary.builder("batch").register(new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        accountLanes.shutdown();
+    }
+
+    @Test
+    void execute_WhenIdle_ShouldApplyEachCallAlone() {
+        LaneBatcher<Integer, Integer> batcher = new LaneBatcher<>(accountLanes, 16,
+                calls -> calls.forEach(call -> call.complete(call.input() * 2)), batchSizes);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(2 * i, batcher.execute("ACC1", i));
+        }
+        assertEquals(10, batchSizes.count());
+        assertEquals(1, batchSizes.max());
+    }
+
+    @Test
+    void execute_UnderLoad_ShouldCoalesceCallsAndKeepResultsApart() throws Exception {
+        // Hold the lane so callers pile up behind it
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> accountLanes.execute("ACC1", () -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        blocked.await();
+        List<List<Integer>> batches = new ArrayList<>();
+        LaneBatcher<Integer, Integer> batcher = new LaneBatcher<>(accountLanes, 8, calls -> {
+            batches.add(calls.stream().map(LaneBatcher.Call::input).toList());
+            for (LaneBatcher.Call<Integer, Integer> call : calls) {
+                if (call.input() % 5 == 0) {
+                    call.fail(new IllegalArgumentException("rejected " + call.input()));
+                } else {
+                    call.complete(-call.input());
+                }
+            }
+        }, batchSizes);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= 20; i++) {
+                int input = i;
+                results.add(executor.submit(() -> batcher.execute("ACC1", input)));
+            }
+            while (batcher.queued() < 20) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            holder.join();
+            for (int i = 1; i <= 20; i++) {
+                if (i % 5 == 0) {
+                    int input = i;
+                    Exception thrown = assertThrows(Exception.class, () -> results.get(input - 1).get());
+                    assertEquals("rejected " + i, thrown.getCause().getMessage());
+                } else {
+                    assertEquals(-i, results.get(i - 1).get());
+                }
+            }
+        }
+        assertEquals(List.of(8, 8, 4), batches.stream().map(List::size).toList());
+    }
+
+    @Test
+    void execute_WhenApplierThrows_ShouldFailTheWholeBatch() {
+        LaneBatcher<Integer, Integer> batcher = new LaneBatcher<>(accountLanes, 4, calls -> {
+            throw new IllegalStateException("store down");
+        }, batchSizes);
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> batcher.execute("ACC1", 1));
+        assertEquals("store down", thrown.getMessage());
+    }
+}
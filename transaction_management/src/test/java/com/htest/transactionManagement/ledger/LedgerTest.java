@@ -0,0 +1,123 @@
+package com.htest.transactionManagement.ledger;
+
+import com.htest.transactionManagement.exception.InsufficientFundsException;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerTest {
+    private final Ledger ledger = new Ledger(true, 16);
+
+    @Test
+    void postings_ShouldBalanceAndExternalShouldMirrorHoldings() {
+        Transaction deposit = transaction(TransactionType.DEPOSIT, "A", null, "100.00");
+        Transaction transfer = transaction(TransactionType.TRANSFER, "A", "B", "30.00");
+        Transaction withdrawal = transaction(TransactionType.WITHDRAWAL, "B", null, "10.00");
+        for (Transaction transaction : List.of(deposit, transfer, withdrawal)) {
+            ledger.apply(null, transaction);
+            assertEquals(0, ledger.postings(transaction).stream().mapToLong(Posting::delta).sum());
+        }
+
+        assertEquals(7000, ledger.balance("A", "CNY"));
+        assertEquals(2000, ledger.balance("B", "CNY"));
+        assertEquals(-9000, ledger.balance(Ledger.EXTERNAL, "CNY"));
+        assertEquals(Map.of("CNY", new BigDecimal("70.00")), ledger.balances("A"));
+    }
+
+    @Test
+    void apply_WhenFundsAreShort_ShouldRejectAndPostNothing() {
+        ledger.apply(null, transaction(TransactionType.DEPOSIT, "A", null, "10.00"));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> ledger.apply(null, transaction(TransactionType.TRANSFER, "A", "B", "10.01")));
+        assertEquals(1000, ledger.balance("A", "CNY"));
+        assertEquals(0, ledger.balance("B", "CNY"));
+    }
+
+    @Test
+    void apply_ShouldReverseOnFailureAndDelete() {
+        ledger.apply(null, transaction(TransactionType.DEPOSIT, "A", null, "50.00"));
+        Transaction transfer = transaction(TransactionType.TRANSFER, "A", "B", "20.00");
+        ledger.apply(null, transfer);
+
+        // Changing the amount reverses the old postings and applies the new ones in one step
+        Transaction larger = transfer.toBuilder().amount(new BigDecimal("50.00")).build();
+        larger.normalize();
+        ledger.apply(transfer, larger);
+        assertEquals(0, ledger.balance("A", "CNY"));
+        assertEquals(5000, ledger.balance("B", "CNY"));
+
+        Transaction failed = larger.toBuilder().status(TransactionStatus.FAILED).build();
+        ledger.apply(larger, failed);
+        assertTrue(ledger.postings(failed).isEmpty());
+        assertEquals(5000, ledger.balance("A", "CNY"));
+        assertEquals(0, ledger.balance("B", "CNY"));
+
+        Transaction spend = transaction(TransactionType.TRANSFER, "A", "B", "50.00");
+        ledger.apply(null, spend);
+        // B spent what it received, deleting the transfer is still never rejected
+        ledger.apply(null, transaction(TransactionType.WITHDRAWAL, "B", null, "50.00"));
+        ledger.apply(spend, null);
+        assertEquals(5000, ledger.balance("A", "CNY"));
+        assertEquals(-5000, ledger.balance("B", "CNY"));
+    }
+
+    @Test
+    void apply_OpposingConcurrentTransfers_ShouldNotDeadlockAndConserveMoney() throws Exception {
+        // Many accounts on few stripes, so transfers in both directions regularly share and cross stripes
+        int accounts = 64;
+        for (int i = 0; i < accounts; i++) {
+            ledger.apply(null, transaction(TransactionType.DEPOSIT, "ACC" + i, null, "1000.00"));
+        }
+        AtomicLong rejected = new AtomicLong();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                executor.execute(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        int from = (seed * 31 + i) % accounts;
+                        int to = (seed % 2 == 0 ? from + 1 + i % 7 : from + accounts - 1 - i % 7) % accounts;
+                        try {
+                            ledger.apply(null, transaction(TransactionType.TRANSFER, "ACC" + from, "ACC" + to,
+                                    BigDecimal.valueOf(1 + i % 5000, 2).toPlainString()));
+                        } catch (InsufficientFundsException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+
+        long total = 0;
+        for (int i = 0; i < accounts; i++) {
+            long balance = ledger.balance("ACC" + i, "CNY");
+            assertTrue(balance >= 0);
+            total += balance;
+        }
+        assertEquals(accounts * 100_000L, total);
+        assertEquals(-total, ledger.balance(Ledger.EXTERNAL, "CNY"));
+    }
+
+    private static Transaction transaction(TransactionType type, String source, String destination, String amount) {
+        Transaction transaction = Transaction.builder()
+                .type(type)
+                .sourceAccountNumber(source)
+                .destinationAccountNumber(destination)
+                .amount(new BigDecimal(amount))
+                .currency("CNY")
+                .status(TransactionStatus.COMPLETED)
+                .build();
+        transaction.normalize();
+        return transaction;
+    }
+}
@@ -0,0 +1,311 @@
+package com.htest.transactionManagement.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the transaction API.
+ * <p>
+ * Requests are issued at a constant arrival rate on virtual threads, independent of how fast the
+ * server answers, and latency is recorded from each request's scheduled start into HdrHistograms.
+ * A slow server therefore shows up as a long tail instead of a lower request rate, which is what
+ * the old closed-loop stress tests hid.
+ * <p>
+ * Run against a local instance:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.htest.transactionManagement.loadgen.LoadGenerator \
+ *     -Dexec.args="rate=1000 duration=60 mix=create=20,get=50,update=15,delete=5,list=10"
+ * </pre>
+ * Arguments (all optional, {@code key=value}): {@code url}, {@code rate} (requests/second),
+ * {@code duration} and {@code warmup} (seconds), {@code mix}, {@code accounts} (distinct source
+ * accounts, keeps per-account rate limits out of the picture), {@code seed} (transactions created
+ * before the run so reads have something to hit) and {@code output} (JSON results file).
+ */
+public class LoadGenerator {
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String[] TYPES = {"DEPOSIT", "WITHDRAWAL"};
+    private static final String[] CATEGORIES = {"SALARY", "SHOPPING", "INVESTMENT", "UTILITIES"};
+
+    private final String baseUrl;
+    private final int rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final OperationMix mix;
+    private final int accounts;
+    private final int seed;
+    private final Path output;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final IdPool ids = new IdPool();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public LoadGenerator(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("url", "http://localhost:8080") + "/api/v1/transactions";
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        this.mix = OperationMix.parse(options.getOrDefault("mix", "create=20,get=50,update=15,delete=5,list=10"));
+        this.accounts = Integer.parseInt(options.getOrDefault("accounts", "10000"));
+        this.seed = Integer.parseInt(options.getOrDefault("seed", "1000"));
+        this.output = Path.of(options.getOrDefault("output", "target/loadgen-results.json"));
+        if (rate <= 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("rate and duration must be positive");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value argument but got '" + arg + "'");
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new LoadGenerator(options).run();
+    }
+
+    public void run() throws IOException {
+        System.out.printf("Seeding %d transactions against %s%n", seed, baseUrl);
+        for (int i = 0; i < seed; i++) {
+            execute(Operation.CREATE, System.nanoTime(), null);
+        }
+
+        if (warmupSeconds > 0) {
+            System.out.printf("Warming up at %d req/s for %ds%n", rate, warmupSeconds);
+            runPhase(warmupSeconds, null);
+        }
+
+        System.out.printf("Running at %d req/s for %ds with mix %s%n", rate, durationSeconds, mix.getWeights());
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        maxInFlight.set(0);
+        long start = System.nanoTime();
+        runPhase(durationSeconds, stats);
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        printResults(stats, elapsedSeconds);
+        writeResults(stats, elapsedSeconds);
+    }
+
+    /**
+     * Issues {@code rate * seconds} requests, each at its scheduled time. The dispatcher never waits
+     * for responses; if it falls behind (GC, scheduling) the late requests keep their original
+     * scheduled start so the delay is charged to latency rather than silently dropped.
+     */
+    private void runPhase(int seconds, Map<Operation, OperationStats> stats) {
+        long intervalNanos = 1_000_000_000L / rate;
+        long total = (long) rate * seconds;
+        SplittableRandom random = new SplittableRandom();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (long i = 0; i < total; i++) {
+                long scheduledStart = start + i * intervalNanos;
+                long wait = scheduledStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = mix.next(random);
+                OperationStats operationStats = stats == null ? null : stats.get(operation);
+                executor.execute(() -> execute(operation, scheduledStart, operationStats));
+            }
+        }
+    }
+
+    private void execute(Operation operation, long scheduledStart, OperationStats stats) {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        long sent = System.nanoTime();
+        int status;
+        try {
+            status = switch (operation) {
+                case CREATE -> create();
+                case GET -> get();
+                case UPDATE -> update();
+                case DELETE -> delete();
+                case LIST -> list();
+            };
+        } catch (Exception e) {
+            status = -1;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        long end = System.nanoTime();
+        if (stats != null) {
+            stats.record(end - scheduledStart, end - sent, status);
+        }
+    }
+
+    private int create() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(generateTransaction())))
+                .build());
+        if (response.statusCode() == 201) {
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            if (id != null) {
+                ids.add(id.asLong());
+            }
+        }
+        return response.statusCode();
+    }
+
+    private int get() throws Exception {
+        long id = ids.random();
+        if (id < 0) {
+            return create();
+        }
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build()).statusCode();
+    }
+
+    private int update() throws Exception {
+        long id = ids.random();
+        if (id < 0) {
+            return create();
+        }
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(generateTransaction())))
+                .build()).statusCode();
+    }
+
+    private int delete() throws Exception {
+        long id = ids.take();
+        if (id < 0) {
+            return create();
+        }
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).DELETE().build()).statusCode();
+    }
+
+    private int list() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(10);
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "?page=" + page + "&size=20")).GET().build())
+                .statusCode();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Map<String, Object> generateTransaction() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> transaction = new HashMap<>();
+        // Random cents and many accounts keep duplicate detection and per-account limits from skewing results
+        transaction.put("amount", random.nextInt(1, 10_000_000) / 100.0);
+        transaction.put("currency", "CNY");
+        transaction.put("status", "INITIATED");
+        transaction.put("sourceAccountNumber", "LG" + random.nextInt(accounts));
+        transaction.put("type", TYPES[random.nextInt(TYPES.length)]);
+        transaction.put("riskLevel", "LOW");
+        transaction.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        transaction.put("description", "Load generator transaction");
+        return transaction;
+    }
+
+    private void printResults(Map<Operation, OperationStats> stats, double elapsedSeconds) {
+        System.out.printf("%nResults over %.1fs (max in flight %d), response time from scheduled start in ms%n",
+                elapsedSeconds, maxInFlight.get());
+        System.out.printf("%-8s %10s %10s %10s %10s %10s %10s %10s%n",
+                "op", "count", "req/s", "errors", "p50", "p99", "p99.9", "max");
+        stats.forEach((operation, operationStats) -> {
+            if (operationStats.count() == 0) {
+                return;
+            }
+            Map<String, Object> summary = operationStats.toMap(elapsedSeconds);
+            System.out.printf("%-8s %10d %10.1f %10d %10.2f %10.2f %10.2f %10.2f%n",
+                    operation,
+                    operationStats.count(),
+                    (double) summary.get("throughputPerSecond"),
+                    (long) summary.get("rejected") + (long) summary.get("failed"),
+                    OperationStats.millis(operationStats.responseTime(), 50.0),
+                    OperationStats.millis(operationStats.responseTime(), 99.0),
+                    OperationStats.millis(operationStats.responseTime(), 99.9),
+                    operationStats.responseTime().getMaxValue() / 1_000_000.0);
+        });
+    }
+
+    private void writeResults(Map<Operation, OperationStats> stats, double elapsedSeconds) throws IOException {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("url", baseUrl);
+        config.put("targetRatePerSecond", rate);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("mix", mix.getWeights());
+        config.put("accounts", accounts);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> {
+            if (operationStats.count() > 0) {
+                operations.put(operation.name(), operationStats.toMap(elapsedSeconds));
+            }
+        });
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("config", config);
+        results.put("elapsedSeconds", elapsedSeconds);
+        results.put("maxInFlight", maxInFlight.get());
+        results.put("operations", operations);
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        objectMapper.writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    /**
+     * IDs created during the run, so reads, updates and deletes target existing transactions.
+     */
+    private static final class IdPool {
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(long id) {
+            ids.add(id);
+        }
+
+        synchronized long random() {
+            return ids.isEmpty() ? -1 : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        synchronized long take() {
+            if (ids.isEmpty()) {
+                return -1;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            long id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.htest.transactionManagement.loadgen;
+
+public enum Operation {
+    CREATE,
+    GET,
+    UPDATE,
+    DELETE,
+    LIST
+}
@@ -0,0 +1,64 @@
+package com.htest.transactionManagement.loadgen;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted operation mix parsed from a spec such as {@code create=20,get=50,update=15,delete=5,list=10}.
+ * Weights are relative, they don't need to add up to 100.
+ */
+public final class OperationMix {
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    private final Map<Operation, Integer> weights;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    public static OperationMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + part + "', expected operation=weight");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight must not be negative: " + part);
+            }
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix must contain at least one positive weight");
+        }
+        return new OperationMix(weights);
+    }
+
+    public Operation next(SplittableRandom random) {
+        int pick = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,74 @@
+package com.htest.transactionManagement.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one operation.
+ * <p>
+ * {@code responseTime} is measured from the request's scheduled start, so time spent waiting
+ * behind a stalled server is included (coordinated omission corrected). {@code serviceTime}
+ * is measured from when the request was actually sent; the gap between the two shows how much
+ * a closed-loop test would have understated the tail.
+ */
+final class OperationStats {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    void record(long responseNanos, long serviceNanos, int statusCode) {
+        responseTime.recordValue(Math.min(responseNanos, HIGHEST_TRACKABLE_NANOS));
+        serviceTime.recordValue(Math.min(serviceNanos, HIGHEST_TRACKABLE_NANOS));
+        if (statusCode >= 200 && statusCode < 300) {
+            succeeded.increment();
+        } else if (statusCode == 429 || statusCode == 503) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    long count() {
+        return responseTime.getTotalCount();
+    }
+
+    Histogram responseTime() {
+        return responseTime;
+    }
+
+    Map<String, Object> toMap(double durationSeconds) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", count());
+        result.put("succeeded", succeeded.sum());
+        result.put("rejected", rejected.sum());
+        result.put("failed", failed.sum());
+        result.put("throughputPerSecond", count() / durationSeconds);
+        result.put("responseTimeMillis", percentiles(responseTime));
+        result.put("serviceTimeMillis", percentiles(serviceTime));
+        return result;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        result.put("mean", histogram.getMean() / 1_000_000.0);
+        result.put("p50", millis(histogram, 50.0));
+        result.put("p90", millis(histogram, 90.0));
+        result.put("p99", millis(histogram, 99.0));
+        result.put("p99.9", millis(histogram, 99.9));
+        result.put("max", histogram.getMaxValue() / 1_000_000.0);
+        return result;
+    }
+
+    static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+}
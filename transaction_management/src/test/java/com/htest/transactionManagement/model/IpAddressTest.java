@@ -0,0 +1,56 @@
+package com.htest.transactionManagement.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpAddressTest {
+
+    @Test
+    void parse_ShouldAcceptIpv4AndIpv6Forms() throws Exception {
+        IpAddress ipv4 = IpAddress.parse("192.168.1.10");
+        assertTrue(ipv4.isIpv4());
+        assertEquals("192.168.1.10", ipv4.toString());
+        assertEquals(ipv4, IpAddress.parse("::ffff:192.168.1.10"));
+        assertEquals(IpAddress.parse("2001:db8::8a2e:370:7334"), IpAddress.parse("2001:0DB8:0:0:0:8A2E:0370:7334"));
+        assertEquals("2001:db8::8a2e:370:7334", IpAddress.parse("2001:0db8:0000:0000:0000:8a2e:0370:7334").toString());
+        assertEquals("::", IpAddress.parse("::").toString());
+        assertEquals("::1", IpAddress.parse("::1").toString());
+        assertEquals("fe80::1", IpAddress.parse("fe80::1%eth0").toString());
+        assertEquals("1::", IpAddress.parse("1::").toString());
+        assertEquals("1:0:0:1::1", IpAddress.parse("1:0:0:1:0:0:0:1").toString());
+        assertEquals("2001:db8:0:1:1:1:1:1", IpAddress.parse("2001:db8::1:1:1:1:1").toString());
+        assertEquals("64:ff9b::c000:221", IpAddress.parse("64:ff9b::192.0.2.33").toString());
+
+        // Random addresses agree with the JDK, which does not resolve literal addresses either
+        Random random = new Random(48);
+        for (int i = 0; i < 10_000; i++) {
+            byte[] bytes = new byte[16];
+            random.nextBytes(bytes);
+            if (i % 3 == 0) {
+                ByteBuffer.wrap(bytes).putLong(0, 0).putLong(8, random.nextInt(3) == 0 ? 0 : random.nextLong() & 0xffffL);
+            }
+            String text = Inet6Address.getByAddress(null, bytes, -1).getHostAddress();
+            IpAddress address = IpAddress.parse(text);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            assertEquals(new IpAddress(buffer.getLong(), buffer.getLong()), address, text);
+            assertEquals(address, IpAddress.parse(address.toString()));
+            assertArrayEquals(bytes, InetAddress.getByName(address.toString()).getAddress(), address.toString());
+        }
+    }
+
+    @Test
+    void tryParse_ShouldRejectMalformedAddresses() {
+        for (String text : new String[]{null, "", "localhost", "1.2.3", "1.2.3.4.5", "256.1.1.1", "1.2.3.4 ", "1..2.3",
+                "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "1::2::3", "12345::", ":1::", "1:", "::1:", "g::1",
+                "1:2:3:4:5:6:7::8", "::ffff:1.2.3", "1:2:3:4:5:6:7:1.2.3.4", "fe80::1%", "\u0661::1", "\uff21::1"}) {
+            assertNull(IpAddress.tryParse(text), text);
+        }
+        assertThrows(IllegalArgumentException.class, () -> IpAddress.parse("example.com"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.htest.transactionManagement.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_ShouldUseCurrencyScaleWithoutRounding() {
+        assertEquals(10050, Money.of(new BigDecimal("100.5"), "CNY").minorUnits());
+        assertEquals(100, Money.of(new BigDecimal("100"), "JPY").minorUnits());
+        assertEquals(1234, Money.of(new BigDecimal("1.234"), "KWD").minorUnits());
+        assertEquals(Money.of(new BigDecimal("100.0"), "CNY"), Money.of(new BigDecimal("100.00"), "CNY"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1.005"), "CNY"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1.5"), "JPY"));
+        assertFalse(Money.isExact(new BigDecimal("1.005"), "USD"));
+    }
+
+    @Test
+    void toCny_ShouldRoundHalfEvenToTheFen() {
+        Money usd = Money.of(new BigDecimal("10.01"), "USD");
+        assertEquals(721, usd.toCny(new BigDecimal("0.72")).minorUnits()); // 7.2072
+        assertEquals(2, Money.of(new BigDecimal("0.05"), "USD").toCny(new BigDecimal("0.5")).minorUnits()); // 0.025
+        assertEquals(4, Money.of(new BigDecimal("0.07"), "USD").toCny(new BigDecimal("0.5")).minorUnits()); // 0.035
+        Money cny = Money.of(new BigDecimal("3.30"), "CNY");
+        assertSame(cny, cny.toCny(null));
+        assertEquals(new BigDecimal("3.30"), cny.toBigDecimal());
+        assertEquals(660, cny.plus(cny).minorUnits());
+        assertThrows(IllegalArgumentException.class, () -> cny.plus(usd));
+    }
+}
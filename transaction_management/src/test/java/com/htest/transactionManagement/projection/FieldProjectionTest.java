@@ -0,0 +1,57 @@
+package com.htest.transactionManagement.projection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionLookup;
+import com.htest.transactionManagement.model.TransactionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldProjectionTest {
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final FieldProjection projection = new FieldProjection(mapper);
+
+    @Test
+    void mapper_ShouldWriteOnlyTheNamedFieldsAndTheId() throws Exception {
+        Transaction transaction = Transaction.builder()
+                .id(7L)
+                .amount(new BigDecimal("12.50"))
+                .status(TransactionStatus.COMPLETED)
+                .description("Groceries")
+                .build();
+
+        assertEquals("{\"id\":7,\"amount\":12.50,\"status\":\"COMPLETED\"}",
+                projection.mapper(" status, amount").writeValueAsString(transaction));
+
+        // Nested transactions are projected too, and other types are untouched
+        JsonNode lookup = mapper.readTree(projection.mapper("amount")
+                .writeValueAsString(List.of(TransactionLookup.of(7L, transaction), TransactionLookup.of(8L, null))));
+        JsonNode projected = lookup.get(0).get("transaction");
+        assertEquals(2, projected.size());
+        assertEquals(12.5, projected.get("amount").asDouble());
+        assertTrue(lookup.get(0).get("found").asBoolean());
+        assertFalse(lookup.get(1).get("found").asBoolean());
+    }
+
+    @Test
+    void mapper_ShouldBeBuiltOncePerFieldSet() {
+        assertSame(projection.mapper("amount,status"), projection.mapper("status,amount,id"));
+        assertNotSame(projection.mapper("amount"), projection.mapper("amount,status"));
+        assertSame(mapper, projection.mapper(null));
+        assertSame(mapper, projection.mapper(String.join(",", projection.fields())));
+    }
+
+    @Test
+    void validate_ShouldRejectUnknownFields() {
+        projection.validate(null);
+        projection.validate("amount,,isFraudSuspected");
+        assertThrows(IllegalArgumentException.class, () -> projection.validate("amount,ip"));
+        assertThrows(IllegalArgumentException.class, () -> projection.mapper("money"));
+        assertFalse(projection.isValid("Amount"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.htest.transactionManagement.reconciliation;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.service.TransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StatementReconcilerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reconcile_ShouldMatchOnReferenceAccountAndAmountAcrossChunks() throws IOException {
+        TransactionService service = mock(TransactionService.class);
+        List<Transaction> transactions = List.of(
+                transaction(1L, "REF1", "ACC1", "100.50", "CNY"),
+                transaction(2L, "REF2", "ACC2", "20", "USD"),
+                transaction(3L, "REF3", "ACC3", "7.00", "CNY"),
+                transaction(4L, "REF4", "ACC4", "300", "JPY"));
+        doAnswer(invocation -> {
+            transactions.forEach(invocation.<Consumer<Transaction>>getArgument(0));
+            return null;
+        }).when(service).forEachTransaction(any());
+        Set<Long> marked = new HashSet<>();
+        when(service.markReconciled(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            marked.addAll(ids);
+            return ids.size();
+        });
+
+        Path statement = directory.resolve("statement.csv");
+        Files.writeString(statement, """
+                reference,account,amount,currency
+                REF1,ACC1,100.5,CNY
+                REF2,ACC2,20.00,USD\r
+                REF3,ACC3,7.01,CNY
+                REF4,OTHER,300,JPY
+                REF9,ACC9,1,CNY
+                REF1,ACC1,100.50,CNY
+                "REF4", ACC4 ,300.000,JPY
+                garbage line
+                REF5,ACC5,1.2.3,CNY
+                """);
+        StatementReconciler reconciler = new StatementReconciler(service, new ConcurrentMapCacheManager("transactions"),
+                new SimpleMeterRegistry(), DataSize.ofBytes(40), 3, 4, new int[]{20, 20, 18, 3}, true);
+
+        Path mismatches = directory.resolve("mismatches.csv");
+        ReconciliationReport report = reconciler.reconcile(statement, mismatches);
+
+        assertEquals(9, report.rows());
+        assertEquals(3, report.matched());
+        assertEquals(3, report.reconciled());
+        assertEquals(1, report.mismatches().get(MismatchReason.AMOUNT_MISMATCH));
+        assertEquals(1, report.mismatches().get(MismatchReason.ACCOUNT_MISMATCH));
+        assertEquals(1, report.mismatches().get(MismatchReason.NOT_FOUND));
+        assertEquals(1, report.mismatches().get(MismatchReason.DUPLICATE));
+        assertEquals(2, report.mismatches().get(MismatchReason.MALFORMED));
+        assertEquals(Set.of(1L, 2L, 4L), marked);
+        assertEquals(7, Files.readAllLines(mismatches).size());
+        // Only the report is left next to it, the spill files are gone
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(Set.of("statement.csv", "mismatches.csv"),
+                    files.map(file -> file.getFileName().toString()).collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    void fixedWidth_ShouldReadPaddedColumns() throws IOException {
+        TransactionService service = mock(TransactionService.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Transaction>>getArgument(0).accept(transaction(1L, "REF1", "ACC1", "5", "CNY"));
+            return null;
+        }).when(service).forEachTransaction(any());
+        when(service.markReconciled(any())).thenReturn(1);
+
+        Path statement = directory.resolve("statement.txt");
+        Files.writeString(statement, String.format("%-20s%-20s%18s%s%n", "REF1", "ACC1", "5.00", "CNY"));
+        StatementReconciler reconciler = new StatementReconciler(service, new ConcurrentMapCacheManager("transactions"),
+                new SimpleMeterRegistry(), DataSize.ofMegabytes(1), 1, 1, new int[]{20, 20, 18, 3}, true);
+
+        ReconciliationReport report = reconciler.reconcile(statement, directory.resolve("mismatches.csv"));
+
+        assertEquals(1, report.rows());
+        assertEquals(1, report.matched());
+        assertTrue(report.mismatches().isEmpty());
+    }
+
+    @Test
+    void parseMinorUnits_ShouldRejectAmountsThatNeedRounding() {
+        assertEquals(10050, parse("100.5", 2));
+        assertEquals(10050, parse("100.500", 2));
+        assertEquals(-1, parse("-0.01", 2));
+        assertEquals(300, parse("300", 0));
+        assertEquals(Long.MIN_VALUE, parse("1.005", 2));
+        assertEquals(Long.MIN_VALUE, parse("", 2));
+        assertEquals(Long.MIN_VALUE, parse("12a", 2));
+        assertEquals(Long.MIN_VALUE, parse("99999999999999999999", 2));
+    }
+
+    private static long parse(String amount, int scale) {
+        ByteBuffer buffer = ByteBuffer.wrap(amount.getBytes(StandardCharsets.US_ASCII));
+        return StatementReconciler.parseMinorUnits(buffer, 0, buffer.limit(), scale);
+    }
+
+    private static Transaction transaction(Long id, String reference, String account, String amount, String currency) {
+        Transaction transaction = Transaction.builder()
+                .id(id)
+                .referenceNumber(reference)
+                .sourceAccountNumber(account)
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .exchangeRate(BigDecimal.ONE)
+                .build();
+        transaction.normalize();
+        return transaction;
+    }
+}
@@ -0,0 +1,137 @@
+package com.htest.transactionManagement.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionRepositoryTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path dir;
+
+    private TransactionRepository open(String type) throws IOException {
+        return switch (type) {
+            case "memory" -> new InMemoryTransactionRepository();
+            case "file" -> new FileTransactionRepository(dir.resolve("transactions.log"), objectMapper);
+            case "h2" -> new H2TransactionRepository("jdbc:h2:file:" + dir.resolve("transactions"), objectMapper);
+            default -> throw new IllegalArgumentException(type);
+        };
+    }
+
+    private static Transaction transaction(long id, String amount) {
+        Transaction transaction = Transaction.builder()
+                .id(id)
+                .amount(new BigDecimal(amount))
+                .type(TransactionType.DEPOSIT)
+                .sourceAccountNumber("ACC" + id)
+                .currency("CNY")
+                .build();
+        transaction.normalize();
+        return transaction;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "file", "h2"})
+    void repository_ShouldSaveReplaceAndDelete(String type) throws IOException {
+        TransactionRepository repository = open(type);
+        try {
+            repository.saveAll(List.of(transaction(1, "10.00"), transaction(2, "20.00"), transaction(3, "30.00")));
+            repository.save(transaction(2, "25.00"));
+
+            assertEquals(3, repository.count());
+            assertEquals(new BigDecimal("25.00"), repository.findById(2).getAmount());
+            assertFalse(repository.delete(1, transaction(1, "11.00")));
+            assertTrue(repository.delete(1, transaction(1, "10.00")));
+            assertEquals(3, repository.deleteById(3).getId());
+            assertNull(repository.deleteById(3));
+            assertNull(repository.findById(1));
+
+            List<Transaction> all = new ArrayList<>();
+            repository.forEach(all::add);
+            assertEquals(List.of(2L), all.stream().map(Transaction::getId).toList());
+        } finally {
+            repository.close();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"file", "h2"})
+    void repository_ShouldKeepTransactionsAcrossRestarts(String type) throws IOException {
+        TransactionRepository repository = open(type);
+        repository.saveAll(List.of(transaction(1, "10.00"), transaction(2, "20.00")));
+        repository.deleteById(1);
+        repository.close();
+
+        repository = open(type);
+        try {
+            assertEquals(1, repository.count());
+            assertEquals(transaction(2, "20.00"), repository.findById(2));
+        } finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void fileRepository_ShouldDropATornRecordAtTheEnd() throws IOException {
+        TransactionRepository repository = open("file");
+        repository.saveAll(List.of(transaction(1, "10.00"), transaction(2, "20.00")));
+        repository.close();
+        // A crash in the middle of the last append
+        Path log = dir.resolve("transactions.log");
+        Files.write(log, new byte[]{0, 0, 1, 0, 0, 0}, StandardOpenOption.APPEND);
+        long size = Files.size(log);
+
+        repository = open("file");
+        try {
+            assertEquals(2, repository.count());
+            assertEquals(size - 6, Files.size(log));
+            repository.save(transaction(3, "30.00"));
+            assertEquals(transaction(3, "30.00"), repository.findById(3));
+        } finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void fileRepository_ShouldCompactWhileOpen() throws IOException {
+        Path log = dir.resolve("transactions.log");
+        TransactionRepository repository = new FileTransactionRepository(log, objectMapper, 4096);
+        try {
+            for (int round = 0; round < 50; round++) {
+                repository.saveAll(List.of(transaction(1, round + ".00"), transaction(2, round + ".50")));
+            }
+            repository.deleteById(2);
+
+            assertTrue(Files.size(log) < 4096);
+            assertEquals(1, repository.count());
+            assertEquals(transaction(1, "49.00"), repository.findById(1));
+            repository.save(transaction(3, "30.00"));
+        } finally {
+            repository.close();
+        }
+
+        repository = open("file");
+        try {
+            assertEquals(2, repository.count());
+            assertEquals(transaction(1, "49.00"), repository.findById(1));
+            assertEquals(transaction(3, "30.00"), repository.findById(3));
+        } finally {
+            repository.close();
+        }
+    }
+}
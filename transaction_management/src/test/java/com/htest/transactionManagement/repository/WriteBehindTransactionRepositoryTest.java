@@ -0,0 +1,123 @@
+package com.htest.transactionManagement.repository;
+
+import com.htest.transactionManagement.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindTransactionRepositoryTest {
+    private final List<Integer> batches = new ArrayList<>();
+    private final InMemoryTransactionRepository backend = new InMemoryTransactionRepository() {
+        @Override
+        public void saveAll(Collection<Transaction> transactions) {
+            batches.add(transactions.size());
+            super.saveAll(transactions);
+        }
+    };
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Long interval and large batches, so the test decides when to flush
+    private final WriteBehindTransactionRepository repository =
+            new WriteBehindTransactionRepository(backend, 1000, 1000, Duration.ofHours(1), 100, meterRegistry);
+
+    @AfterEach
+    void close() {
+        repository.close();
+    }
+
+    @Test
+    void save_ShouldCoalesceUpdatesAndFlushThemAsOneBatch() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(Transaction.builder().id(1L).amount(BigDecimal.valueOf(i)).build());
+        }
+        repository.save(Transaction.builder().id(2L).build());
+
+        assertEquals(BigDecimal.valueOf(4), repository.findById(1).getAmount());
+        assertNull(backend.findById(1));
+
+        repository.flush();
+        assertEquals(List.of(2), batches);
+        assertEquals(BigDecimal.valueOf(4), backend.findById(1).getAmount());
+        assertEquals(4, meterRegistry.get("repository.write-behind.coalesced").counter().count());
+    }
+
+    @Test
+    void deleteById_ShouldHideTheTransactionBeforeAndAfterTheFlush() {
+        backend.save(Transaction.builder().id(1L).build());
+
+        assertNotNull(repository.deleteById(1));
+        assertNull(repository.findById(1));
+        assertEquals(0, repository.count());
+        assertNull(backend.findById(1));
+        assertNull(repository.findById(1));
+    }
+
+    @Test
+    void save_WhenTheInlineFlushFails_ShouldTakeBackOnlyTheRejectedWrite() {
+        AtomicBoolean down = new AtomicBoolean();
+        InMemoryTransactionRepository failingBackend = new InMemoryTransactionRepository() {
+            @Override
+            public void saveAll(Collection<Transaction> transactions) {
+                if (down.get()) {
+                    throw new IllegalStateException("disk full");
+                }
+                super.saveAll(transactions);
+            }
+        };
+        WriteBehindTransactionRepository writeBehind = new WriteBehindTransactionRepository(failingBackend, 2, 2,
+                Duration.ofHours(1), 100, new SimpleMeterRegistry());
+        writeBehind.save(Transaction.builder().id(1L).amount(BigDecimal.ONE).build());
+        writeBehind.flush();
+        down.set(true);
+        writeBehind.save(Transaction.builder().id(2L).build());
+
+        // Full: the writer flushes inline, and its update to 1 is rejected
+        assertThrows(IllegalStateException.class,
+                () -> writeBehind.save(Transaction.builder().id(1L).amount(BigDecimal.TEN).build()));
+        assertEquals(BigDecimal.ONE, writeBehind.findById(1).getAmount());
+        assertThrows(IllegalStateException.class, () -> writeBehind.save(Transaction.builder().id(3L).build()));
+        assertNull(writeBehind.findById(3));
+
+        down.set(false);
+        writeBehind.flush();
+        assertEquals(BigDecimal.ONE, failingBackend.findById(1).getAmount());
+        assertNotNull(failingBackend.findById(2));
+        assertNull(failingBackend.findById(3));
+        writeBehind.close();
+    }
+
+    @Test
+    void flush_ShouldNotLoseAnUpdateToTheSameInstanceMadeWhileFlushing() {
+        Transaction transaction = Transaction.builder().id(1L).isReconciled(false).build();
+        List<Boolean> written = new ArrayList<>();
+        AtomicReference<WriteBehindTransactionRepository> writeBehind = new AtomicReference<>();
+        InMemoryTransactionRepository slowBackend = new InMemoryTransactionRepository() {
+            @Override
+            public void saveAll(Collection<Transaction> transactions) {
+                transactions.forEach(t -> written.add(t.getIsReconciled()));
+                if (written.size() == 1) {
+                    // The service modifies the same instance and saves it again mid-flush
+                    transaction.setIsReconciled(true);
+                    writeBehind.get().save(transaction);
+                }
+            }
+        };
+        writeBehind.set(new WriteBehindTransactionRepository(slowBackend, 1000, 1000, Duration.ofHours(1), 100,
+                new SimpleMeterRegistry()));
+        writeBehind.get().save(transaction);
+
+        writeBehind.get().flush();
+        writeBehind.get().flush();
+        writeBehind.get().close();
+        assertEquals(List.of(false, true), written);
+    }
+}
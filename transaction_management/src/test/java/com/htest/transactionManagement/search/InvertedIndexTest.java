@@ -0,0 +1,128 @@
+package com.htest.transactionManagement.search;
+
+import com.htest.transactionManagement.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+    private final InvertedIndex index = new InvertedIndex(new SimpleMeterRegistry());
+
+    @Test
+    void search_ShouldSupportAndOrAndPrefix() {
+        index.onCreated(transaction(1, "Refund for order", "Merchant: Acme"));
+        index.onCreated(transaction(2, "Salary March", null));
+        index.onCreated(transaction(3, "Chargeback", "acme-corp dispute"));
+        index.onCreated(transaction(4, "退款 淘宝", null));
+
+        assertEquals(List.of(3L, 1L), index.search("acme", null, 10).ids());
+        assertEquals(List.of(1L), index.search("refund ACME", null, 10).ids());
+        assertEquals(List.of(3L, 1L), index.search("refund OR chargeback", null, 10).ids());
+        assertEquals(List.of(3L, 2L), index.search("sal* OR disp*", null, 10).ids());
+        assertEquals(List.of(4L), index.search("退款", null, 10).ids());
+        assertTrue(index.search("missing", null, 10).ids().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.search("   ", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("a*", null, 10));
+    }
+
+    @Test
+    void updatesAndDeletes_ShouldMaintainPostings() {
+        Transaction original = transaction(10, "Grocery run", null);
+        index.onCreated(original);
+        Transaction updated = transaction(10, "Refund grocery", null);
+        index.onUpdated(original, updated);
+
+        assertEquals(List.of(10L), index.search("refund grocery", null, 10).ids());
+        assertTrue(index.search("run", null, 10).ids().isEmpty());
+
+        index.onDeleted(updated);
+        assertTrue(index.search("grocery", null, 10).ids().isEmpty());
+        assertEquals(0, index.termCount());
+    }
+
+    @Test
+    void postings_ShouldSkipRemovedIdsUntilCompacted() {
+        Postings postings = new Postings();
+        for (long id = 1; id <= 6; id++) {
+            postings.add(id * 10);
+        }
+        assertFalse(postings.remove(30));
+        assertFalse(postings.remove(40));
+        assertEquals(20, postings.floor(45));
+        assertEquals(4, postings.size());
+
+        // Re-adding a removed ID and inserting between marked slots both keep the order
+        postings.add(30);
+        postings.add(35);
+        assertEquals(35, postings.floor(45));
+        assertEquals(30, postings.floor(34));
+        assertEquals(6, postings.size());
+
+        for (long id : new long[]{10, 20, 30, 35, 50}) {
+            assertFalse(postings.remove(id));
+        }
+        assertEquals(-1, postings.floor(59));
+        assertEquals(60, postings.floor(100));
+        assertTrue(postings.remove(60));
+        assertFalse(postings.add(70));
+    }
+
+    @Test
+    void search_ShouldPageWithCursor() {
+        for (long id = 1; id <= 25; id++) {
+            index.onCreated(transaction(id, "monthly fee", id % 2 == 0 ? "even" : null));
+        }
+
+        SearchHits first = index.search("fee even", null, 5);
+        assertEquals(List.of(24L, 22L, 20L, 18L, 16L), first.ids());
+        SearchHits second = index.search("fee even", first.nextCursor(), 10);
+        assertEquals(List.of(14L, 12L, 10L, 8L, 6L, 4L, 2L), second.ids());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void search_ShouldMergeInColdSummaries(@TempDir Path directory) throws IOException {
+        Set<Long> dead = new HashSet<>();
+        IndexSummary summary = IndexSummary.write(directory.resolve("1.idx"), List.of(
+                transaction(1, "Refund for order", "Merchant: Acme"),
+                transaction(3, "Acme subscription", null),
+                transaction(5, "退款 淘宝", null)), id -> !dead.contains(id));
+        InvertedIndex merged = new InvertedIndex(new SimpleMeterRegistry(), new ColdSummaries() {
+            @Override
+            public List<IndexSummary> summaries() {
+                return List.of(summary);
+            }
+
+            @Override
+            public long size() {
+                return 3 - dead.size();
+            }
+        });
+        merged.onCreated(transaction(4, "Refund acme", null));
+
+        assertEquals(List.of(4L, 3L, 1L), merged.search("acme", null, 10).ids());
+        assertEquals(List.of(4L, 1L), merged.search("refund acme", null, 10).ids());
+        assertEquals(List.of(4L, 3L, 1L), merged.search("ac* OR sub*", null, 10).ids());
+        assertEquals(List.of(5L), merged.search("退款", null, 10).ids());
+
+        // Killed in the cold tier, then updated back into memory
+        dead.add(3L);
+        merged.onUpdated(transaction(3, "Acme subscription", null), transaction(3, "Acme subscription renewal", null));
+        assertEquals(List.of(3L), merged.search("subscription", null, 10).ids());
+        dead.add(1L);
+        assertEquals(List.of(4L), merged.search("refund", null, 10).ids());
+        assertEquals(4, merged.termCount());
+    }
+
+    private static Transaction transaction(long id, String description, String remarks) {
+        return Transaction.builder().id(id).description(description).remarks(remarks).build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.htest.transactionManagement.search;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedIndexTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    private final SortedIndex index = new SortedIndex();
+
+    @Test
+    void page_ShouldOrderByKeyThenId() {
+        index.onCreated(transaction(1, "20.00", "CNY", null, DAY.plusHours(3)));
+        index.onCreated(transaction(2, "5.00", "CNY", null, DAY.plusHours(1)));
+        index.onCreated(transaction(3, "20.00", "CNY", null, DAY.plusHours(2)));
+        // 10 USD at 7.1 is 71 CNY
+        index.onCreated(transaction(4, "10.00", "USD", new BigDecimal("7.1"), DAY));
+
+        assertEquals(List.of(2L, 1L, 3L, 4L), index.page(SortField.AMOUNT, false, 0, 10));
+        assertEquals(List.of(4L, 3L), index.page(SortField.AMOUNT, true, 0, 2));
+        assertEquals(List.of(1L), index.page(SortField.AMOUNT, true, 2, 1));
+        assertEquals(List.of(4L, 2L, 3L, 1L), index.page(SortField.PROCESSED_TIME, false, 0, 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void updatesAndDeletes_ShouldMoveAndDropEntries() {
+        Transaction original = transaction(1, "20.00", "CNY", null, DAY);
+        index.onCreated(original);
+        index.onCreated(transaction(2, "30.00", "CNY", null, DAY));
+        Transaction updated = transaction(1, "50.00", "CNY", null, DAY);
+        index.onUpdated(original, updated);
+
+        assertEquals(List.of(1L, 2L), index.page(SortField.AMOUNT, true, 0, 10));
+        index.onDeleted(updated);
+        assertEquals(List.of(2L), index.page(SortField.AMOUNT, true, 0, 10));
+        assertEquals(List.of(2L), index.page(SortField.PROCESSED_TIME, true, 0, 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void hotBefore_ShouldListHotTransactionsOldestFirstUntilDemoted() {
+        Transaction demoted = transaction(1, "20.00", "CNY", null, DAY.plusHours(2));
+        index.onCreated(demoted);
+        index.onCreated(transaction(2, "30.00", "CNY", null, DAY.plusHours(1)));
+        index.onCreated(transaction(3, "40.00", "CNY", null, DAY.plusHours(5)));
+        long cutoff = SortField.timeKey(DAY.plusHours(4));
+
+        assertEquals(List.of(2L, 1L), index.hotBefore(cutoff).boxed().toList());
+        index.onDemoted(demoted);
+        assertEquals(List.of(2L), index.hotBefore(cutoff).boxed().toList());
+        // Demoted transactions are left to the cold tier's summaries
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void coldSummaries_ShouldBeMergedInWithoutDeadOrDuplicateEntries(@TempDir Path directory) throws IOException {
+        Set<Long> dead = new HashSet<>();
+        IndexSummary summary = IndexSummary.write(directory.resolve("1.idx"), List.of(
+                transaction(1, "20.00", "CNY", null, DAY.plusHours(1)),
+                transaction(3, "60.00", "CNY", null, DAY.plusHours(3)),
+                transaction(5, "40.00", "CNY", null, DAY.plusHours(5))), id -> !dead.contains(id));
+        SortedIndex merged = new SortedIndex(new ColdSummaries() {
+            @Override
+            public List<IndexSummary> summaries() {
+                return List.of(summary);
+            }
+
+            @Override
+            public long size() {
+                return 3 - dead.size();
+            }
+        });
+        merged.onCreated(transaction(2, "50.00", "CNY", null, DAY.plusHours(2)));
+        // Still hot while it is being demoted
+        merged.onCreated(transaction(5, "40.00", "CNY", null, DAY.plusHours(5)));
+
+        assertEquals(List.of(3L, 2L, 5L, 1L), merged.page(SortField.AMOUNT, true, 0, 10));
+        assertEquals(List.of(5L, 1L), merged.page(SortField.AMOUNT, true, 2, 10));
+        assertEquals(List.of(3L, 2L), merged.top(SortField.PROCESSED_TIME, 10, SortField.timeKey(DAY.plusHours(2)),
+                SortField.timeKey(DAY.plusHours(4)), null));
+        assertEquals(List.of(3L, 2L), merged.top(SortField.AMOUNT, 2, SortField.timeKey(DAY),
+                SortField.timeKey(DAY.plusHours(6)), TransactionType.DEPOSIT));
+
+        dead.add(3L);
+        assertEquals(List.of(1L, 2L, 5L), merged.page(SortField.ID, false, 0, 10));
+        assertEquals(List.of(2L, 5L, 1L), merged.top(SortField.AMOUNT, 10, Long.MIN_VALUE, Long.MAX_VALUE,
+                TransactionType.DEPOSIT));
+        assertEquals(List.of(2L), merged.hotBefore(SortField.timeKey(DAY.plusHours(4))).boxed().toList());
+    }
+
+    @Test
+    void top_ShouldFilterByTimeWindowAndType() {
+        index.onCreated(transaction(1, "900.00", "CNY", null, DAY.minusHours(1)));
+        index.onCreated(transaction(2, "300.00", "CNY", null, DAY.plusHours(1)));
+        index.onCreated(transaction(3, "100.00", "CNY", null, DAY.plusHours(2)));
+        Transaction transfer = transaction(4, "200.00", "CNY", null, DAY.plusHours(3));
+        transfer.setType(TransactionType.TRANSFER);
+        index.onCreated(transfer);
+        long from = SortField.timeKey(DAY);
+        long to = SortField.timeKey(DAY.plusDays(1));
+
+        assertEquals(List.of(2L, 4L), index.top(SortField.AMOUNT, 2, from, to, null));
+        assertEquals(List.of(4L), index.top(SortField.AMOUNT, 10, from, to, TransactionType.TRANSFER));
+        assertEquals(List.of(4L), index.top(SortField.AMOUNT, 10, Long.MIN_VALUE, Long.MAX_VALUE, TransactionType.TRANSFER));
+        assertEquals(List.of(1L, 2L), index.top(SortField.AMOUNT, 2, Long.MIN_VALUE, Long.MAX_VALUE, TransactionType.DEPOSIT));
+        assertEquals(List.of(4L, 3L), index.top(SortField.PROCESSED_TIME, 2, from, to, null));
+        assertEquals(List.of(1L), index.top(SortField.PROCESSED_TIME, 10, Long.MIN_VALUE, from, null));
+    }
+
+    private static Transaction transaction(long id, String amount, String currency, BigDecimal exchangeRate,
+                                           LocalDateTime processedTime) {
+        Transaction transaction = Transaction.builder()
+                .id(id)
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .exchangeRate(exchangeRate)
+                .type(TransactionType.DEPOSIT)
+                .processedTime(processedTime)
+                .build();
+        transaction.normalize();
+        return transaction;
+    }
+}
@@ -1,29 +1,73 @@
 package com.htest.transactionManagement.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.exception.DuplicateTransactionException;
 import com.htest.transactionManagement.exception.TransactionNotFoundException;
+import com.htest.transactionManagement.lane.AccountLanes;
+import com.htest.transactionManagement.ledger.Ledger;
 import com.htest.transactionManagement.model.*;
+import com.htest.transactionManagement.repository.InMemoryTransactionRepository;
+import com.htest.transactionManagement.search.IdIndex;
+import com.htest.transactionManagement.search.SortedIndex;
+import com.htest.transactionManagement.tiering.ColdTransactionStore;
+import com.htest.transactionManagement.util.IdGenerator;
 import com.htest.transactionManagement.util.SnowflakeIdGenerator;
 import com.htest.transactionManagement.util.TestClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 class TransactionServiceImplTest {
 
     private TransactionService transactionService;
     private TestClock testClock;
+    private AccountLanes accountLanes;
+    private ColdTransactionStore coldStore;
+
+    @TempDir
+    Path segmentDirectory;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws IOException {
         SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator();
         testClock = new TestClock(LocalDateTime.now());
-        transactionService = new TransactionServiceImpl(idGenerator, testClock);
+        accountLanes = new AccountLanes(4, false);
+        coldStore = new ColdTransactionStore(segmentDirectory, 4, new ObjectMapper().findAndRegisterModules());
+        transactionService = newService(idGenerator);
+    }
+
+    private TransactionServiceImpl newService(IdGenerator idGenerator) {
+        InMemoryTransactionRepository store = new InMemoryTransactionRepository();
+        return new TransactionServiceImpl(idGenerator, testClock, accountLanes, store, coldStore,
+                new Ledger(false, 16), List.of());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        accountLanes.shutdown();
+        coldStore.close();
     }
 
     @Test
@@ -108,6 +152,105 @@ class TransactionServiceImplTest {
         assertEquals(TransactionStatus.INITIATED, created.getStatus());
     }
 
+    @Test
+    void createTransaction_AcrossSecondBoundary_ShouldDetectAsDuplicate() {
+        testClock = new TestClock(LocalDateTime.of(2025, 3, 10, 12, 0, 0, 900_000_000));
+        transactionService = newService(new SnowflakeIdGenerator());
+
+        Transaction transaction1 = Transaction.builder()
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.DEPOSIT)
+                .sourceAccountNumber("12345")
+                .currency("CNY")
+                .build();
+        transactionService.createTransaction(transaction1);
+
+        // 200ms later but in the next wall-clock second
+        testClock.advanceMillis(200);
+
+        Transaction transaction2 = Transaction.builder()
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.DEPOSIT)
+                .sourceAccountNumber("12345")
+                .currency("CNY")
+                .build();
+        assertThrows(DuplicateTransactionException.class,
+                () -> transactionService.createTransaction(transaction2));
+    }
+
+    @Test
+    void createTransaction_ConcurrentIdenticalRequests_ShouldCreateExactlyOne() throws Exception {
+        int callers = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                executor.execute(() -> {
+                    Transaction transaction = Transaction.builder()
+                            .amount(new BigDecimal("100.00"))
+                            .type(TransactionType.DEPOSIT)
+                            .sourceAccountNumber("12345")
+                            .currency("CNY")
+                            .build();
+                    try {
+                        start.await();
+                        transactionService.createTransaction(transaction);
+                        created.incrementAndGet();
+                    } catch (DuplicateTransactionException e) {
+                        duplicates.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(callers - 1, duplicates.get());
+    }
+
+    @Test
+    void createTransaction_Batched_ShouldCheckEachCreateAgainstEarlierOnesInTheBatch() {
+        InMemoryTransactionRepository store = new InMemoryTransactionRepository();
+        SortedIndex sortedIndex = new SortedIndex();
+        transactionService = new TransactionServiceImpl(new SnowflakeIdGenerator(), testClock, accountLanes, store,
+                coldStore, new Ledger(false, 16), sortedIndex, List.of(sortedIndex), 64,
+                new SimpleMeterRegistry());
+        int callers = 64;
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                // Half identical, half with their own amount, all on one lane
+                String amount = i % 2 == 0 ? "100.00" : i + ".00";
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        ids.add(transactionService.createTransaction(Transaction.builder()
+                                .amount(new BigDecimal(amount))
+                                .type(TransactionType.DEPOSIT)
+                                .sourceAccountNumber("12345")
+                                .currency("CNY")
+                                .build()).getId());
+                    } catch (DuplicateTransactionException e) {
+                        duplicates.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(callers / 2 + 1, ids.size());
+        assertEquals(callers / 2 - 1, duplicates.get());
+        assertEquals(ids.size(), store.count());
+        ids.forEach(id -> assertEquals(id, transactionService.getTransaction(id).getId()));
+    }
+
     @Test
     void getTransaction_ShouldThrowException_WhenNotFound() {
         assertThrows(TransactionNotFoundException.class,
@@ -184,4 +327,169 @@ class TransactionServiceImplTest {
 
         assertDoesNotThrow(() -> transactionService.createTransaction(transaction2));
     }
+
+    @Test
+    void demoteTransactions_ShouldMoveAgedTerminalTransactionsToColdTier() {
+        List<Transaction> created = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            created.add(transactionService.createTransaction(Transaction.builder()
+                    .amount(new BigDecimal(100 + i))
+                    .type(TransactionType.DEPOSIT)
+                    .sourceAccountNumber("ACC" + i)
+                    .currency("CNY")
+                    .status(i < 8 ? TransactionStatus.COMPLETED : TransactionStatus.PENDING)
+                    .build()));
+        }
+        testClock.advanceSeconds(3600);
+
+        List<Long> demoted = transactionService.demoteTransactions(testClock.now().minusMinutes(30), 100);
+
+        assertEquals(8, demoted.size());
+        assertEquals(10, transactionService.getAllTransactions(PageRequest.of(0, 20)).getTotalElements());
+        assertEquals(created.get(0).getAmount(), transactionService.getTransaction(created.get(0).getId()).getAmount());
+
+        // Updating a cold transaction promotes it back to the hot store
+        Transaction reversed = transactionService.getTransaction(created.get(1).getId());
+        reversed.setStatus(TransactionStatus.REVERSED);
+        transactionService.updateTransaction(reversed.getId(), reversed);
+        assertEquals(TransactionStatus.REVERSED, transactionService.getTransaction(reversed.getId()).getStatus());
+        assertEquals(7, coldStore.size());
+
+        transactionService.deleteTransaction(created.get(2).getId());
+        assertThrows(TransactionNotFoundException.class,
+                () -> transactionService.getTransaction(created.get(2).getId()));
+
+        Page<Transaction> page = transactionService.getAllTransactions(PageRequest.of(0, 20));
+        assertEquals(9, page.getTotalElements());
+        assertEquals(9, page.getContent().size());
+        assertEquals(1, transactionService.getAllTransactions(PageRequest.of(4, 2)).getContent().size());
+    }
+
+    @Test
+    void createTransaction_SameAmountAtDifferentScale_ShouldDetectAsDuplicate() {
+        transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("100.0"))
+                .type(TransactionType.DEPOSIT)
+                .sourceAccountNumber("12345")
+                .currency("CNY")
+                .build());
+
+        Transaction retry = Transaction.builder()
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.DEPOSIT)
+                .sourceAccountNumber("12345")
+                .currency("CNY")
+                .build();
+
+        assertThrows(DuplicateTransactionException.class, () -> transactionService.createTransaction(retry));
+    }
+
+    @Test
+    void markReconciled_ShouldMarkHotAndColdTransactions() {
+        Transaction hot = transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("10.00")).sourceAccountNumber("A1").currency("CNY")
+                .status(TransactionStatus.PENDING).build());
+        Transaction cold = transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("20.00")).sourceAccountNumber("A2").currency("CNY")
+                .status(TransactionStatus.COMPLETED).build());
+        testClock.advanceSeconds(60);
+        transactionService.demoteTransactions(testClock.now(), 10);
+
+        assertEquals(2, transactionService.markReconciled(List.of(hot.getId(), cold.getId(), -1L)));
+        assertTrue(transactionService.getTransaction(hot.getId()).getIsReconciled());
+        assertTrue(transactionService.getTransaction(cold.getId()).getIsReconciled());
+        // Marked in the cold tier, not promoted back to the hot store
+        assertTrue(coldStore.get(cold.getId()).getIsReconciled());
+        // The stored instance was replaced, not modified in place
+        assertNotEquals(Boolean.TRUE, hot.getIsReconciled());
+    }
+
+    @Test
+    void updateTransaction_ToAnotherAccount_ShouldMoveIt() {
+        Transaction created = transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("10.00")).type(TransactionType.DEPOSIT).sourceAccountNumber("A1").currency("CNY")
+                .status(TransactionStatus.PENDING).build());
+        Transaction moved = created.toBuilder().sourceAccountNumber("B7").build();
+
+        transactionService.updateTransaction(created.getId(), moved);
+        assertEquals("B7", transactionService.getTransaction(created.getId()).getSourceAccountNumber());
+        assertThrows(DuplicateTransactionException.class, () -> transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("10.00")).type(TransactionType.DEPOSIT).sourceAccountNumber("B7").currency("CNY")
+                .build()));
+    }
+
+    @Test
+    void failedWrites_ShouldLeaveTheLedgerAndDuplicateCheckUntouched() {
+        InMemoryTransactionRepository store = spy(new InMemoryTransactionRepository());
+        Ledger ledger = new Ledger(true, 16);
+        transactionService = new TransactionServiceImpl(new SnowflakeIdGenerator(), testClock, accountLanes, store,
+                coldStore, ledger, List.of());
+        Transaction deposit = transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("100.00")).type(TransactionType.DEPOSIT).sourceAccountNumber("F1")
+                .currency("CNY").status(TransactionStatus.PENDING).build());
+        doThrow(new IllegalStateException("disk full")).when(store).save(any());
+
+        assertThrows(IllegalStateException.class, () -> transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("30.00")).type(TransactionType.WITHDRAWAL).sourceAccountNumber("F1")
+                .currency("CNY").build()));
+        assertThrows(IllegalStateException.class, () -> transactionService.updateTransaction(deposit.getId(),
+                deposit.toBuilder().amount(new BigDecimal("40.00")).build()));
+        assertEquals(Map.of("CNY", new BigDecimal("100.00")), ledger.balances("F1"));
+
+        doCallRealMethod().when(store).save(any());
+        // Neither failed write is left in the duplicate check
+        transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("30.00")).type(TransactionType.WITHDRAWAL).sourceAccountNumber("F1")
+                .currency("CNY").build());
+        assertThrows(DuplicateTransactionException.class, () -> transactionService.createTransaction(Transaction.builder()
+                .amount(new BigDecimal("100.00")).type(TransactionType.DEPOSIT).sourceAccountNumber("F1")
+                .currency("CNY").build()));
+        assertEquals(Map.of("CNY", new BigDecimal("70.00")), ledger.balances("F1"));
+    }
+
+    @Test
+    void listingAndDemoting_ShouldNotScanTheStore() {
+        InMemoryTransactionRepository store = spy(new InMemoryTransactionRepository());
+        transactionService = new TransactionServiceImpl(new SnowflakeIdGenerator(), testClock, accountLanes, store,
+                coldStore, new Ledger(false, 16), List.of());
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction(Transaction.builder()
+                    .amount(new BigDecimal(10 + i)).type(TransactionType.DEPOSIT).sourceAccountNumber("S" + i)
+                    .currency("CNY").status(TransactionStatus.COMPLETED).build());
+        }
+        clearInvocations(store);
+        testClock.advanceSeconds(60);
+
+        assertEquals(3, transactionService.getAllTransactions(PageRequest.of(0, 3)).getContent().size());
+        assertEquals(2, transactionService.demoteTransactions(testClock.now(), 2).size());
+        assertEquals(5, transactionService.getAllTransactions(PageRequest.of(0, 10)).getTotalElements());
+        verify(store, never()).forEach(any());
+        verify(store, never()).count();
+    }
+
+    @Test
+    void newService_ShouldReplayBothTiersOnceIntoTheLedgerAndListeners() {
+        InMemoryTransactionRepository store = spy(new InMemoryTransactionRepository());
+        transactionService = new TransactionServiceImpl(new SnowflakeIdGenerator(), testClock, accountLanes, store,
+                coldStore, new Ledger(false, 16), List.of());
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction(Transaction.builder()
+                    .amount(new BigDecimal(10 + i)).type(TransactionType.DEPOSIT).sourceAccountNumber("S" + i)
+                    .currency("CNY").status(TransactionStatus.COMPLETED).build());
+        }
+        testClock.advanceSeconds(60);
+        transactionService.demoteTransactions(testClock.now(), 2);
+        clearInvocations(store);
+
+        Ledger ledger = new Ledger(false, 16);
+        IdIndex idIndex = new IdIndex(coldStore);
+        TransactionServiceImpl restarted = new TransactionServiceImpl(new SnowflakeIdGenerator(), testClock,
+                accountLanes, store, coldStore, ledger, List.of(idIndex));
+        verify(store, times(1)).forEach(any());
+        assertEquals(5, restarted.getAllTransactions(PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(5, idIndex.page(null, 10).ids().size());
+        assertEquals(Map.of("CNY", new BigDecimal("10.00")), ledger.balances("S0"));
+        // The demoted transactions are cold, so only the other three are left to demote
+        assertEquals(3, restarted.demoteTransactions(testClock.now(), 10).size());
+    }
 }
@@ -0,0 +1,131 @@
+package com.htest.transactionManagement.sketch;
+
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.util.TestClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficSketchesTest {
+    private final TestClock clock = new TestClock(LocalDateTime.of(2026, 3, 1, 12, 0));
+
+    private TrafficSketches sketches() {
+        return new TrafficSketches(Duration.ofHours(1), 12, 20, 4, 1024, 14, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void hyperLogLog_ShouldEstimateDistinctCountsWithinTwoPercent() {
+        HyperLogLog small = new HyperLogLog(14);
+        HyperLogLog large = new HyperLogLog(14);
+        for (int i = 0; i < 1000; i++) {
+            small.add("10.0." + i / 256 + "." + i % 256);
+        }
+        for (int i = 0; i < 200_000; i++) {
+            large.add("device-" + i);
+            large.add("device-" + i);
+        }
+        assertEquals(1000, small.estimate(), 20);
+        assertEquals(200_000, large.estimate(), 4000);
+    }
+
+    @Test
+    void distinctGauges_ShouldShareOneSummaryPerScrape() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TrafficSketches sketches = new TrafficSketches(Duration.ofHours(1), 12, 20, 4, 1024, 14, clock, meterRegistry);
+        sketches.onCreated(transaction("ACC1", null, "10.0.0.1", "device-1"));
+
+        assertEquals(1, meterRegistry.get("traffic.distinct.ips").gauge().value());
+        sketches.onCreated(transaction("ACC2", null, "10.0.0.2", "device-2"));
+        // Read within the same scrape, so from the summary merged for the first gauge
+        assertEquals(1, meterRegistry.get("traffic.distinct.devices").gauge().value());
+        assertEquals(1, meterRegistry.get("traffic.distinct.accounts").gauge().value());
+        assertEquals(2, sketches.summary(0).distinctIps());
+    }
+
+    @Test
+    void summary_ShouldFindHeavyHittersAmongManyAccounts() {
+        TrafficSketches sketches = sketches();
+        for (int i = 0; i < 50_000; i++) {
+            sketches.onCreated(transaction("ACC" + i % 10_000, "MER" + i % 500, "10.0.0." + i % 200, "device-" + i % 300));
+        }
+        for (int i = 0; i < 3000; i++) {
+            sketches.onCreated(transaction("HOT1", "SHOP1", null, null));
+            if (i < 2000) {
+                sketches.onCreated(transaction("HOT2", "SHOP1", null, null));
+            }
+        }
+
+        TrafficSummary summary = sketches.summary(2);
+        assertEquals(55_000, summary.transactions());
+        assertEquals(List.of("HOT1", "HOT2"), summary.topAccounts().stream().map(TrafficSummary.HeavyHitter::key).toList());
+        // Count-Min never undercounts
+        assertTrue(summary.topAccounts().get(0).estimate() >= 3000);
+        assertEquals("SHOP1", summary.topMerchants().get(0).key());
+        assertEquals(200, summary.distinctIps(), 4);
+        assertEquals(300, summary.distinctDevices(), 6);
+        assertEquals(10_002, summary.distinctAccounts(), 200);
+    }
+
+    @Test
+    void heavyHitters_ShouldDisplaceOnlyTheSmallestCandidate() {
+        HeavyHitters heavyHitters = new HeavyHitters(2, 4, 1024);
+        for (int i = 0; i < 5; i++) {
+            heavyHitters.add("A");
+        }
+        heavyHitters.add("B");
+        heavyHitters.add("B");
+        heavyHitters.add("C");
+        assertEquals(List.of("A", "B"), heavyHitters.candidates().stream().sorted().toList());
+
+        for (int i = 0; i < 3; i++) {
+            heavyHitters.add("C");
+        }
+        assertEquals(List.of("A", "C"), heavyHitters.candidates().stream().sorted().toList());
+    }
+
+    @Test
+    void summary_ShouldOnlyCoverTheWindow() {
+        TrafficSketches sketches = sketches();
+        sketches.onCreated(transaction("OLD", null, "10.0.0.1", null));
+        clock.advanceSeconds(30 * 60);
+        sketches.onCreated(transaction("NEW", null, "10.0.0.2", null));
+        assertEquals(2, sketches.summary(10).distinctIps());
+
+        clock.advanceSeconds(40 * 60);
+        TrafficSummary summary = sketches.summary(10);
+        assertEquals(1, summary.transactions());
+        assertEquals(List.of("NEW"), summary.topAccounts().stream().map(TrafficSummary.HeavyHitter::key).toList());
+    }
+
+    @Test
+    void merge_ShouldCombineReplicas() {
+        TrafficSketches first = sketches();
+        TrafficSketches second = sketches();
+        for (int i = 0; i < 1000; i++) {
+            first.onCreated(transaction("ACC" + i, null, "10.0." + i / 256 + "." + i % 256, null));
+            second.onCreated(transaction("ACC" + (i + 500), null, "10.0." + (i + 500) / 256 + "." + (i + 500) % 256, null));
+        }
+        second.onCreated(transaction("ACC1", null, null, null));
+
+        TrafficSummary merged = first.snapshot().merge(second.snapshot()).summarize(1);
+        assertEquals(2001, merged.transactions());
+        assertEquals(1500, merged.distinctIps(), 30);
+        assertEquals(1500, merged.distinctAccounts(), 30);
+        assertThrows(IllegalArgumentException.class, () -> first.snapshot().merge(
+                new TrafficSketches(Duration.ofHours(1), 12, 20, 4, 512, 14, clock, new SimpleMeterRegistry()).snapshot()));
+    }
+
+    private static Transaction transaction(String account, String merchant, String ip, String device) {
+        return Transaction.builder()
+                .sourceAccountNumber(account)
+                .destinationAccountNumber(merchant)
+                .ipAddress(ip)
+                .deviceInfo(device)
+                .build();
+    }
+}
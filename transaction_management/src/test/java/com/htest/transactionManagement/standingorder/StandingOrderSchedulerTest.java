@@ -0,0 +1,181 @@
+package com.htest.transactionManagement.standingorder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.lane.AccountLanes;
+import com.htest.transactionManagement.ledger.Ledger;
+import com.htest.transactionManagement.model.RiskLevel;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionCategory;
+import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.model.TransactionType;
+import com.htest.transactionManagement.repository.InMemoryTransactionRepository;
+import com.htest.transactionManagement.service.TransactionService;
+import com.htest.transactionManagement.service.TransactionServiceImpl;
+import com.htest.transactionManagement.tiering.ColdTransactionStore;
+import com.htest.transactionManagement.util.SnowflakeIdGenerator;
+import com.htest.transactionManagement.util.TestClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StandingOrderSchedulerTest {
+    private final TestClock clock = new TestClock(LocalDateTime.of(2026, 3, 1, 9, 0));
+    private final AccountLanes accountLanes = new AccountLanes(2, false);
+    private ColdTransactionStore coldStore;
+    private StandingOrderStore store;
+    private TransactionService service;
+    private StandingOrderScheduler scheduler;
+
+    @TempDir
+    Path segmentDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        InMemoryTransactionRepository transactions = new InMemoryTransactionRepository();
+        coldStore = new ColdTransactionStore(segmentDirectory, 4, objectMapper);
+        store = new StandingOrderStore(true, "jdbc:h2:mem:" + UUID.randomUUID(), objectMapper);
+        service = new TransactionServiceImpl(new SnowflakeIdGenerator(), clock, accountLanes, transactions, coldStore,
+                new Ledger(true, 16), List.of());
+        scheduler = new StandingOrderScheduler(store, service, new SnowflakeIdGenerator(), clock, 4,
+                Duration.ofDays(3), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        accountLanes.shutdown();
+        coldStore.close();
+        store.close();
+    }
+
+    @Test
+    void occurrence_ShouldStayAnchoredToTheStartDay() {
+        StandingOrder order = StandingOrder.builder()
+                .frequency(Frequency.MONTHLY)
+                .startTime(LocalDateTime.of(2026, 1, 31, 8, 0))
+                .endTime(LocalDateTime.of(2026, 3, 31, 8, 0))
+                .build();
+
+        assertEquals(LocalDateTime.of(2026, 2, 28, 8, 0), order.occurrence(1));
+        assertEquals(LocalDateTime.of(2026, 3, 31, 8, 0), order.occurrence(2));
+        assertNull(order.occurrence(3));
+    }
+
+    @Test
+    void run_AfterDowntime_ShouldCatchUpInBoundedBatchesAndSkipTooOldOccurrences() {
+        for (String account : List.of("A", "B", "C", "D", "E", "F")) {
+            scheduler.schedule(order(TransactionType.DEPOSIT, account, "100.00", Frequency.DAILY,
+                    clock.now().minusDays(10)));
+        }
+
+        List<Integer> batches = new ArrayList<>();
+        int created;
+        while ((created = scheduler.run()) > 0) {
+            batches.add(created);
+        }
+        // Occurrences from 3 days ago up to now, at most 4 per run and one per schedule
+        assertEquals(List.of(4, 4, 4, 4, 4, 4), batches);
+        List<Transaction> stored = stored();
+        assertEquals(24, stored.size());
+        assertEquals(24, stored.stream().map(Transaction::getReferenceNumber).distinct().count());
+
+        clock.advanceSeconds(Duration.ofDays(1).toSeconds());
+        assertEquals(4, scheduler.run());
+        assertEquals(2, scheduler.run());
+        assertEquals(0, scheduler.run());
+    }
+
+    @Test
+    void run_WithoutFunds_ShouldRecordFailedOccurrenceAndContinue() {
+        StandingOrder loan = scheduler.schedule(order(TransactionType.TRANSFER, "A", "50.00", Frequency.WEEKLY,
+                clock.now()));
+
+        assertEquals(1, scheduler.run());
+        Transaction failed = stored().get(0);
+        assertEquals(TransactionStatus.FAILED, failed.getStatus());
+        assertTrue(failed.getRemarks().startsWith("Insufficient funds"));
+
+        service.createTransaction(template(TransactionType.DEPOSIT, "A", "80.00"));
+        clock.advanceSeconds(Duration.ofDays(7).toSeconds());
+        assertEquals(1, scheduler.run());
+        assertEquals(Set.of(TransactionStatus.FAILED, TransactionStatus.COMPLETED),
+                stored().stream().filter(t -> t.getType() == TransactionType.TRANSFER)
+                        .map(Transaction::getStatus).collect(Collectors.toSet()));
+        assertEquals(2, scheduler.get(loan.getId()).getOccurrences());
+        assertEquals(clock.now().plusDays(7), scheduler.get(loan.getId()).getNextRun());
+    }
+
+    @Test
+    void run_PastEndTime_ShouldFinishTheSchedule() {
+        StandingOrder order = order(TransactionType.DEPOSIT, "A", "10.00", Frequency.DAILY, clock.now());
+        order.setEndTime(clock.now().plusDays(1));
+        StandingOrder scheduled = scheduler.schedule(order);
+
+        assertEquals(1, scheduler.run());
+        clock.advanceSeconds(Duration.ofDays(2).toSeconds());
+        assertEquals(1, scheduler.run());
+        assertEquals(0, scheduler.run());
+        assertNull(scheduler.get(scheduled.getId()).getNextRun());
+        assertEquals(List.of(scheduled.getId()), scheduler.forAccount("A", 10).stream().map(StandingOrder::getId).toList());
+        assertTrue(scheduler.cancel(scheduled.getId()));
+        assertNull(scheduler.get(scheduled.getId()));
+    }
+
+    private List<Transaction> stored() {
+        List<Transaction> transactions = new ArrayList<>();
+        service.forEachTransaction(transactions::add);
+        return transactions;
+    }
+
+    @Test
+    void disabledStore_ShouldOpenNoDatabaseAndRunNothing() {
+        StandingOrderStore disabled = new StandingOrderStore(false, "jdbc:h2:file:" + segmentDirectory.resolve("never"),
+                new ObjectMapper());
+        StandingOrderScheduler idle = new StandingOrderScheduler(disabled, service, new SnowflakeIdGenerator(), clock,
+                4, Duration.ofDays(3), new SimpleMeterRegistry());
+
+        assertFalse(idle.isEnabled());
+        assertEquals(0, idle.run());
+        assertThrows(IllegalStateException.class, () -> idle.get(1));
+        disabled.close();
+        assertFalse(Files.exists(segmentDirectory.resolve("never.mv.db")));
+    }
+
+    private static StandingOrder order(TransactionType type, String account, String amount, Frequency frequency,
+                                       LocalDateTime start) {
+        return StandingOrder.builder()
+                .template(template(type, account, amount))
+                .frequency(frequency)
+                .startTime(start)
+                .build();
+    }
+
+    private static Transaction template(TransactionType type, String account, String amount) {
+        return Transaction.builder()
+                .type(type)
+                .sourceAccountNumber(account)
+                .destinationAccountNumber(type == TransactionType.TRANSFER ? "BANK" : null)
+                .amount(new BigDecimal(amount))
+                .currency("CNY")
+                .category(type == TransactionType.TRANSFER ? TransactionCategory.LOAN_PAYMENT : TransactionCategory.SALARY)
+                .status(TransactionStatus.COMPLETED)
+                .riskLevel(RiskLevel.LOW)
+                .build();
+    }
+}
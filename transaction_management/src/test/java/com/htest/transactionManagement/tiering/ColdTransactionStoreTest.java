@@ -0,0 +1,127 @@
+package com.htest.transactionManagement.tiering;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColdTransactionStoreTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void segmentsAndTombstones_ShouldSurviveReopen() throws IOException {
+        ColdTransactionStore store = new ColdTransactionStore(directory, 8, objectMapper);
+        store.append(transactions(1, 100));
+        store.append(transactions(101, 150));
+        assertTrue(store.kill(42));
+        assertFalse(store.kill(42));
+        store.close();
+
+        ColdTransactionStore reopened = new ColdTransactionStore(directory, 8, objectMapper);
+        assertEquals(149, reopened.size());
+        assertNull(reopened.get(42));
+        assertEquals(new BigDecimal("7"), reopened.get(7).getAmount());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0, 0), reopened.get(150).getTimestamp());
+        assertNull(reopened.get(151));
+        reopened.close();
+    }
+
+    @Test
+    void markReconciled_ShouldKeepTheTransactionColdAndSurviveReopen() throws IOException {
+        ColdTransactionStore store = new ColdTransactionStore(directory, 8, objectMapper);
+        store.append(transactions(1, 100));
+        store.kill(50);
+        assertTrue(store.markReconciled(42));
+        assertTrue(store.markReconciled(42));
+        assertFalse(store.markReconciled(50));
+        assertFalse(store.markReconciled(101));
+        store.close();
+
+        ColdTransactionStore reopened = new ColdTransactionStore(directory, 8, objectMapper);
+        assertTrue(reopened.get(42).getIsReconciled());
+        assertNotEquals(Boolean.TRUE, reopened.get(43).getIsReconciled());
+        List<Transaction> page = reopened.page(40, 3);
+        assertEquals(List.of(41L, 42L, 43L), page.stream().map(Transaction::getId).toList());
+        assertEquals(List.of(false, true, false),
+                page.stream().map(t -> Boolean.TRUE.equals(t.getIsReconciled())).toList());
+        reopened.close();
+    }
+
+    @Test
+    void page_ShouldSkipDeadRecordsAcrossSegments() throws IOException {
+        ColdTransactionStore store = new ColdTransactionStore(directory, 8, objectMapper);
+        store.append(transactions(1, 100));
+        store.append(transactions(101, 150));
+        LongStream.rangeClosed(1, 10).forEach(store::kill);
+
+        List<Long> ids = new ArrayList<>();
+        for (long offset = 0; offset < store.size(); offset += 7) {
+            store.page(offset, 7).forEach(t -> ids.add(t.getId()));
+        }
+
+        assertEquals(LongStream.rangeClosed(11, 150).boxed().toList(), ids);
+        assertTrue(store.page(140, 10).isEmpty());
+        store.close();
+    }
+
+    @Test
+    void compact_ShouldRewriteMostlyDeadSegmentsAndSurviveReopen() throws IOException {
+        ColdTransactionStore store = new ColdTransactionStore(directory, 8, objectMapper);
+        store.append(transactions(1, 100));
+        store.append(transactions(101, 150));
+        LongStream.rangeClosed(1, 60).forEach(store::kill);
+        assertTrue(store.markReconciled(70));
+        assertEquals(1, store.compact());
+        assertEquals(0, store.compact());
+
+        assertEquals(90, store.size());
+        assertNull(store.get(60));
+        assertTrue(store.get(70).getIsReconciled());
+        assertTrue(store.kill(80));
+        assertTrue(store.markReconciled(81));
+        store.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.filter(f -> f.toString().endsWith(".seg")).count());
+        }
+
+        ColdTransactionStore reopened = new ColdTransactionStore(directory, 8, objectMapper);
+        assertEquals(89, reopened.size());
+        assertNull(reopened.get(42));
+        assertNull(reopened.get(80));
+        assertTrue(reopened.get(70).getIsReconciled());
+        assertTrue(reopened.get(81).getIsReconciled());
+        assertEquals(new BigDecimal("61"), reopened.get(61).getAmount());
+        // The rewritten segment is the newest
+        assertEquals(List.of(101L, 61L), List.of(reopened.page(0, 1).get(0).getId(), reopened.page(50, 1).get(0).getId()));
+        reopened.close();
+    }
+
+    private List<Transaction> transactions(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> Transaction.builder()
+                        .id(id)
+                        .amount(BigDecimal.valueOf(id))
+                        .sourceAccountNumber("ACC" + id)
+                        .currency("CNY")
+                        .status(TransactionStatus.COMPLETED)
+                        .timestamp(LocalDateTime.of(2025, 1, 1, 0, 0, 0))
+                        .build())
+                .toList();
+    }
+}
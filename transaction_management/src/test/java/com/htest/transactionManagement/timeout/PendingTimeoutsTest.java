@@ -0,0 +1,122 @@
+package com.htest.transactionManagement.timeout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htest.transactionManagement.lane.AccountLanes;
+import com.htest.transactionManagement.ledger.Ledger;
+import com.htest.transactionManagement.model.Transaction;
+import com.htest.transactionManagement.model.TransactionStatus;
+import com.htest.transactionManagement.repository.InMemoryTransactionRepository;
+import com.htest.transactionManagement.service.TransactionService;
+import com.htest.transactionManagement.service.TransactionServiceImpl;
+import com.htest.transactionManagement.tiering.ColdTransactionStore;
+import com.htest.transactionManagement.util.SnowflakeIdGenerator;
+import com.htest.transactionManagement.util.TestClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PendingTimeoutsTest {
+    private final TestClock clock = new TestClock(LocalDateTime.of(2026, 3, 1, 12, 0));
+    private final AccountLanes accountLanes = new AccountLanes(2, false);
+    private ColdTransactionStore coldStore;
+    private PendingTimeouts timeouts;
+    private TransactionService service;
+
+    @TempDir
+    Path segmentDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        InMemoryTransactionRepository store = new InMemoryTransactionRepository();
+        coldStore = new ColdTransactionStore(segmentDirectory, 4, new ObjectMapper().findAndRegisterModules());
+        timeouts = new PendingTimeouts(true, Duration.ofMinutes(30), Duration.ofSeconds(1), 4096, clock,
+                new SimpleMeterRegistry());
+        service = new TransactionServiceImpl(new SnowflakeIdGenerator(), clock, accountLanes, store, coldStore,
+                new Ledger(false, 16), List.of(timeouts));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        accountLanes.shutdown();
+        coldStore.close();
+    }
+
+    @Test
+    void due_ShouldTimeOutTransactionsStuckInANonTerminalStatus() {
+        Transaction stuck = create("A1", "10.00", TransactionStatus.PENDING);
+        Transaction completed = create("A2", "20.00", TransactionStatus.COMPLETED);
+        Transaction progressing = create("A3", "30.00", TransactionStatus.INITIATED);
+        Transaction deleted = create("A4", "40.00", TransactionStatus.PROCESSING);
+
+        clock.advanceSeconds(20 * 60);
+        service.updateTransaction(progressing.getId(), progressing.toBuilder().status(TransactionStatus.PROCESSING).build());
+        service.deleteTransaction(deleted.getId());
+
+        clock.advanceSeconds(11 * 60);
+        List<Long> due = timeouts.due();
+        assertEquals(List.of(stuck.getId()), due);
+        assertEquals(List.of(stuck.getId()),
+                service.expireTransactions(due, PendingTimeouts.TIMED_STATUSES, TransactionStatus.FAILED));
+        Transaction failed = service.getTransaction(stuck.getId());
+        assertEquals(TransactionStatus.FAILED, failed.getStatus());
+        assertEquals(clock.now(), failed.getProcessedTime());
+        assertEquals(TransactionStatus.COMPLETED, service.getTransaction(completed.getId()).getStatus());
+
+        // The update restarted the clock for the other one
+        clock.advanceSeconds(20 * 60);
+        assertEquals(List.of(progressing.getId()), timeouts.due());
+        assertTrue(timeouts.due().isEmpty());
+    }
+
+    @Test
+    void expireTransactions_ShouldSkipTransactionsThatMovedOn() {
+        Transaction transaction = create("A1", "10.00", TransactionStatus.PENDING);
+        service.updateTransaction(transaction.getId(), transaction.toBuilder().status(TransactionStatus.COMPLETED).build());
+
+        assertTrue(service.expireTransactions(List.of(transaction.getId(), -1L), PendingTimeouts.TIMED_STATUSES,
+                TransactionStatus.CANCELLED).isEmpty());
+        assertEquals(TransactionStatus.COMPLETED, service.getTransaction(transaction.getId()).getStatus());
+    }
+
+    @Test
+    void run_WhenABatchFails_ShouldRetryItsTransactionsOnTheNextTick() {
+        Transaction stuck = create("A1", "10.00", TransactionStatus.PENDING);
+        Transaction other = create("A2", "20.00", TransactionStatus.PENDING);
+        TransactionService failing = mock(TransactionService.class);
+        when(failing.expireTransactions(any(), any(), any())).thenThrow(new IllegalStateException("store down"));
+        TimeoutJob job = new TimeoutJob(timeouts, failing, new ConcurrentMapCacheManager(), TransactionStatus.FAILED,
+                1, new SimpleMeterRegistry());
+
+        clock.advanceSeconds(31 * 60);
+        assertThrows(IllegalStateException.class, job::run);
+        // A new deadline set since the failure is kept
+        service.updateTransaction(other.getId(), other.toBuilder().status(TransactionStatus.PROCESSING).build());
+
+        clock.advanceSeconds(1);
+        assertEquals(List.of(stuck.getId()), timeouts.due());
+    }
+
+    private Transaction create(String account, String amount, TransactionStatus status) {
+        return service.createTransaction(Transaction.builder()
+                .amount(new BigDecimal(amount))
+                .sourceAccountNumber(account)
+                .currency("CNY")
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,99 @@
+package com.htest.transactionManagement.timeout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+    // 8 slots of 1s, so one turn is 8 seconds
+    private final TimerWheel wheel = new TimerWheel(8, 1000, 0);
+
+    private List<Long> advance(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(nowMillis, expired::add);
+        return expired;
+    }
+
+    @Test
+    void advance_ShouldExpireDeadlinesInOrderAcrossTurns() {
+        wheel.schedule(1, 2_000);
+        wheel.schedule(2, 10_000);
+        wheel.schedule(3, 2_500);
+
+        assertEquals(List.of(), advance(1_999));
+        assertEquals(List.of(1L), advance(2_000));
+        assertEquals(List.of(3L), advance(3_000));
+        // Slot 2 again, but deadline 2 is one turn later
+        assertEquals(List.of(), advance(9_999));
+        assertEquals(List.of(2L), advance(10_000));
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void cancelAndReschedule_ShouldOnlyExpireTheLatestDeadline() {
+        wheel.schedule(1, 2_000);
+        wheel.schedule(2, 2_000);
+        wheel.cancel(1);
+        wheel.schedule(2, 5_000);
+
+        assertEquals(List.of(), advance(4_000));
+        assertEquals(List.of(2L), advance(5_000));
+        wheel.schedule(2, 1_000);
+        // Already past, so it fires on the next tick
+        assertEquals(List.of(), advance(5_999));
+        assertEquals(List.of(2L), advance(6_000));
+    }
+
+    @Test
+    void advance_ShouldCatchUpAfterAPauseLongerThanATurn() {
+        for (long id = 0; id < 100; id++) {
+            wheel.schedule(id, 1_000 + id * 300);
+        }
+        List<Long> expired = advance(60_000);
+        assertEquals(100, expired.size());
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void scheduleDuringAdvance_ShouldExpireEveryDeadlineExactlyOnce() throws InterruptedException {
+        int threads = 4;
+        int perThread = 20_000;
+        Set<Long> expired = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicLong now = new AtomicLong();
+        List<Thread> schedulers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long first = (long) t * perThread;
+            Thread thread = new Thread(() -> {
+                for (long id = first; id < first + perThread; id++) {
+                    // Due now or a few ticks ahead of the advancing clock
+                    wheel.schedule(id, now.get() + id % 4 * 1_000);
+                }
+            });
+            schedulers.add(thread);
+            thread.start();
+        }
+        while (schedulers.stream().anyMatch(Thread::isAlive)) {
+            wheel.advance(now.addAndGet(1_000), id -> {
+                if (!expired.add(id)) {
+                    duplicates.incrementAndGet();
+                }
+            });
+        }
+        for (Thread thread : schedulers) {
+            thread.join();
+        }
+        wheel.advance(now.addAndGet(10_000), expired::add);
+
+        assertEquals(threads * perThread, expired.size());
+        assertEquals(0, duplicates.get());
+        assertEquals(0, wheel.pending());
+    }
+}
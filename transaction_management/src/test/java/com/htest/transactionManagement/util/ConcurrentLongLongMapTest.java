@@ -0,0 +1,51 @@
+package com.htest.transactionManagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLongLongMapTest {
+    private static final long MISSING = -1;
+
+    @Test
+    void operations_ShouldMatchAHashMapThroughGrowthAndChurn() {
+        ConcurrentLongLongMap map = new ConcurrentLongLongMap(MISSING, 16);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(50);
+        for (long i = 0; i < 200_000; i++) {
+            // Keys in a narrow range, so removed keys come back and tombstones are reused
+            long key = i < 100_000 ? random.nextInt(20_000) : 213274054847762432L + random.nextInt(50_000);
+            switch (random.nextInt(5)) {
+                case 0, 1 -> assertEquals(orMissing(expected.put(key, i)), map.put(key, i));
+                case 2 -> assertEquals(orMissing(expected.putIfAbsent(key, i)), map.putIfAbsent(key, i));
+                case 3 -> assertEquals(orMissing(expected.remove(key)), map.remove(key));
+                default -> {
+                    Long value = expected.get(key);
+                    if (value != null) {
+                        assertFalse(map.remove(key, value + 1));
+                        assertTrue(map.remove(key, value));
+                        expected.remove(key);
+                    }
+                }
+            }
+            assertEquals(orMissing(expected.get(key)), map.get(key));
+        }
+        assertEquals(expected.size(), map.size());
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach((key, value) -> assertNull(visited.put(key, value)));
+        assertEquals(expected, visited);
+
+        expected.keySet().forEach(map::remove);
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, MISSING));
+    }
+
+    private static long orMissing(Long value) {
+        return value == null ? MISSING : value;
+    }
+}
@@ -0,0 +1,112 @@
+package com.htest.transactionManagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLongMapTest {
+
+    @Test
+    void operations_ShouldMatchAHashMapThroughGrowthAndChurn() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(16);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(50);
+        for (int i = 0; i < 200_000; i++) {
+            // Keys in a narrow range, so removed keys come back and tombstones are reused
+            long key = i < 100_000 ? random.nextInt(20_000) : 213274054847762432L + random.nextInt(50_000);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                case 2 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> {
+                    String value = expected.get(key);
+                    if (value == null) {
+                        assertFalse(map.replace(key, "other", "r" + i));
+                    } else if (i % 2 == 0) {
+                        assertFalse(map.remove(key, "other"));
+                        assertTrue(map.remove(key, new String(value)));
+                        expected.remove(key);
+                    } else {
+                        assertFalse(map.replace(key, "other", "r" + i));
+                        assertTrue(map.replace(key, new String(value), "r" + i));
+                        expected.put(key, "r" + i);
+                    }
+                }
+            }
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(expected.size(), map.size());
+        Map<Long, String> visited = new HashMap<>();
+        map.forEach((key, value) -> assertNull(visited.put(key, value)));
+        assertEquals(expected, visited);
+
+        expected.keySet().forEach(map::remove);
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+        map.put(0, "zero");
+        assertTrue(map.containsKey(0));
+    }
+
+    @Test
+    void get_ShouldNeverSeeATornOrMissingEntryWhileWritersResize() throws Exception {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(16);
+        int writers = 4;
+        int keysPerWriter = 200_000;
+        // Keys below the stable range are always present, so a reader must always find them
+        for (long key = 0; key < 1000; key++) {
+            map.put(key, key);
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers + 2)) {
+            Future<?> readers = executor.submit(() -> {
+                Random random = new Random();
+                while (!done.get()) {
+                    long key = random.nextInt(1000);
+                    assertEquals(key, map.get(key));
+                    long other = 1000 + random.nextInt(writers * keysPerWriter);
+                    Long value = map.get(other);
+                    if (value != null) {
+                        assertEquals(other, value);
+                    }
+                }
+            });
+            Future<?>[] writes = new Future<?>[writers];
+            for (int w = 0; w < writers; w++) {
+                long first = 1000 + (long) w * keysPerWriter;
+                writes[w] = executor.submit(() -> {
+                    for (long key = first; key < first + keysPerWriter; key++) {
+                        map.put(key, key);
+                        if (key % 3 == 0 && key > first) {
+                            map.remove(key - 1);
+                        }
+                    }
+                });
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+            done.set(true);
+            readers.get();
+        }
+        int removed = 0;
+        for (int w = 0; w < writers; w++) {
+            long first = 1000 + (long) w * keysPerWriter;
+            for (long key = first; key < first + keysPerWriter; key++) {
+                if ((key + 1) % 3 == 0 && key + 1 > first && key + 1 < first + keysPerWriter) {
+                    assertNull(map.get(key));
+                    removed++;
+                } else {
+                    assertEquals(key, map.get(key));
+                }
+            }
+        }
+        assertEquals(1000 + writers * keysPerWriter - removed, map.size());
+    }
+}
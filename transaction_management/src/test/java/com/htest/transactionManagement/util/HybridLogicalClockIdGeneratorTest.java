@@ -0,0 +1,79 @@
+package com.htest.transactionManagement.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HybridLogicalClockIdGeneratorTest {
+    private static final long NOW = SnowflakeIdGenerator.START_EPOCH + 1_000_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long wallClock = NOW;
+    private long parkedNanos;
+
+    private final HybridLogicalClockIdGenerator generator =
+            new HybridLogicalClockIdGenerator(1, 1, Duration.ofMillis(2), meterRegistry) {
+                @Override
+                protected long timeGen() {
+                    return wallClock;
+                }
+
+                @Override
+                protected void park(long nanos) {
+                    parkedNanos += nanos;
+                    wallClock += TimeUnit.NANOSECONDS.toMillis(nanos);
+                }
+            };
+
+    @Test
+    void nextId_ShouldStayMonotonicWhenTheClockStepsBack() {
+        long before = generator.nextId();
+        wallClock -= 500;
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+        assertEquals(NOW - SnowflakeIdGenerator.START_EPOCH, after >>> 22);
+        assertEquals(500, meterRegistry.get("id.hlc.skew").summary().max());
+        assertEquals(500, meterRegistry.get("id.hlc.lead").gauge().value());
+    }
+
+    @Test
+    void nextId_ShouldBorrowUpToMaxLeadThenParkInsteadOfSpinning() {
+        long previous = -1;
+        // Three logical milliseconds' worth of IDs without the wall clock moving
+        for (int i = 0; i < 3 * 4096; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+
+        assertEquals(2, meterRegistry.get("id.hlc.borrowed").counter().count());
+        assertEquals(0, parkedNanos);
+
+        long next = generator.nextId();
+        assertTrue(next > previous);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), parkedNanos);
+        assertEquals(NOW + 3 - SnowflakeIdGenerator.START_EPOCH, next >>> 22);
+        assertEquals(2, meterRegistry.get("id.hlc.lead").gauge().value());
+    }
+
+    @Test
+    void nextId_ShouldFailFastRatherThanWaitOutABackwardStepBeyondMaxLead() {
+        generator.nextId();
+        wallClock -= 500;
+        for (int i = 1; i < 4096; i++) {
+            generator.nextId();
+        }
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+        assertEquals(0, parkedNanos);
+        assertEquals(1, meterRegistry.get("id.hlc.rejected").counter().count());
+        // Once the wall clock has caught up, IDs flow again
+        wallClock += 500;
+        generator.nextId();
+    }
+}
@@ -17,4 +17,8 @@ public class TestClock implements Clock {
     public void advanceSeconds(long seconds) {
         now = now.plusSeconds(seconds);
     }
+
+    public void advanceMillis(long millis) {
+        now = now.plusNanos(millis * 1_000_000);
+    }
 }
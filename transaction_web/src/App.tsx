@@ -1,10 +1,10 @@
 import React from 'react';
 import { Layout, Button, Modal, message } from 'antd';
 import { PlusOutlined } from '@ant-design/icons';
-import { useRequest } from 'ahooks';
 import TransactionList from './components/TransactionList';
 import TransactionForm from './components/TransactionForm';
 import { transactionService } from './services/transactionService';
+import { useTransactionFeed } from './hooks/useTransactionFeed';
 import { Transaction } from './types/transaction';
 
 const { Header, Content } = Layout;
@@ -13,12 +13,8 @@ const App: React.FC = () => {
   const [isModalVisible, setIsModalVisible] = React.useState(false);
   const [editingTransaction, setEditingTransaction] = React.useState<Transaction | undefined>();
 
-  const { data: transactions, run: refreshTransactions } = useRequest(
-    transactionService.getAllTransactions,
-    {
-      manual: false,
-    }
-  );
+  // Changes, including our own, come back over the change feed, so nothing is re-fetched after a mutation
+  const { transactions, loading, hasMore, loadMore } = useTransactionFeed();
 
   const handleAddNew = () => {
     setEditingTransaction(undefined);
@@ -34,7 +30,6 @@ const App: React.FC = () => {
     try {
       await transactionService.deleteTransaction(id);
       message.success('Transaction deleted successfully');
-      refreshTransactions();
     } catch (error) {
       message.error('Failed to delete transaction');
     }
@@ -52,7 +47,6 @@ const App: React.FC = () => {
         message.success('Transaction created successfully');
       }
       setIsModalVisible(false);
-      refreshTransactions();
     } catch (error) {
       console.error("err=",error);
       message.error('Failed to save transaction');
@@ -69,7 +63,10 @@ const App: React.FC = () => {
       </Header>
       <Content style={{ padding: '24px' }}>
         <TransactionList
-          transactions={transactions || []}
+          transactions={transactions}
+          loading={loading}
+          hasMore={hasMore}
+          onLoadMore={loadMore}
           onEdit={handleEdit}
           onDelete={handleDelete}
         />
@@ -6,15 +6,31 @@ import { EditOutlined, DeleteOutlined } from '@ant-design/icons';
 
 interface TransactionListProps {
   transactions: Transaction[];
+  loading: boolean;
+  hasMore: boolean;
+  onLoadMore: () => void;
   onEdit: (transaction: Transaction) => void;
   onDelete: (id: number) => void;
 }
 
+// Fetch the next page while this many pixels are still left to scroll
+const LOAD_AHEAD_PX = 600;
+
 const TransactionList: React.FC<TransactionListProps> = ({
   transactions,
+  loading,
+  hasMore,
+  onLoadMore,
   onEdit,
   onDelete,
 }) => {
+  const handleScroll = (event: React.UIEvent<HTMLDivElement>) => {
+    const { scrollTop, scrollHeight, clientHeight } = event.currentTarget;
+    if (hasMore && scrollHeight - scrollTop - clientHeight < LOAD_AHEAD_PX) {
+      onLoadMore();
+    }
+  };
+
   const columns: ColumnsType<Transaction> = [
     {
       title: 'Timestamp',
@@ -85,12 +101,12 @@ const TransactionList: React.FC<TransactionListProps> = ({
       columns={columns}
       dataSource={transactions}
       rowKey="id"
-      pagination={{ 
-        pageSize: 10,
-        showSizeChanger: true,
-        showTotal: (total) => `Total ${total} items`
-      }}
-      scroll={{ x: true }}
+      // Only the rows in view are rendered, however many pages are loaded
+      virtual
+      loading={loading && transactions.length === 0}
+      pagination={false}
+      scroll={{ x: 1000, y: 600 }}
+      onScroll={handleScroll}
       summary={(pageData) => {
         const totalDeposit = pageData
           .filter(item => item.type === 'DEPOSIT')
@@ -106,7 +122,7 @@ const TransactionList: React.FC<TransactionListProps> = ({
         return (
           <Table.Summary fixed>
             <Table.Summary.Row>
-              <Table.Summary.Cell index={0} colSpan={3}>Total</Table.Summary.Cell>
+              <Table.Summary.Cell index={0} colSpan={3}>Total ({transactions.length} loaded)</Table.Summary.Cell>
               <Table.Summary.Cell index={1}>
                 <span style={{ color: '#52c41a', marginRight: '15px' }}>Deposit: ${totalDeposit.toFixed(2)}</span>
                 <span style={{ color: '#f5222d',marginRight: '15px' }}>Withdrawal: ${totalWithdrawal.toFixed(2)}</span>
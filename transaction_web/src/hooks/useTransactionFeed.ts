@@ -0,0 +1,117 @@
+import React from 'react';
+import { transactionService } from '../services/transactionService';
+import { ChangeEvent, Transaction } from '../types/transaction';
+
+const PAGE_SIZE = 50;
+
+interface FeedState {
+  // Pages as fetched, newest first; live creates are prepended to the first one
+  pages: Transaction[][];
+  // Page number of every loaded row, so a change only copies the page it touches
+  pageOf: Map<number, number>;
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+type FeedAction =
+  | { type: 'reset' }
+  | { type: 'page'; rows: Transaction[]; nextCursor: string | null }
+  | { type: 'changes'; events: ChangeEvent[] };
+
+const initialState: FeedState = { pages: [], pageOf: new Map(), nextCursor: null, hasMore: true };
+
+const reducer = (state: FeedState, action: FeedAction): FeedState => {
+  switch (action.type) {
+    case 'reset':
+      return { ...initialState, pageOf: new Map() };
+    case 'page': {
+      const pageOf = new Map(state.pageOf);
+      // A row created live while the page was loading is already on the first page
+      const rows = action.rows.filter((row) => !pageOf.has(row.id));
+      rows.forEach((row) => pageOf.set(row.id, state.pages.length));
+      return {
+        pages: [...state.pages, rows],
+        pageOf,
+        nextCursor: action.nextCursor,
+        hasMore: action.nextCursor !== null,
+      };
+    }
+    case 'changes': {
+      const pages = [...state.pages];
+      const pageOf = new Map(state.pageOf);
+      for (const event of action.events) {
+        const index = pageOf.get(event.transactionId);
+        if (event.type === 'DELETED') {
+          if (index !== undefined) {
+            pages[index] = pages[index].filter((row) => row.id !== event.transactionId);
+            pageOf.delete(event.transactionId);
+          }
+        } else if (index !== undefined) {
+          pages[index] = pages[index].map((row) => (row.id === event.transactionId ? event.transaction : row));
+        } else if (event.type === 'CREATED') {
+          pages[0] = [event.transaction, ...(pages[0] || [])];
+          pageOf.set(event.transactionId, 0);
+        }
+        // An update to a row that isn't loaded yet arrives with its page
+      }
+      return { ...state, pages, pageOf };
+    }
+  }
+};
+
+/**
+ * Keyset-paged transactions, newest first, kept current from the server's change feed.
+ * Pages are fetched once and cached; mutations are applied from the feed instead of re-fetching.
+ */
+export const useTransactionFeed = () => {
+  const [state, dispatch] = React.useReducer(reducer, initialState);
+  const [loading, setLoading] = React.useState(false);
+  const [generation, setGeneration] = React.useState(0);
+  const loadingRef = React.useRef(false);
+  const stateRef = React.useRef(state);
+  stateRef.current = state;
+
+  const fetchPage = React.useCallback(async (cursor: string | null) => {
+    loadingRef.current = true;
+    setLoading(true);
+    try {
+      const page = await transactionService.scrollTransactions(cursor, PAGE_SIZE);
+      dispatch({ type: 'page', rows: page.content, nextCursor: page.nextCursor });
+    } finally {
+      loadingRef.current = false;
+      setLoading(false);
+    }
+  }, []);
+
+  React.useEffect(() => {
+    let closed = false;
+    let unsubscribe = () => {};
+    dispatch({ type: 'reset' });
+    (async () => {
+      // Take the feed position before the first page, so nothing between the two is missed
+      const from = await transactionService.getNextChangeOffset();
+      await fetchPage(null);
+      if (!closed) {
+        unsubscribe = transactionService.subscribeToChanges(from, {
+          onChanges: (events) => dispatch({ type: 'changes', events }),
+          onExpired: () => setGeneration((g) => g + 1),
+        });
+      }
+    })().catch((error) => console.error('err=', error));
+    return () => {
+      closed = true;
+      unsubscribe();
+    };
+  }, [fetchPage, generation]);
+
+  const loadMore = React.useCallback(() => {
+    const { hasMore, nextCursor, pages } = stateRef.current;
+    if (!loadingRef.current && hasMore && pages.length > 0) {
+      fetchPage(nextCursor).catch((error) => console.error('err=', error));
+    }
+  }, [fetchPage]);
+
+  const transactions = React.useMemo(() => state.pages.flat(), [state.pages]);
+
+  return { transactions, loading, hasMore: state.hasMore, loadMore };
+};
@@ -1,12 +1,44 @@
 import axios from 'axios';
-import { Transaction, TransactionFormData } from '../types/transaction';
+import { ChangeEvent, Transaction, TransactionFormData, TransactionPage } from '../types/transaction';
 
 const API_BASE_URL = 'http://localhost:8080/api/v1/transactions';
 
+export interface ChangeFeedHandlers {
+  onChanges: (events: ChangeEvent[]) => void;
+  // The feed can't resume from where it was, the caller has to reload
+  onExpired: () => void;
+}
+
 export const transactionService = {
-  getAllTransactions: async (): Promise<Transaction[]> => {
-    const response = await axios.get(API_BASE_URL);
-    return response.data.content;
+  scrollTransactions: async (cursor: string | null, size: number): Promise<TransactionPage> => {
+    const response = await axios.get(`${API_BASE_URL}/scroll`, {
+      params: { size, ...(cursor ? { cursor } : {}) },
+    });
+    return response.data;
+  },
+
+  getNextChangeOffset: async (): Promise<number> => {
+    const response = await axios.get(`${API_BASE_URL}/changes/offsets`);
+    return response.data.next;
+  },
+
+  // EventSource reconnects on its own and resumes after the last event id it saw
+  subscribeToChanges: (from: number, handlers: ChangeFeedHandlers): (() => void) => {
+    const source = new EventSource(`${API_BASE_URL}/changes?from=${from}`);
+    source.addEventListener('changes', (event) => {
+      handlers.onChanges(JSON.parse((event as MessageEvent).data));
+    });
+    source.addEventListener('expired', () => {
+      source.close();
+      handlers.onExpired();
+    });
+    source.onerror = () => {
+      // A closed source was refused on reconnect (410), anything else is retried by the browser
+      if (source.readyState === EventSource.CLOSED) {
+        handlers.onExpired();
+      }
+    };
+    return () => source.close();
   },
 
   createTransaction: async (transaction: TransactionFormData): Promise<Transaction> => {
@@ -22,4 +54,4 @@ export const transactionService = {
   deleteTransaction: async (id: number): Promise<void> => {
     await axios.delete(`${API_BASE_URL}/${id}`);
   }
-}; 
\ No newline at end of file
+}; 
@@ -23,4 +23,18 @@ export interface TransactionFormData {
   destinationAccountNumber: string;
   remarks: string;
   timestamp: string;
-} 
\ No newline at end of file
+} 
+export interface TransactionPage {
+  content: Transaction[];
+  nextCursor: string | null;
+}
+
+export type ChangeType = 'CREATED' | 'UPDATED' | 'DELETED';
+
+export interface ChangeEvent {
+  offset: number;
+  type: ChangeType;
+  transactionId: number;
+  transaction: Transaction;
+  changedAt: string;
+}